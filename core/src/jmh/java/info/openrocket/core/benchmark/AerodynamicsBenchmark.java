@@ -0,0 +1,71 @@
+package info.openrocket.core.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import info.openrocket.core.aerodynamics.AerodynamicForces;
+import info.openrocket.core.aerodynamics.BarrowmanCalculator;
+import info.openrocket.core.aerodynamics.FlightConditions;
+import info.openrocket.core.logging.WarningSet;
+import info.openrocket.core.rocketcomponent.FlightConfiguration;
+import info.openrocket.core.util.Coordinate;
+
+/**
+ * Aerodynamic force calculation with the extended Barrowman method, as done several times
+ * on every simulation step.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AerodynamicsBenchmark {
+
+	@Param({ "EstesAlphaIII", "Falcon9Heavy" })
+	public String rocket;
+
+	private FlightConfiguration configuration;
+	private FlightConditions conditions;
+	private BarrowmanCalculator calculator;
+	private WarningSet warnings;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		BenchmarkSupport.initialize();
+		configuration = BenchmarkRockets.getRocket(rocket).getSelectedConfiguration();
+
+		conditions = new FlightConditions(configuration);
+		conditions.setMach(0.3);
+		conditions.setAOA(0.05);
+		conditions.setTheta(0.3);
+		conditions.setRollRate(2);
+		conditions.setPitchRate(0.5);
+		conditions.setYawRate(-0.3);
+
+		calculator = new BarrowmanCalculator();
+		warnings = new WarningSet();
+	}
+
+	@Benchmark
+	public AerodynamicForces getAerodynamicForces() {
+		return calculator.getAerodynamicForces(configuration, conditions, warnings);
+	}
+
+	@Benchmark
+	public Coordinate getCP() {
+		return calculator.getCP(configuration, conditions, warnings);
+	}
+}
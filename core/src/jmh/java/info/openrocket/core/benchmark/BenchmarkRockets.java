@@ -0,0 +1,30 @@
+package info.openrocket.core.benchmark;
+
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.util.TestRockets;
+
+/**
+ * The {@link TestRockets} designs used by the benchmarks, by name.
+ */
+final class BenchmarkRockets {
+
+	private BenchmarkRockets() {
+	}
+
+	/**
+	 * Return a new instance of a test rocket.
+	 *
+	 * @param name	the name of the rocket, "EstesAlphaIII", "Falcon9Heavy" or "MultiStage".
+	 * @return		the rocket with all stages active.
+	 */
+	static Rocket getRocket(String name) {
+		Rocket rocket = switch (name) {
+			case "EstesAlphaIII" -> TestRockets.makeEstesAlphaIII();
+			case "Falcon9Heavy" -> TestRockets.makeFalcon9Heavy();
+			case "MultiStage" -> TestRockets.makeMultiStageEventTestRocket();
+			default -> throw new IllegalArgumentException("Unknown rocket " + name);
+		};
+		rocket.getSelectedConfiguration().setAllStages();
+		return rocket;
+	}
+}
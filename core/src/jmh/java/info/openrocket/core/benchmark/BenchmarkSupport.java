@@ -0,0 +1,60 @@
+package info.openrocket.core.benchmark;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Module;
+import com.google.inject.util.Modules;
+
+import info.openrocket.core.ServicesForTesting;
+import info.openrocket.core.database.ComponentPresetDao;
+import info.openrocket.core.database.ComponentPresetDatabase;
+import info.openrocket.core.database.motor.MotorDatabase;
+import info.openrocket.core.database.motor.ThrustCurveMotorSetDatabase;
+import info.openrocket.core.l10n.DebugTranslator;
+import info.openrocket.core.l10n.Translator;
+import info.openrocket.core.plugin.PluginModule;
+import info.openrocket.core.startup.Application;
+
+/**
+ * Set up of the application services used by the benchmarks.  The services are those of
+ * the unit tests, with an empty component preset database and a motor database containing
+ * only the motors added by the benchmarks.
+ */
+final class BenchmarkSupport {
+
+	private static final ThrustCurveMotorSetDatabase motorDatabase = new ThrustCurveMotorSetDatabase();
+	private static boolean initialized = false;
+
+	private BenchmarkSupport() {
+	}
+
+	/**
+	 * Initialize the application services, if not already initialized.
+	 */
+	static synchronized void initialize() {
+		if (initialized) {
+			return;
+		}
+
+		Module applicationModule = new ServicesForTesting();
+		Module overrides = new AbstractModule() {
+			@Override
+			protected void configure() {
+				bind(Translator.class).toInstance(new DebugTranslator(null));
+				bind(ComponentPresetDao.class).toInstance(new ComponentPresetDatabase());
+				bind(MotorDatabase.class).toInstance(motorDatabase);
+			}
+		};
+		Application.setInjector(Guice.createInjector(Modules.override(applicationModule).with(overrides),
+				new PluginModule()));
+		initialized = true;
+	}
+
+	/**
+	 * Return the motor database of the application services.
+	 */
+	static ThrustCurveMotorSetDatabase getMotorDatabase() {
+		initialize();
+		return motorDatabase;
+	}
+}
@@ -0,0 +1,99 @@
+package info.openrocket.core.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import info.openrocket.core.database.motor.ThrustCurveMotorSetDatabase;
+import info.openrocket.core.document.OpenRocketDocument;
+import info.openrocket.core.document.OpenRocketDocumentFactory;
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.document.StorageOptions;
+import info.openrocket.core.file.GeneralRocketLoader;
+import info.openrocket.core.file.RocketLoadException;
+import info.openrocket.core.file.openrocket.OpenRocketSaver;
+import info.openrocket.core.logging.ErrorSet;
+import info.openrocket.core.logging.WarningSet;
+import info.openrocket.core.motor.MotorConfiguration;
+import info.openrocket.core.motor.ThrustCurveMotor;
+import info.openrocket.core.rocketcomponent.FlightConfigurationId;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.simulation.exception.SimulationException;
+import info.openrocket.core.util.TestRockets;
+
+/**
+ * Saving and loading a design with a simulation, optionally with the simulated flight data.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileRoundTripBenchmark {
+
+	private static final String FILE_NAME = "benchmark.ork";
+
+	@Param({ "false", "true" })
+	public boolean simulationData;
+
+	private OpenRocketDocument document;
+	private StorageOptions options;
+	private byte[] saved;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException, SimulationException {
+		BenchmarkSupport.initialize();
+
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		// The motors of the loaded design are found in the motor database
+		ThrustCurveMotorSetDatabase motors = BenchmarkSupport.getMotorDatabase();
+		for (FlightConfigurationId id : rocket.getIds()) {
+			for (MotorConfiguration motor : rocket.getFlightConfiguration(id).getAllMotors()) {
+				motors.addMotor((ThrustCurveMotor) motor.getMotor());
+			}
+		}
+		document = OpenRocketDocumentFactory.createDocumentFromRocket(rocket);
+		Simulation sim = new Simulation(document, rocket);
+		sim.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+		sim.getOptions().setISAAtmosphere(true);
+		sim.getOptions().setTimeStep(0.05);
+		document.addSimulation(sim);
+		sim.simulate();
+
+		options = new StorageOptions();
+		options.setSaveSimulationData(simulationData);
+		saved = save().toByteArray();
+	}
+
+	private ByteArrayOutputStream save() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new OpenRocketSaver().save(out, document, options, new WarningSet(), new ErrorSet());
+		return out;
+	}
+
+	@Benchmark
+	public int saveDocument() throws IOException {
+		return save().size();
+	}
+
+	@Benchmark
+	public OpenRocketDocument loadDocument() throws RocketLoadException {
+		return new GeneralRocketLoader(new File(FILE_NAME)).load(new ByteArrayInputStream(saved), FILE_NAME);
+	}
+}
@@ -0,0 +1,58 @@
+package info.openrocket.core.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import info.openrocket.core.masscalc.MassCalculator;
+import info.openrocket.core.masscalc.RigidBody;
+import info.openrocket.core.rocketcomponent.FlightConfiguration;
+
+/**
+ * Mass, CG and moment of inertia calculation of a whole configuration.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MassCalculatorBenchmark {
+
+	@Param({ "EstesAlphaIII", "Falcon9Heavy" })
+	public String rocket;
+
+	private FlightConfiguration configuration;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		BenchmarkSupport.initialize();
+		configuration = BenchmarkRockets.getRocket(rocket).getSelectedConfiguration();
+	}
+
+	@Benchmark
+	public RigidBody calculateStructure() {
+		return MassCalculator.calculateStructure(configuration);
+	}
+
+	@Benchmark
+	public RigidBody calculateLaunch() {
+		return MassCalculator.calculateLaunch(configuration);
+	}
+
+	@Benchmark
+	public RigidBody calculateBurnout() {
+		return MassCalculator.calculateBurnout(configuration);
+	}
+}
@@ -0,0 +1,62 @@
+package info.openrocket.core.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import info.openrocket.core.database.MotorDatabaseLoader;
+import info.openrocket.core.database.motor.ThrustCurveMotorSetDatabase;
+import info.openrocket.core.startup.Application;
+
+/**
+ * Loading the built-in motor database at startup.  Each invocation loads the database from
+ * scratch, so the single shot time is measured.  No user-defined motor directories are
+ * loaded, and the cache of user-defined motors is a temporary file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class MotorDatabaseBenchmark {
+
+	private File cacheDirectory;
+	private File cache;
+
+	@Setup
+	public void setUp() throws IOException {
+		BenchmarkSupport.initialize();
+		Application.getPreferences().setUserThrustCurveFiles(Collections.emptyList());
+		cacheDirectory = Files.createTempDirectory("motor-benchmark").toFile();
+		cache = new File(cacheDirectory, "UserMotorCache.bin");
+	}
+
+	@TearDown
+	public void tearDown() {
+		cache.delete();
+		cacheDirectory.delete();
+	}
+
+	@Benchmark
+	public ThrustCurveMotorSetDatabase load() {
+		MotorDatabaseLoader loader = new MotorDatabaseLoader(cache);
+		loader.startLoading();
+		loader.blockUntilLoaded();
+		return loader.getDatabase();
+	}
+}
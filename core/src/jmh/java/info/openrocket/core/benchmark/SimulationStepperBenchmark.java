@@ -0,0 +1,109 @@
+package info.openrocket.core.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.simulation.BasicEventSimulationEngine;
+import info.openrocket.core.simulation.FlightDataBranch;
+import info.openrocket.core.simulation.FlightDataType;
+import info.openrocket.core.simulation.RK4SimulationStepper;
+import info.openrocket.core.simulation.SimulationConditions;
+import info.openrocket.core.simulation.SimulationStatus;
+import info.openrocket.core.simulation.exception.SimulationException;
+import info.openrocket.core.simulation.listeners.AbstractSimulationListener;
+import info.openrocket.core.util.TestRockets;
+
+/**
+ * RK4 steps of the Estes Alpha III during the boost phase.  Each invocation takes a batch of
+ * steps starting from the same status, captured from a simulation, and the score is the time
+ * per step.  A single step is too short to be timed on its own.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimulationStepperBenchmark {
+
+	/** Simulation time of the captured status, during the motor burn */
+	private static final double CAPTURE_TIME = 0.2;
+	private static final double TIME_STEP = 0.01;
+	/** The number of steps per invocation, which stay within the motor burn */
+	private static final int STEPS = 20;
+
+	private RK4SimulationStepper stepper;
+	private SimulationStatus captured;
+
+	@Setup(Level.Trial)
+	public void setUp() throws SimulationException {
+		BenchmarkSupport.initialize();
+
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		Simulation sim = new Simulation(rocket);
+		sim.getOptions().setISAAtmosphere(true);
+		sim.getOptions().setTimeStep(TIME_STEP);
+		sim.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+
+		SimulationConditions conditions = sim.getOptions().toSimulationConditions();
+		conditions.setSimulation(sim);
+		conditions.getSimulationListenerList().add(new CaptureListener());
+
+		// The simulation is stopped when the status is captured
+		try {
+			new BasicEventSimulationEngine(new RK4SimulationStepper()).simulate(conditions);
+		} catch (CapturedException e) {
+			captured = e.status;
+		}
+		if (captured == null) {
+			throw new IllegalStateException("Simulation ended before " + CAPTURE_TIME + " s");
+		}
+		stepper = new RK4SimulationStepper();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(STEPS)
+	public SimulationStatus step() throws SimulationException {
+		SimulationStatus status = stepper.initialize(captured);
+		status.setFlightDataBranch(new FlightDataBranch("benchmark", FlightDataType.TYPE_TIME));
+		for (int i = 0; i < STEPS; i++) {
+			stepper.step(status, TIME_STEP);
+		}
+		return status;
+	}
+
+
+	private static class CaptureListener extends AbstractSimulationListener {
+		@Override
+		public void postStep(SimulationStatus status) throws SimulationException {
+			if (status.isLiftoff() && status.getSimulationTime() >= CAPTURE_TIME) {
+				throw new CapturedException(new SimulationStatus(status));
+			}
+		}
+	}
+
+	private static class CapturedException extends SimulationException {
+		private static final long serialVersionUID = 1L;
+
+		private final transient SimulationStatus status;
+
+		CapturedException(SimulationStatus status) {
+			super("Status captured");
+			this.status = status;
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package info.openrocket.core.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import info.openrocket.core.motor.Manufacturer;
+import info.openrocket.core.motor.Motor;
+import info.openrocket.core.motor.ThrustCurveMotor;
+import info.openrocket.core.util.Coordinate;
+
+/**
+ * Thrust curve lookups of a motor with a short and a long thrust curve.  The lookup time
+ * advances on each call as during a simulation, wrapping around at burnout.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ThrustCurveMotorBenchmark {
+
+	private static final double BURN_TIME = 2.0;
+	private static final double TIME_STEP = 0.0137;
+
+	@Param({ "10", "1000" })
+	public int points;
+
+	private ThrustCurveMotor motor;
+	private double time = 0;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		BenchmarkSupport.initialize();
+
+		double length = 0.1;
+		double[] times = new double[points];
+		double[] thrusts = new double[points];
+		Coordinate[] cg = new Coordinate[points];
+		for (int i = 0; i < points; i++) {
+			double fraction = (double) i / (points - 1);
+			times[i] = fraction * BURN_TIME;
+			// Regressive curve with an initial spike, ending at zero thrust
+			thrusts[i] = (i == points - 1) ? 0 : 20 + 30 * Math.exp(-10 * fraction) - 10 * fraction;
+			cg[i] = new Coordinate(length / 2, 0, 0, 0.05 - 0.03 * fraction);
+		}
+
+		motor = new ThrustCurveMotor.Builder()
+				.setManufacturer(Manufacturer.getManufacturer("Benchmark"))
+				.setDesignation("F" + points)
+				.setDescription("Synthetic thrust curve")
+				.setCaseInfo("29/100")
+				.setMotorType(Motor.Type.RELOAD)
+				.setStandardDelays(new double[] { 0 })
+				.setDiameter(0.029)
+				.setLength(length)
+				.setTimePoints(times)
+				.setThrustPoints(thrusts)
+				.setCGPoints(cg)
+				.setDigest("benchmark" + points)
+				.build();
+	}
+
+	private double nextTime() {
+		time += TIME_STEP;
+		if (time > BURN_TIME) {
+			time -= BURN_TIME;
+		}
+		return time;
+	}
+
+	@Benchmark
+	public double getThrust() {
+		return motor.getThrust(nextTime());
+	}
+
+	@Benchmark
+	public double getAverageThrust() {
+		double start = nextTime();
+		return motor.getAverageThrust(start, start + TIME_STEP);
+	}
+
+	@Benchmark
+	public double getCMx() {
+		return motor.getCMx(nextTime());
+	}
+}
@@ -0,0 +1,149 @@
+package de.congrace.exp4j;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link PostfixExpression} compiled for repeated calculation with scalar variable values.
+ * The variables are bound to indices of a value array and the calculation uses a preallocated
+ * stack, so no objects are created when calculating.
+ * <p>
+ * Only numbers, variables, operators and the built-in functions are supported, expressions
+ * using {@link CustomFunction}s can not be compiled.  Instances are not thread safe.
+ */
+public final class CompiledExpression {
+	private static final int NUMBER = 0;
+	private static final int VARIABLE = 1;
+	private static final int UNARY_OPERATOR = 2;
+	private static final int BINARY_OPERATOR = 3;
+	private static final int FUNCTION = 4;
+
+	private final int[] codes;
+	private final CalculationToken[] tokens;
+	/** The number of each NUMBER instruction, otherwise unused */
+	private final double[] numbers;
+	/** The variable index of each VARIABLE instruction, otherwise unused */
+	private final int[] variables;
+	private final String[] variableNames;
+	private final double[] stack;
+
+	private CompiledExpression(int[] codes, CalculationToken[] tokens, double[] numbers, int[] variables,
+			String[] variableNames, int stackSize) {
+		this.codes = codes;
+		this.tokens = tokens;
+		this.numbers = numbers;
+		this.variables = variables;
+		this.variableNames = variableNames;
+		this.stack = new double[stackSize];
+	}
+
+	/**
+	 * compile the tokens of a postfix expression
+	 *
+	 * @param tokens
+	 *            the tokens of the postfix expression
+	 * @return the compiled expression, or <code>null</code> if the expression can not be
+	 *         compiled
+	 */
+	static CompiledExpression compile(Token[] tokens) {
+		final int count = tokens.length;
+		final int[] codes = new int[count];
+		final CalculationToken[] calculationTokens = new CalculationToken[count];
+		final double[] numbers = new double[count];
+		final int[] variables = new int[count];
+		final List<String> variableNames = new ArrayList<>();
+
+		int depth = 0;
+		int maxDepth = 0;
+		for (int i = 0; i < count; i++) {
+			final Token t = tokens[i];
+			if (t instanceof NumberToken) {
+				codes[i] = NUMBER;
+				numbers[i] = ((NumberToken) t).getDoubleValue();
+				depth++;
+			} else if (t instanceof VariableToken) {
+				codes[i] = VARIABLE;
+				int index = variableNames.indexOf(t.getValue());
+				if (index < 0) {
+					index = variableNames.size();
+					variableNames.add(t.getValue());
+				}
+				variables[i] = index;
+				depth++;
+			} else if (t instanceof OperatorToken) {
+				final int operands = ((OperatorToken) t).getOperandCount();
+				if (operands == 1) {
+					codes[i] = UNARY_OPERATOR;
+				} else if (operands == 2) {
+					codes[i] = BINARY_OPERATOR;
+				} else {
+					return null;
+				}
+				depth -= operands;
+				if (depth < 0) {
+					return null;
+				}
+				depth++;
+			} else if (t instanceof FunctionToken) {
+				codes[i] = FUNCTION;
+				if (depth < 1) {
+					return null;
+				}
+			} else {
+				// Custom functions may operate on arrays
+				return null;
+			}
+			calculationTokens[i] = (CalculationToken) t;
+			maxDepth = Math.max(maxDepth, depth);
+		}
+		if (depth != 1) {
+			return null;
+		}
+
+		return new CompiledExpression(codes, calculationTokens, numbers, variables,
+				variableNames.toArray(new String[0]), maxDepth);
+	}
+
+	/**
+	 * get the names of the variables used in the expression, in the order of their values
+	 * in {@link #calculate(double[])}
+	 *
+	 * @return the variable names
+	 */
+	public String[] getVariableNames() {
+		return variableNames.clone();
+	}
+
+	/**
+	 * calculate the result of the expression
+	 *
+	 * @param values
+	 *            the values of the variables, in the order of {@link #getVariableNames()}
+	 * @return the result of the calculation
+	 */
+	public double calculate(double[] values) {
+		final double[] stack = this.stack;
+		int top = -1;
+		for (int i = 0; i < codes.length; i++) {
+			switch (codes[i]) {
+				case NUMBER:
+					stack[++top] = numbers[i];
+					break;
+				case VARIABLE:
+					stack[++top] = values[variables[i]];
+					break;
+				case UNARY_OPERATOR:
+					stack[top] = ((OperatorToken) tokens[i]).applyOperation(stack[top], Double.NaN);
+					break;
+				case BINARY_OPERATOR:
+					top--;
+					stack[top] = ((OperatorToken) tokens[i]).applyOperation(stack[top], stack[top + 1]);
+					break;
+				case FUNCTION:
+					stack[top] = ((FunctionToken) tokens[i]).applyFunction(stack[top]);
+					break;
+			}
+		}
+		return stack[0];
+	}
+}
@@ -39,6 +39,15 @@ class NumberToken extends CalculationToken {
 		this.doubleValue = Double.parseDouble(value);
 	}
 
+	/**
+	 * get the value of the number
+	 * 
+	 * @return the value
+	 */
+	double getDoubleValue() {
+		return doubleValue;
+	}
+
 	@Override
 	public boolean equals(Object obj) {
 		if (obj instanceof NumberToken) {
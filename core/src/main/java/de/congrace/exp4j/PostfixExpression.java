@@ -16,6 +16,7 @@
  */
 package de.congrace.exp4j;
 
+import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.Stack;
 
@@ -115,4 +116,29 @@ public final class PostfixExpression extends AbstractExpression implements Calcu
 	public void setVariable(Variable value) {
 		variables.add(value);
 	}
+
+	/**
+	 * compile the expression for repeated calculation with scalar variable values
+	 * 
+	 * @return the {@link CompiledExpression}, or <code>null</code> if the expression
+	 *         uses custom functions
+	 */
+	public CompiledExpression compile() {
+		return CompiledExpression.compile(getTokens());
+	}
+
+	/**
+	 * get the names of the variables used in the expression
+	 * 
+	 * @return the variable names, in the order of their first use
+	 */
+	public Set<String> getUsedVariableNames() {
+		final Set<String> names = new LinkedHashSet<>();
+		for (final Token t : getTokens()) {
+			if (t instanceof VariableToken) {
+				names.add(t.getValue());
+			}
+		}
+		return names;
+	}
 }
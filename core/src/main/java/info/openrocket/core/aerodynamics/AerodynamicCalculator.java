@@ -15,17 +15,6 @@ import info.openrocket.core.util.Monitorable;
  */
 public interface AerodynamicCalculator extends Monitorable {
 
-	/**
-	 * Determine whether calculations are suspect because we are stalling
-	 *
-	 * @return               whether we are stalling, and the margin
-	 *                       between our AOA and a stall
-	 *                       If the return is positive we aren't;
-	 *                       If it's negative we are.
-	 *             
-	 */
-	public double getStallMargin();
-	 
 	/**
 	 * Calculate the CP of the specified configuration.
 	 * 
@@ -43,7 +32,8 @@ public interface AerodynamicCalculator extends Monitorable {
 	 * @param conditions    the flight conditions.
 	 * @param warnings      the set in which to place warnings, or
 	 *                      <code>null</code>.
-	 * @return the aerodynamic forces acting upon the rocket.
+	 * @return the aerodynamic forces acting upon the rocket, including the
+	 *         stall margin.
 	 */
 	public AerodynamicForces getAerodynamicForces(FlightConfiguration configuration,
 			FlightConditions conditions, WarningSet warnings);
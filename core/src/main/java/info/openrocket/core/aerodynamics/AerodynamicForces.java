@@ -68,6 +68,9 @@ public class AerodynamicForces implements Cloneable, Monitorable {
 	private double pitchDampingMoment = Double.NaN;
 	private double yawDampingMoment = Double.NaN;
 
+	/** Angle between the angle of attack and the stall angle, negative when stalling. */
+	private double stallMargin = Double.NaN;
+
 	private ModID modID = ModID.INVALID;
 
 	private boolean axisymmetric = true;
@@ -349,6 +352,24 @@ public class AerodynamicForces implements Cloneable, Monitorable {
 		return yawDampingMoment;
 	}
 
+	public void setStallMargin(double stallMargin) {
+		if (this.stallMargin == stallMargin)
+			return;
+		
+		this.stallMargin = stallMargin;
+		modID = new ModID();
+	}
+
+	/**
+	 * Return whether the calculation is suspect because the rocket is stalling.
+	 * 
+	 * @return the margin between the angle of attack and a stall.  If positive the
+	 *         rocket is not stalling, if negative it is, and NaN if not calculated.
+	 */
+	public double getStallMargin() {
+		return stallMargin;
+	}
+
 	/**
 	 * Reset all values to null/NaN.
 	 */
@@ -368,6 +389,7 @@ public class AerodynamicForces implements Cloneable, Monitorable {
 		setCD(Double.NaN);
 		setPitchDampingMoment(Double.NaN);
 		setYawDampingMoment(Double.NaN);
+		setStallMargin(Double.NaN);
 	}
 
 	/**
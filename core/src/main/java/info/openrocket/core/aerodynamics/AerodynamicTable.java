@@ -0,0 +1,464 @@
+package info.openrocket.core.aerodynamics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.openrocket.core.logging.WarningSet;
+import info.openrocket.core.rocketcomponent.FlightConfiguration;
+import info.openrocket.core.util.Coordinate;
+import info.openrocket.core.util.ExecutorUtils;
+
+/**
+ * An immutable table of the non-axial aerodynamic coefficients of a rocket configuration
+ * as a function of Mach number, angle of attack and lateral wind direction (theta),
+ * calculated with the extended Barrowman method.  Values between the grid nodes are
+ * obtained by trilinear interpolation.
+ * <p>
+ * The table contains the normal force, pitch moment, side force, yaw moment and
+ * roll forcing coefficients, CNa and the CP.  Terms that depend on the roll, pitch or yaw
+ * rates, the Reynolds number or the atmosphere (drag and damping) are not tabulated.
+ * If the coefficients do not depend on theta (which is the case for axisymmetric
+ * rockets) only a single theta value is stored.
+ * <p>
+ * <b>Error bound:</b>  For a coefficient that is twice continuously differentiable
+ * within a grid cell, the error of linear interpolation along one axis with node
+ * spacing <i>h</i> is at most <i>h</i>&sup2;/8 &middot; max|<i>f''</i>|, and the error of
+ * trilinear interpolation is at most the sum of the per-axis bounds.  The coefficients
+ * are exact at the grid nodes.  The grid is aligned with the points where the Barrowman
+ * models are not smooth (the stall angles 17.5&deg; and 20&deg;, and Mach 0.9, 1.1 and 1.5),
+ * so the bound holds within every cell.  Below Mach 0.05 the body lift is reduced
+ * quadratically with the Mach number above 45&deg; angle of attack, so the Mach spacing is
+ * finer there and the 45&deg; node is duplicated to keep the discontinuity exact.  The
+ * largest interpolation errors of CN and Cm,
+ * measured against the exact calculation at the centres of a subset of the cells, are
+ * available from {@link #getMaxCNError()} and {@link #getMaxCmError()}.
+ */
+public class AerodynamicTable {
+	private static final Logger log = LoggerFactory.getLogger(AerodynamicTable.class);
+
+	/** Spacing of the Mach number axis above {@link #LOW_MACH}. */
+	public static final double MACH_STEP = 0.025;
+	/** Largest tabulated Mach number. */
+	public static final double MAX_MACH = 3.0;
+	/** Mach number below which the finer spacing {@link #LOW_MACH_STEP} is used. */
+	public static final double LOW_MACH = 0.05;
+	/** Spacing of the Mach number axis below {@link #LOW_MACH}. */
+	public static final double LOW_MACH_STEP = 0.0025;
+
+	/** Spacing of the angle of attack axis above {@link #LOW_AOA}, 2.5 degrees. */
+	public static final double AOA_STEP = Math.PI / 72;
+	/** Angle of attack below which the finer spacing {@link #LOW_AOA_STEP} is used, 10 degrees. */
+	public static final double LOW_AOA = Math.PI / 18;
+	/** Spacing of the angle of attack axis below {@link #LOW_AOA}, 0.5 degrees. */
+	public static final double LOW_AOA_STEP = Math.PI / 360;
+	/** Angle of attack with a duplicated node. */
+	private static final double AOA_DISCONTINUITY = Math.PI / 4;
+	/**
+	 * Offset of the evaluation point of the second node at the discontinuity.  This must be
+	 * larger than the tolerance of {@link FlightConditions#setAOA(double)}.
+	 */
+	private static final double AOA_OFFSET = 1e-6;
+
+	/** Mach numbers of the nodes. */
+	private static final double[] MACH_NODES;
+	/** Angles of attack of the nodes, used for locating the cell. */
+	private static final double[] AOA_NODES;
+	/** Angles of attack at which the nodes are calculated. */
+	private static final double[] AOA_POINTS;
+	static {
+		MACH_NODES = createAxis(LOW_MACH, LOW_MACH_STEP, MACH_STEP, MAX_MACH);
+
+		// The node at 45 degrees is duplicated, the second node is evaluated just above it
+		double[] aoa = createAxis(LOW_AOA, LOW_AOA_STEP, AOA_STEP, Math.PI);
+		int split = 0;
+		for (int i = 0; i < aoa.length; i++) {
+			if (Math.abs(aoa[i] - AOA_DISCONTINUITY) < Math.abs(aoa[split] - AOA_DISCONTINUITY)) {
+				split = i;
+			}
+		}
+		AOA_NODES = new double[aoa.length + 1];
+		for (int i = 0; i < AOA_NODES.length; i++) {
+			AOA_NODES[i] = aoa[(i <= split) ? i : i - 1];
+		}
+		AOA_NODES[split] = AOA_DISCONTINUITY;
+		AOA_NODES[split + 1] = AOA_DISCONTINUITY;
+		AOA_POINTS = AOA_NODES.clone();
+		AOA_POINTS[split + 1] += AOA_OFFSET;
+	}
+	private static final int MACH_COUNT = MACH_NODES.length;
+	private static final int AOA_COUNT = AOA_NODES.length;
+
+	/** Number of theta nodes over a full circle for rockets that are not axisymmetric. */
+	public static final int THETA_COUNT = 24;
+	private static final double THETA_STEP = 2 * Math.PI / THETA_COUNT;
+
+	/** Stride of the cells in which the interpolation error is measured. */
+	private static final int ERROR_STRIDE = 4;
+
+	/** Relative tolerance when checking whether the coefficients depend on theta. */
+	private static final double THETA_TOLERANCE = 1e-9;
+
+	/** CP weights smaller than this are not interpolated. */
+	private static final double MIN_CP_WEIGHT = 1e-6;
+
+	private static final int CN = 0;
+	private static final int CNA = 1;
+	private static final int CM = 2;
+	private static final int CSIDE = 3;
+	private static final int CYAW = 4;
+	private static final int CROLL_FORCE = 5;
+	private static final int CP_WEIGHT = 6;
+	private static final int CP_MOMENT = 7;
+	private static final int VALUES = 8;
+
+	private static final ThreadPoolExecutor executor;
+	static {
+		int threads = Runtime.getRuntime().availableProcessors();
+		executor = new ThreadPoolExecutor(threads, threads, 10, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), ExecutorUtils.daemonThreadFactory("AerodynamicTable"));
+		executor.allowCoreThreadTimeOut(true);
+	}
+
+	private final double refLength;
+	private final int thetaCount;
+	private final double[] values;
+
+	private final WarningSet warnings;
+	private final WarningSet supersonicWarnings;
+
+	private double maxCNError = 0;
+	private double maxCmError = 0;
+
+
+	private AerodynamicTable(double refLength, int thetaCount, WarningSet warnings, WarningSet supersonicWarnings) {
+		this.refLength = refLength;
+		this.thetaCount = thetaCount;
+		this.values = new double[MACH_COUNT * thetaCount * AOA_COUNT * VALUES];
+		this.warnings = warnings;
+		this.supersonicWarnings = supersonicWarnings;
+	}
+
+
+	/**
+	 * Calculate the table of a configuration.  The calculation is divided between the
+	 * available processors.  The configuration must not be modified during the calculation.
+	 *
+	 * @param configuration	the rocket configuration.
+	 * @param conditions	flight conditions defining the reference length; the angles,
+	 * 						Mach number and rates are ignored.
+	 * @return				the table of the configuration.
+	 * @throws InterruptedException	if the calling thread was interrupted.
+	 */
+	public static AerodynamicTable build(FlightConfiguration configuration, FlightConditions conditions)
+			throws InterruptedException {
+		final long start = System.currentTimeMillis();
+
+		FlightConditions reference = conditions.clone();
+		reference.setRollRate(0);
+		reference.setPitchRate(0);
+		reference.setYawRate(0);
+		reference.setTheta(0);
+		reference.setAOA(0);
+
+		// Warnings that do not depend on the flight conditions, including geometry warnings
+		BarrowmanCalculator calculator = new BarrowmanCalculator();
+		WarningSet warnings = new WarningSet();
+		reference.setMach(0.3);
+		calculator.getCP(configuration, reference, warnings);
+		warnings.immute();
+
+		WarningSet supersonicWarnings = new WarningSet();
+		reference.setMach(1.5);
+		calculator.sumNonAxialForces(configuration, reference, supersonicWarnings);
+		supersonicWarnings.immute();
+
+		int thetaCount = isThetaDependent(calculator, configuration, reference) ? THETA_COUNT : 1;
+		AerodynamicTable table = new AerodynamicTable(reference.getRefLength(), thetaCount, warnings,
+				supersonicWarnings);
+
+		// The calculator is shared by the workers, its calculation objects were created above
+		int workers = Math.min(executor.getMaximumPoolSize(), MACH_COUNT);
+		table.runParallel(calculator, workers, configuration, reference, MACH_COUNT, table::calculateRow);
+
+		final int errorRows = (MACH_COUNT - 1 + ERROR_STRIDE - 1) / ERROR_STRIDE;
+		final double[][] errors = new double[errorRows][];
+		table.runParallel(calculator, workers, configuration, reference, errorRows,
+				(calc, config, cond, row) -> errors[row] = table.measureError(calc, config, cond, row * ERROR_STRIDE));
+		for (double[] error : errors) {
+			table.maxCNError = Math.max(table.maxCNError, error[0]);
+			table.maxCmError = Math.max(table.maxCmError, error[1]);
+		}
+
+		log.info("Calculated aerodynamic table with " + thetaCount + " theta values in "
+				+ (System.currentTimeMillis() - start) + " ms, max CN error " + table.maxCNError
+				+ ", max Cm error " + table.maxCmError);
+		return table;
+	}
+
+
+	/**
+	 * Interpolate the non-axial forces at the specified flight conditions.  The roll
+	 * damping, drag and damping moment values of <code>forces</code> are not modified.
+	 *
+	 * @param conditions	the flight conditions.
+	 * @param forces		the forces to store the values in.
+	 * @return				<code>true</code> if the values were stored, <code>false</code> if
+	 * 						the conditions are outside the table or the reference length differs.
+	 */
+	public boolean interpolate(FlightConditions conditions, AerodynamicForces forces) {
+		double mach = conditions.getMach();
+		if (conditions.getRefLength() != refLength || !(mach >= 0 && mach <= MAX_MACH)) {
+			return false;
+		}
+
+		int m0 = findCell(MACH_NODES, mach);
+		double mf = (mach - MACH_NODES[m0]) / (MACH_NODES[m0 + 1] - MACH_NODES[m0]);
+
+		double aoa = conditions.getAOA();
+		int a0 = findCell(AOA_NODES, aoa);
+		double af = (aoa - AOA_NODES[a0]) / (AOA_NODES[a0 + 1] - AOA_NODES[a0]);
+
+		int t0 = 0;
+		int t1 = 0;
+		double tf = 0;
+		if (thetaCount > 1) {
+			double x = conditions.getTheta() / THETA_STEP;
+			x -= Math.floor(x / thetaCount) * thetaCount;
+			t0 = Math.min((int) x, thetaCount - 1);
+			tf = x - t0;
+			t1 = (t0 + 1) % thetaCount;
+		}
+
+		final int i000 = index(m0, t0, a0);
+		final int i010 = index(m0, t1, a0);
+		final int i100 = index(m0 + 1, t0, a0);
+		final int i110 = index(m0 + 1, t1, a0);
+
+		double[] v = new double[VALUES];
+		for (int k = 0; k < VALUES; k++) {
+			double c00 = lerp(values[i000 + k], values[i000 + VALUES + k], af);
+			double c01 = lerp(values[i010 + k], values[i010 + VALUES + k], af);
+			double c10 = lerp(values[i100 + k], values[i100 + VALUES + k], af);
+			double c11 = lerp(values[i110 + k], values[i110 + VALUES + k], af);
+			v[k] = lerp(lerp(c00, c01, tf), lerp(c10, c11, tf), mf);
+			if (Double.isNaN(v[k])) {
+				return false;
+			}
+		}
+		if (Math.abs(v[CP_WEIGHT]) < MIN_CP_WEIGHT) {
+			return false;
+		}
+
+		forces.setCN(v[CN]);
+		forces.setCNa(v[CNA]);
+		forces.setCm(v[CM]);
+		forces.setCside(v[CSIDE]);
+		forces.setCyaw(v[CYAW]);
+		forces.setCrollForce(v[CROLL_FORCE]);
+		forces.setCP(new Coordinate(v[CP_MOMENT] / v[CP_WEIGHT], 0, 0, v[CP_WEIGHT]));
+		return true;
+	}
+
+	/**
+	 * Add the warnings that the Barrowman calculation would produce at the specified
+	 * Mach number.
+	 *
+	 * @param mach		the Mach number.
+	 * @param target	the set to add the warnings to.
+	 */
+	public void addWarnings(double mach, WarningSet target) {
+		target.addAll(warnings);
+		if (mach > 1.1) {
+			target.addAll(supersonicWarnings);
+		}
+	}
+
+	/**
+	 * @return	the number of theta values in the table, 1 if the coefficients do not depend on theta.
+	 */
+	public int getThetaCount() {
+		return thetaCount;
+	}
+
+	/**
+	 * @return	the largest measured interpolation error of the normal force coefficient CN.
+	 */
+	public double getMaxCNError() {
+		return maxCNError;
+	}
+
+	/**
+	 * @return	the largest measured interpolation error of the pitch moment coefficient Cm.
+	 */
+	public double getMaxCmError() {
+		return maxCmError;
+	}
+
+
+	private int index(int mach, int theta, int aoa) {
+		return ((mach * thetaCount + theta) * AOA_COUNT + aoa) * VALUES;
+	}
+
+	/**
+	 * Create the nodes of an axis from zero to <code>max</code>, with a finer spacing below
+	 * <code>low</code>.
+	 */
+	private static double[] createAxis(double low, double lowStep, double step, double max) {
+		int lowCount = (int) Math.round(low / lowStep);
+		int highCount = (int) Math.round((max - low) / step);
+		double[] nodes = new double[lowCount + highCount + 1];
+		for (int i = 0; i < lowCount; i++) {
+			nodes[i] = i * lowStep;
+		}
+		for (int i = 0; i < highCount; i++) {
+			nodes[lowCount + i] = low + i * step;
+		}
+		nodes[nodes.length - 1] = max;
+		return nodes;
+	}
+
+	/**
+	 * Return the index of the last node below <code>x</code>, limited to the cells of the axis.
+	 * Cells of zero width are never returned.
+	 */
+	private static int findCell(double[] nodes, double x) {
+		int low = 0;
+		int high = nodes.length - 2;
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			if (nodes[mid] < x) {
+				low = mid;
+			} else {
+				high = mid - 1;
+			}
+		}
+		return low;
+	}
+
+	private static double lerp(double a, double b, double fraction) {
+		return a + (b - a) * fraction;
+	}
+
+	/**
+	 * Check whether the coefficients depend on theta at a few sample points.
+	 */
+	private static boolean isThetaDependent(BarrowmanCalculator calculator, FlightConfiguration configuration,
+			FlightConditions conditions) {
+		double[] first = new double[VALUES];
+		double[] other = new double[VALUES];
+		WarningSet ignored = new WarningSet();
+		for (double mach : new double[] { 0.5, 1.5 }) {
+			for (double aoa : new double[] { 2 * AOA_STEP, 16 * AOA_STEP }) {
+				conditions.setMach(mach);
+				conditions.setAOA(aoa);
+				conditions.setTheta(0);
+				store(calculator.sumNonAxialForces(configuration, conditions, ignored), first, 0);
+				for (int t = 1; t < THETA_COUNT; t++) {
+					conditions.setTheta(t * THETA_STEP);
+					store(calculator.sumNonAxialForces(configuration, conditions, ignored), other, 0);
+					for (int k = 0; k < VALUES; k++) {
+						if (!(Math.abs(first[k] - other[k]) <= THETA_TOLERANCE * (1 + Math.abs(first[k])))) {
+							return true;
+						}
+					}
+				}
+			}
+		}
+		return false;
+	}
+
+	private static void store(AerodynamicForces forces, double[] array, int offset) {
+		array[offset + CN] = forces.getCN();
+		array[offset + CNA] = forces.getCNa();
+		array[offset + CM] = forces.getCm();
+		array[offset + CSIDE] = forces.getCside();
+		array[offset + CYAW] = forces.getCyaw();
+		array[offset + CROLL_FORCE] = forces.getCrollForce();
+		array[offset + CP_WEIGHT] = forces.getCP().weight;
+		array[offset + CP_MOMENT] = forces.getCP().x * forces.getCP().weight;
+	}
+
+	/**
+	 * Calculate all values of one Mach number.
+	 */
+	private void calculateRow(BarrowmanCalculator calculator, FlightConfiguration configuration,
+			FlightConditions conditions, int mach) {
+		WarningSet ignored = new WarningSet();
+		conditions.setMach(MACH_NODES[mach]);
+		for (int t = 0; t < thetaCount; t++) {
+			conditions.setTheta(t * THETA_STEP);
+			for (int a = 0; a < AOA_COUNT; a++) {
+				conditions.setAOA(AOA_POINTS[a]);
+				store(calculator.sumNonAxialForces(configuration, conditions, ignored), values, index(mach, t, a));
+			}
+		}
+	}
+
+	/**
+	 * Measure the interpolation error at the centres of the cells following a Mach number node.
+	 *
+	 * @return	the largest absolute errors of CN and Cm.
+	 */
+	private double[] measureError(BarrowmanCalculator calculator, FlightConfiguration configuration,
+			FlightConditions conditions, int mach) {
+		WarningSet ignored = new WarningSet();
+		AerodynamicForces interpolated = new AerodynamicForces().zero();
+		double[] errors = new double[2];
+		conditions.setMach((MACH_NODES[mach] + MACH_NODES[mach + 1]) / 2);
+		for (int t = 0; t < thetaCount; t += ERROR_STRIDE) {
+			conditions.setTheta((thetaCount > 1 ? t + 0.5 : 0) * THETA_STEP);
+			for (int a = 0; a < AOA_COUNT - 1; a++) {
+				if (AOA_NODES[a] == AOA_NODES[a + 1]) {
+					continue;
+				}
+				conditions.setAOA((AOA_NODES[a] + AOA_NODES[a + 1]) / 2);
+				AerodynamicForces exact = calculator.sumNonAxialForces(configuration, conditions, ignored);
+				if (interpolate(conditions, interpolated)) {
+					errors[0] = Math.max(errors[0], Math.abs(interpolated.getCN() - exact.getCN()));
+					errors[1] = Math.max(errors[1], Math.abs(interpolated.getCm() - exact.getCm()));
+				}
+			}
+		}
+		return errors;
+	}
+
+	/**
+	 * Run a task for every row index on the worker threads, each worker using its own
+	 * flight conditions.
+	 */
+	private void runParallel(BarrowmanCalculator calculator, int workers, FlightConfiguration configuration,
+			FlightConditions reference, int rows, RowTask task) throws InterruptedException {
+		final AtomicInteger next = new AtomicInteger();
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < workers; i++) {
+			final FlightConditions conditions = reference.clone();
+			futures.add(executor.submit(() -> {
+				for (int row = next.getAndIncrement(); row < rows; row = next.getAndIncrement()) {
+					task.run(calculator, configuration, conditions, row);
+				}
+			}));
+		}
+
+		try {
+			for (Future<?> future : futures) {
+				ExecutorUtils.getResult(future, "Error calculating aerodynamic table");
+			}
+		} finally {
+			// Stop the remaining rows if interrupted or failed
+			next.set(rows);
+		}
+	}
+
+	private interface RowTask {
+		void run(BarrowmanCalculator calculator, FlightConfiguration configuration, FlightConditions conditions,
+				int row);
+	}
+}
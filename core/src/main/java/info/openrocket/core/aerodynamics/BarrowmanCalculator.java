@@ -28,11 +28,9 @@ import info.openrocket.core.util.Coordinate;
 import info.openrocket.core.util.MathUtil;
 import info.openrocket.core.util.ModID;
 import info.openrocket.core.util.PolyInterpolator;
-import info.openrocket.core.util.Reflection;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -48,16 +46,10 @@ import java.util.Queue;
 public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 	private static final Logger log = LoggerFactory.getLogger(BarrowmanCalculator.class);
 
-	private static final String BARROWMAN_PACKAGE = "info.openrocket.core.aerodynamics.barrowman";
-	private static final String BARROWMAN_SUFFIX = "Calc";
-	
-	private Map<RocketComponent, RocketComponentCalc> calcMap = null;
-	
-	private double cacheDiameter = -1;
-	private double cacheLength = -1;
+	static final double STALL_ANGLE = 17.5 * Math.PI / 180;
 
-	private final double stallAngle = 17.5 * Math.PI / 180;
-	private double stallMargin;
+	/** The snapshot of the latest configuration, shared with other calculators */
+	private volatile ComponentCalcSnapshot snapshot = null;
 	
 	public BarrowmanCalculator() {
 		
@@ -68,20 +60,6 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 	public BarrowmanCalculator newInstance() {
 		return new BarrowmanCalculator();
 	}
-
-	/**
-	 * Determine whether calculations are suspect because we are stalling
-	 *
-	 * @return               whether we are stalling, and the margin
-	 *                       between our AOA and a stall
-	 *                       If the return is positive we aren't;
-	 *                       If it's negative we are.
-	 *             
-	 */
-	@Override
-	public double getStallMargin() {
-		return stallMargin;
-	}
 	
 	/**
 	 * Calculate the CP according to the extended Barrowman method.
@@ -89,7 +67,6 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 	@Override
 	public Coordinate getCP(FlightConfiguration configuration, FlightConditions conditions,
 			WarningSet warnings) {
-		checkCache(configuration);
 		AerodynamicForces forces = calculateNonAxialForces(configuration, conditions, warnings);
 		return forces.getCP();
 	}
@@ -100,21 +77,20 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 	public Map<RocketComponent, AerodynamicForces> getForceAnalysis(FlightConfiguration configuration,
 			FlightConditions conditions,
 			WarningSet warnings) {
-		if (calcMap == null) {
-			buildCalcMap(configuration);
-		}
+		final ComponentCalcSnapshot calcs = getSnapshot(configuration);
 
 		InstanceMap instMap = configuration.getActiveInstances();
 		Map<RocketComponent, AerodynamicForces> eachMap = new LinkedHashMap<>();
 		Map<RocketComponent, AerodynamicForces> assemblyMap = new LinkedHashMap<>();
 
 		// Calculate non-axial force data
-		calculateForceAnalysis(configuration, conditions, configuration.getRocket(), instMap, eachMap, assemblyMap, warnings);
+		calculateForceAnalysis(calcs, configuration, conditions, configuration.getRocket(), instMap, eachMap, assemblyMap,
+				warnings);
 
 		// Calculate drag coefficient data
 		AerodynamicForces rocketForces = assemblyMap.get(configuration.getRocket());
-		rocketForces.setFrictionCD(calculateFrictionCD(configuration, conditions, eachMap, warnings));
-		rocketForces.setPressureCD(calculatePressureCD(configuration, conditions, eachMap, warnings));
+		rocketForces.setFrictionCD(calculateFrictionCD(calcs, configuration, conditions, eachMap, warnings));
+		rocketForces.setPressureCD(calculatePressureCD(calcs, configuration, conditions, eachMap, warnings));
 		rocketForces.setBaseCD(calculateBaseCD(configuration, conditions, eachMap, warnings));
 		rocketForces.setOverrideCD(calculateOverrideCD(configuration, conditions, eachMap, assemblyMap, warnings));
 
@@ -158,7 +134,7 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 		return finalMap;
 	}
 
-	private AerodynamicForces calculateForceAnalysis(FlightConfiguration configuration,
+	private AerodynamicForces calculateForceAnalysis(ComponentCalcSnapshot calcs, FlightConfiguration configuration,
 			FlightConditions conds,
 			RocketComponent comp,
 			InstanceMap instances,
@@ -171,7 +147,7 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 
 		// forces for this component, _only_
 		if (comp.isAerodynamic() || comp instanceof ComponentAssembly) {
-			RocketComponentCalc calcObj = calcMap.get(comp);
+			RocketComponentCalc calcObj = calcs.getCalc(comp);
 			if (null == calcObj) {
 				throw new NullPointerException(
 						"Could not find a CalculationObject for aerodynamic Component!: " + comp.getComponentName());
@@ -192,7 +168,7 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 			}
 			
 			// forces particular to each component
-			AerodynamicForces childForces = calculateForceAnalysis(configuration, conds, child, instances, eachForces,
+			AerodynamicForces childForces = calculateForceAnalysis(calcs, configuration, conds, child, instances, eachForces,
 					assemblyForces, warnings);
 
 			if (null != childForces) {
@@ -208,17 +184,37 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 	@Override
 	public AerodynamicForces getAerodynamicForces(FlightConfiguration configuration,
 			FlightConditions conditions, WarningSet warnings) {
-		checkCache(configuration);
-		
 		if (warnings == null)
-			warnings = ignoreWarningSet;
+			warnings = new WarningSet();
 		
 		// Calculate non-axial force data
 		AerodynamicForces total = calculateNonAxialForces(configuration, conditions, warnings);
 		
+		// Calculate drag and damping
+		calculateAxialForces(configuration, conditions, total, warnings);
+
+		// How far are we from stalling?
+		total.setStallMargin(STALL_ANGLE - conditions.getAOA());
+		
+		return total;
+	}
+
+	/**
+	 * Calculate the drag coefficients and the pitch and yaw damping moments, and apply them
+	 * to the non-axial forces in <code>total</code>.
+	 * 
+	 * @param configuration Rocket configuration
+	 * @param conditions    Flight conditions taken into account
+	 * @param total         the non-axial forces of the entire rocket, updated in place
+	 * @param warnings      Set to handle warnings
+	 */
+	void calculateAxialForces(FlightConfiguration configuration, FlightConditions conditions,
+			AerodynamicForces total, WarningSet warnings) {
+		final ComponentCalcSnapshot calcs = getSnapshot(configuration);
+
 		// Calculate friction data
-		total.setFrictionCD(calculateFrictionCD(configuration, conditions, null, warnings));
-		total.setPressureCD(calculatePressureCD(configuration, conditions, null, warnings));
+		total.setFrictionCD(calculateFrictionCD(calcs, configuration, conditions, null, warnings));
+		total.setPressureCD(calculatePressureCD(calcs, configuration, conditions, null, warnings));
 		total.setBaseCD(calculateBaseCD(configuration, conditions, null, warnings));
 		total.setOverrideCD(calculateOverrideCD(configuration, conditions, null, null, warnings));
 		
@@ -227,13 +223,29 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 		total.setCDaxial(calculateAxialCD(conditions, total.getCD()));
 		
 		// Calculate pitch and yaw damping moments
-		calculateDampingMoments(configuration, conditions, total);
+		calculateDampingMoments(calcs, configuration, conditions, total);
 		total.setCm(total.getCm() - total.getPitchDampingMoment());
 		total.setCyaw(total.getCyaw() - total.getYawDampingMoment());
+	}
 
-		// How far are we from stalling?
-		stallMargin = stallAngle - conditions.getAOA();
-		
+	/**
+	 * Calculate the roll damping coefficient of the entire rocket.  This equals the sum of
+	 * the <code>CrollDamp</code> values of the components in the non-axial forces.
+	 * 
+	 * @param configuration Rocket configuration
+	 * @param conditions    Flight conditions taken into account
+	 * @return the roll damping coefficient
+	 */
+	double calculateRollDamping(FlightConfiguration configuration, FlightConditions conditions) {
+		final ComponentCalcSnapshot calcs = getSnapshot(configuration);
+
+		double total = 0;
+		for (Map.Entry<RocketComponent, ArrayList<InstanceContext>> entry : configuration.getActiveInstances().entrySet()) {
+			RocketComponentCalc calcObj = calcs.getCalc(entry.getKey());
+			if (calcObj != null) {
+				total += entry.getValue().size() * calcObj.calculateRollDamping(conditions);
+			}
+		}
 		return total;
 	}
 
@@ -272,16 +284,22 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 	private AerodynamicForces calculateNonAxialForces(FlightConfiguration configuration, FlightConditions conditions,
 			WarningSet warnings) {
 
-		checkCache(configuration);
-
 		if (warnings == null)
-			warnings = ignoreWarningSet;
-
-		if (calcMap == null)
-			buildCalcMap(configuration);
+			warnings = new WarningSet();
 
 		checkGeometry(configuration, configuration.getRocket(), warnings);
-		
+
+		return sumNonAxialForces(configuration, conditions, warnings);
+	}
+
+	/**
+	 * Sum the non-axial forces of all active component instances, without checking the
+	 * rocket geometry.
+	 */
+	AerodynamicForces sumNonAxialForces(FlightConfiguration configuration, FlightConditions conditions,
+			WarningSet warnings) {
+		final ComponentCalcSnapshot calcs = getSnapshot(configuration);
+
 		final InstanceMap imap = configuration.getActiveInstances();
 
 		// across the _entire_ assembly -- like a rocket, or a stage
@@ -291,7 +309,7 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 			final RocketComponent comp = mapEntry.getKey();
 			final List<InstanceContext> contextList = mapEntry.getValue();
 
-			RocketComponentCalc calcObj = calcMap.get(comp);
+			RocketComponentCalc calcObj = calcs.getCalc(comp);
 			if (null != calcObj) {
 				// calculated across all component instances
 				final AerodynamicForces componentForces = calculateComponentNonAxialForces(conditions, comp, calcObj,
@@ -444,13 +462,15 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 	/**
 	 * Calculation of drag coefficient due to air friction
 	 * 
+	 * @param calcs         Calculation objects of the configuration
 	 * @param configuration Rocket configuration
 	 * @param conditions    Flight conditions taken into account
 	 * @param map           ?
 	 * @param warningSet    Set to handle warnings
 	 * @return friction drag for entire rocket
 	 */
-	private double calculateFrictionCD(FlightConfiguration configuration, FlightConditions conditions,
+	private double calculateFrictionCD(ComponentCalcSnapshot calcs, FlightConfiguration configuration,
+			FlightConditions conditions,
 			Map<RocketComponent, AerodynamicForces> forceMap, WarningSet warningSet) {
 		
 		double mach = conditions.getMach();
@@ -458,9 +478,6 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 		double Cf = calculateFrictionCoefficient(configuration, mach, Re);
 		double roughnessCorrection = calculateRoughnessCorrection(mach);
 		
-		if (calcMap == null)
-			buildCalcMap(configuration);
-		
 		/*
 		 * Calculate the friction drag coefficient.
 		 * 
@@ -518,7 +535,7 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 				
 			}
 
-			double componentFrictionCD = calcMap.get(c).calculateFrictionCD(conditions, componentCf, warningSet);
+			double componentFrictionCD = calcs.getCalc(c).calculateFrictionCD(conditions, componentCf, warningSet);
 			int instanceCount = entry.getValue().size();
 			
 			if (c instanceof SymmetricComponent) {
@@ -691,18 +708,17 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 	/**
 	 * Calculation of drag coefficient due to pressure
 	 * 
+	 * @param calcs         Calculation objects of the configuration
 	 * @param configuration Rocket configuration
 	 * @param conditions    Flight conditions taken into account
 	 * @param forceMap
 	 * @param warningSet    all current warnings
 	 * @return
 	 */
-	private double calculatePressureCD(FlightConfiguration configuration, FlightConditions conditions,
-			Map<RocketComponent, AerodynamicForces> forceMap, WarningSet warningSet) {
+	private double calculatePressureCD(ComponentCalcSnapshot calcs, FlightConfiguration configuration,
+			FlightConditions conditions, Map<RocketComponent, AerodynamicForces> forceMap, WarningSet warningSet) {
 
 		double total, stagnation, base;
-		if (calcMap == null)
-			buildCalcMap(configuration);
 		
 		stagnation = calculateStagnationCD(conditions.getMach());
 		base = calculateBaseCD(conditions.getMach());
@@ -724,7 +740,7 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 			int instanceCount = entry.getValue().size();
 
 			// Pressure drag of this component
-			double cd = calcMap.get(c).calculatePressureCD(conditions, stagnation, base,
+			double cd = calcs.getCalc(c).calculatePressureCD(conditions, stagnation, base,
 					warningSet);
 
 			if (forceMap != null) {
@@ -780,9 +796,6 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 
 		double base, total;
 		
-		if (calcMap == null)
-			buildCalcMap(configuration);
-		
 		base = calculateBaseCD(conditions.getMach());
 		total = 0;
 		
@@ -926,9 +939,6 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 			Map<RocketComponent, AerodynamicForces> assemblyMap,
 			WarningSet warningSet) {
 
-		if (calcMap == null)
-			buildCalcMap(configuration);
-
 		double total = 0;
 		final InstanceMap imap = configuration.getActiveInstances();
 		for (Map.Entry<RocketComponent, ArrayList<InstanceContext>> entry : imap.entrySet()) {
@@ -958,15 +968,16 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
     /**
 	 * get damping moments from a rocket in a flight
 	 *
+	 * @param calcs         Calculation objects of the configuration
 	 * @param configuration Rocket configuration
 	 * @param conditions    flight conditions in consideration
 	 * @param total         acting aerodynamic forces
 	 */
-	private void calculateDampingMoments(FlightConfiguration configuration, FlightConditions conditions,
-			AerodynamicForces total) {
+	private void calculateDampingMoments(ComponentCalcSnapshot calcs, FlightConfiguration configuration,
+			FlightConditions conditions, AerodynamicForces total) {
 		
 		// Calculate pitch and yaw damping moments
-		double mul = getDampingMultiplier(configuration, conditions,
+		double mul = getDampingMultiplier(calcs, configuration, conditions,
 				conditions.getPitchCenter().x);
 		double pitchRate = conditions.getPitchRate();
 		double yawRate = conditions.getYawRate();
@@ -984,29 +995,13 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 		total.setYawDampingMoment(MathUtil.sign(yawRate) * yawDampingMomentMagnitude);
 	}
 
-	private double getDampingMultiplier(FlightConfiguration configuration, FlightConditions conditions,
-			double cgx) {
-		if (cacheDiameter < 0) {
-			double area = 0;
-			cacheLength = 0;
-			cacheDiameter = 0;
-			
-			for (RocketComponent c : configuration.getActiveComponents()) {
-				if (c instanceof SymmetricComponent) {
-					SymmetricComponent s = (SymmetricComponent) c;
-					area += s.getComponentPlanformArea();
-					cacheLength += s.getLength();
-				}
-			}
-			if (cacheLength > 0)
-				cacheDiameter = area / cacheLength;
-		}
-		
+	private double getDampingMultiplier(ComponentCalcSnapshot calcs, FlightConfiguration configuration,
+			FlightConditions conditions, double cgx) {
 		double mul;
 		
 		// Body
-		mul = 0.275 * cacheDiameter / (conditions.getRefArea() * conditions.getRefLength());
-		mul *= (MathUtil.pow4(cgx) + MathUtil.pow4(cacheLength - cgx));
+		mul = 0.275 * calcs.getBodyDiameter() / (conditions.getRefArea() * conditions.getRefLength());
+		mul *= (MathUtil.pow4(cgx) + MathUtil.pow4(calcs.getBodyLength() - cgx));
 		
 		// Fins
 		// TODO: LOW: This could be optimized a lot...
@@ -1015,7 +1010,7 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 				FinSet f = (FinSet) c;
 				mul += 0.6 * Math.min(f.getFinCount(), 4) * f.getPlanformArea() *
 						MathUtil.pow3(Math.abs(f.toAbsolute(new Coordinate(
-								((FinSetCalc) calcMap.get(f)).getMidchordPos()))[0].x
+								((FinSetCalc) calcs.getCalc(f)).getMidchordPos()))[0].x
 								- cgx)) /
 						(conditions.getRefArea() * conditions.getRefLength());
 			}
@@ -1028,29 +1023,16 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 	
 	////////  The calculator map
 	
-	@Override
-	protected void voidAerodynamicCache() {
-		super.voidAerodynamicCache();
-		
-		calcMap = null;
-		cacheDiameter = -1;
-		cacheLength = -1;
-	}
-	
-	
-	private void buildCalcMap(FlightConfiguration configuration) {
-		calcMap = new HashMap<>();
-
-		for (RocketComponent comp : configuration.getAllComponents()) {
-			if (!comp.isAerodynamic() && !(comp instanceof ComponentAssembly)) {
-				continue;
-			}
-
-			RocketComponentCalc calcObj = (RocketComponentCalc) Reflection.construct(BARROWMAN_PACKAGE, comp,
-					BARROWMAN_SUFFIX, comp);
-
-			calcMap.put(comp, calcObj);
+	/**
+	 * Return the calculation objects of the current state of a configuration.
+	 */
+	private ComponentCalcSnapshot getSnapshot(FlightConfiguration configuration) {
+		ComponentCalcSnapshot current = snapshot;
+		if (current == null || !current.matches(configuration)) {
+			current = ComponentCalcSnapshot.get(configuration);
+			snapshot = current;
 		}
+		return current;
 	}
 	
 	@Override
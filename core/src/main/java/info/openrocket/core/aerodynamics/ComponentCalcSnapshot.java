@@ -0,0 +1,125 @@
+package info.openrocket.core.aerodynamics;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import info.openrocket.core.aerodynamics.barrowman.RocketComponentCalc;
+import info.openrocket.core.rocketcomponent.ComponentAssembly;
+import info.openrocket.core.rocketcomponent.FlightConfiguration;
+import info.openrocket.core.rocketcomponent.RocketComponent;
+import info.openrocket.core.rocketcomponent.SymmetricComponent;
+import info.openrocket.core.util.Reflection;
+
+/**
+ * An immutable snapshot of the Barrowman calculation objects of a flight configuration,
+ * together with the body dimensions used for the damping moments.
+ * <p>
+ * The calculation objects are not modified after construction, so a snapshot may be used
+ * by any number of threads concurrently.  Snapshots are shared between all calculators,
+ * keyed by {@link ConfigurationKey}, so simulations of the same rocket running in parallel
+ * create the calculation objects only once.
+ */
+final class ComponentCalcSnapshot {
+
+	private static final String BARROWMAN_PACKAGE = "info.openrocket.core.aerodynamics.barrowman";
+	private static final String BARROWMAN_SUFFIX = "Calc";
+
+	/** Maximum number of snapshots kept in memory. */
+	private static final int MAX_SNAPSHOTS = 16;
+
+	private static final Map<ConfigurationKey, ComponentCalcSnapshot> snapshots =
+			new LinkedHashMap<>(16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<ConfigurationKey, ComponentCalcSnapshot> eldest) {
+					return size() > MAX_SNAPSHOTS;
+				}
+			};
+
+	private final ConfigurationKey key;
+	private final Map<RocketComponent, RocketComponentCalc> calcMap;
+	private final double bodyLength;
+	private final double bodyDiameter;
+
+
+	private ComponentCalcSnapshot(ConfigurationKey key, FlightConfiguration configuration) {
+		this.key = key;
+
+		Map<RocketComponent, RocketComponentCalc> map = new HashMap<>();
+		for (RocketComponent comp : configuration.getAllComponents()) {
+			if (!comp.isAerodynamic() && !(comp instanceof ComponentAssembly)) {
+				continue;
+			}
+
+			RocketComponentCalc calcObj = (RocketComponentCalc) Reflection.construct(BARROWMAN_PACKAGE, comp,
+					BARROWMAN_SUFFIX, comp);
+
+			map.put(comp, calcObj);
+		}
+		this.calcMap = Collections.unmodifiableMap(map);
+
+		double area = 0;
+		double length = 0;
+		for (RocketComponent c : configuration.getActiveComponents()) {
+			if (c instanceof SymmetricComponent) {
+				SymmetricComponent s = (SymmetricComponent) c;
+				area += s.getComponentPlanformArea();
+				length += s.getLength();
+			}
+		}
+		this.bodyLength = length;
+		this.bodyDiameter = (length > 0) ? area / length : 0;
+	}
+
+
+	/**
+	 * Return the snapshot of the current state of a configuration, creating it if it is
+	 * not available.
+	 */
+	static ComponentCalcSnapshot get(FlightConfiguration configuration) {
+		ConfigurationKey key = ConfigurationKey.of(configuration);
+		synchronized (snapshots) {
+			ComponentCalcSnapshot snapshot = snapshots.get(key);
+			if (snapshot != null) {
+				return snapshot;
+			}
+		}
+
+		// Created outside the lock, a snapshot created concurrently by another thread is discarded
+		ComponentCalcSnapshot snapshot = new ComponentCalcSnapshot(key, configuration);
+		synchronized (snapshots) {
+			ComponentCalcSnapshot existing = snapshots.putIfAbsent(key, snapshot);
+			return (existing != null) ? existing : snapshot;
+		}
+	}
+
+	/**
+	 * Check whether this snapshot is valid for the current state of a configuration.
+	 */
+	boolean matches(FlightConfiguration configuration) {
+		return key.matches(configuration);
+	}
+
+	/**
+	 * Return the calculation object of a component, or <code>null</code> if the component
+	 * is neither aerodynamic nor a component assembly.
+	 */
+	RocketComponentCalc getCalc(RocketComponent component) {
+		return calcMap.get(component);
+	}
+
+	/**
+	 * @return	the total length of the active symmetric components.
+	 */
+	double getBodyLength() {
+		return bodyLength;
+	}
+
+	/**
+	 * @return	the average diameter of the active symmetric components, weighted by length.
+	 */
+	double getBodyDiameter() {
+		return bodyDiameter;
+	}
+}
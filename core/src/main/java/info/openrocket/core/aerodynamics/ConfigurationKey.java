@@ -0,0 +1,59 @@
+package info.openrocket.core.aerodynamics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import info.openrocket.core.rocketcomponent.FlightConfiguration;
+import info.openrocket.core.rocketcomponent.FlightConfigurationId;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.util.ModID;
+
+/**
+ * Identifies the aerodynamic state of a flight configuration, for caching values that are
+ * shared between calculators.  Two configurations with equal keys have the same aerodynamic
+ * components, geometry and active stages.
+ * <p>
+ * Copies of a rocket keep the modification IDs and the component IDs of the original, so
+ * cached values are also shared with copies, for example between simulations.
+ */
+public record ConfigurationKey(ModID aerodynamicModID, ModID treeModID, FlightConfigurationId configurationId,
+		List<Integer> activeStages) {
+
+	/**
+	 * Create the key of the current state of a configuration.
+	 */
+	public static ConfigurationKey of(FlightConfiguration configuration) {
+		Rocket rocket = configuration.getRocket();
+		List<Integer> stages = new ArrayList<>();
+		for (int stage = 0; stage < rocket.getStageCount(); stage++) {
+			if (configuration.isStageActive(stage)) {
+				stages.add(stage);
+			}
+		}
+		return new ConfigurationKey(rocket.getAerodynamicModID(), rocket.getTreeModID(),
+				configuration.getFlightConfigurationID(), List.copyOf(stages));
+	}
+
+	/**
+	 * Check whether this key equals the key of the current state of a configuration,
+	 * without creating the key.
+	 */
+	public boolean matches(FlightConfiguration configuration) {
+		Rocket rocket = configuration.getRocket();
+		if (rocket.getAerodynamicModID() != aerodynamicModID || rocket.getTreeModID() != treeModID ||
+				!configuration.getFlightConfigurationID().equals(configurationId)) {
+			return false;
+		}
+
+		int count = 0;
+		for (int stage = 0; stage < rocket.getStageCount(); stage++) {
+			if (configuration.isStageActive(stage)) {
+				if (count >= activeStages.size() || activeStages.get(count) != stage) {
+					return false;
+				}
+				count++;
+			}
+		}
+		return count == activeStages.size();
+	}
+}
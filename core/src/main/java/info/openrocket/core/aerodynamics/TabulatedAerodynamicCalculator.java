@@ -0,0 +1,155 @@
+package info.openrocket.core.aerodynamics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.openrocket.core.logging.WarningSet;
+import info.openrocket.core.rocketcomponent.FlightConfiguration;
+import info.openrocket.core.rocketcomponent.RocketComponent;
+import info.openrocket.core.util.Coordinate;
+import info.openrocket.core.util.ModID;
+
+/**
+ * An aerodynamic calculator that interpolates the non-axial forces from a precalculated
+ * {@link AerodynamicTable} instead of evaluating the extended Barrowman method on every call.
+ * Drag, roll damping and pitch and yaw damping depend on the rates, the Reynolds number
+ * and the atmosphere, and are always calculated exactly.
+ * <p>
+ * The table of a configuration is calculated once and shared between all calculator
+ * instances, keyed by the aerodynamic and tree modification IDs of the rocket, the flight
+ * configuration and its active stages.  Repeated simulations of the same design, such as
+ * Monte Carlo runs or batch runs, therefore only pay for the table once.  Flight conditions
+ * outside the table are passed to the Barrowman calculator.
+ */
+public class TabulatedAerodynamicCalculator extends AbstractAerodynamicCalculator {
+	private static final Logger log = LoggerFactory.getLogger(TabulatedAerodynamicCalculator.class);
+
+	/** Maximum number of tables kept in memory. */
+	private static final int MAX_TABLES = 4;
+
+	private static final Map<ConfigurationKey, FutureTask<AerodynamicTable>> tables =
+			new LinkedHashMap<>(16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<ConfigurationKey, FutureTask<AerodynamicTable>> eldest) {
+					return size() > MAX_TABLES;
+				}
+			};
+
+	private final BarrowmanCalculator exact = new BarrowmanCalculator();
+
+	/** The table of the latest configuration */
+	private volatile LatestTable latest = null;
+
+
+	@Override
+	public TabulatedAerodynamicCalculator newInstance() {
+		return new TabulatedAerodynamicCalculator();
+	}
+
+	@Override
+	public Coordinate getCP(FlightConfiguration configuration, FlightConditions conditions, WarningSet warnings) {
+		return exact.getCP(configuration, conditions, warnings);
+	}
+
+	@Override
+	public Map<RocketComponent, AerodynamicForces> getForceAnalysis(FlightConfiguration configuration,
+			FlightConditions conditions, WarningSet warnings) {
+		return exact.getForceAnalysis(configuration, conditions, warnings);
+	}
+
+	@Override
+	public void checkGeometry(FlightConfiguration configuration, RocketComponent component, WarningSet warnings) {
+		exact.checkGeometry(configuration, component, warnings);
+	}
+
+	@Override
+	public AerodynamicForces getAerodynamicForces(FlightConfiguration configuration,
+			FlightConditions conditions, WarningSet warnings) {
+		if (warnings == null)
+			warnings = new WarningSet();
+
+		AerodynamicTable tabulated = getTable(configuration, conditions);
+		AerodynamicForces total = new AerodynamicForces().zero();
+		if (tabulated == null || !tabulated.interpolate(conditions, total)) {
+			return exact.getAerodynamicForces(configuration, conditions, warnings);
+		}
+		tabulated.addWarnings(conditions.getMach(), warnings);
+
+		total.setCrollDamp(exact.calculateRollDamping(configuration, conditions));
+		total.setCroll(total.getCrollForce() - total.getCrollDamp());
+
+		exact.calculateAxialForces(configuration, conditions, total, warnings);
+
+		total.setStallMargin(BarrowmanCalculator.STALL_ANGLE - conditions.getAOA());
+
+		return total;
+	}
+
+	/**
+	 * Return the table of a configuration, calculating it if it is not available.
+	 *
+	 * @return	the table, or <code>null</code> if it could not be calculated.
+	 */
+	private AerodynamicTable getTable(FlightConfiguration configuration, FlightConditions conditions) {
+		LatestTable current = latest;
+		if (current == null || !current.key().matches(configuration)) {
+			ConfigurationKey key = ConfigurationKey.of(configuration);
+			current = new LatestTable(key, getSharedTable(key, configuration, conditions));
+			latest = current;
+		}
+		return current.table();
+	}
+
+	private static AerodynamicTable getSharedTable(ConfigurationKey key, FlightConfiguration configuration,
+			FlightConditions conditions) {
+		FutureTask<AerodynamicTable> task;
+		boolean calculate = false;
+		synchronized (tables) {
+			task = tables.get(key);
+			if (task == null) {
+				task = new FutureTask<>(() -> AerodynamicTable.build(configuration, conditions));
+				tables.put(key, task);
+				calculate = true;
+			}
+		}
+
+		// Calculated outside the lock, other users of the same table wait for the result
+		if (calculate) {
+			task.run();
+		}
+
+		try {
+			return task.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		} catch (ExecutionException e) {
+			synchronized (tables) {
+				tables.remove(key, task);
+			}
+			if (e.getCause() instanceof InterruptedException) {
+				if (calculate) {
+					Thread.currentThread().interrupt();
+				}
+			} else {
+				log.warn("Unable to calculate aerodynamic table, using the Barrowman calculator", e.getCause());
+			}
+			return null;
+		}
+	}
+
+	@Override
+	public ModID getModID() {
+		// Only cached data is stored, return constant mod ID
+		return ModID.ZERO;
+	}
+
+
+	private record LatestTable(ConfigurationKey key, AerodynamicTable table) {
+	}
+}
@@ -73,6 +73,7 @@ public class FinSetCalc extends RocketComponentCalc {
 		calculateFinGeometry(component);
 		calculatePoly();
 		calculateInterferenceFinCount(component);
+		geometryWarnings.immute();
 	}
 	
 	/*
@@ -435,6 +436,14 @@ public class FinSetCalc extends RocketComponentCalc {
 		return cnaInterpolator.interpolate(mach, subV, superV, subD, superD, 0);
 	}
 	
+	@Override
+	public double calculateRollDamping(FlightConditions conditions) {
+		if (finArea < MathUtil.EPSILON) {
+			return 0;
+		}
+		return calculateDampingMoment(conditions);
+	}
+
 	private double calculateDampingMoment(FlightConditions conditions) {
 		double rollRate = conditions.getRollRate();
 		
@@ -6,6 +6,12 @@ import info.openrocket.core.logging.WarningSet;
 import info.openrocket.core.rocketcomponent.RocketComponent;
 import info.openrocket.core.util.Transformation;
 
+/**
+ * Base class of the Barrowman calculation objects of the rocket components.
+ * <p>
+ * Calculation objects are shared between calculators running in different threads,
+ * so their state must not be modified after construction.
+ */
 public abstract class RocketComponentCalc {
 
 	public RocketComponentCalc(RocketComponent component) {
@@ -56,6 +62,19 @@ public abstract class RocketComponentCalc {
 	public abstract double calculatePressureCD(FlightConditions conditions,
 			double stagnationCD, double baseCD, WarningSet warnings);
 
+	/**
+	 * Calculates the roll damping coefficient of the component.  This is the
+	 * <code>CrollDamp</code> value stored by
+	 * {@link #calculateNonaxialForces(FlightConditions, Transformation, AerodynamicForces, WarningSet)},
+	 * and zero for components that do not damp roll.
+	 *
+	 * @param conditions the flight conditions
+	 * @return the roll damping coefficient of the component
+	 */
+	public double calculateRollDamping(FlightConditions conditions) {
+		return 0;
+	}
+
 	/**
 	 * Calculation of Reynolds Number
 	 * 
@@ -49,6 +49,10 @@ public class SymmetricComponentCalc extends RocketComponentCalc {
 	private final double planformArea, planformCenter;
 	private final double wetArea;
 	private final double sinphi;
+	private final boolean isTube;
+	private final double cnaConstant;
+	private final double cpConstant;
+	private final LinearInterpolator interpolator;
 
 	public SymmetricComponentCalc(RocketComponent c) {
 		super(c);
@@ -90,11 +94,30 @@ public class SymmetricComponentCalc extends RocketComponentCalc {
 			throw new UnsupportedOperationException("Unknown component type " +
 					component.getComponentName());
 		}
-	}
 
-	private boolean isTube = false;
-	private double cnaCache = Double.NaN;
-	private double cpCache = Double.NaN;
+		// Pre-calculate the CNa and CP, all values are calculated here so that the
+		// calculation object is immutable and may be shared between threads
+		if (MathUtil.equals(foreRadius, aftRadius)) {
+			isTube = true;
+			cnaConstant = 0;
+			cpConstant = Double.NaN;
+		} else {
+			isTube = false;
+
+			final double A0 = Math.PI * pow2(foreRadius);
+			final double A1 = Math.PI * pow2(aftRadius);
+
+			cnaConstant = 2 * (A1 - A0);
+			cpConstant = (length * A1 - fullVolume) / (A1 - A0);
+		}
+
+		// Pressure drag of nose cones and shoulders, see calculatePressureCD()
+		if (!isTube && length >= 0.001 && aftRadius >= foreRadius) {
+			interpolator = calculateNoseInterpolator();
+		} else {
+			interpolator = null;
+		}
+	}
 
 	/**
 	 * Calculates the non-axial forces produced by the fins (normal and side forces,
@@ -110,33 +133,13 @@ public class SymmetricComponentCalc extends RocketComponentCalc {
 	public void calculateNonaxialForces(FlightConditions conditions, Transformation transform,
 			AerodynamicForces forces, WarningSet warnings) {
 
-		// Pre-calculate and store the results
-		if (Double.isNaN(cnaCache)) {
-			final double r0 = foreRadius;
-			final double r1 = aftRadius;
-
-			if (MathUtil.equals(r0, r1)) {
-				isTube = true;
-				cnaCache = 0;
-			} else {
-				isTube = false;
-
-				final double A0 = Math.PI * pow2(r0);
-				final double A1 = Math.PI * pow2(r1);
-
-				cnaCache = 2 * (A1 - A0);
-				// System.out.println("cnaCache = " + cnaCache);
-				cpCache = (length * A1 - fullVolume) / (A1 - A0);
-			}
-		}
-
 		Coordinate cp;
 
 		// If fore == aft, only body lift is encountered
 		if (isTube) {
 			cp = getLiftCP(conditions, warnings);
 		} else {
-			cp = new Coordinate(cpCache, 0, 0, cnaCache * conditions.getSincAOA() /
+			cp = new Coordinate(cpConstant, 0, 0, cnaConstant * conditions.getSincAOA() /
 					conditions.getRefArea()).average(getLiftCP(conditions, warnings));
 		}
 
@@ -185,8 +188,6 @@ public class SymmetricComponentCalc extends RocketComponentCalc {
 		return componentCf * wetArea / conditions.getRefArea();
 	}
 
-	private LinearInterpolator interpolator = null;
-
 	@Override
 	public double calculatePressureCD(FlightConditions conditions,
 			double stagnationCD, double baseCD, WarningSet warnings) {
@@ -214,10 +215,6 @@ public class SymmetricComponentCalc extends RocketComponentCalc {
 		}
 
 		// All nose cones and shoulders from pre-calculated and interpolating
-		if (interpolator == null) {
-			calculateNoseInterpolator();
-		}
-
 		return interpolator.getValue(conditions.getMach()) * frontalArea / conditions.getRefArea();
 	}
 
@@ -267,7 +264,7 @@ public class SymmetricComponentCalc extends RocketComponentCalc {
 	}
 
 	/**
-	 * Calculate the LinearInterpolator 'interpolator'. After this call, if can be
+	 * Calculate the LinearInterpolator 'interpolator'. The returned interpolator can be
 	 * used
 	 * to get the pressure drag coefficient at any Mach number.
 	 * 
@@ -286,11 +283,11 @@ public class SymmetricComponentCalc extends RocketComponentCalc {
 	 * region is interpolated in the form Cd = a*M^b + Cd(M=0).
 	 */
 	@SuppressWarnings("null")
-	private void calculateNoseInterpolator() {
+	private LinearInterpolator calculateNoseInterpolator() {
 		LinearInterpolator int1 = null, int2 = null;
 		double p = 0;
 
-		interpolator = new LinearInterpolator();
+		LinearInterpolator interpolator = new LinearInterpolator();
 
 		/*
 		 * Take into account nose cone shape. Conical and ogive generate the
@@ -393,7 +390,7 @@ public class SymmetricComponentCalc extends RocketComponentCalc {
 		double minValue = interpolator.getValue(min);
 		if (minValue < 0.001) {
 			// No interpolation necessary
-			return;
+			return interpolator;
 		}
 
 		double cdMach0 = 0.8 * pow2(sinphi);
@@ -401,7 +398,7 @@ public class SymmetricComponentCalc extends RocketComponentCalc {
 
 		// These should not occur, but might cause havoc for the interpolation
 		if ((cdMach0 >= minValue - 0.01) || (minDeriv <= 0.01)) {
-			return;
+			return interpolator;
 		}
 
 		// Cd = a*M^b + cdMach0
@@ -411,6 +408,8 @@ public class SymmetricComponentCalc extends RocketComponentCalc {
 		for (double m = 0; m < min; m += 0.05) {
 			interpolator.addPoint(m, a * Math.pow(m, b) + cdMach0);
 		}
+
+		return interpolator;
 	}
 
 	private static final PolyInterpolator conicalPolyInterpolator = new PolyInterpolator(new double[] { 1.0, 1.3 },
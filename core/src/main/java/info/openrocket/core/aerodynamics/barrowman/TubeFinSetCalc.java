@@ -132,6 +132,17 @@ public class TubeFinSetCalc extends TubeCalc {
 		final double arprime = 2 * ar / Math.PI;
 		cnaconst = 2 * (arprime / (1 + arprime)) * Math.PI * Math.PI * innerRadius * chord;
 		log.debug("ar " + ar + ", cnaconst " + cnaconst);
+		geometryWarnings.immute();
+	}
+
+	@Override
+	public double calculateRollDamping(FlightConditions conditions) {
+		if (outerRadius < 0.001) {
+			return 0;
+		}
+		final double cna = cnaconst / conditions.getRefArea();
+		return (bodyRadius + outerRadius) * conditions.getRollRate() / conditions.getVelocity() * cna
+				/ conditions.getRefLength();
 	}
 
 	/*
@@ -174,8 +185,7 @@ public class TubeFinSetCalc extends TubeCalc {
 					MathUtil.clamp(1 - (conditions.getAOA() - STALL_ANGLE) / (STALL_ANGLE / 2), 0, 1));
 		}
 
-		forces.setCrollDamp((bodyRadius + outerRadius) * conditions.getRollRate() / conditions.getVelocity() * cna
-				/ conditions.getRefLength());
+		forces.setCrollDamp(calculateRollDamping(conditions));
 
 		forces.setCroll(forces.getCrollForce() - forces.getCrollDamp());
 
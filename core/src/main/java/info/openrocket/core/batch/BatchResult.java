@@ -0,0 +1,49 @@
+package info.openrocket.core.batch;
+
+import info.openrocket.core.simulation.FlightData;
+
+/**
+ * The outcome of a single simulation in a batch run.
+ *
+ * @param source		the name of the file the simulation was loaded from.
+ * @param simulation	the name of the simulation, or <code>null</code> if the file could not be loaded.
+ * @param status		the outcome of the simulation.
+ * @param data			the simulated flight data, or <code>null</code> if not available.
+ * @param message		a description of the error or reason for skipping, or <code>null</code>.
+ */
+public record BatchResult(String source, String simulation, Status status, FlightData data, String message) {
+
+	public enum Status {
+		/** The simulation completed successfully. */
+		OK(false),
+		/** The simulation was not run, for example because it has no motors. */
+		SKIPPED(false),
+		/** The simulation ran, but was aborted. */
+		ABORTED(true),
+		/** The simulation or the file it belongs to failed with an error. */
+		FAILED(true);
+
+		private final boolean error;
+
+		Status(boolean error) {
+			this.error = error;
+		}
+
+		/**
+		 * Return whether this status is counted as an error of the batch run.
+		 */
+		public boolean isError() {
+			return error;
+		}
+	}
+
+	/**
+	 * Return the specified summary value, or NaN if no flight data is available.
+	 */
+	public double getValue(SummaryValue value) {
+		if (data == null) {
+			return Double.NaN;
+		}
+		return value.getValue(data);
+	}
+}
@@ -0,0 +1,262 @@
+package info.openrocket.core.batch;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.inject.Guice;
+
+import info.openrocket.core.file.CSVExport;
+import info.openrocket.core.file.FlightDataCSVExporter;
+import info.openrocket.core.plugin.PluginModule;
+import info.openrocket.core.startup.Application;
+import info.openrocket.core.startup.ExceptionHandler;
+
+/**
+ * Command line entry point for running the simulations of rocket design files without
+ * a user interface, for example for design regression runs.
+ * <p>
+ * The exit code is 0 if all simulations completed, 1 if any file could not be loaded or
+ * any simulation failed or aborted, and 2 for invalid arguments.
+ */
+public class BatchSimulation {
+	private static final Logger log = LoggerFactory.getLogger(BatchSimulation.class);
+
+	public static final int EXIT_OK = 0;
+	public static final int EXIT_SIMULATION_ERROR = 1;
+	public static final int EXIT_USAGE = 2;
+
+	private static final String USAGE = String.join(System.lineSeparator(),
+			"Usage: java " + BatchSimulation.class.getCanonicalName() + " [options] <file.ork|directory>...",
+			"",
+			"Options:",
+			"  -s, --simulation <name>  run only simulations with this name (may be repeated)",
+			"  -t, --threads <n>        number of simulations to run concurrently (default: processors)",
+			"      --json <file>        write a summary JSON file ('-' for standard output)",
+			"      --csv <file>         write a summary CSV file ('-' for standard output)",
+			"      --data <directory>   export the flight data of every simulation as CSV files",
+			"  -h, --help               print this help");
+
+	private static final String FIELD_SEPARATOR = ",";
+	private static final int DECIMAL_PLACES = 6;
+	private static final String COMMENT_STARTER = "#";
+
+	public static void main(String[] args) {
+		System.setProperty("java.awt.headless", "true");
+
+		HeadlessModule module = new HeadlessModule();
+		Application.setInjector(Guice.createInjector(module, new PluginModule()));
+		Application.setExceptionHandler(new LoggingExceptionHandler());
+		module.startLoader();
+
+		System.exit(execute(args, System.out, System.err));
+	}
+
+	/**
+	 * Run the batch simulation with the specified arguments.  The Application must have
+	 * been initialized.
+	 *
+	 * @param args	the command line arguments.
+	 * @param out	the stream for progress output and summaries written to standard output.
+	 * @param err	the stream for error output.
+	 * @return		the exit code.
+	 */
+	public static int execute(String[] args, PrintStream out, PrintStream err) {
+		BatchSimulationRunner runner = new BatchSimulationRunner();
+		List<String> simulationNames = new ArrayList<>();
+		List<File> files = new ArrayList<>();
+		String jsonFile = null;
+		String csvFile = null;
+		File dataDirectory = null;
+
+		try {
+			for (int i = 0; i < args.length; i++) {
+				String arg = args[i];
+				switch (arg) {
+					case "-h", "--help" -> {
+						out.println(USAGE);
+						return EXIT_OK;
+					}
+					case "-s", "--simulation" -> simulationNames.add(value(args, ++i, arg));
+					case "-t", "--threads" -> runner.setThreadCount(Integer.parseInt(value(args, ++i, arg)));
+					case "--json" -> jsonFile = value(args, ++i, arg);
+					case "--csv" -> csvFile = value(args, ++i, arg);
+					case "--data" -> dataDirectory = new File(value(args, ++i, arg));
+					default -> {
+						if (arg.startsWith("-")) {
+							throw new IllegalArgumentException("Unknown option " + arg);
+						}
+						addFiles(files, new File(arg));
+					}
+				}
+			}
+			if (files.isEmpty()) {
+				throw new IllegalArgumentException("No design files specified");
+			}
+		} catch (IllegalArgumentException e) {
+			err.println(e.getMessage());
+			err.println(USAGE);
+			return EXIT_USAGE;
+		}
+		runner.setSimulationNames(simulationNames);
+
+		PrintStream progress = ("-".equals(jsonFile) || "-".equals(csvFile)) ? err : out;
+		List<BatchResult> results;
+		try {
+			results = runner.run(files, result -> progress.println(describe(result)));
+		} catch (InterruptedException e) {
+			err.println("Interrupted");
+			Thread.currentThread().interrupt();
+			return EXIT_SIMULATION_ERROR;
+		}
+
+		int errors = 0;
+		for (BatchResult result : results) {
+			if (result.status().isError()) {
+				errors++;
+			}
+		}
+		progress.println(results.size() + " simulations, " + errors + " errors");
+
+		SummaryValue[] values = SummaryValue.values();
+		try {
+			if (jsonFile != null) {
+				try (OutputStream stream = open(jsonFile, out)) {
+					SummaryJSONExport.exportJSON(stream, results, values);
+				}
+			}
+			if (csvFile != null) {
+				try (OutputStream stream = open(csvFile, out)) {
+					CSVExport.exportSummaryCSV(stream, results, values, FIELD_SEPARATOR, DECIMAL_PLACES, false,
+							COMMENT_STARTER);
+				}
+			}
+			if (dataDirectory != null) {
+				exportFlightData(results, dataDirectory);
+			}
+		} catch (IOException e) {
+			err.println("Error writing output: " + e.getMessage());
+			return EXIT_SIMULATION_ERROR;
+		}
+
+		return (errors > 0) ? EXIT_SIMULATION_ERROR : EXIT_OK;
+	}
+
+	private static String value(String[] args, int index, String option) {
+		if (index >= args.length) {
+			throw new IllegalArgumentException("Missing value for " + option);
+		}
+		return args[index];
+	}
+
+	/**
+	 * Add a design file, or all design files of a directory in name order.
+	 */
+	private static void addFiles(List<File> files, File file) {
+		if (file.isDirectory()) {
+			File[] children = file.listFiles((dir, name) -> name.toLowerCase().endsWith(".ork"));
+			if (children != null) {
+				Arrays.sort(children);
+				files.addAll(Arrays.asList(children));
+			}
+		} else {
+			files.add(file);
+		}
+	}
+
+	/**
+	 * Open an output file, or return a stream to standard output that is not closed.
+	 */
+	private static OutputStream open(String name, PrintStream out) throws IOException {
+		if ("-".equals(name)) {
+			return new PrintStream(out, true) {
+				@Override
+				public void close() {
+					flush();
+				}
+			};
+		}
+		return new FileOutputStream(name);
+	}
+
+	private static String describe(BatchResult result) {
+		StringBuilder sb = new StringBuilder();
+		sb.append(result.status()).append(": ").append(result.source());
+		if (result.simulation() != null) {
+			sb.append(" / ").append(result.simulation());
+		}
+		if (result.status() == BatchResult.Status.OK) {
+			sb.append(String.format(Locale.ENGLISH, " (apogee %.1f m)", result.getValue(SummaryValue.MAX_ALTITUDE)));
+		} else if (result.message() != null) {
+			sb.append(": ").append(result.message());
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Export the first branch of the flight data of every simulation into a separate CSV file,
+	 * named after the source file, the index of the result and the simulation.
+	 */
+	private static void exportFlightData(List<BatchResult> results, File directory) throws IOException {
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException("Unable to create directory " + directory);
+		}
+		List<FlightDataCSVExporter.Source> sources = new ArrayList<>();
+		List<File> files = new ArrayList<>();
+		for (int i = 0; i < results.size(); i++) {
+			BatchResult result = results.get(i);
+			if (result.data() == null || result.data().getBranchCount() == 0) {
+				continue;
+			}
+			String name = String.format("%s-%d-%s.csv", stripExtension(result.source()), i + 1, result.simulation());
+			sources.add(new FlightDataCSVExporter.Source(result.simulation(), result.data().getBranch(0)));
+			files.add(new File(directory, name.replaceAll("[^A-Za-z0-9._-]", "_")));
+		}
+
+		// All data types of each branch in SI units
+		FlightDataCSVExporter exporter = new FlightDataCSVExporter(FIELD_SEPARATOR, DECIMAL_PLACES, false);
+		exporter.setCommentStarter(COMMENT_STARTER);
+		exporter.setEventComments(true);
+		exporter.export(sources, files);
+	}
+
+	private static String stripExtension(String name) {
+		int dot = name.lastIndexOf('.');
+		return (dot > 0) ? name.substring(0, dot) : name;
+	}
+
+
+	/**
+	 * An exception handler that logs the errors, as there is no user to show them to.
+	 */
+	private static class LoggingExceptionHandler implements ExceptionHandler {
+		@Override
+		public void handleErrorCondition(String message) {
+			log.error(message);
+		}
+
+		@Override
+		public void handleErrorCondition(String message, Throwable exception) {
+			log.error(message, exception);
+		}
+
+		@Override
+		public void handleErrorCondition(Throwable exception) {
+			log.error("Error occurred", exception);
+		}
+
+		@Override
+		public void uncaughtException(Thread thread, Throwable throwable) {
+			log.error("Uncaught exception in thread " + thread.getName(), throwable);
+		}
+	}
+}
@@ -0,0 +1,193 @@
+package info.openrocket.core.batch;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.openrocket.core.document.OpenRocketDocument;
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.file.GeneralRocketLoader;
+import info.openrocket.core.file.RocketLoadException;
+import info.openrocket.core.simulation.FlightData;
+import info.openrocket.core.simulation.FlightEvent;
+import info.openrocket.core.simulation.exception.SimulationException;
+import info.openrocket.core.simulation.listeners.system.InterruptListener;
+import info.openrocket.core.util.ExecutorUtils;
+
+/**
+ * Loads rocket design files and runs their simulations on a bounded pool of worker threads.
+ * <p>
+ * The files are loaded in parallel as well.  The results are returned in a stable order,
+ * by file and then by the order of the simulations within the file, regardless of the order
+ * in which the simulations complete.
+ */
+public class BatchSimulationRunner {
+	private static final Logger log = LoggerFactory.getLogger(BatchSimulationRunner.class);
+
+	private int threadCount = Runtime.getRuntime().availableProcessors();
+	private final Set<String> simulationNames = new HashSet<>();
+
+	public int getThreadCount() {
+		return threadCount;
+	}
+
+	/**
+	 * Set the maximum number of simulations run concurrently.  The default is the number
+	 * of available processors.
+	 */
+	public void setThreadCount(int threadCount) {
+		if (threadCount < 1) {
+			throw new IllegalArgumentException("Thread count must be positive: " + threadCount);
+		}
+		this.threadCount = threadCount;
+	}
+
+	/**
+	 * Select the simulations to run by name.  If no names are given, all simulations are run.
+	 */
+	public void setSimulationNames(Collection<String> names) {
+		simulationNames.clear();
+		simulationNames.addAll(names);
+	}
+
+	/**
+	 * Load the specified files and run their selected simulations.
+	 *
+	 * @param files		the design files to load.
+	 * @return			the results of the simulations, by file and simulation order.
+	 * @throws InterruptedException	if the calling thread is interrupted while waiting.
+	 */
+	public List<BatchResult> run(List<File> files) throws InterruptedException {
+		return run(files, null);
+	}
+
+	/**
+	 * Load the specified files and run their selected simulations.
+	 *
+	 * @param files		the design files to load.
+	 * @param progress	a consumer that receives each result as soon as it and all results
+	 * 					before it are available, on the calling thread, or <code>null</code>.
+	 * @return			the results of the simulations, by file and simulation order.
+	 * @throws InterruptedException	if the calling thread is interrupted while waiting.
+	 */
+	public List<BatchResult> run(List<File> files, Consumer<BatchResult> progress) throws InterruptedException {
+		ExecutorService executor = createExecutor(threadCount);
+		try {
+			List<Future<OpenRocketDocument>> documents = new ArrayList<>(files.size());
+			for (File file : files) {
+				documents.add(executor.submit(() -> new GeneralRocketLoader(file).load()));
+			}
+
+			List<Future<BatchResult>> results = new ArrayList<>();
+			for (int i = 0; i < files.size(); i++) {
+				String source = files.get(i).getName();
+				OpenRocketDocument document;
+				try {
+					document = documents.get(i).get();
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if (!(cause instanceof RocketLoadException)) {
+						log.warn("Unexpected error loading " + source, cause);
+					}
+					results.add(completed(new BatchResult(source, null, BatchResult.Status.FAILED, null,
+							"Unable to load file: " + cause.getMessage())));
+					continue;
+				}
+
+				for (Simulation simulation : document.getSimulations()) {
+					if (simulationNames.isEmpty() || simulationNames.contains(simulation.getName())) {
+						results.add(executor.submit(new SimulationTask(source, simulation)));
+					}
+				}
+			}
+
+			List<BatchResult> list = new ArrayList<>(results.size());
+			for (Future<BatchResult> future : results) {
+				BatchResult result = ExecutorUtils.getResult(future, "Simulation task failed unexpectedly");
+				list.add(result);
+				if (progress != null) {
+					progress.accept(result);
+				}
+			}
+			return list;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static Future<BatchResult> completed(BatchResult result) {
+		return CompletableFuture.completedFuture(result);
+	}
+
+	private static ExecutorService createExecutor(int threadCount) {
+		return ExecutorUtils.newDaemonExecutor("BatchSimulationRunner", threadCount);
+	}
+
+
+	/**
+	 * Runs a single simulation and converts its outcome into a result.  Errors of the
+	 * simulation are reported in the result instead of being thrown.
+	 */
+	private static class SimulationTask implements Callable<BatchResult> {
+		private final String source;
+		private final Simulation simulation;
+
+		SimulationTask(String source, Simulation simulation) {
+			this.source = source;
+			this.simulation = simulation;
+		}
+
+		@Override
+		public BatchResult call() {
+			String name = simulation.getName();
+			Simulation.Status status = simulation.getStatus();
+			if (status == Simulation.Status.CANT_RUN || status == Simulation.Status.EXTERNAL) {
+				return new BatchResult(source, name, BatchResult.Status.SKIPPED, simulation.getSimulatedData(),
+						"Simulation cannot be run (" + status + ")");
+			}
+
+			log.info("Running simulation '" + name + "' of " + source);
+			try {
+				simulation.simulate(InterruptListener.INSTANCE);
+			} catch (SimulationException e) {
+				return new BatchResult(source, name, BatchResult.Status.FAILED, simulation.getSimulatedData(),
+						e.getMessage());
+			} catch (RuntimeException e) {
+				log.warn("Unexpected error in simulation '" + name + "' of " + source, e);
+				return new BatchResult(source, name, BatchResult.Status.FAILED, null, e.toString());
+			}
+
+			FlightData data = simulation.getSimulatedData();
+			if (simulation.hasErrors()) {
+				return new BatchResult(source, name, BatchResult.Status.ABORTED, data, getAbortMessage(data));
+			}
+			return new BatchResult(source, name, BatchResult.Status.OK, data, null);
+		}
+
+		private static String getAbortMessage(FlightData data) {
+			StringBuilder sb = new StringBuilder();
+			for (int b = 0; b < data.getBranchCount(); b++) {
+				FlightEvent abort = data.getBranch(b).getFirstEvent(FlightEvent.Type.SIM_ABORT);
+				if (abort != null) {
+					if (sb.length() > 0) {
+						sb.append("; ");
+					}
+					sb.append(data.getBranch(b).getName()).append(": ").append(abort.getData());
+				}
+			}
+			return sb.toString();
+		}
+	}
+}
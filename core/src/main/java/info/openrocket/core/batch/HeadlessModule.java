@@ -0,0 +1,71 @@
+package info.openrocket.core.batch;
+
+import info.openrocket.core.database.ComponentPresetDao;
+import info.openrocket.core.database.ComponentPresetDatabaseLoader;
+import info.openrocket.core.database.MotorDatabaseLoader;
+import info.openrocket.core.database.motor.MotorDatabase;
+import info.openrocket.core.database.motor.ThrustCurveMotorSetDatabase;
+import info.openrocket.core.formatting.RocketDescriptor;
+import info.openrocket.core.formatting.RocketDescriptorImpl;
+import info.openrocket.core.l10n.ResourceBundleTranslator;
+import info.openrocket.core.l10n.Translator;
+import info.openrocket.core.preferences.ApplicationPreferences;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Provider;
+import com.google.inject.Scopes;
+
+/**
+ * HeadlessModule is the Guice Module for running OpenRocket without a user interface.
+ * <p>
+ * As with the graphical application, the databases are loaded in the background, and
+ * {@link #startLoader()} must be called after the Injector created with this module is
+ * registered in the Application object.  Fetching a database blocks until it has loaded.
+ */
+public class HeadlessModule extends AbstractModule {
+
+	private final ComponentPresetDatabaseLoader presetLoader = new ComponentPresetDatabaseLoader();
+	private final MotorDatabaseLoader motorLoader = new MotorDatabaseLoader();
+
+	@Override
+	protected void configure() {
+		bind(ApplicationPreferences.class).to(HeadlessPreferences.class).in(Scopes.SINGLETON);
+		bind(Translator.class).toInstance(new ResourceBundleTranslator("l10n.messages"));
+		bind(RocketDescriptor.class).to(RocketDescriptorImpl.class).in(Scopes.SINGLETON);
+
+		bind(ComponentPresetDao.class).toProvider(new Provider<ComponentPresetDao>() {
+			@Override
+			public ComponentPresetDao get() {
+				return presetLoader.getDatabase();
+			}
+		}).in(Scopes.SINGLETON);
+
+		Provider<ThrustCurveMotorSetDatabase> motorDatabaseProvider = new Provider<ThrustCurveMotorSetDatabase>() {
+			@Override
+			public ThrustCurveMotorSetDatabase get() {
+				return motorLoader.getDatabase();
+			}
+		};
+		bind(ThrustCurveMotorSetDatabase.class).toProvider(motorDatabaseProvider).in(Scopes.SINGLETON);
+		bind(MotorDatabase.class).toProvider(motorDatabaseProvider).in(Scopes.SINGLETON);
+	}
+
+	/**
+	 * Start loading the databases in the background.
+	 */
+	public void startLoader() {
+		boolean bypassPresets = System.getProperty("openrocket.bypass.presets") != null;
+		boolean bypassMotors = System.getProperty("openrocket.bypass.motors") != null;
+
+		if (!bypassPresets) {
+			presetLoader.startLoading();
+		} else {
+			presetLoader.markAsLoaded();
+		}
+		if (!bypassMotors) {
+			motorLoader.startLoading();
+		} else {
+			motorLoader.markAsLoaded();
+		}
+	}
+}
@@ -0,0 +1,151 @@
+package info.openrocket.core.batch;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.prefs.BackingStoreException;
+import java.util.prefs.Preferences;
+
+import info.openrocket.core.material.Material;
+import info.openrocket.core.preferences.ApplicationPreferences;
+import info.openrocket.core.preset.ComponentPreset;
+
+/**
+ * Preferences for running OpenRocket without a user interface.
+ * <p>
+ * The values are read from the same preference node as the graphical application uses, so
+ * that for example user-defined thrust curve directories are honored.  Values that are set
+ * are only kept in memory, so a batch run never modifies the stored preferences.
+ */
+public class HeadlessPreferences extends ApplicationPreferences {
+
+	/**
+	 * The node name to use in the Java preferences storage, shared with the graphical application.
+	 */
+	private static final String NODENAME = (System.getProperty("openrocket.debug.prefs") != null ?
+			"OpenRocket-debug" : "OpenRocket");
+
+	private static final String NODE_FAVORITES = "favoritePresets";
+
+	private final Preferences node;
+	private final Map<String, String> overrides = new ConcurrentHashMap<>();
+
+	public HeadlessPreferences() {
+		this.node = Preferences.userRoot().node(NODENAME);
+	}
+
+
+	@Override
+	public boolean getBoolean(String key, boolean defaultValue) {
+		String value = getString(key, null);
+		return (value != null) ? Boolean.parseBoolean(value) : defaultValue;
+	}
+
+	@Override
+	public void putBoolean(String key, boolean value) {
+		putString(key, String.valueOf(value));
+	}
+
+	@Override
+	public int getInt(String key, int defaultValue) {
+		String value = getString(key, null);
+		try {
+			return (value != null) ? Integer.parseInt(value) : defaultValue;
+		} catch (NumberFormatException e) {
+			return defaultValue;
+		}
+	}
+
+	@Override
+	public void putInt(String key, int value) {
+		putString(key, String.valueOf(value));
+	}
+
+	@Override
+	public double getDouble(String key, double defaultValue) {
+		String value = getString(key, null);
+		try {
+			return (value != null) ? Double.parseDouble(value) : defaultValue;
+		} catch (NumberFormatException e) {
+			return defaultValue;
+		}
+	}
+
+	@Override
+	public void putDouble(String key, double value) {
+		putString(key, String.valueOf(value));
+	}
+
+	@Override
+	public String getString(String key, String defaultValue) {
+		String value = overrides.get(key);
+		if (value != null) {
+			return value;
+		}
+		return node.get(key, defaultValue);
+	}
+
+	@Override
+	public void putString(String key, String value) {
+		if (value == null) {
+			overrides.remove(key);
+		} else {
+			overrides.put(key, value);
+		}
+	}
+
+	@Override
+	public String getString(String directory, String key, String defaultValue) {
+		return getString(directory + "/" + key, node.node(directory).get(key, defaultValue));
+	}
+
+	@Override
+	public void putString(String directory, String key, String value) {
+		putString(directory + "/" + key, value);
+	}
+
+	@Override
+	public Preferences getNode(String nodeName) {
+		return node.node(nodeName);
+	}
+
+	@Override
+	public Preferences getPreferences() {
+		return node;
+	}
+
+	/**
+	 * User-defined materials are not available in batch runs; the documents contain
+	 * the materials they use.
+	 */
+	@Override
+	public void addUserMaterial(Material m) {
+	}
+
+	@Override
+	public Set<Material> getUserMaterials() {
+		return Collections.emptySet();
+	}
+
+	@Override
+	public void removeUserMaterial(Material m) {
+	}
+
+	@Override
+	public void setComponentFavorite(ComponentPreset preset, ComponentPreset.Type type, boolean favorite) {
+	}
+
+	@Override
+	public Set<String> getComponentFavorites(ComponentPreset.Type type) {
+		Set<String> favorites = new HashSet<>();
+		try {
+			favorites.addAll(Arrays.asList(node.node(NODE_FAVORITES).node(type.name()).keys()));
+		} catch (BackingStoreException e) {
+			// No favorites available
+		}
+		return favorites;
+	}
+}
@@ -0,0 +1,90 @@
+package info.openrocket.core.batch;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.json.Json;
+import jakarta.json.JsonException;
+import jakarta.json.stream.JsonGenerator;
+
+/**
+ * Exports the results of a batch simulation run as a JSON document.
+ * <p>
+ * The document contains the number of simulations and errors, and an array with one
+ * object per simulation.  Summary values are given in SI units; values that are not
+ * available are written as <code>null</code>.
+ */
+public class SummaryJSONExport {
+
+	/**
+	 * Export the results into a JSON document.  The stream is flushed but not closed.
+	 *
+	 * @param stream	the stream to write to.
+	 * @param results	the results to export.
+	 * @param values	the summary values to include for each simulation.
+	 * @throws IOException if an I/O exception occurs.
+	 */
+	public static void exportJSON(OutputStream stream, List<BatchResult> results, SummaryValue[] values)
+			throws IOException {
+		int errors = 0;
+		for (BatchResult result : results) {
+			if (result.status().isError()) {
+				errors++;
+			}
+		}
+
+		Writer writer = new OutputStreamWriter(stream, StandardCharsets.UTF_8);
+		try {
+			JsonGenerator generator = Json.createGeneratorFactory(Map.of(JsonGenerator.PRETTY_PRINTING, true))
+					.createGenerator(writer);
+			generator.writeStartObject();
+			generator.write("simulations", results.size());
+			generator.write("errors", errors);
+
+			generator.writeStartObject("units");
+			for (SummaryValue value : values) {
+				generator.write(value.getKey(), value.getUnitGroup().getSIUnit().getUnit());
+			}
+			generator.writeEnd();
+
+			generator.writeStartArray("results");
+			for (BatchResult result : results) {
+				generator.writeStartObject();
+				generator.write("source", result.source());
+				writeNullable(generator, "simulation", result.simulation());
+				generator.write("status", result.status().name());
+				for (SummaryValue value : values) {
+					double v = result.getValue(value);
+					if (Double.isNaN(v) || Double.isInfinite(v)) {
+						generator.writeNull(value.getKey());
+					} else {
+						generator.write(value.getKey(), v);
+					}
+				}
+				writeNullable(generator, "message", result.message());
+				generator.writeEnd();
+			}
+			generator.writeEnd();
+
+			generator.writeEnd();
+			generator.flush();
+		} catch (JsonException e) {
+			throw new IOException("Error writing summary JSON", e);
+		}
+		writer.write(System.lineSeparator());
+		writer.flush();
+	}
+
+	private static void writeNullable(JsonGenerator generator, String key, String value) {
+		if (value == null) {
+			generator.writeNull(key);
+		} else {
+			generator.write(key, value);
+		}
+	}
+}
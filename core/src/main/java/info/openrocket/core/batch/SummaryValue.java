@@ -0,0 +1,53 @@
+package info.openrocket.core.batch;
+
+import java.util.function.ToDoubleFunction;
+
+import info.openrocket.core.simulation.FlightData;
+import info.openrocket.core.unit.UnitGroup;
+
+/**
+ * The summary values of a simulation that are reported by a batch run.
+ */
+public enum SummaryValue {
+	MAX_ALTITUDE("maxAltitude", UnitGroup.UNITS_DISTANCE, FlightData::getMaxAltitude),
+	MAX_VELOCITY("maxVelocity", UnitGroup.UNITS_VELOCITY, FlightData::getMaxVelocity),
+	MAX_ACCELERATION("maxAcceleration", UnitGroup.UNITS_ACCELERATION, FlightData::getMaxAcceleration),
+	MAX_MACH_NUMBER("maxMachNumber", UnitGroup.UNITS_COEFFICIENT, FlightData::getMaxMachNumber),
+	TIME_TO_APOGEE("timeToApogee", UnitGroup.UNITS_SHORT_TIME, FlightData::getTimeToApogee),
+	FLIGHT_TIME("flightTime", UnitGroup.UNITS_SHORT_TIME, FlightData::getFlightTime),
+	LAUNCH_ROD_VELOCITY("launchRodVelocity", UnitGroup.UNITS_VELOCITY, FlightData::getLaunchRodVelocity),
+	DEPLOYMENT_VELOCITY("deploymentVelocity", UnitGroup.UNITS_VELOCITY, FlightData::getDeploymentVelocity),
+	GROUND_HIT_VELOCITY("groundHitVelocity", UnitGroup.UNITS_VELOCITY, FlightData::getGroundHitVelocity),
+	OPTIMUM_DELAY("optimumDelay", UnitGroup.UNITS_SHORT_TIME, FlightData::getOptimumDelay);
+
+	private final String key;
+	private final UnitGroup unitGroup;
+	private final ToDoubleFunction<FlightData> getter;
+
+	SummaryValue(String key, UnitGroup unitGroup, ToDoubleFunction<FlightData> getter) {
+		this.key = key;
+		this.unitGroup = unitGroup;
+		this.getter = getter;
+	}
+
+	/**
+	 * Return the key used for this value in the summary files.
+	 */
+	public String getKey() {
+		return key;
+	}
+
+	/**
+	 * Return the unit group of this value.  The summary files use the SI unit of the group.
+	 */
+	public UnitGroup getUnitGroup() {
+		return unitGroup;
+	}
+
+	/**
+	 * Return this value of the specified flight data, in SI units.
+	 */
+	public double getValue(FlightData data) {
+		return getter.applyAsDouble(data);
+	}
+}
@@ -0,0 +1,211 @@
+package info.openrocket.core.componentanalysis;
+
+import info.openrocket.core.aerodynamics.ConfigurationKey;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.rocketcomponent.RocketComponent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Component analysis results over a grid of up to four flight condition parameters,
+ * for example Mach number, angle of attack and roll rate.
+ * <p>
+ * The values of each data type and component are stored in a single primitive array
+ * in row-major order, i.e. the index of the last axis changes fastest.  Values that were
+ * not computed for a component are NaN.
+ * <p>
+ * A grid is created by {@link CAParameterSweep#sweepGrid}.  It remembers the aerodynamic
+ * state of the rocket and the fixed flight conditions it was computed for, so that a later
+ * sweep can reuse its values.
+ */
+public class CAGrid {
+	private final Rocket rocket;
+	private final CADomainDataType[] axes;
+	private final double[][] axisValues;
+	private final int[] strides;
+	private final int size;
+	private final Map<CADataType, Map<RocketComponent, double[]>> values = new ConcurrentHashMap<>();
+
+	/** The aerodynamic state of the configuration the values were computed for */
+	final ConfigurationKey configurationKey;
+	/** The flight conditions of the parameters that are not axes of the grid, NaN for the axes */
+	final double[] conditions;
+
+	CAGrid(Rocket rocket, CADomainDataType[] axes, double[][] axisValues, ConfigurationKey configurationKey,
+		   double[] conditions) {
+		if (axes.length == 0 || axes.length != axisValues.length) {
+			throw new IllegalArgumentException("Invalid number of axes: " + axes.length + " types, " +
+					axisValues.length + " value arrays");
+		}
+		for (int i = 0; i < axes.length; i++) {
+			for (int j = 0; j < i; j++) {
+				if (axes[i].equals(axes[j])) {
+					throw new IllegalArgumentException("Duplicate grid axis " + axes[i]);
+				}
+			}
+			if (axisValues[i].length == 0) {
+				throw new IllegalArgumentException("No values for grid axis " + axes[i]);
+			}
+		}
+
+		this.rocket = rocket;
+		this.axes = axes.clone();
+		this.axisValues = new double[axes.length][];
+		this.strides = new int[axes.length];
+		int n = 1;
+		for (int i = axes.length - 1; i >= 0; i--) {
+			this.axisValues[i] = axisValues[i].clone();
+			this.strides[i] = n;
+			n = Math.multiplyExact(n, axisValues[i].length);
+		}
+		this.size = n;
+		this.configurationKey = configurationKey;
+		this.conditions = conditions.clone();
+	}
+
+	/**
+	 * @return the rocket whose components the values are stored for
+	 */
+	public Rocket getRocket() {
+		return rocket;
+	}
+
+	/**
+	 * @return the number of axes of the grid
+	 */
+	public int getDimensions() {
+		return axes.length;
+	}
+
+	/**
+	 * @return the parameter types of the axes, in grid order
+	 */
+	public CADomainDataType[] getAxes() {
+		return axes.clone();
+	}
+
+	/**
+	 * @param axis the index of the axis
+	 * @return the parameter values of the axis
+	 */
+	public double[] getAxisValues(int axis) {
+		return axisValues[axis].clone();
+	}
+
+	/**
+	 * @return the total number of grid points
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Return the index of a grid point in the value arrays.
+	 * @param indices the index of the point along each axis
+	 * @return the index of the grid point
+	 */
+	public int getIndex(int... indices) {
+		if (indices.length != axes.length) {
+			throw new IllegalArgumentException("Expected " + axes.length + " indices, got " + indices.length);
+		}
+		int index = 0;
+		for (int i = 0; i < indices.length; i++) {
+			if (indices[i] < 0 || indices[i] >= axisValues[i].length) {
+				throw new IndexOutOfBoundsException("Index " + indices[i] + " out of bounds for axis " + axes[i]);
+			}
+			index += indices[i] * strides[i];
+		}
+		return index;
+	}
+
+	/**
+	 * Return the index of a grid point along one axis.
+	 * @param index the index of the grid point
+	 * @param axis the index of the axis
+	 * @return the index of the point along the axis
+	 */
+	public int getAxisIndex(int index, int axis) {
+		return (index / strides[axis]) % axisValues[axis].length;
+	}
+
+	/**
+	 * Return the parameter value of a grid point along one axis.
+	 * @param index the index of the grid point
+	 * @param axis the index of the axis
+	 * @return the parameter value
+	 */
+	public double getAxisValue(int index, int axis) {
+		return axisValues[axis][getAxisIndex(index, axis)];
+	}
+
+	/**
+	 * @return the data types that have values
+	 */
+	public Set<CADataType> getTypes() {
+		return Collections.unmodifiableSet(values.keySet());
+	}
+
+	/**
+	 * @param type the data type
+	 * @return the components that have values of the data type, in rocket order
+	 */
+	public List<RocketComponent> getComponents(CADataType type) {
+		List<RocketComponent> components = new ArrayList<>();
+		Map<RocketComponent, double[]> typeValues = values.get(type);
+		if (typeValues != null) {
+			for (RocketComponent component : rocket) {
+				if (typeValues.containsKey(component)) {
+					components.add(component);
+				}
+			}
+		}
+		return components;
+	}
+
+	/**
+	 * Return a value at a grid point.
+	 * @param type the data type
+	 * @param component the component
+	 * @param index the index of the grid point
+	 * @return the value, or NaN if not available
+	 */
+	public double get(CADataType type, RocketComponent component, int index) {
+		double[] array = getArray(type, component);
+		return (array != null) ? array[index] : Double.NaN;
+	}
+
+	/**
+	 * Return the values of a data type and component at all grid points.
+	 * @param type the data type
+	 * @param component the component
+	 * @return a copy of the values in grid order, or null if not available
+	 */
+	public double[] getValues(CADataType type, RocketComponent component) {
+		double[] array = getArray(type, component);
+		return (array != null) ? array.clone() : null;
+	}
+
+	/**
+	 * Set a value at a grid point.  Values of different grid points may be set from different
+	 * threads concurrently.
+	 */
+	void set(CADataType type, RocketComponent component, int index, double value) {
+		values.computeIfAbsent(type, t -> new ConcurrentHashMap<>())
+				.computeIfAbsent(component, c -> {
+					double[] array = new double[size];
+					Arrays.fill(array, Double.NaN);
+					return array;
+				})[index] = value;
+	}
+
+	private double[] getArray(CADataType type, RocketComponent component) {
+		Map<RocketComponent, double[]> typeValues = values.get(type);
+		return (typeValues != null) ? typeValues.get(component) : null;
+	}
+}
@@ -2,21 +2,78 @@ package info.openrocket.core.componentanalysis;
 
 import info.openrocket.core.aerodynamics.AerodynamicCalculator;
 import info.openrocket.core.aerodynamics.AerodynamicForces;
+import info.openrocket.core.aerodynamics.ConfigurationKey;
 import info.openrocket.core.aerodynamics.FlightConditions;
 import info.openrocket.core.logging.WarningSet;
 import info.openrocket.core.rocketcomponent.FinSet;
+import info.openrocket.core.rocketcomponent.FlightConfiguration;
 import info.openrocket.core.rocketcomponent.Rocket;
 import info.openrocket.core.rocketcomponent.RocketComponent;
+import info.openrocket.core.util.ExecutorUtils;
 import info.openrocket.core.util.MathUtil;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Computes the aerodynamic forces of a rocket over a range of one flight condition parameter,
+ * or over a grid of several parameters.
+ * <p>
+ * The sweep points are computed in parallel.  Each thread computes its share of the points
+ * using its own copy of the rocket and its own aerodynamic calculator, and the results are
+ * added to the data branch in sweep order.
+ * <p>
+ * A grid sweep can reuse the values of an earlier grid.  The Barrowman contributions of the
+ * components depend on their neighbours and on the whole rocket, for example through the body
+ * radius at the fins and the rocket length used for friction drag, so the values of an earlier
+ * grid are reused only if the aerodynamic state of the configuration is unchanged.  Edits that
+ * do not affect the aerodynamics, such as mass or appearance changes, keep the grid, and only
+ * the points added by extending or refining the axes are computed.
+ */
 public class CAParameterSweep {
 	private final CAParameters parameters;
 	private final AerodynamicCalculator aerodynamicCalculator;
 	private final Rocket rocket;
+	private int threadCount = Runtime.getRuntime().availableProcessors();
+
+	private volatile boolean cancelled = false;
+
+	/**
+	 * Listener notified of the progress of a sweep.
+	 */
+	public interface ProgressListener {
+		/**
+		 * Called after a sweep point has been computed.  This method is called from the threads
+		 * computing the sweep, so it must be thread-safe.
+		 *
+		 * @param computed the number of points computed so far
+		 * @param total the total number of points of the sweep
+		 */
+		void pointComputed(int computed, int total);
+	}
+
+	/**
+	 * Computes one sweep point on a thread of the sweep.
+	 */
+	private interface PointTask {
+		void compute(int index, FlightConfiguration configuration, AerodynamicCalculator calculator);
+	}
+
+	/**
+	 * Receives the values of one sweep point.
+	 */
+	private interface ValueSink {
+		void setValue(CADataType type, RocketComponent component, double value);
+	}
 
 	public CAParameterSweep(CAParameters parameters, AerodynamicCalculator aerodynamicCalculator, Rocket rocket) {
 		this.parameters = parameters.clone();
@@ -24,6 +81,21 @@ public class CAParameterSweep {
 		this.rocket = rocket;
 	}
 
+	/**
+	 * Set the number of threads computing the sweep points in parallel.
+	 * @param threadCount the number of threads
+	 */
+	public void setThreadCount(int threadCount) {
+		this.threadCount = Math.max(1, threadCount);
+	}
+
+	/**
+	 * Cancel the sweep that is currently running.  The sweep then throws a CancellationException.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
 	/**
 	 * Perform a parameter sweep over the specified parameter type.
 	 * @param sweepParameter the parameter to sweep (e.g. MACH)
@@ -33,22 +105,45 @@ public class CAParameterSweep {
 	 * @return a data branch containing the results of the sweep
 	 */
 	public CADataBranch sweep(CADomainDataType sweepParameter, double min, double max, double delta, double initialValue) {
-		List<Double> sweepValues = generateSweepValues(min, max, delta);
+		return sweep(sweepParameter, min, max, delta, initialValue, null);
+	}
+
+	/**
+	 * Perform a parameter sweep over the specified parameter type.
+	 * <p>
+	 * The sweep can be cancelled by calling {@link #cancel()} or by interrupting the calling thread.
+	 * @param sweepParameter the parameter to sweep (e.g. MACH)
+	 * @param min the minimum value of the parameter
+	 * @param max the maximum value of the parameter
+	 * @param delta the step size of the parameter
+	 * @param listener the listener notified of the progress, or null
+	 * @return a data branch containing the results of the sweep
+	 * @throws CancellationException if the sweep was cancelled
+	 */
+	public CADataBranch sweep(CADomainDataType sweepParameter, double min, double max, double delta,
+							  double initialValue, ProgressListener listener) {
+		cancelled = false;
+		final List<Double> sweepValues = generateSweepValues(min, max, delta);
 		CADataBranch dataBranch = new CADataBranch("Parameter Sweep");
 		dataBranch.addType(sweepParameter);
 
-		for (Double value : sweepValues) {
-			setParameterValue(sweepParameter, value);
-			FlightConditions conditions = createFlightConditions();
-			Map<RocketComponent, AerodynamicForces> aeroData = aerodynamicCalculator.getForceAnalysis(rocket.getSelectedConfiguration(), conditions, new WarningSet());
+		final CADomainDataType[] axes = { sweepParameter };
+		final int total = sweepValues.size();
+		final List<Map<RocketComponent, AerodynamicForces>> results = new ArrayList<>(total);
+		for (int i = 0; i < total; i++) {
+			results.add(null);
+		}
+		computePoints(total, (i, configuration, calculator) -> {
+			FlightConditions conditions = createFlightConditions(configuration, axes,
+					new double[] { sweepValues.get(i) });
+			results.set(i, calculator.getForceAnalysis(configuration, conditions, new WarningSet()));
+		}, listener);
 
+		Map<UUID, RocketComponent> components = getComponentsByID();
+		for (int i = 0; i < total; i++) {
 			dataBranch.addPoint();
-			addDomainData(dataBranch, sweepParameter, value);
-
-			addComponentData(dataBranch, aeroData, value);
-			addStabilityData(dataBranch, aeroData, value);
-			addDragData(dataBranch, aeroData, value);
-			addRollData(dataBranch, aeroData, value);
+			addDomainData(dataBranch, sweepParameter, sweepValues.get(i));
+			addForces(dataBranch::setValue, mapComponents(results.get(i), components));
 		}
 
 		// Reset the parameter to its original value
@@ -57,7 +152,217 @@ public class CAParameterSweep {
 		return dataBranch;
 	}
 
-	private List<Double> generateSweepValues(double min, double max, double delta) {
+	/**
+	 * Compute the aerodynamic forces over a grid of parameter values.
+	 * <p>
+	 * The values of the points that the previous grid contains are reused, if the previous grid was
+	 * computed for the same rocket, aerodynamic state, configuration and fixed flight conditions, and
+	 * has the same axes.  Otherwise all points are computed.  The previous grid is not modified.
+	 * <p>
+	 * The sweep can be cancelled by calling {@link #cancel()} or by interrupting the calling thread.
+	 * @param axes the parameters of the grid axes, at most one of each type
+	 * @param axisValues the parameter values of each axis, see {@link #getSweepValues(double, double, double)}
+	 * @param previous an earlier grid whose values to reuse, or null
+	 * @param listener the listener notified of the progress of the computed points, or null
+	 * @return the grid
+	 * @throws CancellationException if the sweep was cancelled
+	 */
+	public CAGrid sweepGrid(CADomainDataType[] axes, double[][] axisValues, CAGrid previous,
+							ProgressListener listener) {
+		cancelled = false;
+		final FlightConfiguration configuration = rocket.getSelectedConfiguration();
+		final CAGrid grid = new CAGrid(rocket, axes, axisValues, ConfigurationKey.of(configuration),
+				getFixedConditions(axes));
+
+		// Reuse the points of the previous grid if it is still valid
+		int[] previousIndex = null;
+		if (previous != null && previous.getRocket() == rocket && Arrays.equals(previous.getAxes(), axes) &&
+				Arrays.equals(previous.conditions, grid.conditions) && previous.configurationKey.matches(configuration)) {
+			previousIndex = mapPoints(previous, grid);
+		}
+
+		final int[] pending = new int[grid.getSize()];
+		int count = 0;
+		for (int index = 0; index < grid.getSize(); index++) {
+			if (previousIndex == null || previousIndex[index] < 0) {
+				pending[count++] = index;
+			}
+		}
+		if (previousIndex != null) {
+			copyPoints(previous, previousIndex, grid);
+		}
+
+		final Map<UUID, RocketComponent> components = getComponentsByID();
+		computePoints(count, (i, conf, calculator) -> {
+			final int index = pending[i];
+			double[] values = new double[grid.getDimensions()];
+			for (int axis = 0; axis < values.length; axis++) {
+				values[axis] = grid.getAxisValue(index, axis);
+			}
+			FlightConditions conditions = createFlightConditions(conf, axes, values);
+			Map<RocketComponent, AerodynamicForces> forces = calculator.getForceAnalysis(conf, conditions,
+					new WarningSet());
+			addForces((type, component, value) -> grid.set(type, component, index, value),
+					mapComponents(forces, components));
+		}, listener);
+
+		return grid;
+	}
+
+	/**
+	 * Return the values of a parameter from the minimum to the maximum value, as used by the sweeps.
+	 * @param min the minimum value of the parameter
+	 * @param max the maximum value of the parameter
+	 * @param delta the step size of the parameter
+	 * @return the parameter values
+	 */
+	public static double[] getSweepValues(double min, double max, double delta) {
+		List<Double> values = generateSweepValues(min, max, delta);
+		double[] array = new double[values.size()];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = values.get(i);
+		}
+		return array;
+	}
+
+	/**
+	 * Map each point of a grid to the point of the previous grid with the same parameter values.
+	 * @return the index of the point in the previous grid for each point, -1 if not contained
+	 */
+	private static int[] mapPoints(CAGrid previous, CAGrid grid) {
+		int[][] axisMap = new int[grid.getDimensions()][];
+		for (int axis = 0; axis < axisMap.length; axis++) {
+			double[] values = grid.getAxisValues(axis);
+			double[] previousValues = previous.getAxisValues(axis);
+			axisMap[axis] = new int[values.length];
+			for (int i = 0; i < values.length; i++) {
+				axisMap[axis][i] = -1;
+				for (int j = 0; j < previousValues.length; j++) {
+					if (Double.compare(values[i], previousValues[j]) == 0) {
+						axisMap[axis][i] = j;
+						break;
+					}
+				}
+			}
+		}
+
+		int[] map = new int[grid.getSize()];
+		int[] indices = new int[axisMap.length];
+		for (int index = 0; index < map.length; index++) {
+			map[index] = -1;
+			boolean contained = true;
+			for (int axis = 0; axis < axisMap.length && contained; axis++) {
+				indices[axis] = axisMap[axis][grid.getAxisIndex(index, axis)];
+				contained = indices[axis] >= 0;
+			}
+			if (contained) {
+				map[index] = previous.getIndex(indices);
+			}
+		}
+		return map;
+	}
+
+	private static void copyPoints(CAGrid from, int[] fromIndex, CAGrid to) {
+		for (CADataType type : from.getTypes()) {
+			for (RocketComponent component : from.getComponents(type)) {
+				double[] values = from.getValues(type, component);
+				for (int index = 0; index < fromIndex.length; index++) {
+					if (fromIndex[index] >= 0) {
+						to.set(type, component, index, values[fromIndex[index]]);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Return the flight conditions of the parameters, with NaN for the parameters that are grid axes.
+	 */
+	private double[] getFixedConditions(CADomainDataType[] axes) {
+		double[] conditions = { parameters.getMach(), parameters.getAOA(), parameters.getTheta(),
+				parameters.getRollRate() };
+		CADomainDataType[] types = { CADomainDataType.MACH, CADomainDataType.AOA, CADomainDataType.WIND_DIRECTION,
+				CADomainDataType.ROLL_RATE };
+		for (CADomainDataType axis : axes) {
+			int i = Arrays.asList(types).indexOf(axis);
+			if (i < 0) {
+				throw new IllegalArgumentException("Unsupported parameter type: " + axis);
+			}
+			conditions[i] = Double.NaN;
+		}
+		return conditions;
+	}
+
+	/**
+	 * The components of the rocket copies are mapped back to the components of the rocket by their ID.
+	 */
+	private Map<UUID, RocketComponent> getComponentsByID() {
+		Map<UUID, RocketComponent> components = new HashMap<>();
+		for (RocketComponent component : rocket) {
+			components.put(component.getID(), component);
+		}
+		return components;
+	}
+
+	private static Map<RocketComponent, AerodynamicForces> mapComponents(Map<RocketComponent, AerodynamicForces> forces,
+																		 Map<UUID, RocketComponent> components) {
+		Map<RocketComponent, AerodynamicForces> aeroData = new LinkedHashMap<>();
+		for (Map.Entry<RocketComponent, AerodynamicForces> entry : forces.entrySet()) {
+			aeroData.put(components.get(entry.getKey().getID()), entry.getValue());
+		}
+		return aeroData;
+	}
+
+	/**
+	 * Compute the sweep points in parallel.  The points are interleaved between the threads,
+	 * so each thread gets points over the whole range.  The task is given the configuration
+	 * of the rocket copy and the calculator of its thread.
+	 */
+	private void computePoints(final int total, final PointTask task, final ProgressListener listener) {
+		if (total == 0) {
+			return;
+		}
+		final int workers = Math.max(1, Math.min(threadCount, total));
+		final AtomicInteger computed = new AtomicInteger();
+
+		ExecutorService executor = ExecutorUtils.newDaemonExecutor("CAParameterSweep", workers);
+		try {
+			List<Future<?>> futures = new ArrayList<>(workers);
+			for (int w = 0; w < workers; w++) {
+				final int first = w;
+				// The rocket is copied on the calling thread, as the rocket is not thread-safe
+				final Rocket copy = rocket.copyWithOriginalID();
+				final AerodynamicCalculator calculator = aerodynamicCalculator.newInstance();
+				futures.add(executor.submit(() -> {
+					FlightConfiguration configuration = copy.getSelectedConfiguration();
+					for (int i = first; i < total; i += workers) {
+						if (cancelled || Thread.currentThread().isInterrupted()) {
+							return;
+						}
+						task.compute(i, configuration, calculator);
+						if (listener != null) {
+							listener.pointComputed(computed.incrementAndGet(), total);
+						}
+					}
+				}));
+			}
+
+			for (Future<?> future : futures) {
+				ExecutorUtils.getResult(future, "Parameter sweep failed");
+			}
+		} catch (InterruptedException e) {
+			cancelled = true;
+			Thread.currentThread().interrupt();
+		} finally {
+			executor.shutdownNow();
+		}
+
+		if (cancelled) {
+			throw new CancellationException("Parameter sweep was cancelled");
+		}
+	}
+
+	private static List<Double> generateSweepValues(double min, double max, double delta) {
 		List<Double> values = new ArrayList<>();
 		int scale = determineScale(delta);
 		double multiplier = Math.pow(10, scale);
@@ -69,7 +374,7 @@ public class CAParameterSweep {
 		return values;
 	}
 
-	private int determineScale(double delta) {
+	private static int determineScale(double delta) {
 		String deltaStr = Double.toString(Math.abs(delta));
 		int indexOfDecimal = deltaStr.indexOf(".");
 		if (indexOfDecimal == -1) {
@@ -94,12 +399,32 @@ public class CAParameterSweep {
 		}
 	}
 
-	private FlightConditions createFlightConditions() {
-		FlightConditions conditions = new FlightConditions(rocket.getSelectedConfiguration());
+	/**
+	 * Create the flight conditions of a sweep point.  The parameters are not modified, as their
+	 * listeners must not be called from the threads computing the sweep.
+	 */
+	private FlightConditions createFlightConditions(FlightConfiguration configuration, CADomainDataType[] parameterTypes,
+													double[] values) {
+		FlightConditions conditions = new FlightConditions(configuration);
 		conditions.setAOA(parameters.getAOA());
 		conditions.setTheta(parameters.getTheta());
 		conditions.setMach(parameters.getMach());
 		conditions.setRollRate(parameters.getRollRate());
+
+		for (int i = 0; i < parameterTypes.length; i++) {
+			CADomainDataType parameterType = parameterTypes[i];
+			if (parameterType.equals(CADomainDataType.MACH)) {
+				conditions.setMach(values[i]);
+			} else if (parameterType.equals(CADomainDataType.AOA)) {
+				conditions.setAOA(values[i]);
+			} else if (parameterType.equals(CADomainDataType.ROLL_RATE)) {
+				conditions.setRollRate(values[i]);
+			} else if (parameterType.equals(CADomainDataType.WIND_DIRECTION)) {
+				conditions.setTheta(values[i]);
+			} else {
+				throw new IllegalArgumentException("Unsupported parameter type: " + parameterType);
+			}
+		}
 		return conditions;
 	}
 
@@ -107,7 +432,14 @@ public class CAParameterSweep {
 		dataBranch.setDomainValue(sweepParameter, value);
 	}
 
-	private void addComponentData(CADataBranch dataBranch, Map<RocketComponent, AerodynamicForces> aeroData, double sweepValue) {
+	private void addForces(ValueSink dataBranch, Map<RocketComponent, AerodynamicForces> aeroData) {
+		addComponentData(dataBranch, aeroData);
+		addStabilityData(dataBranch, aeroData);
+		addDragData(dataBranch, aeroData);
+		addRollData(dataBranch, aeroData);
+	}
+
+	private void addComponentData(ValueSink dataBranch, Map<RocketComponent, AerodynamicForces> aeroData) {
 		for (Map.Entry<RocketComponent, AerodynamicForces> entry : aeroData.entrySet()) {
 			RocketComponent component = entry.getKey();
 			AerodynamicForces forces = entry.getValue();
@@ -141,7 +473,7 @@ public class CAParameterSweep {
 		}
 	}
 
-	private void addStabilityData(CADataBranch dataBranch, Map<RocketComponent, AerodynamicForces> aeroData, double sweepValue) {
+	private void addStabilityData(ValueSink dataBranch, Map<RocketComponent, AerodynamicForces> aeroData) {
 		AerodynamicForces totalForces = aeroData.get(rocket);
 		if (totalForces != null && totalForces.getCP() != null) {
 			dataBranch.setValue(CADataType.CP_X, rocket, totalForces.getCP().x);
@@ -149,7 +481,7 @@ public class CAParameterSweep {
 		}
 	}
 
-	private void addDragData(CADataBranch dataBranch, Map<RocketComponent, AerodynamicForces> aeroData, double sweepValue) {
+	private void addDragData(ValueSink dataBranch, Map<RocketComponent, AerodynamicForces> aeroData) {
 		AerodynamicForces totalForces = aeroData.get(rocket);
 		if (totalForces != null) {
 			dataBranch.setValue(CADataType.PRESSURE_CD, rocket, totalForces.getPressureCD());
@@ -160,7 +492,7 @@ public class CAParameterSweep {
 		}
 	}
 
-	private void addRollData(CADataBranch dataBranch, Map<RocketComponent, AerodynamicForces> aeroData, double sweepValue) {
+	private void addRollData(ValueSink dataBranch, Map<RocketComponent, AerodynamicForces> aeroData) {
 		double totalRollForce = 0;
 		double totalRollDamping = 0;
 
@@ -0,0 +1,162 @@
+package info.openrocket.core.database;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.openrocket.core.preset.ComponentPreset;
+
+/**
+ * A persistent snapshot of the component presets parsed from component preset files.  The
+ * presets of a file are reused as long as the content hash of the file is unchanged, so
+ * the XML of unchanged files does not need to be unmarshalled again.
+ * <p>
+ * The presets are stored using their Java serialized form.  Looking up and adding files
+ * is thread safe, loading and saving the cache is not.
+ */
+class ComponentPresetCache {
+	private static final Logger log = LoggerFactory.getLogger(ComponentPresetCache.class);
+
+	private static final int VERSION = 1;
+
+	/** Only the classes of presets and their values are deserialized */
+	private static final ObjectInputFilter FILTER = ObjectInputFilter.Config.createFilter(
+			"info.openrocket.core.**;java.lang.*;java.util.*;[B;[Ljava.lang.Object;!*");
+
+	private final File file;
+
+	/** The presets read from the cache file, by path */
+	private final Map<String, Entry> entries = new HashMap<>();
+	/** The presets of the files loaded now, by path */
+	private final Map<String, Entry> current = new ConcurrentHashMap<>();
+	private volatile boolean modified = false;
+
+	/**
+	 * @param file	the cache file
+	 */
+	ComponentPresetCache(File file) {
+		this.file = file;
+	}
+
+	/**
+	 * Read the cache file.  An unreadable cache file is ignored.
+	 */
+	@SuppressWarnings("unchecked")
+	void load() {
+		entries.clear();
+		if (!file.isFile()) {
+			return;
+		}
+
+		try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			in.setObjectInputFilter(FILTER);
+			if (in.readInt() != VERSION) {
+				log.info("Ignoring component preset cache " + file + " of another version");
+				return;
+			}
+			final int count = in.readInt();
+			for (int i = 0; i < count; i++) {
+				String path = in.readUTF();
+				byte[] hash = (byte[]) in.readObject();
+				List<ComponentPreset> presets = (List<ComponentPreset>) in.readObject();
+				entries.put(path, new Entry(hash, presets));
+			}
+			log.debug("Read " + entries.size() + " files from component preset cache " + file);
+		} catch (IOException | ClassNotFoundException | RuntimeException e) {
+			log.warn("Unable to read component preset cache " + file + ": " + e, e);
+			entries.clear();
+		}
+	}
+
+	/**
+	 * Return the cached presets of a file, if the file is unchanged.
+	 *
+	 * @param path	the path of the file
+	 * @param hash	the content hash of the file
+	 * @return	the presets, or <code>null</code> if the file is not cached
+	 */
+	List<ComponentPreset> get(String path, byte[] hash) {
+		Entry entry = entries.get(path);
+		if (entry == null || !Arrays.equals(entry.hash, hash)) {
+			return null;
+		}
+		current.put(path, entry);
+		return new ArrayList<>(entry.presets);
+	}
+
+	/**
+	 * Add the presets of a file to the cache.
+	 *
+	 * @param path		the path of the file
+	 * @param hash		the content hash of the file
+	 * @param presets	the presets of the file
+	 */
+	void put(String path, byte[] hash, List<ComponentPreset> presets) {
+		current.put(path, new Entry(hash, new ArrayList<>(presets)));
+		modified = true;
+	}
+
+	/**
+	 * Write the files loaded now to the cache file, if the cache changed.  Files that were
+	 * not loaded now are removed from the cache.
+	 */
+	void save() {
+		if (!modified && current.size() == entries.size()) {
+			return;
+		}
+
+		List<String> paths = new ArrayList<>(current.keySet());
+		paths.sort(null);
+
+		File tempFile = new File(file.getPath() + ".tmp");
+		try {
+			File dir = file.getAbsoluteFile().getParentFile();
+			if (dir != null && !dir.isDirectory()) {
+				dir.mkdirs();
+			}
+			try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(
+					new FileOutputStream(tempFile)))) {
+				out.writeInt(VERSION);
+				out.writeInt(paths.size());
+				for (String path : paths) {
+					Entry entry = current.get(path);
+					out.writeUTF(path);
+					out.writeObject(entry.hash);
+					out.writeObject(entry.presets);
+				}
+			}
+			Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			log.debug("Wrote " + paths.size() + " files to component preset cache " + file);
+		} catch (IOException | RuntimeException e) {
+			log.warn("Unable to write component preset cache " + file + ": " + e, e);
+			tempFile.delete();
+		}
+	}
+
+	private static class Entry {
+		private final byte[] hash;
+		private final List<ComponentPreset> presets;
+
+		Entry(byte[] hash, List<ComponentPreset> presets) {
+			this.hash = hash;
+			this.presets = presets;
+		}
+	}
+}
@@ -1,8 +1,14 @@
 package info.openrocket.core.database;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.slf4j.Logger;
@@ -11,62 +17,147 @@ import org.slf4j.LoggerFactory;
 import info.openrocket.core.preset.ComponentPreset;
 import info.openrocket.core.startup.Application;
 
+/**
+ * The database of component presets.  The presets are indexed by type and by part number,
+ * the indices are rebuilt on the first query after the database has been modified.
+ */
 public class ComponentPresetDatabase extends Database<ComponentPreset> implements ComponentPresetDao {
 
 	private static final Logger logger = LoggerFactory.getLogger(ComponentPresetDatabase.class);
 
+	/** the presets of each type, in the order of the list */
+	private final Map<ComponentPreset.Type, List<ComponentPreset>> typeIndex = new EnumMap<>(ComponentPreset.Type.class);
+	/** the presets of each part number, in the order of the list */
+	private final Map<String, List<ComponentPreset>> partNoIndex = new HashMap<>();
+	/** the modification count of the list when the indices were built */
+	private int indexedModCount = -1;
+
 	public ComponentPresetDatabase() {
 		super();
 	}
 
+	@Override
+	public synchronized boolean add(ComponentPreset preset) {
+		return super.add(preset);
+	}
+
 	@Override
 	public List<ComponentPreset> listAll() {
 		return list;
 	}
 
 	@Override
-	public void insert(ComponentPreset preset) {
+	public synchronized void insert(ComponentPreset preset) {
 		list.add(preset);
+		modCount++;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * The presets are added to the list at once, instead of inserting them one at a time.
+	 * fires add events
+	 */
 	@Override
-	public List<ComponentPreset> listForType(ComponentPreset.Type type) {
-		if (type == null) {
-			return Collections.emptyList();
+	public boolean addAll(Collection<? extends ComponentPreset> presets) {
+		List<ComponentPreset> added = new ArrayList<>(presets.size());
+		synchronized (this) {
+			Set<ComponentPreset> addedSet = new HashSet<>();
+			for (ComponentPreset preset : presets) {
+				int index = Collections.binarySearch(list, preset);
+				if ((index >= 0 && containsEqual(index, preset)) || !addedSet.add(preset)) {
+					continue;
+				}
+				added.add(preset);
+			}
+			if (added.isEmpty()) {
+				return false;
+			}
+
+			// Sorting merges the sorted runs of the existing and added presets
+			added.sort(null);
+			list.addAll(added);
+			list.sort(null);
+			modCount++;
 		}
+		for (ComponentPreset preset : added) {
+			fireAddEvent(preset);
+		}
+		return true;
+	}
 
-		List<ComponentPreset> result = new ArrayList<>(list.size() / 6);
+	/**
+	 * {@inheritDoc}
+	 * Presets comparing equal have the same manufacturer and part number, so only the presets
+	 * around the index need to be checked.
+	 */
+	@Override
+	protected boolean containsEqual(int index, ComponentPreset preset) {
+		for (int i = index; i >= 0 && list.get(i).compareTo(preset) == 0; i--) {
+			if (list.get(i).equals(preset)) {
+				return true;
+			}
+		}
+		for (int i = index + 1; i < list.size() && list.get(i).compareTo(preset) == 0; i++) {
+			if (list.get(i).equals(preset)) {
+				return true;
+			}
+		}
+		return false;
+	}
 
+	/**
+	 * Rebuild the type and part number indices if the list has been modified.
+	 */
+	private void updateIndices() {
+		if (indexedModCount == modCount) {
+			return;
+		}
+		typeIndex.clear();
+		partNoIndex.clear();
 		for (ComponentPreset preset : list) {
-			if (preset.get(ComponentPreset.TYPE).equals(type)) {
-				result.add(preset);
-			}
+			typeIndex.computeIfAbsent(preset.get(ComponentPreset.TYPE), t -> new ArrayList<>()).add(preset);
+			partNoIndex.computeIfAbsent(preset.getPartNo(), p -> new ArrayList<>()).add(preset);
+		}
+		indexedModCount = modCount;
+	}
+
+	@Override
+	public synchronized List<ComponentPreset> listForType(ComponentPreset.Type type) {
+		if (type == null) {
+			return Collections.emptyList();
 		}
-		return result;
 
+		updateIndices();
+		List<ComponentPreset> presets = typeIndex.get(type);
+		return (presets != null) ? new ArrayList<>(presets) : new ArrayList<>();
 	}
 
 	/**
 	 * Return a list of component presets based on the type.
 	 * All components returned will be of Type type.
-	 * 
+	 *
 	 * @param type
 	 * @param favorite if true, only return the favorites. otherwise return all
 	 *                 matching.
 	 * @return
 	 */
 	@Override
-	public List<ComponentPreset> listForType(ComponentPreset.Type type, boolean favorite) {
+	public synchronized List<ComponentPreset> listForType(ComponentPreset.Type type, boolean favorite) {
 		if (!favorite) {
 			return listForType(type);
 		}
 
-		List<ComponentPreset> result = new ArrayList<>(list.size() / 6);
+		updateIndices();
+		List<ComponentPreset> presets = typeIndex.get(type);
+		if (presets == null) {
+			return new ArrayList<>();
+		}
 
+		List<ComponentPreset> result = new ArrayList<>();
+		// The favorites are read on every call, as the preferences may be imported or reset
 		Set<String> favorites = Application.getPreferences().getComponentFavorites(type);
-
-		for (ComponentPreset preset : list) {
-			if (preset.get(ComponentPreset.TYPE).equals(type) && favorites.contains(preset.preferenceKey())) {
+		for (ComponentPreset preset : presets) {
+			if (favorites.contains(preset.preferenceKey())) {
 				result.add(preset);
 			}
 		}
@@ -74,7 +165,7 @@ public class ComponentPresetDatabase extends Database<ComponentPreset> implement
 	}
 
 	@Override
-	public List<ComponentPreset> listForTypes(ComponentPreset.Type... type) {
+	public synchronized List<ComponentPreset> listForTypes(ComponentPreset.Type... type) {
 		if (type == null || type.length == 0) {
 			return Collections.emptyList();
 		}
@@ -83,18 +174,14 @@ public class ComponentPresetDatabase extends Database<ComponentPreset> implement
 			return listForType(type[0]);
 		}
 
+		// Filter the list to keep the presets of different types in the order of the list
+		Set<ComponentPreset.Type> types = EnumSet.noneOf(ComponentPreset.Type.class);
+		Collections.addAll(types, type);
 		List<ComponentPreset> result = new ArrayList<>(list.size() / 6);
-
 		for (ComponentPreset preset : list) {
-			ComponentPreset.Type presetType = preset.get(ComponentPreset.TYPE);
-			typeLoop:
-			for (ComponentPreset.Type value : type) {
-				if (presetType.equals(value)) {
-					result.add(preset);
-					break typeLoop; // from inner loop.
-				}
+			if (types.contains(preset.get(ComponentPreset.TYPE))) {
+				result.add(preset);
 			}
-
 		}
 		return result;
 	}
@@ -105,10 +192,15 @@ public class ComponentPresetDatabase extends Database<ComponentPreset> implement
 	}
 
 	@Override
-	public List<ComponentPreset> find(String manufacturer, String partNo) {
+	public synchronized List<ComponentPreset> find(String manufacturer, String partNo) {
+		updateIndices();
 		List<ComponentPreset> presets = new ArrayList<>();
-		for (ComponentPreset preset : list) {
-			if (preset.getManufacturer().matches(manufacturer) && preset.getPartNo().equals(partNo)) {
+		List<ComponentPreset> candidates = partNoIndex.get(partNo);
+		if (candidates == null) {
+			return presets;
+		}
+		for (ComponentPreset preset : candidates) {
+			if (preset.getManufacturer().matches(manufacturer)) {
 				presets.add(preset);
 			}
 		}
@@ -1,17 +1,24 @@
 package info.openrocket.core.database;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
+import info.openrocket.core.arch.SystemInfo;
 import info.openrocket.core.file.iterator.DirectoryIterator;
 import info.openrocket.core.file.iterator.FileIterator;
 import info.openrocket.core.gui.util.SimpleFileFilter;
 import info.openrocket.core.preset.ComponentPreset;
 import info.openrocket.core.preset.xml.OpenRocketComponentLoader;
 import info.openrocket.core.startup.Application;
+import info.openrocket.core.util.ExecutorUtils;
+import info.openrocket.core.util.FileUtils;
 import info.openrocket.core.util.Pair;
 
 import org.slf4j.Logger;
@@ -27,14 +34,31 @@ public class ComponentPresetDatabaseLoader extends AsynchronousDatabaseLoader {
 	private final static Logger log = LoggerFactory.getLogger(ComponentPresetDatabaseLoader.class);
 	
 	private static final String SYSTEM_PRESET_DIR = "datafiles/components";
+	private static final String CACHE_FILE = "ComponentPresetCache.ser";
 	private int fileCount = 0;
 	private int presetCount = 0;
+	private int cacheHits = 0;
+	private int cacheMisses = 0;
 
 	/** the database is immutable*/
 	private final ComponentPresetDatabase componentPresetDao = new ComponentPresetDatabase();
+	private final File cache;
 	
+	/**
+	 * default constructor, caching the parsed presets in the application directory
+	 */
 	public ComponentPresetDatabaseLoader() {
+		this(new File(SystemInfo.getUserApplicationDirectory(), CACHE_FILE));
+	}
+	
+	/**
+	 * constructor with the cache file of the parsed presets
+	 * 
+	 * @param cache	the cache file of the parsed presets
+	 */
+	public ComponentPresetDatabaseLoader(File cache) {
 		super(0);
+		this.cache = cache;
 	}
 	
 	/**
@@ -48,13 +72,43 @@ public class ComponentPresetDatabaseLoader extends AsynchronousDatabaseLoader {
 		return componentPresetDao;
 	}
 	
+	/**
+	 * Returns the number of preset files whose presets were read from the cache.
+	 * 
+	 * @return	the number of cache hits
+	 */
+	public int getCacheHits() {
+		blockUntilLoaded();
+		return cacheHits;
+	}
+	
+	/**
+	 * Returns the number of preset files that were parsed, as they were not found
+	 * in the cache or had changed.
+	 * 
+	 * @return	the number of cache misses
+	 */
+	public int getCacheMisses() {
+		blockUntilLoaded();
+		return cacheMisses;
+	}
+	
 	@Override
 	protected void loadDatabase() {
 		long startTime = System.currentTimeMillis();
-		loadPresetComponents();
-		loadUserComponents();
+		ComponentPresetCache presetCache = new ComponentPresetCache(cache);
+		presetCache.load();
+		ExecutorService executor = createExecutor();
+		try {
+			loadPresetComponents(executor, presetCache);
+			loadUserComponents(executor, presetCache);
+		} finally {
+			executor.shutdownNow();
+		}
+		presetCache.save();
 		long end = System.currentTimeMillis();
-		log.debug("Time to load presets: " + (end - startTime) + "ms " + presetCount + " loaded from " + fileCount + " files");
+		log.debug("Time to load presets: " + (end - startTime) + "ms " + presetCount + " loaded from " + fileCount +
+				" files, cacheHits=" + cacheHits + ", cacheMisses=" + cacheMisses);
 		
 	}
 
@@ -62,24 +116,34 @@ public class ComponentPresetDatabaseLoader extends AsynchronousDatabaseLoader {
 	 * loads the user defined component presets into the database
 	 * uses the directory defined in the preferences
 	 */
-	private void loadUserComponents() {
+	private void loadUserComponents(ExecutorService executor, ComponentPresetCache presetCache) {
 		log.info("Starting reading user-defined component presets");
 		SimpleFileFilter orcFilter = new SimpleFileFilter("", false, "orc");
 		int initialCount = presetCount;
+		List<Pair<File, InputStream>> files = new ArrayList<>();
 		for (File file : (Application.getPreferences()).getUserComponentPresetFiles()) {
 			if (file.isFile()) {
 				try {
-					InputStream stream = new FileInputStream(file);
-					loadFile(file.getName(), stream);
+					files.add(new Pair<>(file, new FileInputStream(file)));
 				} catch (IOException e) {
 					log.warn("Error opening file " + file, e);
 				}
 			} else if (file.isDirectory()) {
-				loadDirectory(orcFilter, file);
+				FileIterator iterator;
+				try {
+					iterator = new DirectoryIterator(file, orcFilter, true);
+				} catch (IOException ioex) {
+					log.debug("Error opening UserComponentDirectory", ioex);
+					continue;
+				}
+				while (iterator.hasNext()) {
+					files.add(iterator.next());
+				}
 			} else {
 				log.warn("User-defined motor file " + file + " is neither file nor directory");
 			}
 		}
+		loadFiles(executor, presetCache, files);
 		log.info("Ending reading user-defined component presets, presetCount=" + (presetCount-initialCount));
 	}
 
@@ -87,57 +151,91 @@ public class ComponentPresetDatabaseLoader extends AsynchronousDatabaseLoader {
 	 * loads the default preset components into the database
 	 * uses the file directory from "datafiles/components"
 	 */
-	private void loadPresetComponents() {
+	private void loadPresetComponents(ExecutorService executor, ComponentPresetCache presetCache) {
 		log.info("Loading component presets from " + SYSTEM_PRESET_DIR);
 		FileIterator iterator = DirectoryIterator.findDirectory(SYSTEM_PRESET_DIR, new SimpleFileFilter("", false, "orc"));
 		
 		if (iterator == null)
 			return;
 
+		List<Pair<File, InputStream>> files = new ArrayList<>();
 		while (iterator.hasNext()) {
-			Pair<File, InputStream> f = iterator.next();
-			Collection<ComponentPreset> presets = loadFile(f.getU().getName(), f.getV());
-			componentPresetDao.addAll(presets);
-			fileCount++;
-			presetCount += presets.size();
+			files.add(iterator.next());
+		}
+		loadFiles(executor, presetCache, files);
+	}
+	
+	/**
+	 * loads component preset files into the database.  The files are read in order, the
+	 * files not found in the cache are parsed in parallel, and the presets are added to
+	 * the database in the order of the files.
+	 * 
+	 * @param executor		the executor parsing the files
+	 * @param presetCache	the cache of parsed files
+	 * @param files			the files and their input streams, which are closed
+	 */
+	private void loadFiles(ExecutorService executor, ComponentPresetCache presetCache,
+			List<Pair<File, InputStream>> files) {
+		List<Future<Pair<List<ComponentPreset>, Boolean>>> results = new ArrayList<>();
+		for (Pair<File, InputStream> f : files) {
+			final String path = f.getU().getPath();
+			final String fileName = f.getU().getName();
+			final byte[] content;
+			try (InputStream is = f.getV()) {
+				content = is.readAllBytes();
+			} catch (IOException e) {
+				log.warn("Error reading file " + f.getU(), e);
+				continue;
+			}
+			results.add(executor.submit(() -> loadFile(presetCache, path, fileName, content)));
+		}
+
+		try {
+			for (Future<Pair<List<ComponentPreset>, Boolean>> result : results) {
+				Pair<List<ComponentPreset>, Boolean> presets = ExecutorUtils.getResult(result,
+						"Loading component preset file failed");
+				if (presets.getV()) {
+					cacheHits++;
+				} else {
+					cacheMisses++;
+				}
+				componentPresetDao.addAll(presets.getU());
+				fileCount++;
+				presetCount += presets.getU().size();
+			}
+		} catch (InterruptedException e) {
+			log.warn("Interrupted while loading component presets");
+			Thread.currentThread().interrupt();
 		}
 	}
 	
 	/**
-	 * load components from a custom component file
+	 * load components from a custom component file, or from the cache if the file is unchanged
 	 * uses an OpenRocketComponentLoader for the job
 	 * 
+	 * @param presetCache	the cache of parsed files
+	 * @param path		the path of the file
 	 * @param fileName	name of the file to be 
-	 * @param stream	the input stream to the file
-	 * @return	a collection of components preset from the file
+	 * @param content	the content of the file
+	 * @return	the components preset from the file, and whether they were found in the cache
 	 */
-	private Collection<ComponentPreset> loadFile(String fileName, InputStream stream) {
+	private static Pair<List<ComponentPreset>, Boolean> loadFile(ComponentPresetCache presetCache, String path,
+			String fileName, byte[] content) {
+		byte[] hash = FileUtils.hash(content);
+		List<ComponentPreset> presets = presetCache.get(path, hash);
+		if (presets != null) {
+			log.debug("loading from cache: " + fileName);
+			return new Pair<>(presets, true);
+		}
 		log.debug("loading from file: " + fileName);
 		OpenRocketComponentLoader loader = new OpenRocketComponentLoader();
-		Collection<ComponentPreset> presets = loader.load(stream, fileName);
-		return presets;
+		presets = new ArrayList<>(loader.load(new ByteArrayInputStream(content), fileName));
+		presetCache.put(path, hash, presets);
+		return new Pair<>(presets, false);
 	}
 
-	/**
-	 * loads an entire directory of component presets
-	 *
-	 * @param fileFilter	the supported extensions of files
-	 * @param file			the directory file object
-	 */
-	private void loadDirectory(SimpleFileFilter fileFilter, File file) {
-		FileIterator iterator;
-		try {
-			iterator = new DirectoryIterator(file, fileFilter, true);
-		} catch (IOException ioex) {
-			log.debug("Error opening UserComponentDirectory", ioex);
-			return;
-		}
-		while (iterator.hasNext()) {
-			Pair<File, InputStream> f = iterator.next();
-			Collection<ComponentPreset> presets = loadFile(f.getU().getName(), f.getV());
-			componentPresetDao.addAll(presets);
-			fileCount++;
-			presetCount += presets.size();
-		}
+	private static ExecutorService createExecutor() {
+		int threadCount = Runtime.getRuntime().availableProcessors();
+		return ExecutorUtils.newDaemonExecutor("ComponentPresetDatabaseLoader", threadCount);
 	}
 }
@@ -19,6 +19,8 @@ public class Database<T extends Comparable<T>> extends AbstractSet<T> {
 
 	/** the list that contains the data from the database itself */
 	protected final List<T> list = new ArrayList<>();
+	/** the number of times the list has been modified, used by subclasses to detect stale indices */
+	protected int modCount = 0;
 	private final ArrayList<DatabaseListener<T>> listeners = new ArrayList<>();
 
 	@Override
@@ -42,17 +44,32 @@ public class Database<T extends Comparable<T>> extends AbstractSet<T> {
 		index = Collections.binarySearch(list, element);
 		if (index >= 0) {
 			// List might contain the element
-			if (list.contains(element)) {
+			if (containsEqual(index, element)) {
 				return false;
 			}
 		} else {
 			index = -(index + 1);
 		}
 		list.add(index, element);
+		modCount++;
 		fireAddEvent(element);
 		return true;
 	}
 
+	/**
+	 * Check whether the list contains an element equal to the given element.  Called
+	 * by {@link #add(Comparable)} when the binary search found an element comparing
+	 * equal to it.  Subclasses whose natural order is consistent with equals may
+	 * restrict the search to the elements around the index.
+	 * 
+	 * @param index		the index of an element comparing equal to the element
+	 * @param element	the element to search for
+	 * @return	whether the list contains the element
+	 */
+	protected boolean containsEqual(int index, T element) {
+		return list.contains(element);
+	}
+
 	/**
 	 * Get the element with the specified index.
 	 * 
@@ -143,6 +160,7 @@ public class Database<T extends Comparable<T>> extends AbstractSet<T> {
 		@Override
 		public void remove() {
 			iterator.remove();
+			modCount++;
 			fireRemoveEvent(current);
 		}
 	}
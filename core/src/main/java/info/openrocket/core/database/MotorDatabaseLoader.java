@@ -1,27 +1,35 @@
 package info.openrocket.core.database;
 
 import java.awt.Dialog;
-import java.io.BufferedInputStream;
+import java.awt.GraphicsEnvironment;
+import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
+import java.nio.file.Files;
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import info.openrocket.core.l10n.Translator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import info.openrocket.core.arch.SystemInfo;
 import info.openrocket.core.database.motor.ThrustCurveMotorSetDatabase;
 import info.openrocket.core.file.iterator.DirectoryIterator;
 import info.openrocket.core.file.iterator.FileIterator;
 import info.openrocket.core.file.motor.GeneralMotorLoader;
 import info.openrocket.core.gui.util.SimpleFileFilter;
+import info.openrocket.core.motor.BinaryMotorDatabase;
 import info.openrocket.core.motor.ThrustCurveMotor;
 import info.openrocket.core.startup.Application;
 import info.openrocket.core.util.BugException;
+import info.openrocket.core.util.ExecutorUtils;
+import info.openrocket.core.util.FileUtils;
 import info.openrocket.core.util.Pair;
 
 import javax.swing.JDialog;
@@ -42,14 +50,30 @@ public class MotorDatabaseLoader extends AsynchronousDatabaseLoader {
 	private static final String THRUSTCURVE_DIRECTORY = "datafiles/thrustcurves/";
 	private static final long STARTUP_DELAY = 0;
 	
+	private static final String CACHE_FILE = "UserMotorCache.bin";
+	
 	private final ThrustCurveMotorSetDatabase database = new ThrustCurveMotorSetDatabase();
+	private final File cache;
 	private int motorCount = 0;
+	private int cacheHits = 0;
+	private int cacheMisses = 0;
 	
 	/**
-	 * sole constructor, default startup delay = 0
+	 * default constructor, default startup delay = 0, caching the user-defined motors
+	 * in the application directory
 	 */
 	public MotorDatabaseLoader() {
+		this(new File(SystemInfo.getUserApplicationDirectory(), CACHE_FILE));
+	}
+	
+	/**
+	 * constructor with the cache file of the user-defined motors, default startup delay = 0
+	 * 
+	 * @param cache	the cache file of the user-defined motors
+	 */
+	public MotorDatabaseLoader(File cache) {
 		super(STARTUP_DELAY);
+		this.cache = cache;
 	}
 	
 	
@@ -62,39 +86,79 @@ public class MotorDatabaseLoader extends AsynchronousDatabaseLoader {
 
 	/**
 	 * Loads the user defined motors
-	 * the directories are defined in the preferences
+	 * the directories are defined in the preferences.  The files are parsed in
+	 * parallel, unless their motors are found in the cache, and added to the
+	 * database in the order of the files.
 	 */
 	private void loadUserDefinedMotors() {
+		loadUserDefinedMotors((Application.getPreferences()).getUserThrustCurveFiles());
+	}
+	
+	/**
+	 * Loads the user defined motors of files and directories
+	 * 
+	 * @param userFiles	the motor files and directories of motor files
+	 */
+	void loadUserDefinedMotors(List<File> userFiles) {
 		GeneralMotorLoader loader = new GeneralMotorLoader();
 		SimpleFileFilter fileFilter = new SimpleFileFilter("", loader.getSupportedExtensions());
 		log.info("Starting reading user-defined motors");
-		for (File file : (Application.getPreferences()).getUserThrustCurveFiles()) {
+		List<File> files = new ArrayList<>();
+		for (File file : userFiles) {
 			if (file.isFile()) {
-				loadFile(loader, file);
+				files.add(file);
 			} else if (file.isDirectory()) {
-				loadDirectory(loader, fileFilter, file);
+				findFiles(fileFilter, file, files);
 			} else {
 				log.warn("User-defined motor file " + file + " is neither file nor directory");
 			}
 		}
-		log.info("Ending reading user-defined motors, motorCount=" + motorCount);
+		loadFiles(files);
+		log.info("Ending reading user-defined motors, motorCount=" + motorCount +
+				", cacheHits=" + cacheHits + ", cacheMisses=" + cacheMisses);
 	}
 
 
 	/**
 	 * Loads the default, with established serialized manufacturing and data
-	 * uses directory "datafiles/thrustcurves" for data  
+	 * uses directory "datafiles/thrustcurves" for data.  The databases are binary
+	 * motor databases, or Java serialized lists of motors in older versions.
 	 */
 	private void loadSerializedMotorDatabase() {
 		log.info("Starting reading serialized motor database");
-		FileIterator iterator = DirectoryIterator.findDirectory(THRUSTCURVE_DIRECTORY, new SimpleFileFilter("", false, "ser"));
+		FileIterator iterator = DirectoryIterator.findDirectory(THRUSTCURVE_DIRECTORY,
+				new SimpleFileFilter("", false, BinaryMotorDatabase.FILE_EXTENSION, "ser"));
 		while (iterator.hasNext()) {
 			Pair<File, InputStream> f = iterator.next();
-			loadSerialized(f);
+			if (f.getU().getName().endsWith("." + BinaryMotorDatabase.FILE_EXTENSION)) {
+				loadBinary(f);
+			} else {
+				loadSerialized(f);
+			}
 		}
 		log.info("Ending reading serialized motor database, motorCount=" + motorCount);
 	}
 	
+	/**
+	 * loads a binary motor database, memory mapping it if it is a file
+	 * 
+	 * @param f	the pair of a File (the file itself or for logging) and the input stream
+	 */
+	private void loadBinary(Pair<File, InputStream> f) {
+		log.debug("Reading motors from file " + f.getU().getPath());
+		try (InputStream is = f.getV()) {
+			List<ThrustCurveMotor> motors;
+			if (f.getU().isFile()) {
+				motors = BinaryMotorDatabase.read(f.getU());
+			} else {
+				motors = BinaryMotorDatabase.read(is);
+			}
+			addMotors(motors);
+		} catch (Exception ex) {
+			throw new BugException(ex);
+		}
+	}
+	
 	
 	/**
 	 * loads a serailized motor data from an stream
@@ -113,80 +177,157 @@ public class MotorDatabaseLoader extends AsynchronousDatabaseLoader {
 	}
 	
 	/**
-	 * loads a single motor file into the database using a simple file handler object
+	 * finds the motor files of an entire directory
 	 * 
-	 * @param loader	the motor loading handler object
-	 * @param file		the File to the file itself
+	 * @param fileFilter	the supported extensions of files
+	 * @param dir			the directory file object
+	 * @param files			the list to add the files to
 	 */
-	private void loadFile(GeneralMotorLoader loader, File file) {
+	private void findFiles(SimpleFileFilter fileFilter, File dir, List<File> files) {
+		FileIterator iterator;
 		try {
-			log.debug("Loading motors from file " + file);
-			loadFile(
-					loader,
-					new Pair<>(
-							file,
-							new BufferedInputStream(new FileInputStream(file))));
+			iterator = new DirectoryIterator(dir, fileFilter, true);
 		} catch (Exception e) {
-			log.warn("Exception while reading " + file + ": " + e, e);
+			log.warn("Unable to read directory " + dir + ": " + e, e);
+			return;
+		}
+		while (iterator.hasNext()) {
+			Pair<File, InputStream> f = iterator.next();
+			files.add(f.getU());
+			try {
+				// The files are read when loaded
+				f.getV().close();
+			} catch (IOException ignore) {
+			}
 		}
 	}
 	
 	/**
-	 * loads a single motor file into the database using inputStream instead of file object
+	 * loads motor files into the database, parsing the files not found in the cache
+	 * in parallel
 	 * 
-	 * @param loader	an object to handle the loading
-	 * @param f			the pair of File name and its input stream
+	 * @param files		the files to load
 	 */
-	private void loadFile(GeneralMotorLoader loader, Pair<File, InputStream> f) {
+	private void loadFiles(List<File> files) {
+		if (files.isEmpty() && !cache.exists()) {
+			return;
+		}
+		UserMotorCache motorCache = new UserMotorCache(cache);
+		motorCache.load();
+
+		int threadCount = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), files.size()));
+		ExecutorService executor = createExecutor(threadCount);
 		try {
-			try {
-				List<ThrustCurveMotor.Builder> motors = loader.load(f.getV(), f.getU().getName());
-				addMotorsFromBuilders(motors);
-			}
-			catch (IllegalArgumentException | IOException e) {
-				Translator trans = Application.getTranslator();
-				String fullPath = f.getU().getPath();
-				String message = "<html><body><p style='width: 400px;'><i>" + e.getMessage() +
-						"</i>.<br><br>" + MessageFormat.format( trans.get("MotorDbLoaderDlg.message1"), fullPath) +
-						"<br>" + trans.get("MotorDbLoaderDlg.message2") + "</p></body></html>";
-				SwingUtilities.invokeLater(new Runnable() {
-					@Override
-					public void run() {
-						JOptionPane pane = new JOptionPane(message, JOptionPane.WARNING_MESSAGE);
-						JDialog dialog = pane.createDialog(null, trans.get("MotorDbLoaderDlg.title"));
-						dialog.setModalityType(Dialog.ModalityType.MODELESS);
-						dialog.setAlwaysOnTop(true);
-						dialog.setVisible(true);
-					}
-				});
+			List<Future<LoadedFile>> results = new ArrayList<>();
+			for (File file : files) {
+				results.add(executor.submit(() -> loadFile(motorCache, file)));
 			}
-			f.getV().close();
-		} catch (Exception e) {
-			log.warn("Exception while loading file " + f.getU() + ": " + e, e);
-			try {
-				f.getV().close();
-			} catch (IOException e1) {
+			for (int i = 0; i < files.size(); i++) {
+				LoadedFile loaded = ExecutorUtils.getResult(results.get(i), "Loading motor file failed");
+				if (loaded.error != null) {
+					reportLoadError(files.get(i), loaded.error);
+					continue;
+				}
+				if (loaded.cached) {
+					cacheHits++;
+				} else {
+					cacheMisses++;
+				}
+				addMotors(loaded.motors);
 			}
+		} catch (InterruptedException e) {
+			log.warn("Interrupted while loading user-defined motors");
+			Thread.currentThread().interrupt();
+			return;
+		} finally {
+			executor.shutdownNow();
 		}
+		motorCache.save();
 	}
 	
 	/**
-	 * loads an entire directory of motor files
+	 * loads the motors of a single motor file from the cache, or parses the file
+	 * and adds its motors to the cache
 	 * 
-	 * @param loader 		a motor loading handler object
-	 * @param fileFilter	the supported extensions of files
-	 * @param file			the directory file object
+	 * @param motorCache	the cache of parsed motor files
+	 * @param file			the file to load
+	 * @return	the motors of the file or the error loading it
 	 */
-	private void loadDirectory(GeneralMotorLoader loader, SimpleFileFilter fileFilter, File file) {
-		FileIterator iterator;
+	private static LoadedFile loadFile(UserMotorCache motorCache, File file) {
 		try {
-			iterator = new DirectoryIterator(file, fileFilter, true);
+			final String path = file.getAbsolutePath();
+			final long lastModified = file.lastModified();
+			final byte[] content = Files.readAllBytes(file.toPath());
+			final byte[] hash = FileUtils.hash(content);
+
+			List<ThrustCurveMotor> motors = motorCache.get(path, lastModified, content.length, hash);
+			if (motors != null) {
+				log.debug("Loading motors of file " + file + " from cache");
+				return new LoadedFile(motors, true, null);
+			}
+
+			log.debug("Loading motors from file " + file);
+			List<ThrustCurveMotor.Builder> builders = new GeneralMotorLoader().load(
+					new ByteArrayInputStream(content), file.getName());
+			motors = new ArrayList<>();
+			for (ThrustCurveMotor.Builder builder : builders) {
+				motors.add(builder.build());
+			}
+			motorCache.put(path, lastModified, content.length, hash, motors);
+			return new LoadedFile(motors, false, null);
 		} catch (Exception e) {
-			log.warn("Unable to read directory " + file + ": " + e, e);
+			return new LoadedFile(null, false, e);
+		}
+	}
+	
+	/**
+	 * reports an error loading a motor file, showing a dialog to the user for invalid files
+	 * 
+	 * @param file		the file
+	 * @param error		the error loading the file
+	 */
+	private void reportLoadError(File file, Exception error) {
+		if (!(error instanceof IllegalArgumentException) && !(error instanceof IOException)) {
+			log.warn("Exception while loading file " + file + ": " + error, error);
 			return;
 		}
-		while (iterator.hasNext()) {
-			loadFile(loader, iterator.next());
+		if (GraphicsEnvironment.isHeadless()) {
+			log.warn("Unable to load motor file " + file.getPath() + ": " + error.getMessage());
+			return;
+		}
+		Translator trans = Application.getTranslator();
+		String fullPath = file.getPath();
+		String message = "<html><body><p style='width: 400px;'><i>" + error.getMessage() +
+				"</i>.<br><br>" + MessageFormat.format( trans.get("MotorDbLoaderDlg.message1"), fullPath) +
+				"<br>" + trans.get("MotorDbLoaderDlg.message2") + "</p></body></html>";
+		SwingUtilities.invokeLater(new Runnable() {
+			@Override
+			public void run() {
+				JOptionPane pane = new JOptionPane(message, JOptionPane.WARNING_MESSAGE);
+				JDialog dialog = pane.createDialog(null, trans.get("MotorDbLoaderDlg.title"));
+				dialog.setModalityType(Dialog.ModalityType.MODELESS);
+				dialog.setAlwaysOnTop(true);
+				dialog.setVisible(true);
+			}
+		});
+	}
+	
+	private static ExecutorService createExecutor(int threadCount) {
+		return ExecutorUtils.newDaemonExecutor("MotorDatabaseLoader", threadCount);
+	}
+	
+	/**
+	 * The motors of a loaded motor file, or the error loading it.
+	 */
+	private static class LoadedFile {
+		private final List<ThrustCurveMotor> motors;
+		private final boolean cached;
+		private final Exception error;
+		
+		LoadedFile(List<ThrustCurveMotor> motors, boolean cached, Exception error) {
+			this.motors = motors;
+			this.cached = cached;
+			this.error = error;
 		}
 	}
 
@@ -205,15 +346,24 @@ public class MotorDatabaseLoader extends AsynchronousDatabaseLoader {
 	}
 	
 	/**
-	 * builds the motors while building them
+	 * Returns the number of user-defined motor files whose motors were read from the cache.
 	 * 
-	 * @param motorBuilders List of motor builders to be used for adding motor into the database
+	 * @return	the number of cache hits
 	 */
-	private synchronized void addMotorsFromBuilders(List<ThrustCurveMotor.Builder> motorBuilders) {
-		for (ThrustCurveMotor.Builder m : motorBuilders) {
-			motorCount++;
-			database.addMotor(m.build());
-		}
+	public int getCacheHits() {
+		blockUntilLoaded();
+		return cacheHits;
+	}
+	
+	/**
+	 * Returns the number of user-defined motor files that were parsed, as they were not
+	 * found in the cache or had changed.
+	 * 
+	 * @return	the number of cache misses
+	 */
+	public int getCacheMisses() {
+		blockUntilLoaded();
+		return cacheMisses;
 	}
 	
 	/**
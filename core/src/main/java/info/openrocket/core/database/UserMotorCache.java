@@ -0,0 +1,200 @@
+package info.openrocket.core.database;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.openrocket.core.motor.BinaryMotorDatabase;
+import info.openrocket.core.motor.ThrustCurveMotor;
+
+/**
+ * A persistent cache of the motors parsed from user-defined motor files.  The motors of a
+ * file are reused as long as the path, modification time, size and content hash of the file
+ * are unchanged.
+ * <p>
+ * The cache file contains a table of the cached files followed by the motors of all files
+ * as a {@link BinaryMotorDatabase}.  Looking up and adding files is thread safe, loading and
+ * saving the cache is not.
+ */
+class UserMotorCache {
+	private static final Logger log = LoggerFactory.getLogger(UserMotorCache.class);
+
+	private static final int MAGIC = 0x4F524D43;
+	private static final int VERSION = 1;
+
+	private final File file;
+
+	/** The entries read from the cache file, by path */
+	private final Map<String, Entry> entries = new HashMap<>();
+	/** The entries of the files loaded now, by path */
+	private final Map<String, Entry> current = new ConcurrentHashMap<>();
+	private volatile boolean modified = false;
+
+	/**
+	 * @param file	the cache file
+	 */
+	UserMotorCache(File file) {
+		this.file = file;
+	}
+
+	/**
+	 * Read the cache file.  An unreadable cache file is ignored.
+	 */
+	void load() {
+		entries.clear();
+		if (!file.isFile()) {
+			return;
+		}
+
+		try (InputStream in = new FileInputStream(file)) {
+			byte[] content = in.readAllBytes();
+			DataInputStream table = new DataInputStream(new ByteArrayInputStream(content));
+			if (table.readInt() != MAGIC || table.readInt() != VERSION) {
+				log.info("Ignoring motor cache " + file + " of another version");
+				return;
+			}
+
+			List<Entry> read = new ArrayList<>();
+			List<Integer> motorCounts = new ArrayList<>();
+			final int count = table.readInt();
+			for (int i = 0; i < count; i++) {
+				String path = table.readUTF();
+				long lastModified = table.readLong();
+				long size = table.readLong();
+				byte[] hash = new byte[table.readInt()];
+				table.readFully(hash);
+				read.add(new Entry(path, lastModified, size, hash, null));
+				motorCounts.add(table.readInt());
+			}
+
+			// The motors follow the table
+			int tableSize = content.length - table.available();
+			List<ThrustCurveMotor> motors = BinaryMotorDatabase.read(
+					new ByteArrayInputStream(content, tableSize, content.length - tableSize));
+			int position = 0;
+			for (int i = 0; i < read.size(); i++) {
+				Entry entry = read.get(i);
+				List<ThrustCurveMotor> entryMotors = motors.subList(position, position + motorCounts.get(i));
+				position += motorCounts.get(i);
+				entries.put(entry.path, new Entry(entry.path, entry.lastModified, entry.size, entry.hash,
+						Collections.unmodifiableList(new ArrayList<>(entryMotors))));
+			}
+			log.debug("Read " + entries.size() + " files from motor cache " + file);
+		} catch (IOException | RuntimeException e) {
+			log.warn("Unable to read motor cache " + file + ": " + e, e);
+			entries.clear();
+		}
+	}
+
+	/**
+	 * Return the cached motors of a file, if the file is unchanged.
+	 *
+	 * @param path			the absolute path of the file
+	 * @param lastModified	the modification time of the file
+	 * @param size			the size of the file
+	 * @param hash			the content hash of the file
+	 * @return	the motors, or <code>null</code> if the file is not cached
+	 */
+	List<ThrustCurveMotor> get(String path, long lastModified, long size, byte[] hash) {
+		Entry entry = entries.get(path);
+		if (entry == null || entry.lastModified != lastModified || entry.size != size
+				|| !Arrays.equals(entry.hash, hash)) {
+			return null;
+		}
+		current.put(path, entry);
+		return entry.motors;
+	}
+
+	/**
+	 * Add the motors of a file to the cache.
+	 *
+	 * @param path			the absolute path of the file
+	 * @param lastModified	the modification time of the file
+	 * @param size			the size of the file
+	 * @param hash			the content hash of the file
+	 * @param motors		the motors of the file
+	 */
+	void put(String path, long lastModified, long size, byte[] hash, List<ThrustCurveMotor> motors) {
+		current.put(path, new Entry(path, lastModified, size, hash, new ArrayList<>(motors)));
+		modified = true;
+	}
+
+	/**
+	 * Write the files loaded now to the cache file, if the cache changed.  Files that were
+	 * not loaded now are removed from the cache.
+	 */
+	void save() {
+		if (!modified && current.size() == entries.size()) {
+			return;
+		}
+
+		List<Entry> saved = new ArrayList<>(current.values());
+		saved.sort((e1, e2) -> e1.path.compareTo(e2.path));
+		List<ThrustCurveMotor> motors = new ArrayList<>();
+		for (Entry entry : saved) {
+			motors.addAll(entry.motors);
+		}
+
+		File tempFile = new File(file.getPath() + ".tmp");
+		try {
+			File dir = file.getAbsoluteFile().getParentFile();
+			if (dir != null && !dir.isDirectory()) {
+				dir.mkdirs();
+			}
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+					new FileOutputStream(tempFile)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeInt(saved.size());
+				for (Entry entry : saved) {
+					out.writeUTF(entry.path);
+					out.writeLong(entry.lastModified);
+					out.writeLong(entry.size);
+					out.writeInt(entry.hash.length);
+					out.write(entry.hash);
+					out.writeInt(entry.motors.size());
+				}
+				BinaryMotorDatabase.write(motors, out);
+			}
+			Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			log.debug("Wrote " + saved.size() + " files to motor cache " + file);
+		} catch (IOException e) {
+			log.warn("Unable to write motor cache " + file + ": " + e, e);
+			tempFile.delete();
+		}
+	}
+
+	private static class Entry {
+		private final String path;
+		private final long lastModified;
+		private final long size;
+		private final byte[] hash;
+		private final List<ThrustCurveMotor> motors;
+
+		Entry(String path, long lastModified, long size, byte[] hash, List<ThrustCurveMotor> motors) {
+			this.path = path;
+			this.lastModified = lastModified;
+			this.size = size;
+			this.hash = hash;
+			this.motors = motors;
+		}
+	}
+}
@@ -1,26 +1,49 @@
 package info.openrocket.core.database.motor;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import info.openrocket.core.motor.Manufacturer;
 import info.openrocket.core.motor.Motor;
 import info.openrocket.core.motor.ThrustCurveMotor;
 
 /**
  * A database containing ThrustCurveMotorSet objects and allowing adding a motor
  * to the database.
+ * <p>
+ * The motor sets are indexed by the digests, manufacturers, types and dimensions of
+ * their motors, so that finding motors only checks the sets matching the indexed
+ * criteria instead of all motors.  The indices refer to the sets by their position
+ * in the database.
  * 
  * @author Sampo Niskanen <sampo.niskanen@iki.fi>
  */
 public class ThrustCurveMotorSetDatabase implements MotorDatabase {
 	private static final Logger log = LoggerFactory.getLogger(ThrustCurveMotorSetDatabase.class);
 
+	/** Maximum difference of the diameter and length of matching motors */
+	private static final double DIMENSION_TOLERANCE = 0.005;
+	/** Width of the dimension buckets, matching motors are in the same or an adjacent bucket */
+	private static final double DIMENSION_BUCKET = 2 * DIMENSION_TOLERANCE;
+
 	private final List<ThrustCurveMotorSet> motorSets = new ArrayList<>();
 
+	// Indices of the motor sets
+	private final Map<String, List<Integer>> setsByDesignation = new HashMap<>();
+	private final Map<String, BitSet> digestIndex = new HashMap<>();
+	private final Map<Manufacturer, BitSet> manufacturerIndex = new HashMap<>();
+	private final Map<Motor.Type, BitSet> typeIndex = new EnumMap<>(Motor.Type.class);
+	private final Map<Long, BitSet> diameterIndex = new HashMap<>();
+	private final Map<Long, BitSet> lengthIndex = new HashMap<>();
+
 	@Override
 	public List<ThrustCurveMotor> findMotors(String digest, Motor.Type type, String manufacturer, String designation,
 			double diameter, double length) {
@@ -28,42 +51,27 @@ public class ThrustCurveMotorSetDatabase implements MotorDatabase {
 		ArrayList<ThrustCurveMotor> digestMatches = new ArrayList<>();
 		ArrayList<ThrustCurveMotor> descriptionMatches = new ArrayList<>();
 
+		final String upperDesignation = (designation != null) ? designation.toUpperCase() : null;
+
 		// Apply filters to see if we can find any motors that match the given criteria.
 		// We'll return
 		// the most restrictive nonempty list we find, or empty list if no matches at
 		// all
-		for (ThrustCurveMotorSet set : motorSets) {
-			for (ThrustCurveMotor m : set.getMotors()) {
-				boolean matchDescription = true;
-				boolean matchDigest = true;
-
-				// unlike the description, digest must be present in search criteria to get a
-				// match
-				if (digest == null || !digest.equals(m.getDigest()))
-					matchDigest = false;
-
-				// match description
-				if (type != null && type != set.getType())
-					matchDescription = false;
-				else if (manufacturer != null && !m.getManufacturer().matches(manufacturer))
-					matchDescription = false;
-				else if (designation != null &&
-						!m.getDesignation().toUpperCase().contains(designation.toUpperCase()) &&
-						!designation.toUpperCase().contains(m.getCommonName().toUpperCase()))
-					matchDescription = false;
-				else if (!Double.isNaN(diameter) && (Math.abs(diameter - m.getDiameter()) > 0.005))
-					matchDescription = false;
-				else if (!Double.isNaN(length) && (Math.abs(length - m.getLength()) > 0.005))
-					matchDescription = false;
-
-				if (matchDigest)
-					digestMatches.add(m);
-
-				if (matchDescription)
-					descriptionMatches.add(m);
 
-				if (matchDigest && matchDescription)
-					fullMatches.add(m);
+		// unlike the description, digest must be present in search criteria to get a
+		// match, and all full matches are digest matches
+		BitSet digestSets = (digest != null) ? digestIndex.get(digest) : null;
+		if (digestSets != null) {
+			for (int i = digestSets.nextSetBit(0); i >= 0; i = digestSets.nextSetBit(i + 1)) {
+				ThrustCurveMotorSet set = motorSets.get(i);
+				for (ThrustCurveMotor m : set.getMotors()) {
+					if (digest.equals(m.getDigest())) {
+						digestMatches.add(m);
+						if (matchesDescription(set, m, type, manufacturer, upperDesignation, diameter, length)) {
+							fullMatches.add(m);
+						}
+					}
+				}
 			}
 		}
 
@@ -73,10 +81,98 @@ public class ThrustCurveMotorSetDatabase implements MotorDatabase {
 		if (!digestMatches.isEmpty())
 			return digestMatches;
 
+		BitSet candidates = findCandidates(type, manufacturer, diameter, length);
+		for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+			ThrustCurveMotorSet set = motorSets.get(i);
+			for (ThrustCurveMotor m : set.getMotors()) {
+				if (matchesDescription(set, m, type, manufacturer, upperDesignation, diameter, length))
+					descriptionMatches.add(m);
+			}
+		}
+
 		return descriptionMatches;
 
 	}
 
+	/**
+	 * Check whether a motor matches the description criteria.
+	 * 
+	 * @param upperDesignation	the upper case designation, or <code>null</code>
+	 */
+	private static boolean matchesDescription(ThrustCurveMotorSet set, ThrustCurveMotor m, Motor.Type type,
+			String manufacturer, String upperDesignation, double diameter, double length) {
+		if (type != null && type != set.getType())
+			return false;
+		else if (manufacturer != null && !m.getManufacturer().matches(manufacturer))
+			return false;
+		else if (upperDesignation != null &&
+				!m.getDesignation().toUpperCase().contains(upperDesignation) &&
+				!upperDesignation.contains(m.getCommonName().toUpperCase()))
+			return false;
+		else if (!Double.isNaN(diameter) && (Math.abs(diameter - m.getDiameter()) > DIMENSION_TOLERANCE))
+			return false;
+		else if (!Double.isNaN(length) && (Math.abs(length - m.getLength()) > DIMENSION_TOLERANCE))
+			return false;
+		return true;
+	}
+
+	/**
+	 * Return the positions of the motor sets that may contain motors matching the
+	 * indexed description criteria, the intersection of the sets matching each criterion.
+	 */
+	private BitSet findCandidates(Motor.Type type, String manufacturer, double diameter, double length) {
+		BitSet candidates = new BitSet(motorSets.size());
+		candidates.set(0, motorSets.size());
+
+		if (type != null) {
+			candidates.and(typeIndex.getOrDefault(type, new BitSet()));
+		}
+		if (manufacturer != null) {
+			BitSet manufacturerSets = new BitSet();
+			for (Map.Entry<Manufacturer, BitSet> entry : manufacturerIndex.entrySet()) {
+				if (entry.getKey().matches(manufacturer)) {
+					manufacturerSets.or(entry.getValue());
+				}
+			}
+			candidates.and(manufacturerSets);
+		}
+		if (!Double.isNaN(diameter)) {
+			candidates.and(getAdjacentBuckets(diameterIndex, diameter));
+		}
+		if (!Double.isNaN(length)) {
+			candidates.and(getAdjacentBuckets(lengthIndex, length));
+		}
+		return candidates;
+	}
+
+	private static BitSet getAdjacentBuckets(Map<Long, BitSet> index, double dimension) {
+		final long bucket = getBucket(dimension);
+		BitSet sets = new BitSet();
+		for (long b = bucket - 1; b <= bucket + 1; b++) {
+			BitSet bucketSets = index.get(b);
+			if (bucketSets != null) {
+				sets.or(bucketSets);
+			}
+		}
+		return sets;
+	}
+
+	private static long getBucket(double dimension) {
+		return (long) Math.floor(dimension / DIMENSION_BUCKET);
+	}
+
+	/**
+	 * Return the key of the sets that may match a motor.  Motors of a set have designations
+	 * equal ignoring case, and thus equal keys.
+	 */
+	private static String getDesignationKey(String designation) {
+		StringBuilder key = new StringBuilder(designation.length());
+		for (int i = 0; i < designation.length(); i++) {
+			key.append(Character.toLowerCase(Character.toUpperCase(designation.charAt(i))));
+		}
+		return key.toString();
+	}
+
 	/**
 	 * Return a list of all ThrustCurveMotorSets.
 	 */
@@ -93,19 +189,51 @@ public class ThrustCurveMotorSetDatabase implements MotorDatabase {
 	 * @param motor the motor to add
 	 */
 	public void addMotor(ThrustCurveMotor motor) {
+		List<Integer> candidates = setsByDesignation.computeIfAbsent(
+				getDesignationKey(motor.getDesignation()), k -> new ArrayList<>());
+
 		// Iterate from last to first, as this is most likely to hit early when loading
 		// files
-		for (int i = motorSets.size() - 1; i >= 0; i--) {
-			ThrustCurveMotorSet set = motorSets.get(i);
+		for (int i = candidates.size() - 1; i >= 0; i--) {
+			final int position = candidates.get(i);
+			ThrustCurveMotorSet set = motorSets.get(position);
 			if (set.matches(motor)) {
+				Motor.Type oldType = set.getType();
 				set.addMotor(motor);
+				updateIndices(position, motor, oldType);
 				return;
 			}
 		}
 
 		ThrustCurveMotorSet newSet = new ThrustCurveMotorSet();
 		newSet.addMotor(motor);
+		final int position = motorSets.size();
 		motorSets.add(newSet);
+		candidates.add(position);
+		manufacturerIndex.computeIfAbsent(newSet.getManufacturer(), k -> new BitSet()).set(position);
+		updateIndices(position, motor, null);
+	}
+
+	/**
+	 * Update the indices after adding a motor to a set.
+	 * 
+	 * @param position	the position of the set
+	 * @param motor		the added motor
+	 * @param oldType	the type of the set before adding the motor, or <code>null</code> for a new set
+	 */
+	private void updateIndices(int position, ThrustCurveMotor motor, Motor.Type oldType) {
+		final Motor.Type type = motorSets.get(position).getType();
+
+		digestIndex.computeIfAbsent(motor.getDigest(), k -> new BitSet()).set(position);
+		diameterIndex.computeIfAbsent(getBucket(motor.getDiameter()), k -> new BitSet()).set(position);
+		lengthIndex.computeIfAbsent(getBucket(motor.getLength()), k -> new BitSet()).set(position);
+
+		if (oldType != type) {
+			if (oldType != null) {
+				typeIndex.get(oldType).clear(position);
+			}
+			typeIndex.computeIfAbsent(type, k -> new BitSet()).set(position);
+		}
 	}
 
 }
@@ -1,5 +1,6 @@
 package info.openrocket.core.document;
 
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.util.EventListener;
 import java.util.EventObject;
@@ -11,6 +12,8 @@ import org.slf4j.LoggerFactory;
 
 import info.openrocket.core.aerodynamics.AerodynamicCalculator;
 import info.openrocket.core.aerodynamics.BarrowmanCalculator;
+import info.openrocket.core.logging.MessagePriority;
+import info.openrocket.core.logging.Warning;
 import info.openrocket.core.logging.WarningSet;
 import info.openrocket.core.formatting.RocketDescriptor;
 import info.openrocket.core.l10n.Translator;
@@ -21,6 +24,7 @@ import info.openrocket.core.rocketcomponent.Rocket;
 import info.openrocket.core.simulation.BasicEventSimulationEngine;
 import info.openrocket.core.simulation.DefaultSimulationOptionFactory;
 import info.openrocket.core.simulation.FlightData;
+import info.openrocket.core.simulation.FlightDataBranch;
 import info.openrocket.core.simulation.RK4SimulationStepper;
 import info.openrocket.core.simulation.SimulationConditions;
 import info.openrocket.core.simulation.SimulationEngine;
@@ -384,6 +388,8 @@ public class Simulation implements ChangeSource, Cloneable {
 	/**
 	 * Returns the status of this simulation.  This method examines whether the
 	 * simulation has been outdated and returns {@link Status#OUTDATED} accordingly.
+	 * A simulation whose flight data could not be loaded from the file is outdated
+	 * as well.
 	 *
 	 * @return the status
 	 * @see Status
@@ -395,6 +401,8 @@ public class Simulation implements ChangeSource, Cloneable {
 		if (isStatusUpToDate(status)) {
 			if (config.getModID() != simulatedConfigurationModID || !options.equals(simulatedConditions)) {
 				status = Status.OUTDATED;
+			} else if (getDataLoadFailure() != null) {
+				status = Status.OUTDATED;
 			}
 		}
 
@@ -538,7 +546,9 @@ public class Simulation implements ChangeSource, Cloneable {
 	/**
 	 * Return the warnings generated in the previous simulation, or
 	 * <code>null</code> if this simulation has not been run.  This is the same
-	 * warning set as contained in the <code>FlightData</code> object.
+	 * warning set as contained in the <code>FlightData</code> object, unless the
+	 * flight data could not be loaded from the file, in which case a copy including
+	 * a warning about the failure is returned.
 	 *
 	 * @return	the warnings during the previous simulation, or <code>null</code>.
 	 * @see		FlightData#getWarningSet()
@@ -547,7 +557,34 @@ public class Simulation implements ChangeSource, Cloneable {
 		mutex.verify();
 		if (simulatedData == null)
 			return null;
-		return simulatedData.getWarningSet();
+		IOException failure = getDataLoadFailure();
+		if (failure == null)
+			return simulatedData.getWarningSet();
+
+		WarningSet warnings = new WarningSet();
+		warnings.addAll(simulatedData.getWarningSet());
+		warnings.add(Warning.fromString("Unable to load the simulation data, run the simulation again: " +
+				failure.getMessage(), MessagePriority.HIGH));
+		warnings.immute();
+		return warnings;
+	}
+
+	/**
+	 * Return the reason loading the flight data of the previous simulation from a file
+	 * failed.  The data is loaded lazily, so this only reports failures of data that has
+	 * been accessed.
+	 *
+	 * @return	the reason, or <code>null</code> if no flight data failed to load.
+	 * @see		FlightDataBranch#getLoadFailure()
+	 */
+	public IOException getDataLoadFailure() {
+		if (simulatedData == null)
+			return null;
+		for (FlightDataBranch branch : simulatedData.getBranches()) {
+			if (branch.getLoadFailure() != null)
+				return branch.getLoadFailure();
+		}
+		return null;
 	}
 	
 	
@@ -15,6 +15,8 @@ public class StorageOptions implements Cloneable {
 
 	private boolean saveSimulationData = false;
 
+	private double simulationDataTolerance = 0;
+
 	private boolean explicitlySet = false;
 
 	public FileType getFileType() {
@@ -33,6 +35,31 @@ public class StorageOptions implements Cloneable {
 		saveSimulationData = s;
 	}
 
+	/**
+	 * Return the tolerance used to simplify the stored simulation data, relative to the
+	 * value range of each data type.  Zero stores every simulated point.
+	 *
+	 * @return	the relative tolerance.
+	 * @see info.openrocket.core.simulation.FlightDataSimplifier
+	 */
+	public double getSimulationDataTolerance() {
+		return simulationDataTolerance;
+	}
+
+	/**
+	 * Set the tolerance used to simplify the stored simulation data, relative to the
+	 * value range of each data type.  Events and the extreme values of each data type
+	 * are always stored exactly.
+	 *
+	 * @param tolerance	the relative tolerance, zero to store every simulated point.
+	 */
+	public void setSimulationDataTolerance(double tolerance) {
+		if (!(tolerance >= 0)) {
+			throw new IllegalArgumentException("Invalid tolerance " + tolerance);
+		}
+		simulationDataTolerance = tolerance;
+	}
+
 	public boolean isExplicitlySet() {
 		return explicitlySet;
 	}
@@ -9,8 +9,11 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
+import info.openrocket.core.batch.BatchResult;
+import info.openrocket.core.batch.SummaryValue;
 import info.openrocket.core.componentanalysis.CADataBranch;
 import info.openrocket.core.componentanalysis.CADataType;
+import info.openrocket.core.componentanalysis.CAGrid;
 import info.openrocket.core.componentanalysis.CADomainDataType;
 import info.openrocket.core.componentanalysis.CAParameters;
 import info.openrocket.core.logging.Warning;
@@ -115,27 +118,14 @@ public class CSVExport {
 
 			// Component analysis comments
 			if (analysisComments) {
-				writeComponentAnalysisComments(writer, parameters, branch, domainDataType, fields, components,
-						fieldSeparator, commentStarter);
+				writeComponentAnalysisComments(writer, parameters, branch.getLength(), List.of(domainDataType), fields,
+						components, fieldSeparator, commentStarter);
 			}
 
 			// Field names
 			if (fieldDescriptions) {
-				writer.print(prependComment(commentStarter, StringUtils.removeHTMLTags(domainDataType.getName())));
-				writer.print(fieldSeparator);
-				for (int i = 0; i < fields.length; i++) {
-					for (int j = 0; j < components.get(fields[i]).size(); j++) {
-						writer.print(StringUtils.removeHTMLTags(fields[i].getName()) +
-								" (" + components.get(fields[i]).get(j).getName() + ") (" +
-								units[i].getUnit() + ")");
-						if (i < fields.length - 1) {
-							writer.print(fieldSeparator);
-						} else if (j < components.get(fields[i]).size() - 1) {
-							writer.print(fieldSeparator);
-						}
-					}
-				}
-				writer.println();
+				writeFieldDescriptions(writer, List.of(domainDataType), fields, components, units, fieldSeparator,
+						commentStarter);
 			}
 
 			writeData(writer, branch, domainDataType, fields, components, units, fieldSeparator, decimalPlaces,
@@ -152,6 +142,141 @@ public class CSVExport {
 		}
 	}
 
+	/**
+	 * Exports a component analysis grid into a CSV file, one line per grid point.  The first
+	 * columns contain the parameter values of the grid axes, in grid order.  The stream is
+	 * flushed but not closed.
+	 *
+	 * @param stream                the stream to write to.
+	 * @param parameters            the parameters of the analysis.
+	 * @param grid                  the grid to export.
+	 * @param fields                the fields to export (in appropriate order).
+	 * @param components            the components to export for each field.
+	 * @param units                 the units of the fields.
+	 * @param fieldSeparator        the field separator string.
+	 * @param decimalPlaces         the number of decimal places to use.
+	 * @param isExponentialNotation whether to use exponential notation.
+	 * @param analysisComments      whether to output the analysis parameters as comments.
+	 * @param fieldDescriptions     whether to output the field names.
+	 * @param commentStarter        the comment starting character(s).
+	 * @throws IOException if an I/O exception occurs.
+	 */
+	public static void exportCSV(OutputStream stream, CAParameters parameters, CAGrid grid, CADataType[] fields,
+								 Map<CADataType, List<RocketComponent>> components, Unit[] units,
+								 String fieldSeparator, int decimalPlaces, boolean isExponentialNotation,
+								 boolean analysisComments, boolean fieldDescriptions, String commentStarter) throws IOException {
+		if (fields.length != units.length) {
+			throw new IllegalArgumentException("fields and units lengths must be equal " +
+					"(" + fields.length + " vs " + units.length + ")");
+		}
+
+		PrintWriter writer = new PrintWriter(stream, false, StandardCharsets.UTF_8);
+		List<CADomainDataType> axes = List.of(grid.getAxes());
+
+		if (analysisComments) {
+			writeComponentAnalysisComments(writer, parameters, grid.getSize(), axes, fields, components,
+					fieldSeparator, commentStarter);
+		}
+		if (fieldDescriptions) {
+			writeFieldDescriptions(writer, axes, fields, components, units, fieldSeparator, commentStarter);
+		}
+
+		// The values are read directly from the grid, without copying them
+		for (int index = 0; index < grid.getSize(); index++) {
+			for (int axis = 0; axis < axes.size(); axis++) {
+				writer.print(TextUtil.doubleToString(grid.getAxisValue(index, axis), decimalPlaces,
+						isExponentialNotation));
+				writer.print(fieldSeparator);
+			}
+
+			boolean first = true;
+			for (int i = 0; i < fields.length; i++) {
+				for (RocketComponent c : components.get(fields[i])) {
+					if (!first) {
+						writer.print(fieldSeparator);
+					}
+					first = false;
+					double value = units[i].toUnit(grid.get(fields[i], c, index));
+					writer.print(TextUtil.doubleToString(value, decimalPlaces, isExponentialNotation));
+				}
+			}
+			writer.println();
+		}
+
+		writer.flush();
+		if (writer.checkError()) {
+			throw new IOException("Error writing component analysis CSV");
+		}
+	}
+
+	/**
+	 * Exports a summary of the results of a batch simulation run into a CSV file, one line
+	 * per simulation.  The values are written in SI units.  The stream is flushed but not closed.
+	 *
+	 * @param stream                the stream to write to.
+	 * @param results               the results to export.
+	 * @param values                the summary values to export (in appropriate order).
+	 * @param fieldSeparator        the field separator string.
+	 * @param decimalPlaces         the number of decimal places to use.
+	 * @param isExponentialNotation whether to use exponential notation.
+	 * @param commentStarter        the comment starting character(s), or <code>null</code>
+	 *                              to omit the header comment.
+	 * @throws IOException if an I/O exception occurs.
+	 */
+	public static void exportSummaryCSV(OutputStream stream, List<BatchResult> results, SummaryValue[] values,
+										String fieldSeparator, int decimalPlaces, boolean isExponentialNotation,
+										String commentStarter) throws IOException {
+		PrintWriter writer = new PrintWriter(stream, false, StandardCharsets.UTF_8);
+
+		if (commentStarter != null) {
+			writer.println(prependComment(commentStarter, results.size() + " simulations written for "
+					+ values.length + " variables."));
+		}
+
+		writer.print("Source" + fieldSeparator + "Simulation" + fieldSeparator + "Status");
+		for (SummaryValue value : values) {
+			writer.print(fieldSeparator + value.getKey());
+			String unit = value.getUnitGroup().getSIUnit().getUnit();
+			if (!unit.isEmpty()) {
+				writer.print(" (" + unit + ")");
+			}
+		}
+		writer.println(fieldSeparator + "Message");
+
+		for (BatchResult result : results) {
+			writer.print(quote(result.source(), fieldSeparator));
+			writer.print(fieldSeparator);
+			writer.print(quote(result.simulation(), fieldSeparator));
+			writer.print(fieldSeparator);
+			writer.print(result.status().name());
+			for (SummaryValue value : values) {
+				writer.print(fieldSeparator);
+				writer.print(TextUtil.doubleToString(result.getValue(value), decimalPlaces, isExponentialNotation));
+			}
+			writer.print(fieldSeparator);
+			writer.println(quote(result.message(), fieldSeparator));
+		}
+
+		writer.flush();
+		if (writer.checkError()) {
+			throw new IOException("Error writing summary CSV");
+		}
+	}
+
+	/**
+	 * Quote a text field if it contains the field separator, quotes or line breaks.
+	 * A <code>null</code> field is written as empty.
+	 */
+	private static String quote(String text, String fieldSeparator) {
+		if (text == null) {
+			return "";
+		}
+		if (text.contains(fieldSeparator) || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+			return "\"" + text.replace("\"", "\"\"") + "\"";
+		}
+		return text;
+	}
+
 	private static void writeData(PrintWriter writer, FlightDataBranch branch, FlightDataType[] fields, Unit[] units,
 								  String fieldSeparator, int decimalPlaces, boolean isExponentialNotation,
 								  boolean eventComments, String commentStarter) {
@@ -318,13 +443,13 @@ public class CSVExport {
 		}
 	}
 
-	private static void writeComponentAnalysisComments(PrintWriter writer, CAParameters parameters, CADataBranch branch,
-													   CADomainDataType domainDataType, CADataType[] fields,
+	private static void writeComponentAnalysisComments(PrintWriter writer, CAParameters parameters, int length,
+													   List<CADomainDataType> domainDataTypes, CADataType[] fields,
 													   Map<CADataType, List<RocketComponent>> components,
 													   String fieldSeparator, String commentStarter) {
 		StringBuilder line = new StringBuilder(prependComment(commentStarter, "Parameters:")).append(fieldSeparator);
 
-		if (domainDataType != CADomainDataType.WIND_DIRECTION) {
+		if (!domainDataTypes.contains(CADomainDataType.WIND_DIRECTION)) {
 			line.append("Wind direction:").append(fieldSeparator);
 			Unit unit = parameters.getThetaUnit();
 			if (unit != null) {
@@ -333,7 +458,7 @@ public class CSVExport {
 				line.append(parameters.getTheta()).append(fieldSeparator);
 			}
 		}
-		if (domainDataType != CADomainDataType.AOA) {
+		if (!domainDataTypes.contains(CADomainDataType.AOA)) {
 			line.append("Angle of attack:").append(fieldSeparator);
 			Unit unit = parameters.getAOAUnit();
 			if (unit != null) {
@@ -342,7 +467,7 @@ public class CSVExport {
 				line.append(parameters.getAOA()).append(fieldSeparator);
 			}
 		}
-		if (domainDataType != CADomainDataType.MACH) {
+		if (!domainDataTypes.contains(CADomainDataType.MACH)) {
 			line.append("Mach:").append(fieldSeparator);
 			Unit unit = parameters.getMachUnit();
 			if (unit != null) {
@@ -351,7 +476,7 @@ public class CSVExport {
 				line.append(parameters.getMach()).append(fieldSeparator);
 			}
 		}
-		if (domainDataType != CADomainDataType.ROLL_RATE) {
+		if (!domainDataTypes.contains(CADomainDataType.ROLL_RATE)) {
 			line.append("Roll rate:").append(fieldSeparator);
 			Unit unit = parameters.getRollRateUnit();
 			if (unit != null) {
@@ -377,10 +502,34 @@ public class CSVExport {
 			nrOfVariables += components.get(t).size();
 		}
 
-		writer.println(prependComment(commentStarter, branch.getLength() + " data points written for "
+		writer.println(prependComment(commentStarter, length + " data points written for "
 				+ nrOfVariables + " variables."));
 	}
 
+	private static void writeFieldDescriptions(PrintWriter writer, List<CADomainDataType> domainDataTypes,
+											   CADataType[] fields, Map<CADataType, List<RocketComponent>> components,
+											   Unit[] units, String fieldSeparator, String commentStarter) {
+		writer.print(prependComment(commentStarter, StringUtils.removeHTMLTags(domainDataTypes.get(0).getName())));
+		writer.print(fieldSeparator);
+		for (int i = 1; i < domainDataTypes.size(); i++) {
+			writer.print(StringUtils.removeHTMLTags(domainDataTypes.get(i).getName()));
+			writer.print(fieldSeparator);
+		}
+		for (int i = 0; i < fields.length; i++) {
+			for (int j = 0; j < components.get(fields[i]).size(); j++) {
+				writer.print(StringUtils.removeHTMLTags(fields[i].getName()) +
+						" (" + components.get(fields[i]).get(j).getName() + ") (" +
+						units[i].getUnit() + ")");
+				if (i < fields.length - 1) {
+					writer.print(fieldSeparator);
+				} else if (j < components.get(fields[i]).size() - 1) {
+					writer.print(fieldSeparator);
+				}
+			}
+		}
+		writer.println();
+	}
+
 	private static String prependComment(String commentStarter, String comment) {
 		return commentStarter + " " + comment;
 	}
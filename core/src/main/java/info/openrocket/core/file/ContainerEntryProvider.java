@@ -0,0 +1,21 @@
+package info.openrocket.core.file;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Provides access to the entries of the zip container a document is loaded from,
+ * such as the binary flight data entries referenced by an .ork document.
+ */
+public interface ContainerEntryProvider {
+
+	/**
+	 * Open an entry of the container.  The caller must close the returned stream.
+	 *
+	 * @param name	the name of the entry.
+	 * @return		the contents of the entry, or <code>null</code> if the container has no such entry.
+	 * @throws IOException	if the entry cannot be read.
+	 */
+	public InputStream openEntry(String name) throws IOException;
+
+}
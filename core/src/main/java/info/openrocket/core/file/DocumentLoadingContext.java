@@ -8,6 +8,8 @@ public class DocumentLoadingContext {
 	private MotorFinder motorFinder;
 	private AttachmentFactory attachmentFactory = new FileSystemAttachmentFactory();
 	private OpenRocketDocument document;
+	private ContainerEntryProvider containerEntries = name -> null;
+	private boolean lazySimulationData = false;
 
 	public int getFileVersion() {
 		return fileVersion;
@@ -41,4 +43,29 @@ public class DocumentLoadingContext {
 		this.attachmentFactory = attachmentFactory;
 	}
 
+	/**
+	 * Return the provider of the other entries of the zip container the document is loaded from.
+	 * The provider returns <code>null</code> for all entries if the document is not in a container.
+	 */
+	public ContainerEntryProvider getContainerEntries() {
+		return containerEntries;
+	}
+
+	public void setContainerEntries(ContainerEntryProvider containerEntries) {
+		this.containerEntries = containerEntries;
+	}
+
+	/**
+	 * Return whether the simulation data stored in separate entries of the container is loaded
+	 * only when it is first accessed.  The container entries must then remain available after
+	 * loading the document.
+	 */
+	public boolean isLazySimulationData() {
+		return lazySimulationData;
+	}
+
+	public void setLazySimulationData(boolean lazySimulationData) {
+		this.lazySimulationData = lazySimulationData;
+	}
+
 }
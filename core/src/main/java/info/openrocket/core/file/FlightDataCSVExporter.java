@@ -0,0 +1,432 @@
+package info.openrocket.core.file;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import info.openrocket.core.logging.Warning;
+import info.openrocket.core.simulation.FlightDataBranch;
+import info.openrocket.core.simulation.FlightDataType;
+import info.openrocket.core.simulation.FlightEvent;
+import info.openrocket.core.unit.Unit;
+import info.openrocket.core.util.DoubleFormatter;
+import info.openrocket.core.util.ExecutorUtils;
+import info.openrocket.core.util.TextUtil;
+
+/**
+ * Exports the flight data of many simulations or branches into CSV files, for example the
+ * results of a batch of simulations.
+ * <p>
+ * The branches are either exported into one file, with a leading column holding the name of the
+ * source of each row, or each into a separate file.  The text of each branch is formatted by a
+ * separate task, and the text of a file is written through a buffered channel in the order of
+ * the branches, so the output does not depend on the number of threads.  The values are
+ * formatted like {@link CSVExport}, the output for a single branch in a separate file is
+ * identical to that of {@link CSVExport#exportCSV} without simulation comments.
+ */
+public class FlightDataCSVExporter {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final String LINE_SEPARATOR = System.lineSeparator();
+	/** Event times are formatted like {@link TextUtil#doubleToString(double)} */
+	private static final DoubleFormatter EVENT_TIME_FORMATTER =
+			new DoubleFormatter(TextUtil.DEFAULT_DECIMAL_PLACES, true);
+
+	/**
+	 * A branch to export.
+	 *
+	 * @param name		the name of the source of the branch, written in the source column.
+	 * @param branch	the branch.
+	 */
+	public record Source(String name, FlightDataBranch branch) {
+	}
+
+	private final String fieldSeparator;
+	private final DoubleFormatter formatter;
+
+	private FlightDataType[] fields = null;
+	private Unit[] units = null;
+	private String commentStarter = "#";
+	private boolean fieldComments = true;
+	private boolean eventComments = false;
+	private int threadCount = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * @param fieldSeparator		the field separator string.
+	 * @param decimalPlaces			the number of decimal places to use.
+	 * @param isExponentialNotation	whether to use exponential notation.
+	 */
+	public FlightDataCSVExporter(String fieldSeparator, int decimalPlaces, boolean isExponentialNotation) {
+		this.fieldSeparator = fieldSeparator;
+		this.formatter = new DoubleFormatter(decimalPlaces, isExponentialNotation);
+	}
+
+	/**
+	 * Set the fields to export.  By default all types of the exported branches are exported in
+	 * SI units, in order of first occurrence.  Values of types a branch does not have are NaN.
+	 *
+	 * @param fields	the fields to export (in appropriate order), or <code>null</code> for all types.
+	 * @param units		the units of the fields.
+	 */
+	public void setFields(FlightDataType[] fields, Unit[] units) {
+		if (fields != null && (units == null || fields.length != units.length)) {
+			throw new IllegalArgumentException("fields and units lengths must be equal");
+		}
+		this.fields = (fields != null) ? fields.clone() : null;
+		this.units = (fields != null) ? units.clone() : null;
+	}
+
+	/**
+	 * @param commentStarter	the comment starting character(s).
+	 */
+	public void setCommentStarter(String commentStarter) {
+		this.commentStarter = commentStarter;
+	}
+
+	/**
+	 * @param fieldComments	whether to output a comment line with the field names.
+	 */
+	public void setFieldComments(boolean fieldComments) {
+		this.fieldComments = fieldComments;
+	}
+
+	/**
+	 * @param eventComments	whether to output comments for the flight events.
+	 */
+	public void setEventComments(boolean eventComments) {
+		this.eventComments = eventComments;
+	}
+
+	/**
+	 * @param threadCount	the number of threads formatting the branches.
+	 */
+	public void setThreadCount(int threadCount) {
+		this.threadCount = Math.max(1, threadCount);
+	}
+
+	/**
+	 * Export the branches into a single file, one after the other.  The channel is not closed.
+	 *
+	 * @param channel	the channel to write to.
+	 * @param sources	the branches to export.
+	 * @throws IOException	if an I/O exception occurs.
+	 */
+	public void export(WritableByteChannel channel, List<Source> sources) throws IOException {
+		final FlightDataType[] exportFields = getFields(sources);
+		final Unit[] exportUnits = getUnits(exportFields);
+
+		ChannelWriter writer = new ChannelWriter(channel);
+		if (fieldComments) {
+			StringBuilder sb = writer.builder();
+			sb.append(commentStarter).append(" Source");
+			appendFieldNames(sb.append(fieldSeparator), exportFields, exportUnits);
+			sb.append(LINE_SEPARATOR);
+			writer.flushIfFull();
+		}
+
+		// Formatted branches are written in order, while at most a few of them are kept in memory
+		ExecutorService executor = createExecutor(sources.size());
+		Deque<Future<byte[]>> pending = new ArrayDeque<>();
+		try {
+			int next = 0;
+			int written = 0;
+			while (written < sources.size()) {
+				while (next < sources.size() && pending.size() < 2 * threadCount) {
+					final Source source = sources.get(next++);
+					pending.add(executor.submit(() -> {
+						ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+						ChannelWriter branchWriter = new ChannelWriter(Channels.newChannel(bytes));
+						writeBranch(branchWriter, source, exportFields, exportUnits, true);
+						branchWriter.flush();
+						return bytes.toByteArray();
+					}));
+				}
+				writer.write(getResult(pending.poll()));
+				written++;
+			}
+			writer.flush();
+		} finally {
+			for (Future<byte[]> future : pending) {
+				future.cancel(true);
+			}
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Export each branch into a separate file.  The files are written in parallel.
+	 *
+	 * @param sources	the branches to export.
+	 * @param files		the file of each branch.
+	 * @throws IOException	if an I/O exception occurs.
+	 */
+	public void export(List<Source> sources, List<File> files) throws IOException {
+		if (sources.size() != files.size()) {
+			throw new IllegalArgumentException("sources and files lengths must be equal " +
+					"(" + sources.size() + " vs " + files.size() + ")");
+		}
+
+		ExecutorService executor = createExecutor(sources.size());
+		List<Future<Void>> futures = new ArrayList<>(sources.size());
+		try {
+			for (int i = 0; i < sources.size(); i++) {
+				final Source source = sources.get(i);
+				final File file = files.get(i);
+				futures.add(executor.submit((Callable<Void>) () -> {
+					exportFile(source, file);
+					return null;
+				}));
+			}
+			for (Future<Void> future : futures) {
+				getResult(future);
+			}
+		} finally {
+			for (Future<Void> future : futures) {
+				future.cancel(true);
+			}
+			executor.shutdownNow();
+		}
+	}
+
+	private void exportFile(Source source, File file) throws IOException {
+		FlightDataType[] exportFields = getFields(List.of(source));
+		Unit[] exportUnits = getUnits(exportFields);
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			ChannelWriter writer = new ChannelWriter(channel);
+			if (fieldComments) {
+				StringBuilder sb = writer.builder();
+				sb.append(commentStarter).append(' ');
+				appendFieldNames(sb, exportFields, exportUnits);
+				sb.append(LINE_SEPARATOR);
+			}
+			writeBranch(writer, source, exportFields, exportUnits, false);
+			writer.flush();
+		}
+	}
+
+	/**
+	 * Write the rows and event comments of a branch.  The values of each field are fetched once
+	 * as an array instead of boxed per row.
+	 */
+	private void writeBranch(ChannelWriter writer, Source source, FlightDataType[] exportFields,
+			Unit[] exportUnits, boolean sourceColumn) throws IOException {
+		FlightDataBranch branch = source.branch();
+		double[] time = branch.getValues(FlightDataType.TYPE_TIME);
+		int n = (time != null) ? time.length : branch.getLength();
+
+		double[][] values = new double[exportFields.length][];
+		for (int i = 0; i < exportFields.length; i++) {
+			values[i] = branch.getValues(exportFields[i]);
+		}
+		String prefix = sourceColumn ? quote(source.name()) + fieldSeparator : "";
+		String eventPrefix = sourceColumn ? source.name() + ": " : "";
+
+		// Flight events in occurrence order
+		List<FlightEvent> events = branch.getEvents();
+		Collections.sort(events);
+		int eventPosition = 0;
+
+		// If time information is not available, print events at beginning of the branch
+		if (eventComments && time == null) {
+			for (FlightEvent e : events) {
+				appendEvent(writer.builder(), e, eventPrefix);
+			}
+			eventPosition = events.size();
+		}
+
+		StringBuilder sb = writer.builder();
+		for (int pos = 0; pos < n; pos++) {
+			if (eventComments && time != null) {
+				while (eventPosition < events.size() && events.get(eventPosition).getTime() <= time[pos]) {
+					appendEvent(sb, events.get(eventPosition), eventPrefix);
+					eventPosition++;
+				}
+			}
+
+			sb.append(prefix);
+			for (int i = 0; i < exportFields.length; i++) {
+				if (i > 0) {
+					sb.append(fieldSeparator);
+				}
+				double value = (values[i] != null) ? values[i][pos] : Double.NaN;
+				formatter.append(sb, exportUnits[i].toUnit(value));
+			}
+			sb.append(LINE_SEPARATOR);
+			writer.flushIfFull();
+		}
+
+		// Store any remaining events
+		if (eventComments && time != null) {
+			while (eventPosition < events.size()) {
+				appendEvent(sb, events.get(eventPosition), eventPrefix);
+				eventPosition++;
+			}
+		}
+	}
+
+	private void appendEvent(StringBuilder sb, FlightEvent e, String prefix) {
+		sb.append(commentStarter).append(' ').append(prefix).append("Event ").append(e.getType().name())
+				.append(" occurred at t=");
+		EVENT_TIME_FORMATTER.append(sb, e.getTime());
+		sb.append(" seconds");
+		if (e.getType() == FlightEvent.Type.SIM_WARN) {
+			sb.append(": ").append((Warning) e.getData());
+		}
+		sb.append(LINE_SEPARATOR);
+	}
+
+	private void appendFieldNames(StringBuilder sb, FlightDataType[] exportFields, Unit[] exportUnits) {
+		for (int i = 0; i < exportFields.length; i++) {
+			if (i > 0) {
+				sb.append(fieldSeparator);
+			}
+			sb.append(exportFields[i].getName()).append(" (").append(exportUnits[i].getUnit()).append(")");
+		}
+	}
+
+	/**
+	 * Return the fields to export, by default all types of the branches in order of first occurrence.
+	 */
+	private FlightDataType[] getFields(List<Source> sources) {
+		if (fields != null) {
+			return fields;
+		}
+		Set<FlightDataType> types = new LinkedHashSet<>();
+		for (Source source : sources) {
+			Collections.addAll(types, source.branch().getTypes());
+		}
+		return types.toArray(new FlightDataType[0]);
+	}
+
+	private Unit[] getUnits(FlightDataType[] exportFields) {
+		if (fields != null) {
+			return units;
+		}
+		Unit[] siUnits = new Unit[exportFields.length];
+		for (int i = 0; i < exportFields.length; i++) {
+			siUnits[i] = exportFields[i].getUnitGroup().getSIUnit();
+		}
+		return siUnits;
+	}
+
+	/**
+	 * Quote a text field if it contains the field separator, quotes or line breaks.
+	 */
+	private String quote(String text) {
+		if (text == null) {
+			return "";
+		}
+		if (text.contains(fieldSeparator) || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+			return "\"" + text.replace("\"", "\"\"") + "\"";
+		}
+		return text;
+	}
+
+	private ExecutorService createExecutor(int tasks) {
+		return ExecutorUtils.newDaemonExecutor("FlightDataCSVExporter", Math.max(1, Math.min(threadCount, tasks)));
+	}
+
+	private static <T> T getResult(Future<T> future) throws IOException {
+		try {
+			return ExecutorUtils.getResult(future, IOException.class, "Exporting flight data failed");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Export interrupted");
+		}
+	}
+
+	/**
+	 * Collects text in a builder and encodes it as UTF-8 into a buffer that is written to a channel
+	 * when full.  The builder and the buffers are reused, so writing does not allocate per row.
+	 */
+	private static class ChannelWriter {
+		private final WritableByteChannel channel;
+		private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+		private final StringBuilder text = new StringBuilder(BUFFER_SIZE);
+		private final char[] chars = new char[BUFFER_SIZE];
+		private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+		ChannelWriter(WritableByteChannel channel) {
+			this.channel = channel;
+		}
+
+		StringBuilder builder() {
+			return text;
+		}
+
+		void flushIfFull() throws IOException {
+			if (text.length() >= BUFFER_SIZE / 2) {
+				encodeText();
+			}
+		}
+
+		void write(byte[] bytes) throws IOException {
+			encodeText();
+			writeBuffer();
+			ByteBuffer wrapped = ByteBuffer.wrap(bytes);
+			while (wrapped.hasRemaining()) {
+				channel.write(wrapped);
+			}
+		}
+
+		void flush() throws IOException {
+			encodeText();
+			writeBuffer();
+		}
+
+		private void encodeText() throws IOException {
+			int start = 0;
+			while (start < text.length()) {
+				int end = Math.min(text.length(), start + chars.length);
+				// Do not split surrogate pairs
+				if (end < text.length() && Character.isHighSurrogate(text.charAt(end - 1))) {
+					end--;
+				}
+				text.getChars(start, end, chars, 0);
+				CharBuffer in = CharBuffer.wrap(chars, 0, end - start);
+				while (true) {
+					CoderResult result = encoder.encode(in, buffer, true);
+					if (result.isOverflow()) {
+						writeBuffer();
+					} else if (result.isUnderflow()) {
+						break;
+					} else {
+						result.throwException();
+					}
+				}
+				encoder.reset();
+				start = end;
+			}
+			text.setLength(0);
+		}
+
+		private void writeBuffer() throws IOException {
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			buffer.clear();
+		}
+	}
+}
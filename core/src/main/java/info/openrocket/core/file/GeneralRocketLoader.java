@@ -1,21 +1,28 @@
 package info.openrocket.core.file;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
 
 import info.openrocket.core.logging.WarningSet;
 import info.openrocket.core.document.OpenRocketDocument;
 import info.openrocket.core.document.OpenRocketDocumentFactory;
+import info.openrocket.core.file.openrocket.OpenRocketSaver;
 import info.openrocket.core.file.openrocket.importt.OpenRocketLoader;
 import info.openrocket.core.file.rasaero.importt.RASAeroLoader;
 import info.openrocket.core.file.rocksim.importt.RockSimLoader;
@@ -51,6 +58,10 @@ public class GeneralRocketLoader {
 	private final File baseFile;
 	private final URL jarURL;
 	private boolean isContainer;
+	/** Whether the stream being loaded is the contents of the base file */
+	private boolean readingBaseFile = false;
+	private ContainerEntryProvider containerEntries = name -> null;
+	private boolean lazySimulationData = false;
 
 	private final MotorFinder motorFinder;
 	private AttachmentFactory attachmentFactory;
@@ -80,12 +91,14 @@ public class GeneralRocketLoader {
 					? baseFile.getName().replaceFirst("[.][^.]+$", "")
 					: null;
 			stream = new BufferedInputStream(new FileInputStream(baseFile));
+			readingBaseFile = true;
 			load(stream, fileName);
 			return doc;
 
 		} catch (Exception e) {
 			throw new RocketLoadException("Exception loading file: " + baseFile + " , " + e.getMessage(), e);
 		} finally {
+			readingBaseFile = false;
 			if (stream != null) {
 				try {
 					stream.close();
@@ -110,6 +123,21 @@ public class GeneralRocketLoader {
 		return warnings;
 	}
 
+	/**
+	 * Set whether simulation data is loaded only when it is first accessed, so that the time
+	 * to open a document is independent of the amount of simulation data it contains.  The
+	 * summary values of the simulations are available immediately.  Only simulation data stored
+	 * in separate entries of a zip container is loaded lazily.
+	 * <p>
+	 * When loading the base file, the data is read from the file when it is accessed, which
+	 * fails if the data entries have been modified in the meantime.
+	 *
+	 * @param lazySimulationData	whether to load simulation data lazily.
+	 */
+	public void setLazySimulationData(boolean lazySimulationData) {
+		this.lazySimulationData = lazySimulationData;
+	}
+
 	/**
 	 * This method determines the type file contained in the stream then calls the
 	 * appropriate loading mechanism.
@@ -166,7 +194,7 @@ public class GeneralRocketLoader {
 				throw new RocketLoadException("Unsupported or corrupt file.");
 			}
 			if (entry.getName().matches(".*\\.[oO][rR][kK]$")) {
-				loadRocket(in, fileName);
+				loadContainerDocument(in, fileName);
 			} else if (entry.getName().matches(".*\\.[rR][kK][tT]$")) {
 				loadRocket(in, fileName);
 			} else if (entry.getName().matches(".*\\.[cC][dD][xX]1$")) {
@@ -181,6 +209,54 @@ public class GeneralRocketLoader {
 		loadRocket(source, fileName);
 	}
 
+	/**
+	 * Load the .ork document of a zip container, which is the current entry of the stream.
+	 * The other entries the document references are read directly from the base file if it
+	 * is being loaded.  Otherwise they are only available after the document, so the
+	 * document and the entries are read into memory first.
+	 */
+	private void loadContainerDocument(ZipInputStream in, String fileName) throws IOException, RocketLoadException {
+		if (readingBaseFile && lazySimulationData) {
+			try {
+				containerEntries = new ZipFileEntryProvider(baseFile);
+				loadRocket(in, fileName);
+			} finally {
+				containerEntries = name -> null;
+			}
+			return;
+		}
+		if (readingBaseFile) {
+			try (ZipFile zipFile = new ZipFile(baseFile)) {
+				containerEntries = name -> {
+					ZipEntry entry = zipFile.getEntry(name);
+					return (entry != null) ? zipFile.getInputStream(entry) : null;
+				};
+				loadRocket(in, fileName);
+			} finally {
+				containerEntries = name -> null;
+			}
+			return;
+		}
+
+		byte[] document = in.readAllBytes();
+		Map<String, byte[]> entries = new HashMap<>();
+		ZipEntry entry;
+		while ((entry = in.getNextEntry()) != null) {
+			if (entry.getName().startsWith(OpenRocketSaver.FLIGHT_DATA_DIRECTORY)) {
+				entries.put(entry.getName(), in.readAllBytes());
+			}
+		}
+		try {
+			containerEntries = name -> {
+				byte[] bytes = entries.get(name);
+				return (bytes != null) ? new ByteArrayInputStream(bytes) : null;
+			};
+			loadRocket(new ByteArrayInputStream(document), fileName);
+		} finally {
+			containerEntries = name -> null;
+		}
+	}
+
 	private void loadRocket(InputStream source, String fileName) throws IOException, RocketLoadException {
 
 		// Check for mark() support
@@ -252,10 +328,58 @@ public class GeneralRocketLoader {
 		context.setOpenRocketDocument(doc);
 		context.setMotorFinder(motorFinder);
 		context.setAttachmentFactory(attachmentFactory);
+		context.setContainerEntries(containerEntries);
+		context.setLazySimulationData(lazySimulationData);
 		loader.load(context, source, fileName);
 		warnings.addAll(loader.getWarnings());
 
 		// Check for custom materials that need to be added to the document material database
 		doc.reloadDocumentMaterials();
 	}
+
+	/**
+	 * Opens the entries of a zip file on demand, as long as the entries have not been modified.
+	 * The entries are compared by their CRC-32 and size, so rewriting the file with the same
+	 * entries, as saving an unmodified simulation does, keeps them available.
+	 */
+	private static class ZipFileEntryProvider implements ContainerEntryProvider {
+		private final File file;
+		/** The CRC-32 and size of each entry when the file was loaded */
+		private final Map<String, long[]> checksums = new HashMap<>();
+
+		ZipFileEntryProvider(File file) throws IOException {
+			this.file = file;
+			try (ZipFile zipFile = new ZipFile(file)) {
+				Enumeration<? extends ZipEntry> entries = zipFile.entries();
+				while (entries.hasMoreElements()) {
+					ZipEntry entry = entries.nextElement();
+					checksums.put(entry.getName(), new long[] { entry.getCrc(), entry.getSize() });
+				}
+			}
+		}
+
+		@Override
+		public InputStream openEntry(String name) throws IOException {
+			long[] checksum = checksums.get(name);
+			if (checksum == null) {
+				return null;
+			}
+			final ZipFile zipFile = new ZipFile(file);
+			ZipEntry entry = zipFile.getEntry(name);
+			if (entry == null || entry.getCrc() != checksum[0] || entry.getSize() != checksum[1]) {
+				zipFile.close();
+				throw new IOException("Entry " + name + " of file " + file + " has been modified since it was loaded");
+			}
+			return new FilterInputStream(zipFile.getInputStream(entry)) {
+				@Override
+				public void close() throws IOException {
+					try {
+						super.close();
+					} finally {
+						zipFile.close();
+					}
+				}
+			};
+		}
+	}
 }
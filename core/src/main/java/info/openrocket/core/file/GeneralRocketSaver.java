@@ -16,6 +16,7 @@ import info.openrocket.core.appearance.Appearance;
 import info.openrocket.core.appearance.Decal;
 import info.openrocket.core.appearance.DecalImage;
 import info.openrocket.core.document.OpenRocketDocument;
+import info.openrocket.core.document.Simulation;
 import info.openrocket.core.document.StorageOptions;
 import info.openrocket.core.document.StorageOptions.FileType;
 import info.openrocket.core.file.openrocket.OpenRocketSaver;
@@ -25,6 +26,8 @@ import info.openrocket.core.logging.ErrorSet;
 import info.openrocket.core.logging.WarningSet;
 import info.openrocket.core.rocketcomponent.InsideColorComponent;
 import info.openrocket.core.rocketcomponent.RocketComponent;
+import info.openrocket.core.simulation.FlightData;
+import info.openrocket.core.simulation.FlightDataBranch;
 import info.openrocket.core.util.DecalNotFoundException;
 import info.openrocket.core.util.MathUtil;
 
@@ -118,18 +121,25 @@ public class GeneralRocketSaver {
 			long estimatedSize = this.estimateFileSize(doc, opts);
 			s = new ProgressOutputStream(s, estimatedSize, progress);
 		}
+		boolean saved = false;
 		try {
 			save(dest.getName(), s, doc, opts);
-		} catch (DecalNotFoundException decex) {
-			temporaryNewFile.delete();
-			throw decex;
+			saved = true;
 		} finally {
 			s.close();
+			if (!saved) {
+				// Keep the existing file, for example when simulation data could not be loaded from it
+				temporaryNewFile.delete();
+			}
 		}
 
 		// Move the temporary new file over the specified file.
 
 		boolean destExists = dest.exists();
+		if (destExists) {
+			// Simulation data not loaded yet may be read from the file being replaced
+			loadSimulationData(doc);
+		}
 		File oldBackupFile = new File(dest.getParentFile(), dest.getName() + "-bak");
 
 		if (destExists) {
@@ -163,7 +173,9 @@ public class GeneralRocketSaver {
 		} else if (options.getFileType() == FileType.RASAERO) {
 			return new RASAeroSaver().estimateFileSize(doc, options);
 		} else {
-			return new OpenRocketSaver().estimateFileSize(doc, options);
+			OpenRocketSaver saver = new OpenRocketSaver();
+			saver.setBinaryFlightData(true);
+			return saver.estimateFileSize(doc, options);
 		}
 	}
 
@@ -206,6 +218,20 @@ public class GeneralRocketSaver {
 		saveAllPartsZipFile(output, document, options, usedDecals);
 	}
 
+	/**
+	 * Load the values of all flight data branches of the document that are loaded lazily.
+	 */
+	private static void loadSimulationData(OpenRocketDocument doc) {
+		for (Simulation simulation : doc.getSimulations()) {
+			FlightData data = simulation.getSimulatedData();
+			if (data != null) {
+				for (FlightDataBranch branch : data.getBranches()) {
+					branch.loadValues();
+				}
+			}
+		}
+	}
+
 	public void saveAllPartsZipFile(OutputStream output, OpenRocketDocument document, StorageOptions options,
 			Set<DecalImage> decals) throws IOException, DecalNotFoundException {
 
@@ -215,10 +241,17 @@ public class GeneralRocketSaver {
 		try (zos) {
 			zos.setLevel(9);
 
-			ZipEntry mainFile = new ZipEntry("rocket.ork");
-			zos.putNextEntry(mainFile);
-			saveInternal(zos, document, options);
-			zos.closeEntry();
+			// The saver is closed to discard the flight data entries still being encoded if saving fails
+			try (OpenRocketSaver openRocketSaver = new OpenRocketSaver()) {
+				ZipEntry mainFile = new ZipEntry("rocket.ork");
+				zos.putNextEntry(mainFile);
+				openRocketSaver.setBinaryFlightData(true);
+				saveInternal(zos, document, options, openRocketSaver);
+				zos.closeEntry();
+
+				// The flight data values are stored in separate entries referenced by the document
+				openRocketSaver.saveFlightDataEntries(zos);
+			}
 
 			// Now we write out all the decal images files.
 			for (DecalImage image : decals) {
@@ -249,6 +282,11 @@ public class GeneralRocketSaver {
 
 	private void saveInternal(OutputStream output, OpenRocketDocument document, StorageOptions options)
 			throws IOException {
+		saveInternal(output, document, options, new OpenRocketSaver());
+	}
+
+	private void saveInternal(OutputStream output, OpenRocketDocument document, StorageOptions options,
+			OpenRocketSaver openRocketSaver) throws IOException {
 		warnings.clear();
 		errors.clear();
 
@@ -257,7 +295,7 @@ public class GeneralRocketSaver {
 		} else if (options.getFileType() == FileType.RASAERO) {
 			new RASAeroSaver().save(output, document, options, warnings, errors);
 		} else {
-			new OpenRocketSaver().save(output, document, options, warnings, errors);
+			openRocketSaver.save(output, document, options, warnings, errors);
 		}
 	}
 
@@ -0,0 +1,455 @@
+package info.openrocket.core.file.openrocket;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+
+import info.openrocket.core.simulation.FlightDataBranch;
+import info.openrocket.core.simulation.FlightDataType;
+import info.openrocket.core.util.MathUtil;
+import info.openrocket.core.util.TextUtil;
+
+/**
+ * Reads and writes the values of a flight data branch as a binary entry of the .ork
+ * zip container.  The branch name, types and events are stored in the XML document,
+ * which references the entry by name.
+ * <p>
+ * The values are stored with the same precision as the text data points of earlier file
+ * versions, so that loading either gives exactly the same values.  They are stored column
+ * by column, each column encoded using whichever of two encodings is smaller:
+ * <ul>
+ *   <li>Delta: the values are stored as decimal mantissas and exponents, and the
+ *       differences of consecutive deltas of the mantissas are stored as variable length
+ *       integers.  Smoothly changing and evenly stepped columns take a byte or two per value.</li>
+ *   <li>XOR: each value is XORed with the previous one and only the meaningful bits of
+ *       the result are stored, so constant columns take a single bit per value.</li>
+ * </ul>
+ * Only a single column is held in memory in addition to the branch while reading or writing.
+ */
+public final class FlightDataEntry {
+
+	private static final int MAGIC = 0x4f524644; // "ORFD"
+	private static final int VERSION = 1;
+
+	private static final int ENCODING_DELTA = 1;
+	private static final int ENCODING_XOR = 2;
+
+	/** The escape codes of the delta encoding */
+	private static final int ESCAPE_NAN = 0;
+	private static final int ESCAPE_POSITIVE_INFINITY = 1;
+	private static final int ESCAPE_NEGATIVE_INFINITY = 2;
+	private static final int ESCAPE_EXPONENT = 3;
+
+	/** The decimals of the fixed point and exponential notation of the text data points */
+	private static final int DECIMALS = TextUtil.DEFAULT_DECIMAL_PLACES;
+	/** Values within this range are stored in fixed point notation, others in exponential notation */
+	private static final double FIXED_MIN = 0.001;
+	private static final double FIXED_MAX = 10000;
+
+	/** The exactly representable powers of ten */
+	private static final double[] POWERS_OF_TEN = new double[23];
+	static {
+		POWERS_OF_TEN[0] = 1;
+		for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+			POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+		}
+	}
+
+	private FlightDataEntry() {
+	}
+
+	/**
+	 * Write the values of a branch.  The stream is flushed but not closed.
+	 *
+	 * @param output	the stream to write to.
+	 * @param branch	the branch.
+	 * @param types		the types of the columns to write, in the order they are listed in the document.
+	 * @throws IOException	if writing fails.
+	 */
+	public static void write(OutputStream output, FlightDataBranch branch, FlightDataType[] types)
+			throws IOException {
+		final int length = branch.getLength();
+		DataOutputStream out = new DataOutputStream(output);
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeInt(types.length);
+		out.writeInt(length);
+
+		long[] mantissas = new long[length];
+		int[] exponents = new int[length];
+		ByteArrayOutputStream delta = new ByteArrayOutputStream();
+		ByteArrayOutputStream xor = new ByteArrayOutputStream();
+		for (FlightDataType type : types) {
+			double[] values = branch.getValues(type);
+			if (values == null || values.length != length) {
+				throw new IOException("Column " + type.getName() + " does not contain " + length + " values");
+			}
+
+			// Round the values to the stored precision
+			for (int i = 0; i < length; i++) {
+				toDecimal(values[i], mantissas, exponents, i);
+				values[i] = toDouble(values[i], mantissas[i], exponents[i]);
+			}
+
+			delta.reset();
+			xor.reset();
+			encodeDelta(values, mantissas, exponents, delta);
+			encodeXOR(values, xor);
+			if (delta.size() <= xor.size()) {
+				out.writeByte(ENCODING_DELTA);
+				delta.writeTo(out);
+			} else {
+				out.writeByte(ENCODING_XOR);
+				xor.writeTo(out);
+			}
+		}
+		out.flush();
+	}
+
+	/**
+	 * Read the values of a branch.  The branch must not contain any points yet.
+	 *
+	 * @param input		the stream to read from.
+	 * @param branch	the branch to add the points to.
+	 * @param types		the types of the columns, in the order they are listed in the document.
+	 * @throws IOException	if reading fails or the entry is corrupt.
+	 */
+	public static void read(InputStream input, FlightDataBranch branch, FlightDataType[] types)
+			throws IOException {
+		DataInputStream in = new DataInputStream(input);
+		if (in.readInt() != MAGIC) {
+			throw new IOException("Not a flight data entry");
+		}
+		int version = in.readInt();
+		if (version != VERSION) {
+			throw new IOException("Unsupported flight data entry version " + version);
+		}
+		int columns = in.readInt();
+		if (columns != types.length) {
+			throw new IOException("Flight data entry contains " + columns + " columns, expected " + types.length);
+		}
+		int length = in.readInt();
+		if (length < 0) {
+			throw new IOException("Invalid flight data length " + length);
+		}
+
+		for (int i = 0; i < length; i++) {
+			branch.addPoint();
+		}
+		double[] values = new double[length];
+		for (FlightDataType type : types) {
+			int encoding = in.readUnsignedByte();
+			switch (encoding) {
+				case ENCODING_DELTA:
+					decodeDelta(in, values);
+					break;
+				case ENCODING_XOR:
+					decodeXOR(in, values);
+					break;
+				default:
+					throw new IOException("Unknown flight data encoding " + encoding);
+			}
+			branch.setValues(type, values);
+		}
+	}
+
+	////////  Decimal values  ////////
+
+	/**
+	 * Convert a finite value to the decimal mantissa and exponent of its text representation
+	 * as given by {@link TextUtil#doubleToString(double)}.  The mantissa of zero is zero.
+	 */
+	private static void toDecimal(double value, long[] mantissas, int[] exponents, int index) {
+		if (Double.isNaN(value) || Double.isInfinite(value) || MathUtil.equals(value, 0)) {
+			mantissas[index] = 0;
+			exponents[index] = -DECIMALS;
+			return;
+		}
+
+		// Fast path, rounding the scaled value unless it is close to halfway
+		double abs = Math.abs(value);
+		boolean fixed = abs >= FIXED_MIN && abs < FIXED_MAX;
+		int exponent = fixed ? -DECIMALS : (int) Math.floor(Math.log10(abs)) - DECIMALS;
+		double scaled = abs * ((exponent <= 0 && -exponent < POWERS_OF_TEN.length) ? POWERS_OF_TEN[-exponent] :
+				Math.pow(10, -exponent));
+		double fraction = scaled - Math.floor(scaled);
+		if (Math.abs(fraction - 0.5) > 1e-6 && (fixed || (scaled >= 1000 && scaled < 9999.5))) {
+			long mantissa = Math.round(scaled);
+			mantissas[index] = (value < 0) ? -mantissa : mantissa;
+			exponents[index] = exponent;
+			return;
+		}
+
+		// Exact rounding of the text representation
+		BigDecimal decimal = new BigDecimal(TextUtil.doubleToString(value));
+		if (fixed) {
+			decimal = decimal.setScale(DECIMALS);
+		} else {
+			decimal = decimal.setScale(DECIMALS - (decimal.precision() - decimal.scale() - 1));
+		}
+		mantissas[index] = decimal.unscaledValue().longValueExact();
+		exponents[index] = -decimal.scale();
+	}
+
+	/**
+	 * Return the double closest to a decimal value, which equals parsing its text representation.
+	 *
+	 * @param value		the original value, returned if it is not finite.
+	 */
+	private static double toDouble(double value, long mantissa, int exponent) {
+		if (Double.isNaN(value) || Double.isInfinite(value)) {
+			return value;
+		}
+		return toDouble(mantissa, exponent);
+	}
+
+	private static double toDouble(long mantissa, int exponent) {
+		if (mantissa == 0) {
+			return 0;
+		}
+		// Products and quotients of exactly representable values are correctly rounded
+		if (Math.abs(mantissa) < (1L << 53) && Math.abs(exponent) < POWERS_OF_TEN.length) {
+			return (exponent < 0) ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+		}
+		return Double.parseDouble(mantissa + "E" + exponent);
+	}
+
+	////////  Delta encoding  ////////
+
+	private static void encodeDelta(double[] values, long[] mantissas, int[] exponents, OutputStream out)
+			throws IOException {
+		int exponent = -DECIMALS;
+		long previous = 0;
+		long previousDelta = 0;
+		for (int i = 0; i < values.length; i++) {
+			double value = values[i];
+			if (Double.isNaN(value)) {
+				writeVarLong(out, escape(ESCAPE_NAN));
+				continue;
+			}
+			if (Double.isInfinite(value)) {
+				writeVarLong(out, escape((value > 0) ? ESCAPE_POSITIVE_INFINITY : ESCAPE_NEGATIVE_INFINITY));
+				continue;
+			}
+
+			long mantissa = mantissas[i];
+			if (mantissa != 0 && exponents[i] != exponent) {
+				exponent = exponents[i];
+				writeVarLong(out, escape(ESCAPE_EXPONENT));
+				writeVarLong(out, zigzag(exponent));
+				previous = 0;
+				previousDelta = 0;
+			}
+			long delta = mantissa - previous;
+			writeVarLong(out, zigzag(delta - previousDelta) << 1);
+			previous = mantissa;
+			previousDelta = delta;
+		}
+	}
+
+	private static void decodeDelta(InputStream in, double[] values) throws IOException {
+		int exponent = -DECIMALS;
+		long previous = 0;
+		long previousDelta = 0;
+		for (int i = 0; i < values.length; i++) {
+			long code = readVarLong(in);
+			if ((code & 1) != 0) {
+				switch ((int) (code >>> 1)) {
+					case ESCAPE_NAN:
+						values[i] = Double.NaN;
+						continue;
+					case ESCAPE_POSITIVE_INFINITY:
+						values[i] = Double.POSITIVE_INFINITY;
+						continue;
+					case ESCAPE_NEGATIVE_INFINITY:
+						values[i] = Double.NEGATIVE_INFINITY;
+						continue;
+					case ESCAPE_EXPONENT:
+						exponent = (int) unzigzag(readVarLong(in));
+						previous = 0;
+						previousDelta = 0;
+						code = readVarLong(in);
+						if ((code & 1) != 0) {
+							throw new IOException("Corrupt flight data column");
+						}
+						break;
+					default:
+						throw new IOException("Corrupt flight data column");
+				}
+			}
+			long delta = previousDelta + unzigzag(code >>> 1);
+			previous += delta;
+			previousDelta = delta;
+			values[i] = toDouble(previous, exponent);
+		}
+	}
+
+	private static long escape(int code) {
+		return ((long) code << 1) | 1;
+	}
+
+	private static long zigzag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	private static long unzigzag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	/**
+	 * Write an unsigned variable length integer, seven bits per byte.
+	 */
+	private static void writeVarLong(OutputStream out, long value) throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			out.write((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		out.write((int) value);
+	}
+
+	private static long readVarLong(InputStream in) throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			int b = in.read();
+			if (b < 0) {
+				throw new EOFException();
+			}
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Corrupt flight data column");
+	}
+
+	////////  XOR encoding  ////////
+
+	private static void encodeXOR(double[] values, OutputStream output) throws IOException {
+		if (values.length == 0) {
+			return;
+		}
+		BitWriter out = new BitWriter(output);
+		long previous = Double.doubleToRawLongBits(values[0]);
+		out.write(previous, 64);
+		int leading = -1;
+		int trailing = 0;
+		for (int i = 1; i < values.length; i++) {
+			long bits = Double.doubleToRawLongBits(values[i]);
+			long xor = bits ^ previous;
+			previous = bits;
+			if (xor == 0) {
+				out.write(0, 1);
+				continue;
+			}
+			out.write(1, 1);
+
+			int lz = Math.min(Long.numberOfLeadingZeros(xor), 31);
+			int tz = Long.numberOfTrailingZeros(xor);
+			if (leading >= 0 && lz >= leading && tz >= trailing) {
+				// The meaningful bits fit within those of the previous value
+				out.write(0, 1);
+				out.write(xor >>> trailing, 64 - leading - trailing);
+			} else {
+				leading = lz;
+				trailing = tz;
+				int meaningful = 64 - lz - tz;
+				out.write(1, 1);
+				out.write(lz, 5);
+				out.write(meaningful - 1, 6);
+				out.write(xor >>> tz, meaningful);
+			}
+		}
+		out.flush();
+	}
+
+	private static void decodeXOR(InputStream input, double[] values) throws IOException {
+		if (values.length == 0) {
+			return;
+		}
+		BitReader in = new BitReader(input);
+		long previous = in.read(64);
+		values[0] = Double.longBitsToDouble(previous);
+		int leading = 0;
+		int trailing = 0;
+		for (int i = 1; i < values.length; i++) {
+			if (in.read(1) != 0) {
+				if (in.read(1) != 0) {
+					leading = (int) in.read(5);
+					trailing = 64 - leading - ((int) in.read(6) + 1);
+					if (trailing < 0) {
+						throw new IOException("Corrupt flight data column");
+					}
+				}
+				previous ^= in.read(64 - leading - trailing) << trailing;
+			}
+			values[i] = Double.longBitsToDouble(previous);
+		}
+	}
+
+	////////  Bit streams  ////////
+
+	/**
+	 * Writes bits most significant first, padding the last byte with zeros on flush.
+	 */
+	private static class BitWriter {
+		private final OutputStream out;
+		private int current = 0;
+		private int count = 0;
+
+		BitWriter(OutputStream out) {
+			this.out = out;
+		}
+
+		/** Write the lowest <code>bits</code> bits of the value */
+		void write(long value, int bits) throws IOException {
+			for (int i = bits - 1; i >= 0; i--) {
+				current = (current << 1) | (int) ((value >>> i) & 1);
+				count++;
+				if (count == 8) {
+					out.write(current);
+					current = 0;
+					count = 0;
+				}
+			}
+		}
+
+		void flush() throws IOException {
+			if (count > 0) {
+				out.write(current << (8 - count));
+				current = 0;
+				count = 0;
+			}
+		}
+	}
+
+	private static class BitReader {
+		private final InputStream in;
+		private int current = 0;
+		private int count = 0;
+
+		BitReader(InputStream in) {
+			this.in = in;
+		}
+
+		long read(int bits) throws IOException {
+			long value = 0;
+			for (int i = 0; i < bits; i++) {
+				if (count == 0) {
+					current = in.read();
+					if (current < 0) {
+						throw new EOFException();
+					}
+					count = 8;
+				}
+				count--;
+				value = (value << 1) | ((current >>> count) & 1);
+			}
+			return value;
+		}
+	}
+}
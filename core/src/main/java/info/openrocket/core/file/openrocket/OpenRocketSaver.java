@@ -1,7 +1,10 @@
 package info.openrocket.core.file.openrocket;
 
 import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
@@ -10,6 +13,10 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import info.openrocket.core.file.openrocket.savers.PhotoStudioSaver;
 import info.openrocket.core.logging.ErrorSet;
@@ -30,6 +37,7 @@ import info.openrocket.core.rocketcomponent.Rocket;
 import info.openrocket.core.rocketcomponent.RocketComponent;
 import info.openrocket.core.simulation.FlightData;
 import info.openrocket.core.simulation.FlightDataBranch;
+import info.openrocket.core.simulation.FlightDataSimplifier;
 import info.openrocket.core.simulation.FlightDataType;
 import info.openrocket.core.simulation.FlightEvent;
 import info.openrocket.core.simulation.SimulationOptions;
@@ -38,10 +46,11 @@ import info.openrocket.core.simulation.extension.SimulationExtension;
 import info.openrocket.core.util.BugException;
 import info.openrocket.core.util.BuildProperties;
 import info.openrocket.core.util.Config;
+import info.openrocket.core.util.ExecutorUtils;
 import info.openrocket.core.util.Reflection;
 import info.openrocket.core.util.TextUtil;
 
-public class OpenRocketSaver extends RocketSaver {
+public class OpenRocketSaver extends RocketSaver implements Closeable {
 	private static final Logger log = LoggerFactory.getLogger(OpenRocketSaver.class);
 	
 	/**
@@ -64,10 +73,45 @@ public class OpenRocketSaver extends RocketSaver {
 	private static final int BYTES_PER_COMPONENT_COMPRESSED = 80;
 	private static final int BYTES_PER_SIMULATION_COMPRESSED = 100;
 	private static final int BYTES_PER_DATAPOINT_COMPRESSED = 100;
+	private static final int BYTES_PER_BINARY_DATAPOINT_COMPRESSED = 30;
+
+	/** The directory of the binary flight data entries in the zip container */
+	public static final String FLIGHT_DATA_DIRECTORY = "flightdata/";
 	
 	
 	private int indent;
 	private Writer dest;
+
+	private boolean binaryFlightData = false;
+	private int threadCount = Runtime.getRuntime().availableProcessors();
+	private ExecutorService executor = null;
+	/** The branches of the simulation being saved that are stored in binary entries */
+	private final List<FlightDataBranchEntry> simulationEntries = new ArrayList<>();
+	/** The binary entries of each simulation being encoded, in document order */
+	private final List<SimulationEntries> flightDataEntries = new ArrayList<>();
+	private int flightDataEntryCount = 0;
+
+	/**
+	 * Set whether the values of the flight data branches are stored as binary entries of the
+	 * zip container instead of as text in the document.  The entries are written by
+	 * {@link #saveFlightDataEntries(ZipOutputStream)} after the document has been saved.
+	 * Binary flight data requires file version 1.11.
+	 *
+	 * @param binaryFlightData	whether to store binary flight data entries.
+	 */
+	public void setBinaryFlightData(boolean binaryFlightData) {
+		this.binaryFlightData = binaryFlightData;
+	}
+
+	/**
+	 * Set the number of threads used to encode the binary flight data entries.  The entries
+	 * of each simulation are encoded by a separate task while the document is being written.
+	 *
+	 * @param threadCount	the number of threads.
+	 */
+	public void setThreadCount(int threadCount) {
+		this.threadCount = Math.max(1, threadCount);
+	}
 	
 	@Override
 	public void save(OutputStream output, OpenRocketDocument document, StorageOptions options, WarningSet warnings, ErrorSet errors) throws IOException {
@@ -75,6 +119,16 @@ public class OpenRocketSaver extends RocketSaver {
 		log.info("Saving .ork file");
 		
 		dest = new BufferedWriter(new OutputStreamWriter(output, OPENROCKET_CHARSET));
+		discardFlightDataEntries();
+		try {
+			saveDocument(document, options);
+		} catch (IOException | RuntimeException e) {
+			discardFlightDataEntries();
+			throw e;
+		}
+	}
+
+	private void saveDocument(OpenRocketDocument document, StorageOptions options) throws IOException {
 		
 		// Select file version number
 		final int fileVersion = calculateNecessaryFileVersion(document, options);
@@ -107,7 +161,7 @@ public class OpenRocketSaver extends RocketSaver {
 			if (!first)
 				writeln("");
 			first = false;
-			saveSimulation(s, options.getSaveSimulationData());
+			saveSimulation(s, options.getSaveSimulationData(), options.getSimulationDataTolerance());
 		}
 		indent--;
 		writeln("</simulations>");
@@ -124,6 +178,90 @@ public class OpenRocketSaver extends RocketSaver {
 		log.debug("Writing complete, flushing buffers");
 		dest.flush();
 	}
+
+	/**
+	 * Write the binary flight data entries referenced by the document saved last.  This must be
+	 * called after the document entry of the zip container has been closed.
+	 *
+	 * @param zos	the zip container.
+	 * @throws IOException	if writing fails.
+	 */
+	public void saveFlightDataEntries(ZipOutputStream zos) throws IOException {
+		try {
+			for (SimulationEntries entries : flightDataEntries) {
+				List<byte[]> encoded = getEncodedEntries(entries.encoded());
+				for (int i = 0; i < encoded.size(); i++) {
+					zos.putNextEntry(new ZipEntry(entries.names().get(i)));
+					zos.write(encoded.get(i));
+					zos.closeEntry();
+				}
+			}
+			log.debug("Wrote " + flightDataEntryCount + " flight data entries");
+		} finally {
+			discardFlightDataEntries();
+		}
+	}
+
+	private static List<byte[]> getEncodedEntries(Future<List<byte[]>> future) throws IOException {
+		try {
+			return ExecutorUtils.getResult(future, IOException.class, "Encoding flight data failed");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Saving interrupted");
+		}
+	}
+
+	/**
+	 * Submit the encoding of the binary entries of the simulation being saved.  The branches
+	 * are simplified and encoded into separate buffers by one task, while the document is
+	 * written on the calling thread.
+	 */
+	private void submitSimulationEntries() {
+		if (simulationEntries.isEmpty()) {
+			return;
+		}
+		final List<FlightDataBranchEntry> entries = new ArrayList<>(simulationEntries);
+		simulationEntries.clear();
+
+		if (executor == null) {
+			executor = ExecutorUtils.newDaemonExecutor("OpenRocketSaver", threadCount);
+		}
+		Future<List<byte[]>> encoded = executor.submit(() -> {
+			List<byte[]> result = new ArrayList<>(entries.size());
+			for (FlightDataBranchEntry entry : entries) {
+				FlightDataBranch branch = FlightDataSimplifier.simplify(entry.branch(), entry.tolerance());
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				FlightDataEntry.write(out, branch, entry.types());
+				result.add(out.toByteArray());
+			}
+			return result;
+		});
+		flightDataEntries.add(new SimulationEntries(entries.stream().map(FlightDataBranchEntry::name).toList(),
+				encoded));
+	}
+
+	/**
+	 * Discard the binary flight data entries that have not been written and stop the threads
+	 * encoding them.  This must be called if {@link #saveFlightDataEntries(ZipOutputStream)} is
+	 * not reached after saving the document.
+	 */
+	@Override
+	public void close() {
+		discardFlightDataEntries();
+	}
+
+	private void discardFlightDataEntries() {
+		for (SimulationEntries entries : flightDataEntries) {
+			entries.encoded().cancel(true);
+		}
+		flightDataEntries.clear();
+		simulationEntries.clear();
+		flightDataEntryCount = 0;
+		if (executor != null) {
+			executor.shutdownNow();
+			executor = null;
+		}
+	}
 	
 	/*
 	 * Save all the custom expressions
@@ -190,14 +328,16 @@ public class OpenRocketSaver extends RocketSaver {
 			for (Simulation s : doc.getSimulations()) {
 				FlightData data = s.getSimulatedData();
 				if (data != null) {
+					double tolerance = (s.getStatus() == Simulation.Status.EXTERNAL) ? 0 :
+							options.getSimulationDataTolerance();
 					for (int i = 0; i < data.getBranchCount(); i++) {
-						pointCount += countFlightDataBranchPoints(data.getBranch(i));
+						pointCount += countFlightDataBranchPoints(data.getBranch(i), tolerance);
 					}
 				}
 			}
 		}
 		
-		size += pointCount * BYTES_PER_DATAPOINT_COMPRESSED;
+		size += pointCount * (binaryFlightData ? BYTES_PER_BINARY_DATAPOINT_COMPRESSED : BYTES_PER_DATAPOINT_COMPRESSED);
 		
 		return size;
 	}
@@ -227,9 +367,34 @@ public class OpenRocketSaver extends RocketSaver {
 		/*
 		 * NOTE:  Remember to update the supported versions in DocumentConfig as well!
 		 */
+		
+		/*
+		 * File version 1.11 is required for:
+		 *  - flight data stored in binary entries of the zip container
+		 */
+		if (binaryFlightData && hasStoredFlightData(document, opts)) {
+			return FILE_VERSION_DIVISOR + 11;
+		}
 		return FILE_VERSION_DIVISOR + 10;
 		
 	}
+
+	/**
+	 * Check whether the document stores the values of any flight data branch.
+	 */
+	private static boolean hasStoredFlightData(OpenRocketDocument document, StorageOptions opts) {
+		for (Simulation simulation : document.getSimulations()) {
+			FlightData data = simulation.getSimulatedData();
+			if (data == null || data.getBranchCount() == 0) {
+				continue;
+			}
+			if (simulation.getStatus() == Simulation.Status.EXTERNAL ||
+					(opts != null && opts.getSaveSimulationData())) {
+				return true;
+			}
+		}
+		return false;
+	}
 	
 	
 	/**
@@ -315,7 +480,8 @@ public class OpenRocketSaver extends RocketSaver {
 	}
 	
 	
-	private void saveSimulation(Simulation simulation, boolean saveSimulationData) throws IOException {
+	private void saveSimulation(Simulation simulation, boolean saveSimulationData, double tolerance)
+			throws IOException {
 		SimulationOptions cond = simulation.getOptions();
 
 		Simulation.Status simStatus;
@@ -383,6 +549,10 @@ public class OpenRocketSaver extends RocketSaver {
 		
 		writeElement("timestep", cond.getTimeStep());
 		writeElement("maxtime", cond.getMaxSimulationTime());
+		writeElement("integrationmethod", enumToXMLName(cond.getIntegrationMethod()));
+		writeElement("relativetolerance", cond.getRelativeTolerance());
+		writeElement("absolutetolerance", cond.getAbsoluteTolerance());
+		writeElement("tabulatedaerodynamics", cond.isTabulatedAerodynamics());
 		
 		indent--;
 		writeln("</conditions>");
@@ -454,10 +624,15 @@ public class OpenRocketSaver extends RocketSaver {
 			// Check whether to store data
 			if ((simulation.getStatus() == Simulation.Status.EXTERNAL) || // Always store external data
 				saveSimulationData) {
+				// External data is stored as it was imported
+				double branchTolerance = (simulation.getStatus() == Simulation.Status.EXTERNAL) ? 0 : tolerance;
 				for (int i = 0; i < data.getBranchCount(); i++) {
-					FlightDataBranch branch = data.getBranch(i);
-					saveFlightDataBranch(branch);
+					checkLoaded(simulation, data.getBranch(i));
 				}
+				for (int i = 0; i < data.getBranchCount(); i++) {
+					saveFlightDataBranch(data.getBranch(i), branchTolerance);
+				}
+				submitSimulationEntries();
 			}
 			
 			indent--;
@@ -565,7 +740,26 @@ public class OpenRocketSaver extends RocketSaver {
 		}
 	}
 	
-	private void saveFlightDataBranch(FlightDataBranch branch)
+	/**
+	 * Check that the values of a branch loaded lazily from a file could be loaded.  A branch
+	 * that failed to load has no points, and saving it would replace the stored values.
+	 *
+	 * @throws IOException	if loading the values failed.
+	 */
+	private static void checkLoaded(Simulation simulation, FlightDataBranch branch) throws IOException {
+		if (branch == null) {
+			return;
+		}
+		branch.loadValues();
+		IOException failure = branch.getLoadFailure();
+		if (failure != null) {
+			throw new IOException("The data of simulation '" + simulation.getName() +
+					"' could not be loaded, run the simulation again or save without simulation data: " +
+					failure.getMessage(), failure);
+		}
+	}
+
+	private void saveFlightDataBranch(FlightDataBranch branch, double tolerance)
 			throws IOException {
 		
 		if (branch == null)
@@ -577,12 +771,6 @@ public class OpenRocketSaver extends RocketSaver {
 		if (types.length == 0)
 			return;
 		
-		// Retrieve the data from the branch
-		List<List<Double>> data = new ArrayList<>(types.length);
-		for (FlightDataType type : types) {
-			data.add(branch.get(type));
-		}
-		
 		// Build the <databranch> tag
 		StringBuilder sb = new StringBuilder();
 		sb.append("<databranch name=\"");
@@ -617,7 +805,17 @@ public class OpenRocketSaver extends RocketSaver {
 				sb.append(",");
 			sb.append(TextUtil.escapeXML(types[i].getName()));
 		}
-		sb.append("\">");
+		sb.append("\"");
+
+		// The values are written to a separate entry after the document
+		String entryName = null;
+		if (binaryFlightData) {
+			entryName = FLIGHT_DATA_DIRECTORY + flightDataEntryCount + ".bin";
+			flightDataEntryCount++;
+			simulationEntries.add(new FlightDataBranchEntry(entryName, branch, types, tolerance));
+			sb.append(" dataentry=\"").append(entryName).append("\"");
+		}
+		sb.append(">");
 		writeln(sb.toString());
 		indent++;
 		
@@ -643,9 +841,16 @@ public class OpenRocketSaver extends RocketSaver {
 		}
 		
 		// Write the data
-		int length = branch.getLength();
-		for (int i = 0; i < length; i++) {
-			writeDataPointString(data, i, sb);
+		if (entryName == null) {
+			branch = FlightDataSimplifier.simplify(branch, tolerance);
+			List<List<Double>> data = new ArrayList<>(types.length);
+			for (FlightDataType type : types) {
+				data.add(branch.get(type));
+			}
+			int length = branch.getLength();
+			for (int i = 0; i < length; i++) {
+				writeDataPointString(data, i, sb);
+			}
 		}
 		
 		indent--;
@@ -653,7 +858,7 @@ public class OpenRocketSaver extends RocketSaver {
 	}
 	
 	/* TODO: LOW: This is largely duplicated from above! */
-	private int countFlightDataBranchPoints(FlightDataBranch branch) {
+	private int countFlightDataBranchPoints(FlightDataBranch branch, double tolerance) {
 		int count = 0;
 		
 		if (branch == null)
@@ -665,14 +870,8 @@ public class OpenRocketSaver extends RocketSaver {
 		if (types.length == 0)
 			return 0;
 		
-		List<Double> timeData = branch.get(FlightDataType.TYPE_TIME);
-		if (timeData == null) {
-			// If time data not available, store all points
-			return branch.getLength();
-		}
-		
-		// Count the data
-		count += branch.getLength();
+		// Count the data that is stored after simplification
+		count += FlightDataSimplifier.getKeptIndices(branch, tolerance).length;
 		
 		return count;
 	}
@@ -722,4 +921,17 @@ public class OpenRocketSaver extends RocketSaver {
 		return e.name().toLowerCase(Locale.ENGLISH).replace("_", "");
 	}
 	
+
+	/**
+	 * A flight data branch whose values are stored in a binary entry of the zip container.
+	 */
+	private record FlightDataBranchEntry(String name, FlightDataBranch branch, FlightDataType[] types,
+			double tolerance) {
+	}
+
+	/**
+	 * The binary entries of a simulation, and the task encoding them.
+	 */
+	private record SimulationEntries(List<String> names, Future<List<byte[]>> encoded) {
+	}
 }
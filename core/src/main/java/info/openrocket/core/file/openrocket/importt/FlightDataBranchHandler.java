@@ -1,5 +1,8 @@
 package info.openrocket.core.file.openrocket.importt;
 
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.UUID;
 
@@ -7,7 +10,9 @@ import info.openrocket.core.logging.Message;
 import info.openrocket.core.logging.SimulationAbort;
 import info.openrocket.core.logging.SimulationAbort.Cause;
 import info.openrocket.core.logging.WarningSet;
+import info.openrocket.core.file.ContainerEntryProvider;
 import info.openrocket.core.file.DocumentLoadingContext;
+import info.openrocket.core.file.openrocket.FlightDataEntry;
 import info.openrocket.core.file.simplesax.AbstractElementHandler;
 import info.openrocket.core.file.simplesax.ElementHandler;
 import info.openrocket.core.file.simplesax.PlainTextHandler;
@@ -29,7 +34,7 @@ class FlightDataBranchHandler extends AbstractElementHandler {
 	@SuppressWarnings("unused")
 	private final DocumentLoadingContext context;
 	private final FlightDataType[] types;
-	private final FlightDataBranch branch;
+	private FlightDataBranch branch;
 	
 	private static final Logger log = LoggerFactory.getLogger(FlightDataBranchHandler.class);
 	private final SingleSimulationHandler simHandler;
@@ -68,6 +73,44 @@ class FlightDataBranchHandler extends AbstractElementHandler {
 		branch.setOptimumAltitude(optimumAltitude);
 	}
 	
+	/**
+	 * Read the values of the branch from a binary entry of the zip container.  If simulation
+	 * data is loaded lazily, the entry is only read when the values are first accessed.
+	 *
+	 * @param name		the name of the entry.
+	 * @param warnings	the warning set to add warnings to.
+	 */
+	public void readDataEntry(final String name, WarningSet warnings) {
+		final ContainerEntryProvider entries = context.getContainerEntries();
+		if (context.isLazySimulationData()) {
+			final String branchName = branch.getName();
+			branch.setValueLoader(() -> {
+				FlightDataBranch values = new FlightDataBranch(branchName, types);
+				readDataEntry(entries, name, values, types);
+				return values;
+			});
+			return;
+		}
+
+		try {
+			readDataEntry(entries, name, branch, types);
+		} catch (IOException e) {
+			warnings.add("Unable to read flight data entry " + name + ", ignoring flight data: " + e.getMessage());
+			// Discard partially read values
+			branch = new FlightDataBranch(branch.getName(), types);
+		}
+	}
+
+	private static void readDataEntry(ContainerEntryProvider entries, String name, FlightDataBranch branch,
+			FlightDataType[] types) throws IOException {
+		try (InputStream in = entries.openEntry(name)) {
+			if (in == null) {
+				throw new IOException("Entry not found");
+			}
+			FlightDataEntry.read(new BufferedInputStream(in), branch, types);
+		}
+	}
+	
 	// Find the full flight data type given name only
 	// Note: this way of doing it requires that custom expressions always come before flight data in the file,
 	// not the nicest but this is always the case anyway.
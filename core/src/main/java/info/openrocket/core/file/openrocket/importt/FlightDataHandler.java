@@ -66,6 +66,9 @@ class FlightDataHandler extends AbstractElementHandler {
 				}
 				dataHandler.setTimeToOptimumAltitude(timeToOptimumAltitude);
 			}
+			if (attributes.get("dataentry") != null) {
+				dataHandler.readDataEntry(attributes.get("dataentry"), warnings);
+			}
 			return dataHandler;
 		}
 		
@@ -80,7 +83,7 @@ class FlightDataHandler extends AbstractElementHandler {
 		
 		if (element.equals("databranch")) {
 			FlightDataBranch branch = dataHandler.getBranch();
-			if (branch.getLength() > 0) {
+			if (!branch.isValuesLoaded() || branch.getLength() > 0) {
 				branches.add(branch);
 			}
 			//		} else if (element.equals("warning")) {
@@ -95,7 +98,10 @@ class FlightDataHandler extends AbstractElementHandler {
 	public void endHandler(String element, HashMap<String, String> attributes,
 			String content, WarningSet warnings) {
 
-		if (branches.size() > 0) {
+		// Branches whose values are loaded lazily keep the stored summary values
+		boolean lazy = attributes.get("maxaltitude") != null &&
+				branches.stream().anyMatch(branch -> !branch.isValuesLoaded());
+		if (branches.size() > 0 && !lazy) {
 			data = new FlightData(branches.toArray(new FlightDataBranch[0]));
 		} else {
 			double maxAltitude = Double.NaN;
@@ -152,6 +158,9 @@ class FlightDataHandler extends AbstractElementHandler {
 
 			data = new FlightData(maxAltitude, maxVelocity, maxAcceleration, maxMach,
 					timeToApogee, flightTime, groundHitVelocity, launchRodVelocity, deploymentVelocity, optimumDelay);
+			for (FlightDataBranch branch : branches) {
+				data.addBranch(branch);
+			}
 		}
 		
 		data.getWarningSet().addAll(warningSet);
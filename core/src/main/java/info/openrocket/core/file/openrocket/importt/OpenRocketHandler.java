@@ -74,6 +74,10 @@ public class OpenRocketHandler extends AbstractElementHandler {
 				str += " " + docVersion;
 			if (creator != null && !creator.trim().isEmpty())
 				str += " (written using '" + creator.trim() + "')";
+			if (isNewerVersion(docVersion)) {
+				str += ", the file was written by a newer version of OpenRocket and parts of it, such as " +
+						"simulation data, may be missing";
+			}
 			str += ", attempting to read file anyway.";
 			warnings.add(str);
 		}
@@ -98,6 +102,19 @@ public class OpenRocketHandler extends AbstractElementHandler {
 		}
 	}
 
+	/**
+	 * Check whether a document version is newer than all supported versions.
+	 */
+	private boolean isNewerVersion(String docVersion) {
+		int version = parseVersion(docVersion);
+		for (String v : DocumentConfig.SUPPORTED_VERSIONS) {
+			if (parseVersion(v) >= version) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	@Override
 	public void closeElement(String element, HashMap<String, String> attributes,
 			String content, WarningSet warnings) throws SAXException {
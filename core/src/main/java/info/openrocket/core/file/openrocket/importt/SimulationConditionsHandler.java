@@ -10,6 +10,7 @@ import info.openrocket.core.file.simplesax.PlainTextHandler;
 import info.openrocket.core.models.wind.WindModelType;
 import info.openrocket.core.rocketcomponent.FlightConfigurationId;
 import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.simulation.IntegrationMethod;
 import info.openrocket.core.simulation.SimulationOptions;
 import info.openrocket.core.util.GeodeticComputationStrategy;
 
@@ -151,6 +152,36 @@ class SimulationConditionsHandler extends AbstractElementHandler {
 					options.setMaxSimulationTime(d);
 				}
 			}
+			case "integrationmethod" -> {
+				IntegrationMethod method = (IntegrationMethod) DocumentConfig.findEnum(content,
+						IntegrationMethod.class);
+				if (method != null) {
+					options.setIntegrationMethod(method);
+				} else {
+					warnings.add("Unknown integration method '" + content + "'");
+				}
+			}
+			case "relativetolerance" -> {
+				if (Double.isNaN(d) || d <= 0) {
+					warnings.add("Illegal relative integration tolerance defined, ignoring.");
+				} else {
+					options.setRelativeTolerance(d);
+				}
+			}
+			case "absolutetolerance" -> {
+				if (Double.isNaN(d) || d <= 0) {
+					warnings.add("Illegal absolute integration tolerance defined, ignoring.");
+				} else {
+					options.setAbsoluteTolerance(d);
+				}
+			}
+			case "tabulatedaerodynamics" -> {
+				if ("true".equalsIgnoreCase(content) || "false".equalsIgnoreCase(content)) {
+					options.setTabulatedAerodynamics(Boolean.parseBoolean(content));
+				} else {
+					warnings.add("Illegal tabulated aerodynamics setting defined, ignoring.");
+				}
+			}
 		}
 	}
 }
\ No newline at end of file
@@ -0,0 +1,282 @@
+package info.openrocket.core.motor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import info.openrocket.core.util.Coordinate;
+
+/**
+ * A versioned binary file format of a thrust curve motor database.
+ * <p>
+ * The file consists of a header, a table of the strings used by the motors, the
+ * metadata of each motor and the thrust curves of all motors.  When reading, only the
+ * metadata used for selecting motors is decoded.  The thrust curve of a motor is decoded
+ * from the buffer when it is first used, the buffer is read only and can be memory mapped.
+ * <p>
+ * All values are stored big-endian:
+ * <pre>
+ * int      magic number 0x4F524D44 ("ORMD")
+ * int      format version
+ * int      string count, followed by each string as an int byte count and UTF-8 bytes
+ * int      motor count, followed by the metadata of each motor:
+ *   int      string index of the manufacturer, code, common name, designation,
+ *            description, motor type, case info, propellant info and digest,
+ *            or -1 for null
+ *   byte     availability
+ *   double   diameter, length, initial mass, maximum thrust, burn time estimate,
+ *            average thrust estimate and total impulse estimate
+ *   int      delay count, followed by the delays as doubles
+ *   int      number of points of the thrust curve
+ *   int      offset of the thrust curve from the start of the curve data
+ * padding  to a multiple of 8 bytes from the start of the file
+ * curve data of each motor, the time points, thrust points, and the x, y, z and
+ *          weight of the CG points, each as an array of doubles
+ * </pre>
+ */
+public final class BinaryMotorDatabase {
+
+	/** The file extension of the database files */
+	public static final String FILE_EXTENSION = "bin";
+
+	private static final int MAGIC = 0x4F524D44;
+	private static final int VERSION = 1;
+
+	private BinaryMotorDatabase() {
+	}
+
+	/**
+	 * Write motors to a stream.  The thrust curves of the motors are read if not already read.
+	 *
+	 * @param motors the motors to write
+	 * @param out    the stream to write to, not closed
+	 * @throws IOException if writing fails
+	 */
+	public static void write(List<ThrustCurveMotor> motors, OutputStream out) throws IOException {
+		List<String> strings = new ArrayList<>();
+		Map<String, Integer> stringIndices = new HashMap<>();
+
+		ByteArrayOutputStream metadataBytes = new ByteArrayOutputStream();
+		DataOutputStream metadata = new DataOutputStream(metadataBytes);
+		int curveOffset = 0;
+		for (ThrustCurveMotor motor : motors) {
+			for (String s : new String[] { motor.getManufacturer().getDisplayName(), motor.getCode(),
+					motor.getCommonName(), motor.getDesignation(), motor.getDescription(),
+					motor.getMotorType().name(), motor.getCaseInfo(), motor.getPropellantInfo(),
+					motor.getDigest() }) {
+				Integer index = (s != null) ? stringIndices.get(s) : Integer.valueOf(-1);
+				if (index == null) {
+					index = strings.size();
+					strings.add(s);
+					stringIndices.put(s, index);
+				}
+				metadata.writeInt(index);
+			}
+			metadata.writeBoolean(motor.isAvailable());
+			metadata.writeDouble(motor.getDiameter());
+			metadata.writeDouble(motor.getLength());
+			metadata.writeDouble(motor.getInitialMass());
+			metadata.writeDouble(motor.getMaxThrustEstimate());
+			metadata.writeDouble(motor.getBurnTimeEstimate());
+			metadata.writeDouble(motor.getAverageThrustEstimate());
+			metadata.writeDouble(motor.getTotalImpulseEstimate());
+			double[] delays = motor.getStandardDelays();
+			metadata.writeInt(delays.length);
+			for (double delay : delays) {
+				metadata.writeDouble(delay);
+			}
+			metadata.writeInt(motor.getSampleSize());
+			metadata.writeInt(curveOffset);
+			curveOffset += motor.getSampleSize() * 6 * Double.BYTES;
+		}
+
+		DataOutputStream data = new DataOutputStream(out);
+		data.writeInt(MAGIC);
+		data.writeInt(VERSION);
+		data.writeInt(strings.size());
+		for (String s : strings) {
+			byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+			data.writeInt(bytes.length);
+			data.write(bytes);
+		}
+		data.writeInt(motors.size());
+		metadataBytes.writeTo(data);
+		while (data.size() % Double.BYTES != 0) {
+			data.writeByte(0);
+		}
+
+		for (ThrustCurveMotor motor : motors) {
+			for (double t : motor.getTimePoints()) {
+				data.writeDouble(t);
+			}
+			for (double t : motor.getThrustPoints()) {
+				data.writeDouble(t);
+			}
+			Coordinate[] cg = motor.getCGPoints();
+			for (Coordinate c : cg) {
+				data.writeDouble(c.x);
+			}
+			for (Coordinate c : cg) {
+				data.writeDouble(c.y);
+			}
+			for (Coordinate c : cg) {
+				data.writeDouble(c.z);
+			}
+			for (Coordinate c : cg) {
+				data.writeDouble(c.weight);
+			}
+		}
+		data.flush();
+	}
+
+	/**
+	 * Read motors from a file, which is memory mapped.
+	 *
+	 * @param file the file to read
+	 * @return the motors, whose thrust curves are read from the file when used
+	 * @throws IOException if reading fails or the file is not a motor database
+	 */
+	public static List<ThrustCurveMotor> read(File file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			// The mapping remains valid after closing the channel
+			return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}
+	}
+
+	/**
+	 * Read motors from a stream.
+	 *
+	 * @param in the stream to read, not closed
+	 * @return the motors, whose thrust curves are read from the stream contents when used
+	 * @throws IOException if reading fails or the stream is not a motor database
+	 */
+	public static List<ThrustCurveMotor> read(InputStream in) throws IOException {
+		return read(ByteBuffer.wrap(in.readAllBytes()));
+	}
+
+	/**
+	 * Read motors from a buffer.  The buffer must not be modified afterwards.
+	 *
+	 * @param buffer the buffer, positioned at the start of the database
+	 * @return the motors, whose thrust curves are read from the buffer when used
+	 * @throws IOException if the buffer does not contain a motor database
+	 */
+	public static List<ThrustCurveMotor> read(ByteBuffer buffer) throws IOException {
+		final ByteBuffer data = buffer.slice();
+		try {
+			if (data.getInt() != MAGIC) {
+				throw new IOException("Not a motor database");
+			}
+			final int version = data.getInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported motor database version " + version);
+			}
+
+			String[] strings = new String[data.getInt()];
+			for (int i = 0; i < strings.length; i++) {
+				byte[] bytes = new byte[data.getInt()];
+				data.get(bytes);
+				strings[i] = new String(bytes, StandardCharsets.UTF_8);
+			}
+
+			final int motorCount = data.getInt();
+			List<ThrustCurveMotor.Builder> builders = new ArrayList<>(motorCount);
+			double[][] statistics = new double[motorCount][];
+			int[] sampleCounts = new int[motorCount];
+			int[] curveOffsets = new int[motorCount];
+			for (int i = 0; i < motorCount; i++) {
+				ThrustCurveMotor.Builder builder = new ThrustCurveMotor.Builder()
+						.setManufacturer(Manufacturer.getManufacturer(getString(strings, data)))
+						.setCode(getString(strings, data))
+						.setCommonName(getString(strings, data))
+						.setDesignation(getString(strings, data))
+						.setDescription(getString(strings, data))
+						.setMotorType(Motor.Type.valueOf(getString(strings, data)))
+						.setCaseInfo(getString(strings, data))
+						.setPropellantInfo(getString(strings, data))
+						.setDigest(getString(strings, data))
+						.setAvailability(data.get() != 0)
+						.setDiameter(data.getDouble())
+						.setLength(data.getDouble())
+						.setInitialMass(data.getDouble());
+				statistics[i] = new double[] { data.getDouble(), data.getDouble(), data.getDouble(),
+						data.getDouble() };
+				double[] delays = new double[data.getInt()];
+				for (int j = 0; j < delays.length; j++) {
+					delays[j] = data.getDouble();
+				}
+				builder.setStandardDelays(delays);
+				sampleCounts[i] = data.getInt();
+				curveOffsets[i] = data.getInt();
+				builders.add(builder);
+			}
+
+			final int curveStart = (data.position() + Double.BYTES - 1) / Double.BYTES * Double.BYTES;
+			List<ThrustCurveMotor> motors = new ArrayList<>(motorCount);
+			for (int i = 0; i < motorCount; i++) {
+				CurveSource source = new CurveSource(data, curveStart + curveOffsets[i], sampleCounts[i]);
+				motors.add(builders.get(i).build(source, statistics[i][0], statistics[i][1], statistics[i][2],
+						statistics[i][3]));
+			}
+			return motors;
+		} catch (RuntimeException e) {
+			throw new IOException("Invalid motor database: " + e, e);
+		}
+	}
+
+	private static String getString(String[] strings, ByteBuffer data) {
+		final int index = data.getInt();
+		return (index >= 0) ? strings[index] : null;
+	}
+
+	/**
+	 * The thrust curve of a motor in the buffer of a database.
+	 */
+	private static class CurveSource implements ThrustCurveMotor.CurveSource {
+		private final ByteBuffer data;
+		private final int offset;
+		private final int count;
+
+		CurveSource(ByteBuffer data, int offset, int count) {
+			this.data = data;
+			this.offset = offset;
+			this.count = count;
+		}
+
+		@Override
+		public int getSampleCount() {
+			return count;
+		}
+
+		@Override
+		public void readCurve(double[] time, double[] thrust, Coordinate[] cg) {
+			// A duplicate of the buffer, as the buffer is shared by all motors
+			DoubleBuffer curve = data.duplicate().position(offset).slice().asDoubleBuffer();
+			curve.get(time);
+			curve.get(thrust);
+			double[] x = new double[count];
+			double[] y = new double[count];
+			double[] z = new double[count];
+			double[] weight = new double[count];
+			curve.get(x);
+			curve.get(y);
+			curve.get(z);
+			curve.get(weight);
+			for (int i = 0; i < count; i++) {
+				cg[i] = new Coordinate(x[i], y[i], z[i], weight[i]);
+			}
+		}
+	}
+}
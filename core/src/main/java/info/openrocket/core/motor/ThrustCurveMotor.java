@@ -1,5 +1,8 @@
 package info.openrocket.core.motor;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.text.Collator;
 import java.util.Arrays;
@@ -61,6 +64,32 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	private double unitRotationalInertia;
 	private double unitLongitudinalInertia;
 
+	/** The total impulse from ignition to each time point, computed when built or read */
+	private transient double[] cumulativeImpulse;
+
+	/** The source of the thrust curve if it has not been read yet, otherwise null */
+	private transient volatile CurveSource curveSource;
+
+	/**
+	 * A source of the time, thrust and CG points of a motor, read when the thrust curve
+	 * of the motor is first used.
+	 */
+	interface CurveSource {
+		/**
+		 * @return the number of points of the thrust curve
+		 */
+		int getSampleCount();
+
+		/**
+		 * Read the points of the thrust curve.
+		 *
+		 * @param time   the array of time points to fill
+		 * @param thrust the array of thrust points to fill
+		 * @param cg     the array of CG points to fill
+		 */
+		void readCurve(double[] time, double[] thrust, Coordinate[] cg);
+	}
+
 	public static class Builder {
 
 		ThrustCurveMotor motor = new ThrustCurveMotor();
@@ -258,6 +287,33 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 			}
 
 			motor.computeStatistics();
+			motor.computeCumulativeImpulse();
+
+			return motor;
+		}
+
+		/**
+		 * Build a motor whose thrust curve is read from a source when first used.  The
+		 * curve must have been validated and the statistics computed when the motor was
+		 * built originally.
+		 *
+		 * @param source the source of the thrust curve
+		 * @param maxThrust the maximum thrust estimate
+		 * @param burnTimeEstimate the burn time estimate
+		 * @param averageThrust the average thrust estimate
+		 * @param totalImpulse the total impulse estimate
+		 * @return the motor
+		 */
+		ThrustCurveMotor build(CurveSource source, double maxThrust, double burnTimeEstimate, double averageThrust,
+				double totalImpulse) {
+			motor.curveSource = source;
+			motor.maxThrust = maxThrust;
+			motor.burnTimeEstimate = burnTimeEstimate;
+			motor.averageThrust = averageThrust;
+			motor.totalImpulse = totalImpulse;
+
+			motor.unitRotationalInertia = Inertia.filledCylinderRotational(motor.diameter / 2);
+			motor.unitLongitudinalInertia = Inertia.filledCylinderLongitudinal(motor.diameter / 2, motor.length);
 
 			return motor;
 		}
@@ -279,6 +335,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	 * @return an array of time points where the thrust is sampled
 	 */
 	public double[] getTimePoints() {
+		readCurve();
 		return time.clone();
 	}
 
@@ -295,26 +352,55 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	 * @return a pseudo index to this motor's data.
 	 */
 	protected double getPseudoIndex(final double motorTime) {
+		readCurve();
 		if ((time.length == 0) || (0 > motorTime)) {
 			return Double.NaN;
 		}
 
-		final int lowerIndex = getIndex(motorTime);
+		return getPseudoIndex(motorTime, getIndex(motorTime));
+	}
+
+	private double getPseudoIndex(final double motorTime, final int lowerIndex) {
 		final double fraction = getIndexFraction(motorTime, lowerIndex);
 		return ((double) lowerIndex) + fraction;
 	}
 
+	/*
+	 * find the index of the last time point not later than the given time, or 0 if
+	 * the time is before the first point or NaN.
+	 */
 	private int getIndex(final double motorTime) {
 		int lowerBoundIndex = 0;
-		int upperBoundIndex = 0;
-		while ((upperBoundIndex < time.length) && (motorTime >= time[upperBoundIndex])) {
-			lowerBoundIndex = upperBoundIndex;
-			++upperBoundIndex;
+		int upperBoundIndex = time.length - 1;
+		while (lowerBoundIndex < upperBoundIndex) {
+			final int middleIndex = (lowerBoundIndex + upperBoundIndex + 1) >>> 1;
+			if (time[middleIndex] <= motorTime) {
+				lowerBoundIndex = middleIndex;
+			} else {
+				upperBoundIndex = middleIndex - 1;
+			}
 		}
 
 		return lowerBoundIndex;
 	}
 
+	/*
+	 * find the index as getIndex(double), checking first the time points at and
+	 * right after a previously found index.  Times increasing in small steps are
+	 * found without searching.
+	 */
+	private int getIndex(final double motorTime, final int previousIndex) {
+		if ((0 <= previousIndex) && (previousIndex < time.length) && (time[previousIndex] <= motorTime)) {
+			if ((previousIndex + 1 == time.length) || (motorTime < time[previousIndex + 1])) {
+				return previousIndex;
+			}
+			if ((previousIndex + 2 == time.length) || (motorTime < time[previousIndex + 2])) {
+				return previousIndex + 1;
+			}
+		}
+		return getIndex(motorTime);
+	}
+
 	private double getIndexFraction(final double motorTime, final int index) {
 		final double SNAP_DISTANCE = 0.0001;
 
@@ -345,49 +431,47 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 
 	@Override
 	public double getAverageThrust(final double startTime, final double endTime) {
+		readCurve();
+		return getAverageThrust(startTime, endTime, getIndex(startTime));
+	}
 
-		int timeIndex = 0;
-
-		while (timeIndex < time.length - 1 && startTime > time[timeIndex + 1]) {
-			timeIndex++;
-		}
-
-		if (timeIndex == time.length - 1) {
+	/*
+	 * compute the average thrust over an interval, with the index of the start time.
+	 * Thrust after the end of the curve is zero.
+	 */
+	private double getAverageThrust(final double startTime, final double endTime, final int startIndex) {
+		if (startTime > time[time.length - 1]) {
 			return 0.0;
 		}
 
-		if (endTime <= time[timeIndex + 1]) {
+		final int startSegment = Math.min(startIndex, time.length - 2);
+		if (endTime <= time[startSegment + 1]) {
 			// we are completely within this time slice so the computation of the average is
 			// pretty easy:
-			double startThrust = MathUtil.map(startTime, time[timeIndex], time[timeIndex + 1], thrust[timeIndex],
-					thrust[timeIndex + 1]);
-			double endThrust = MathUtil.map(endTime, time[timeIndex], time[timeIndex + 1], thrust[timeIndex],
-					thrust[timeIndex + 1]);
+			double startThrust = MathUtil.map(startTime, time[startSegment], time[startSegment + 1],
+					thrust[startSegment], thrust[startSegment + 1]);
+			double endThrust = MathUtil.map(endTime, time[startSegment], time[startSegment + 1],
+					thrust[startSegment], thrust[startSegment + 1]);
 			return (startThrust + endThrust) / 2.0;
 		}
 
-		double impulse = 0.0;
-
-		// portion from startTime through time[timeIndex+1]
-		double startThrust = MathUtil.map(startTime, time[timeIndex], time[timeIndex + 1], thrust[timeIndex],
-				thrust[timeIndex + 1]);
-		impulse = (time[timeIndex + 1] - startTime) * (startThrust + thrust[timeIndex + 1]) / 2.0;
-
-		// Now add the whole steps;
-		timeIndex++;
-		while (timeIndex < time.length - 1 && endTime >= time[timeIndex + 1]) {
-			impulse += (time[timeIndex + 1] - time[timeIndex]) * (thrust[timeIndex] + thrust[timeIndex + 1]) / 2.0;
-			timeIndex++;
-		}
+		final int endSegment = Math.min(getIndex(endTime, startSegment + 1), time.length - 2);
+		final double impulse = getImpulse(endTime, endSegment) - getImpulse(startTime, startSegment);
+		return impulse / (endTime - startTime);
+	}
 
-		// Now add the bit after the last time index
-		if (timeIndex < time.length - 1) {
-			double endThrust = MathUtil.map(endTime, time[timeIndex], time[timeIndex + 1], thrust[timeIndex],
-					thrust[timeIndex + 1]);
-			impulse += (endTime - time[timeIndex]) * (thrust[timeIndex] + endThrust) / 2.0;
+	/*
+	 * compute the total impulse from ignition to the given time within a segment of
+	 * the curve, or to the end of the curve.
+	 */
+	private double getImpulse(final double motorTime, final int segment) {
+		if (motorTime >= time[time.length - 1]) {
+			return cumulativeImpulse[time.length - 1];
 		}
 
-		return impulse / (endTime - startTime);
+		final double thrustAtTime = MathUtil.map(motorTime, time[segment], time[segment + 1], thrust[segment],
+				thrust[segment + 1]);
+		return cumulativeImpulse[segment] + (motorTime - time[segment]) * (thrust[segment] + thrustAtTime) / 2.0;
 	}
 
 	@Override
@@ -404,6 +488,60 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 		return this.interpolateCenterOfMassAtIndex(pseudoIndex).x;
 	}
 
+	/**
+	 * Return a new cursor for looking up the thrust of this motor at increasing times.
+	 *
+	 * @return a cursor at the start of the thrust curve
+	 */
+	public Cursor getCursor() {
+		readCurve();
+		return new Cursor();
+	}
+
+	/**
+	 * A position on the thrust curve of the motor.  Looking up a time close after the
+	 * previous one, as during a simulation, only checks the next time points instead
+	 * of searching the whole curve.  Any other time is found by searching.
+	 * <p>
+	 * The results are the same as those of the motor itself.  Cursors are not thread safe,
+	 * each simulation must use its own.
+	 */
+	public final class Cursor {
+		private int index = 0;
+
+		private Cursor() {
+		}
+
+		private int find(final double motorTime) {
+			index = getIndex(motorTime, index);
+			return index;
+		}
+
+		/**
+		 * @see ThrustCurveMotor#getThrust(double)
+		 */
+		public double getThrust(final double motorTime) {
+			if (0 > motorTime) {
+				return Double.NaN;
+			}
+			return interpolateAtIndex(thrust, getPseudoIndex(motorTime, find(motorTime)));
+		}
+
+		/**
+		 * @see ThrustCurveMotor#getAverageThrust(double, double)
+		 */
+		public double getAverageThrust(final double startTime, final double endTime) {
+			return ThrustCurveMotor.this.getAverageThrust(startTime, endTime, find(startTime));
+		}
+
+		/**
+		 * Move the cursor to the start of the thrust curve.
+		 */
+		public void reset() {
+			index = 0;
+		}
+	}
+
 	public String getCaseInfo() {
 		return caseInfo;
 	}
@@ -434,6 +572,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	 * @return an array of thrust samples
 	 */
 	public double[] getThrustPoints() {
+		readCurve();
 		return thrust.clone();
 	}
 
@@ -446,6 +585,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	// }
 
 	public Coordinate[] getCGPoints() {
+		readCurve();
 		return cg;
 	}
 
@@ -543,26 +683,31 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 
 	@Override
 	public double getLaunchCGx() {
+		readCurve();
 		return cg[0].x;// cgx[0];
 	}
 
 	@Override
 	public double getBurnoutCGx() {
+		readCurve();
 		return cg[cg.length - 1].x;// cgx[ cg.length - 1];
 	}
 
 	@Override
 	public double getLaunchMass() {
+		readCurve();
 		return cg[0].weight;// mass[0];
 	}
 
 	@Override
 	public double getBurnoutMass() {
+		readCurve();
 		return cg[cg.length - 1].weight; // mass[mass.length - 1];
 	}
 
 	@Override
 	public double getBurnTime() {
+		readCurve();
 		return time[time.length - 1];
 	}
 
@@ -622,6 +767,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	}
 
 	protected Coordinate interpolateCenterOfMassAtIndex(final double pseudoIndex) {
+		readCurve();
 		final double SNAP_TOLERANCE = 0.0001;
 
 		final double upperFrac = pseudoIndex % 1;
@@ -644,7 +790,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	}
 
 	public int getDataSize() {
-		return this.time.length;
+		return getSampleSize();
 	}
 
 	@Override
@@ -673,6 +819,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	}
 
 	public double getCutOffTime() {
+		readCurve();
 		return time[time.length - 1];
 	}
 
@@ -773,6 +920,48 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 
 	}
 
+	/**
+	 * Compute the total impulse from ignition to each time point.
+	 */
+	private void computeCumulativeImpulse() {
+		cumulativeImpulse = new double[time.length];
+		for (int i = 1; i < time.length; i++) {
+			cumulativeImpulse[i] = cumulativeImpulse[i - 1] + (time[i] - time[i - 1]) * (thrust[i - 1] + thrust[i]) / 2;
+		}
+	}
+
+	/**
+	 * Read the thrust curve from its source, if not read yet.
+	 */
+	private void readCurve() {
+		if (curveSource == null) {
+			return;
+		}
+		synchronized (this) {
+			CurveSource source = curveSource;
+			if (source != null) {
+				final int count = source.getSampleCount();
+				time = new double[count];
+				thrust = new double[count];
+				cg = new Coordinate[count];
+				source.readCurve(time, thrust, cg);
+				computeCumulativeImpulse();
+				// publishes the curve to other threads
+				curveSource = null;
+			}
+		}
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		computeCumulativeImpulse();
+	}
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		readCurve();
+		out.defaultWriteObject();
+	}
+
 	////////// Static methods
 
 	/**
@@ -811,6 +1000,10 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	 * @return return the size of the data arrays
 	 */
 	public int getSampleSize() {
+		CurveSource source = curveSource;
+		if (source != null) {
+			return source.getSampleCount();
+		}
 		return time.length;
 	}
 
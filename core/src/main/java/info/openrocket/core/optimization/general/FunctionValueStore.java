@@ -0,0 +1,384 @@
+package info.openrocket.core.optimization.general;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A disk-backed store of function values, which allows reusing the values computed
+ * by an earlier optimization of the same function.
+ * <p>
+ * The values of each function are stored in a separate file in the store directory,
+ * named by the key of the function.  The key must identify everything the function
+ * values depend on.  Each value is appended to the file as soon as it is stored, so
+ * the values survive a crash.  A fixed number of data values may be stored with each
+ * function value, see {@link StorableFunction}.
+ * <p>
+ * The total size of the files in the directory is capped.  Files of other functions
+ * are evicted least recently used first when a store is opened, and the oldest values
+ * of this function are evicted when its file would exceed half of the cap.
+ * <p>
+ * Errors reading or writing the file are logged and otherwise ignored, the store then
+ * acts as an in-memory cache.  The methods are thread-safe.
+ */
+public class FunctionValueStore implements Closeable {
+	private static final Logger log = LoggerFactory.getLogger(FunctionValueStore.class);
+
+	private static final int MAGIC = 0x4f524643; // "ORFC"
+	private static final int VERSION = 2;
+	private static final String SUFFIX = ".values";
+
+	private final File file;
+	private final String key;
+	private final int dimensions;
+	private final int dataLength;
+	private final int maxEntries;
+
+	/** The function values followed by their data, in the order they were stored */
+	private final Map<Point, double[]> values = new LinkedHashMap<>();
+	private DataOutputStream output = null;
+	private boolean writable = true;
+
+	/**
+	 * Open the store of a function without data, reading the values stored earlier.
+	 *
+	 * @param directory		the directory containing the stores of all functions
+	 * @param key			the key identifying the function, used as the file name
+	 * @param dimensions	the dimensionality of the points
+	 * @param maxSize		the maximum total size of the files in the directory, in bytes
+	 */
+	public FunctionValueStore(File directory, String key, int dimensions, long maxSize) {
+		this(directory, key, dimensions, 0, maxSize);
+	}
+
+	/**
+	 * Open the store of a function, reading the values stored earlier.
+	 *
+	 * @param directory		the directory containing the stores of all functions
+	 * @param key			the key identifying the function, used as the file name
+	 * @param dimensions	the dimensionality of the points
+	 * @param dataLength	the number of data values stored with each function value
+	 * @param maxSize		the maximum total size of the files in the directory, in bytes
+	 */
+	public FunctionValueStore(File directory, String key, int dimensions, int dataLength, long maxSize) {
+		if (!key.matches("[A-Za-z0-9_-]+")) {
+			throw new IllegalArgumentException("Invalid key " + key);
+		}
+		if (dataLength < 0) {
+			throw new IllegalArgumentException("Invalid data length " + dataLength);
+		}
+		this.file = new File(directory, key + SUFFIX);
+		this.key = key;
+		this.dimensions = dimensions;
+		this.dataLength = dataLength;
+		// A single function may use half of the directory, so it does not evict all other functions
+		this.maxEntries = (int) Math.max(1, Math.min(Integer.MAX_VALUE, maxSize / 2 / getRecordSize()));
+
+		boolean rewrite = read();
+		if (values.size() > maxEntries) {
+			evictOldest(values.size() - maxEntries);
+			rewrite = true;
+		}
+		if (rewrite) {
+			rewrite();
+		}
+		if (file.exists()) {
+			file.setLastModified(System.currentTimeMillis());
+		}
+		evictFiles(directory, maxSize);
+	}
+
+	/**
+	 * Return the stored value of a point.
+	 *
+	 * @param point	the point.
+	 * @return	the value, or <code>null</code> if not stored.
+	 */
+	public synchronized Double get(Point point) {
+		double[] record = values.get(point);
+		return record == null ? null : record[0];
+	}
+
+	/**
+	 * Return the data stored with the value of a point.
+	 *
+	 * @param point	the point.
+	 * @return	a copy of the data, or <code>null</code> if not stored.
+	 */
+	public synchronized double[] getData(Point point) {
+		double[] record = values.get(point);
+		return record == null ? null : Arrays.copyOfRange(record, 1, record.length);
+	}
+
+	/**
+	 * Return the number of data values stored with each function value.
+	 */
+	public int getDataLength() {
+		return dataLength;
+	}
+
+	/**
+	 * Store the value of a point and append it to the file.  The data stored with
+	 * the value are all NaN.
+	 *
+	 * @param point	the point.
+	 * @param value	the function value at the point.
+	 */
+	public void put(Point point, double value) {
+		double[] data = new double[dataLength];
+		Arrays.fill(data, Double.NaN);
+		put(point, value, data);
+	}
+
+	/**
+	 * Store the value of a point with its data and append it to the file.
+	 *
+	 * @param point	the point.
+	 * @param value	the function value at the point.
+	 * @param data	the data to store with the value, of length {@link #getDataLength()}.
+	 */
+	public synchronized void put(Point point, double value, double[] data) {
+		if (point.dim() != dimensions) {
+			throw new IllegalArgumentException("Point has dimensionality " + point.dim() + " while store has " +
+					dimensions);
+		}
+		if (data.length != dataLength) {
+			throw new IllegalArgumentException("Data has length " + data.length + " while store has " +
+					dataLength);
+		}
+		double[] record = new double[dataLength + 1];
+		record[0] = value;
+		System.arraycopy(data, 0, record, 1, dataLength);
+		double[] previous = values.put(point, record);
+		if (Arrays.equals(previous, record)) {
+			return;
+		}
+
+		if (values.size() > maxEntries) {
+			// Evict a quarter at a time, so the file is not rewritten on every value
+			evictOldest(Math.max(1, maxEntries / 4));
+			closeOutput();
+			rewrite();
+			return;
+		}
+		if (!writable) {
+			return;
+		}
+		try {
+			if (output == null) {
+				boolean created = !file.isFile();
+				if (created) {
+					File dir = file.getParentFile();
+					if (dir != null && !dir.isDirectory()) {
+						dir.mkdirs();
+					}
+				}
+				output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+				if (created) {
+					writeHeader(output);
+				}
+			}
+			writeRecord(output, point, record);
+			output.flush();
+		} catch (IOException e) {
+			log.warn("Unable to write function value store " + file + ": " + e, e);
+			writable = false;
+			closeOutput();
+		}
+	}
+
+	/**
+	 * Return the number of stored values.
+	 */
+	public synchronized int size() {
+		return values.size();
+	}
+
+	@Override
+	public synchronized void close() {
+		closeOutput();
+	}
+
+	/**
+	 * Delete the stores of all functions in a directory.  Stores that are open are
+	 * recreated when values are next written to them.
+	 *
+	 * @param directory	the directory containing the stores of all functions
+	 * @return	the number of stores deleted
+	 */
+	public static int clear(File directory) {
+		File[] files = directory.listFiles((dir, name) -> name.endsWith(SUFFIX));
+		if (files == null) {
+			return 0;
+		}
+		int deleted = 0;
+		for (File f : files) {
+			if (f.delete()) {
+				deleted++;
+			} else {
+				log.warn("Unable to delete function value store " + f);
+			}
+		}
+		log.info("Deleted " + deleted + " function value stores from " + directory);
+		return deleted;
+	}
+
+	/**
+	 * Read the values from the file.
+	 *
+	 * @return	whether the file needs to be rewritten
+	 */
+	private boolean read() {
+		if (!file.isFile()) {
+			return false;
+		}
+
+		long valid = 0;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION || !in.readUTF().equals(key) ||
+					in.readInt() != dimensions || in.readInt() != dataLength) {
+				log.info("Ignoring function value store " + file + " of another function or version");
+				return true;
+			}
+			valid = getHeaderSize();
+			final long recordSize = getRecordSize();
+			double[] coordinates = new double[dimensions];
+			while (true) {
+				for (int i = 0; i < dimensions; i++) {
+					coordinates[i] = in.readDouble();
+				}
+				double[] record = new double[dataLength + 1];
+				for (int i = 0; i < record.length; i++) {
+					record[i] = in.readDouble();
+				}
+				values.put(new Point(coordinates), record);
+				valid += recordSize;
+			}
+		} catch (EOFException e) {
+			// End of file, possibly in the middle of a value written during a crash
+		} catch (IOException | RuntimeException e) {
+			log.warn("Unable to read function value store " + file + ": " + e, e);
+		}
+		log.debug("Read " + values.size() + " values from function value store " + file);
+		return valid != file.length();
+	}
+
+	/**
+	 * Rewrite the file with the values in memory.
+	 */
+	private void rewrite() {
+		File tempFile = new File(file.getPath() + ".tmp");
+		try {
+			File dir = file.getAbsoluteFile().getParentFile();
+			if (dir != null && !dir.isDirectory()) {
+				dir.mkdirs();
+			}
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+					new FileOutputStream(tempFile)))) {
+				writeHeader(out);
+				for (Map.Entry<Point, double[]> entry : values.entrySet()) {
+					writeRecord(out, entry.getKey(), entry.getValue());
+				}
+			}
+			Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException | RuntimeException e) {
+			log.warn("Unable to write function value store " + file + ": " + e, e);
+			tempFile.delete();
+			writable = false;
+		}
+	}
+
+	private void evictOldest(int count) {
+		Iterator<Point> iterator = values.keySet().iterator();
+		for (int i = 0; i < count && iterator.hasNext(); i++) {
+			iterator.next();
+			iterator.remove();
+		}
+	}
+
+	/**
+	 * Delete the least recently used stores of other functions until the directory
+	 * is within the size cap.
+	 */
+	private void evictFiles(File directory, long maxSize) {
+		File[] files = directory.listFiles((dir, name) -> name.endsWith(SUFFIX));
+		if (files == null) {
+			return;
+		}
+
+		long total = 0;
+		for (File f : files) {
+			total += f.length();
+		}
+		List<File> candidates = new ArrayList<>(Arrays.asList(files));
+		candidates.remove(file);
+		candidates.sort(Comparator.comparingLong(File::lastModified));
+		for (File f : candidates) {
+			if (total <= maxSize) {
+				break;
+			}
+			long length = f.length();
+			if (f.delete()) {
+				log.debug("Evicted function value store " + f);
+				total -= length;
+			}
+		}
+	}
+
+	private void closeOutput() {
+		if (output != null) {
+			try {
+				output.close();
+			} catch (IOException e) {
+				log.warn("Unable to close function value store " + file + ": " + e, e);
+			}
+			output = null;
+		}
+	}
+
+	private void writeHeader(DataOutputStream out) throws IOException {
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeUTF(key);
+		out.writeInt(dimensions);
+		out.writeInt(dataLength);
+	}
+
+	private static void writeRecord(DataOutputStream out, Point point, double[] record) throws IOException {
+		for (int i = 0; i < point.dim(); i++) {
+			out.writeDouble(point.get(i));
+		}
+		for (double d : record) {
+			out.writeDouble(d);
+		}
+	}
+
+	/** The size of the header in bytes, the key is ASCII */
+	private long getHeaderSize() {
+		return 4 + 4 + 2 + key.length() + 4 + 4;
+	}
+
+	private long getRecordSize() {
+		return 8L * (dimensions + 1 + dataLength);
+	}
+
+}
@@ -1,6 +1,7 @@
 package info.openrocket.core.optimization.general;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -10,12 +11,9 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
 
 import info.openrocket.core.util.BugException;
+import info.openrocket.core.util.ExecutorUtils;
 
 /**
  * An implementation of a ParallelFunctionCache that evaluates function values
@@ -33,11 +31,12 @@ import info.openrocket.core.util.BugException;
 public class ParallelExecutorCache implements ParallelFunctionCache {
 
 	private final Map<Point, Double> functionCache = new HashMap<>();
-	private final Map<Point, Future<Double>> futureMap = new HashMap<>();
+	private final Map<Point, Future<double[]>> futureMap = new HashMap<>();
 
 	private final ExecutorService executor;
 
 	private Function function;
+	private FunctionValueStore valueStore = null;
 
 	/**
 	 * Construct a cache that uses the same number of computational threads as there
@@ -56,16 +55,7 @@ public class ParallelExecutorCache implements ParallelFunctionCache {
 	 * @param threadCount the number of threads to use in the executor.
 	 */
 	public ParallelExecutorCache(int threadCount) {
-		this(new ThreadPoolExecutor(threadCount, threadCount, 60, TimeUnit.SECONDS,
-				new LinkedBlockingQueue<>(),
-				new ThreadFactory() {
-					@Override
-					public Thread newThread(Runnable r) {
-						Thread t = new Thread(r);
-						t.setDaemon(true);
-						return t;
-					}
-				}));
+		this(ExecutorUtils.newDaemonExecutor("ParallelExecutorCache", threadCount));
 	}
 
 	/**
@@ -103,9 +93,25 @@ public class ParallelExecutorCache implements ParallelFunctionCache {
 			return;
 		}
 
+		if (valueStore != null) {
+			Double value = valueStore.get(point);
+			if (value != null) {
+				// Function has been evaluated at the point by an earlier optimization
+				if (function instanceof StorableFunction) {
+					// Restore the effects of the evaluation in the background
+					double[] data = valueStore.getData(point);
+					futureMap.put(point, executor.submit(
+							new RestoreCallable((StorableFunction) function, point, value, data)));
+				} else {
+					functionCache.put(point, value);
+				}
+				return;
+			}
+		}
+
 		// Submit point for evaluation
 		FunctionCallable callable = new FunctionCallable(function, point);
-		Future<Double> future = executor.submit(callable);
+		Future<double[]> future = executor.submit(callable);
 		futureMap.put(point, future);
 	}
 
@@ -126,14 +132,13 @@ public class ParallelExecutorCache implements ParallelFunctionCache {
 			return;
 		}
 
-		Future<Double> future = futureMap.get(point);
+		Future<double[]> future = futureMap.get(point);
 		if (future == null) {
 			throw new IllegalStateException("waitFor called for " + point + " but it is not being computed");
 		}
 
 		try {
-			double value = future.get();
-			functionCache.put(point, value);
+			storeValue(point, future.get());
 		} catch (ExecutionException e) {
 			Throwable cause = e.getCause();
 			if (cause instanceof InterruptedException) {
@@ -173,7 +178,7 @@ public class ParallelExecutorCache implements ParallelFunctionCache {
 			return true;
 		}
 
-		Future<Double> future = futureMap.remove(point);
+		Future<double[]> future = futureMap.remove(point);
 		if (future == null) {
 			throw new IllegalStateException("abort called for " + point + " but it is not being computed");
 		}
@@ -181,8 +186,7 @@ public class ParallelExecutorCache implements ParallelFunctionCache {
 		if (future.isDone()) {
 			// Evaluation has been completed, store value in cache
 			try {
-				double value = future.get();
-				functionCache.put(point, value);
+				storeValue(point, future.get());
 				return true;
 			} catch (Exception e) {
 				return false;
@@ -199,14 +203,13 @@ public class ParallelExecutorCache implements ParallelFunctionCache {
 		Iterator<Point> iterator = futureMap.keySet().iterator();
 		while (iterator.hasNext()) {
 			Point point = iterator.next();
-			Future<Double> future = futureMap.get(point);
+			Future<double[]> future = futureMap.get(point);
 			iterator.remove();
 
 			if (future.isDone()) {
 				// Evaluation has been completed, store value in cache
 				try {
-					double value = future.get();
-					functionCache.put(point, value);
+					storeValue(point, future.get());
 				} catch (Exception e) {
 					// Ignore
 				}
@@ -253,6 +256,41 @@ public class ParallelExecutorCache implements ParallelFunctionCache {
 		return executor;
 	}
 
+	/**
+	 * Set a persistent store for the function values.  Values found in the store are used
+	 * instead of evaluating the function, and computed values are added to the store.
+	 * If the function is a {@link StorableFunction}, the store must have its data length,
+	 * and the function is notified of each value restored from the store.
+	 * The store must belong to the current function, so this method must be called after
+	 * {@link #setFunction(Function)}.
+	 *
+	 * @param valueStore the value store, or <code>null</code> to keep the values in memory only.
+	 */
+	public void setValueStore(FunctionValueStore valueStore) {
+		this.valueStore = valueStore;
+	}
+
+	public FunctionValueStore getValueStore() {
+		return valueStore;
+	}
+
+	/**
+	 * Store a function value computed by a task.
+	 *
+	 * @param point  the point.
+	 * @param record the function value followed by its data.
+	 */
+	private void storeValue(Point point, double[] record) {
+		functionCache.put(point, record[0]);
+		if (valueStore != null) {
+			if (record.length == 1) {
+				valueStore.put(point, record[0]);
+			} else {
+				valueStore.put(point, record[0], Arrays.copyOfRange(record, 1, record.length));
+			}
+		}
+	}
+
 	/**
 	 * Check whether a point is outside of the valid optimization range.
 	 */
@@ -268,11 +306,19 @@ public class ParallelExecutorCache implements ParallelFunctionCache {
 		return false;
 	}
 
+	private static double[] toRecord(double value, double[] data) {
+		double[] record = new double[data.length + 1];
+		record[0] = value;
+		System.arraycopy(data, 0, record, 1, data.length);
+		return record;
+	}
+
 	/**
 	 * A Callable that evaluates a function at a specific point and returns the
-	 * result.
+	 * result, followed by the data to store with it if the function is a
+	 * {@link StorableFunction}.
 	 */
-	private class FunctionCallable implements Callable<Double> {
+	private class FunctionCallable implements Callable<double[]> {
 		private final Function calledFunction;
 		private final Point point;
 
@@ -282,8 +328,38 @@ public class ParallelExecutorCache implements ParallelFunctionCache {
 		}
 
 		@Override
-		public Double call() throws InterruptedException, OptimizationException {
-			return calledFunction.evaluate(point);
+		public double[] call() throws InterruptedException, OptimizationException {
+			if (calledFunction instanceof StorableFunction) {
+				StorableFunction storable = (StorableFunction) calledFunction;
+				double[] data = new double[storable.getStoredDataLength()];
+				double value = storable.evaluate(point, data);
+				return toRecord(value, data);
+			}
+			return new double[] { calledFunction.evaluate(point) };
+		}
+	}
+
+	/**
+	 * A Callable that restores the evaluation of a function from a stored value and
+	 * returns the value, followed by its data.
+	 */
+	private class RestoreCallable implements Callable<double[]> {
+		private final StorableFunction calledFunction;
+		private final Point point;
+		private final double value;
+		private final double[] data;
+
+		public RestoreCallable(StorableFunction function, Point point, double value, double[] data) {
+			this.calledFunction = function;
+			this.point = point;
+			this.value = value;
+			this.data = data;
+		}
+
+		@Override
+		public double[] call() throws InterruptedException, OptimizationException {
+			calledFunction.restore(point, value, data);
+			return toRecord(value, data);
 		}
 	}
 
@@ -0,0 +1,45 @@
+package info.openrocket.core.optimization.general;
+
+/**
+ * A function whose evaluation has effects beyond the returned value, for example
+ * notifying listeners of the evaluation.  Such a function stores data with its values
+ * in a {@link FunctionValueStore}, and restores the effects of the evaluation from the
+ * data when a stored value is used instead of evaluating the function.
+ */
+public interface StorableFunction extends Function {
+
+	/**
+	 * Return the number of data values stored with each function value.
+	 *
+	 * @return the length of the data arrays.
+	 */
+	public int getStoredDataLength();
+
+	/**
+	 * Evaluate the function at the specified point, like {@link #evaluate(Point)}, and
+	 * fill the data to store with the value.
+	 *
+	 * @param point the point at which to evaluate the function.
+	 * @param data  the array to fill with the data, of length {@link #getStoredDataLength()}.
+	 * @return the function value.
+	 * @throws InterruptedException  if the thread was interrupted before function
+	 *                               evaluation was completed.
+	 * @throws OptimizationException if an error occurs that prevents the
+	 *                               optimization
+	 */
+	public double evaluate(Point point, double[] data) throws InterruptedException, OptimizationException;
+
+	/**
+	 * Called when a stored value is used instead of evaluating the function at the
+	 * specified point.
+	 *
+	 * @param point the point.
+	 * @param value the stored function value.
+	 * @param data  the data stored with the value.
+	 * @throws InterruptedException  if the thread was interrupted.
+	 * @throws OptimizationException if an error occurs that prevents the
+	 *                               optimization
+	 */
+	public void restore(Point point, double value, double[] data) throws InterruptedException, OptimizationException;
+
+}
@@ -0,0 +1,320 @@
+package info.openrocket.core.optimization.general.multidim;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.openrocket.core.optimization.general.FunctionCache;
+import info.openrocket.core.optimization.general.FunctionOptimizer;
+import info.openrocket.core.optimization.general.OptimizationController;
+import info.openrocket.core.optimization.general.OptimizationException;
+import info.openrocket.core.optimization.general.ParallelFunctionCache;
+import info.openrocket.core.optimization.general.Point;
+import info.openrocket.core.util.Statistics;
+
+/**
+ * An implementation of the differential evolution algorithm by Storn and Price
+ * (DE/rand/1/bin).
+ * <p>
+ * This is a population based optimization algorithm.  All trial points of a
+ * generation are independent of each other, so the whole generation is queued to
+ * the function cache at once and computed in parallel.  The more threads the
+ * function cache has, the larger the population can be without slowing down the
+ * optimization.
+ * <p>
+ * The trial points are kept within the optimization range [0, 1] of each dimension.
+ * Points outside of the simulation domain are given large function values by the
+ * optimized function, so a trial point outside of the domain never replaces a point
+ * within it.
+ * <p>
+ * The step size passed to the optimization controller is the largest extent of the
+ * population in any dimension.  The optimization can be aborted by the controller or
+ * by interrupting the current thread.
+ */
+public class DifferentialEvolutionOptimizer implements FunctionOptimizer, Statistics {
+	private static final Logger log = LoggerFactory.getLogger(DifferentialEvolutionOptimizer.class);
+
+	/** The smallest population size, four points are needed to create a trial point */
+	private static final int MIN_POPULATION_SIZE = 8;
+	/** The population size per dimension, if not set */
+	private static final int POPULATION_SIZE_PER_DIMENSION = 5;
+
+	private static final double DIFFERENTIAL_WEIGHT = 0.7;
+	private static final double CROSSOVER_PROBABILITY = 0.9;
+
+	private final List<Point> population = new ArrayList<>();
+	private double[] values;
+	private Point optimum = null;
+	private double optimumValue = Double.NaN;
+
+	private ParallelFunctionCache functionExecutor;
+	private Random random = new Random();
+	private int populationSize = 0;
+
+	private int generationCount = 0;
+	private int evaluationCount = 0;
+	private int trialAcceptance = 0;
+
+	public DifferentialEvolutionOptimizer() {
+		// No-op
+	}
+
+	public DifferentialEvolutionOptimizer(ParallelFunctionCache functionCache) {
+		this.functionExecutor = functionCache;
+	}
+
+	@Override
+	public void optimize(Point initial, OptimizationController control) throws OptimizationException {
+		final int dim = initial.dim();
+		final int size = getPopulationSize(dim);
+		log.info("Starting optimization at " + initial + " with population size " + size);
+
+		population.clear();
+		values = new double[size];
+		optimum = initial;
+		optimumValue = Double.NaN;
+
+		try {
+
+			List<Point> points = new ArrayList<>(size);
+			points.add(initial);
+			points.addAll(createLatinHypercube(size - 1, dim));
+			evaluate(points);
+			population.addAll(points);
+			for (int i = 0; i < size; i++) {
+				values[i] = functionExecutor.getValue(points.get(i));
+			}
+			updateOptimum();
+
+			boolean continueOptimization = true;
+			while (continueOptimization) {
+
+				generationCount++;
+				Point current = optimum;
+				double currentValue = optimumValue;
+				log.debug("Starting generation " + generationCount + " with best point " + current +
+						" value=" + currentValue);
+
+				points.clear();
+				for (int i = 0; i < size; i++) {
+					points.add(createTrial(i));
+				}
+				evaluate(points);
+
+				for (int i = 0; i < size; i++) {
+					double value = functionExecutor.getValue(points.get(i));
+					if (value <= values[i]) {
+						population.set(i, points.get(i));
+						values[i] = value;
+						trialAcceptance++;
+					}
+				}
+				updateOptimum();
+
+				continueOptimization = control.stepTaken(current, currentValue, optimum, optimumValue, getSpread());
+
+				if (Thread.interrupted()) {
+					throw new InterruptedException();
+				}
+			}
+
+		} catch (InterruptedException e) {
+			log.info("Optimization was interrupted with InterruptedException");
+		} finally {
+			functionExecutor.abortAll();
+		}
+
+		log.info("Finishing optimization at point " + optimum + " value = " + optimumValue);
+		log.info("Optimization statistics: " + getStatistics());
+	}
+
+	/**
+	 * Compute the function values of a generation in parallel.
+	 */
+	private void evaluate(List<Point> points) throws InterruptedException, OptimizationException {
+		functionExecutor.compute(points);
+		functionExecutor.waitFor(points);
+		evaluationCount += points.size();
+	}
+
+	/**
+	 * Create random points spread evenly over the optimization range by Latin hypercube
+	 * sampling:  the range of each dimension is divided into as many equal strata as
+	 * there are points, and each stratum contains exactly one of the points.
+	 */
+	private List<Point> createLatinHypercube(int count, int dim) {
+		double[][] coordinates = new double[count][dim];
+		int[] strata = new int[count];
+		for (int i = 0; i < dim; i++) {
+			for (int j = 0; j < count; j++) {
+				strata[j] = j;
+			}
+			// Shuffle the strata among the points
+			for (int j = count - 1; j > 0; j--) {
+				int k = random.nextInt(j + 1);
+				int tmp = strata[j];
+				strata[j] = strata[k];
+				strata[k] = tmp;
+			}
+			for (int j = 0; j < count; j++) {
+				coordinates[j][i] = (strata[j] + random.nextDouble()) / count;
+			}
+		}
+
+		List<Point> points = new ArrayList<>(count);
+		for (double[] p : coordinates) {
+			points.add(new Point(p));
+		}
+		return points;
+	}
+
+	/**
+	 * Create a trial point for a member of the population by mutating a random member
+	 * with the difference of two other random members, and crossing it over with the
+	 * original member.
+	 */
+	private Point createTrial(int index) {
+		final int size = population.size();
+		int a, b, c;
+		do {
+			a = random.nextInt(size);
+		} while (a == index);
+		do {
+			b = random.nextInt(size);
+		} while (b == index || b == a);
+		do {
+			c = random.nextInt(size);
+		} while (c == index || c == a || c == b);
+
+		Point target = population.get(index);
+		Point base = population.get(a);
+		Point difference = population.get(b).sub(population.get(c));
+
+		// At least one coordinate is always taken from the mutant
+		final int dim = target.dim();
+		int forced = random.nextInt(dim);
+		double[] values = new double[dim];
+		for (int i = 0; i < dim; i++) {
+			if (i == forced || random.nextDouble() < CROSSOVER_PROBABILITY) {
+				double value = base.get(i) + DIFFERENTIAL_WEIGHT * difference.get(i);
+				// Bounce back halfway between the target and the exceeded limit
+				if (value < 0) {
+					value = Math.max(target.get(i), 0) / 2;
+				} else if (value > 1) {
+					value = (Math.min(target.get(i), 1) + 1) / 2;
+				}
+				values[i] = value;
+			} else {
+				values[i] = target.get(i);
+			}
+		}
+		return new Point(values);
+	}
+
+	private void updateOptimum() {
+		int best = 0;
+		for (int i = 1; i < population.size(); i++) {
+			if (values[i] < values[best]) {
+				best = i;
+			}
+		}
+		optimum = population.get(best);
+		optimumValue = values[best];
+	}
+
+	/**
+	 * Return the largest extent of the population in any dimension.
+	 */
+	private double getSpread() {
+		double spread = 0;
+		for (int i = 0; i < optimum.dim(); i++) {
+			double min = Double.POSITIVE_INFINITY;
+			double max = Double.NEGATIVE_INFINITY;
+			for (Point p : population) {
+				min = Math.min(min, p.get(i));
+				max = Math.max(max, p.get(i));
+			}
+			spread = Math.max(spread, max - min);
+		}
+		return spread;
+	}
+
+	private int getPopulationSize(int dim) {
+		if (populationSize > 0) {
+			return Math.max(MIN_POPULATION_SIZE, populationSize);
+		}
+		return Math.max(MIN_POPULATION_SIZE, POPULATION_SIZE_PER_DIMENSION * dim);
+	}
+
+	/**
+	 * Set the number of points in the population.  Each generation computes this many
+	 * points in parallel, so it is best set to a multiple of the number of threads
+	 * evaluating the function.  If not set, five points per dimension are used.
+	 *
+	 * @param populationSize the population size, or zero to use the default.
+	 */
+	public void setPopulationSize(int populationSize) {
+		this.populationSize = populationSize;
+	}
+
+	/**
+	 * Set the random number generator used to create the population and the trial
+	 * points.  A generator with a fixed seed makes the optimization reproducible.
+	 *
+	 * @param random the random number generator.
+	 */
+	public void setRandom(Random random) {
+		this.random = random;
+	}
+
+	@Override
+	public Point getOptimumPoint() {
+		if (optimum == null) {
+			throw new IllegalStateException("Optimization has not been called");
+		}
+		return optimum;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * Returns NaN if the optimization was interrupted before the initial population was computed.
+	 */
+	@Override
+	public double getOptimumValue() {
+		if (optimum == null) {
+			throw new IllegalStateException("Optimization has not been called");
+		}
+		return optimumValue;
+	}
+
+	@Override
+	public FunctionCache getFunctionCache() {
+		return functionExecutor;
+	}
+
+	@Override
+	public void setFunctionCache(FunctionCache functionCache) {
+		if (!(functionCache instanceof ParallelFunctionCache)) {
+			throw new IllegalArgumentException("Function cache needs to be a ParallelFunctionCache: " + functionCache);
+		}
+		this.functionExecutor = (ParallelFunctionCache) functionCache;
+	}
+
+	@Override
+	public String getStatistics() {
+		return "DifferentialEvolutionOptimizer[generationCount=" + generationCount +
+				", evaluationCount=" + evaluationCount +
+				", trialAcceptance=" + trialAcceptance + "]";
+	}
+
+	@Override
+	public void resetStatistics() {
+		generationCount = 0;
+		evaluationCount = 0;
+		trialAcceptance = 0;
+	}
+
+}
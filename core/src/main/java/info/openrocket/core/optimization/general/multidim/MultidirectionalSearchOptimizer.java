@@ -2,8 +2,10 @@ package info.openrocket.core.optimization.general.multidim;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,6 +39,7 @@ public class MultidirectionalSearchOptimizer implements FunctionOptimizer, Stati
 
 	private final boolean useExpansion = false;
 	private final boolean useCoordinateSearch = false;
+	private boolean lookAhead = false;
 
 	private int stepCount = 0;
 	private int reflectionAcceptance = 0;
@@ -75,6 +78,7 @@ public class MultidirectionalSearchOptimizer implements FunctionOptimizer, Stati
 			List<Point> reflection = new ArrayList<>(simplex.size());
 			List<Point> expansion = new ArrayList<>(simplex.size());
 			List<Point> coordinateSearch = new ArrayList<>(simplex.size());
+			List<Point> contraction = new ArrayList<>(simplex.size());
 			Point current;
 			double currentValue;
 			boolean continueOptimization = true;
@@ -110,6 +114,11 @@ public class MultidirectionalSearchOptimizer implements FunctionOptimizer, Stati
 					functionExecutor.compute(coordinateSearch);
 				if (useExpansion)
 					functionExecutor.compute(expansion);
+				if (lookAhead) {
+					// Queue the contraction step in case the reflection fails
+					createContraction(simplex, contraction);
+					functionExecutor.compute(contraction);
+				}
 
 				// Check reflection acceptance
 				log.debug("Computing reflection");
@@ -128,6 +137,12 @@ public class MultidirectionalSearchOptimizer implements FunctionOptimizer, Stati
 					simplex.addAll(reflection);
 					simplex.sort(comparator);
 
+					if (lookAhead) {
+						Set<Point> unused = new LinkedHashSet<>(contraction);
+						unused.removeAll(simplex);
+						functionExecutor.abort(unused);
+					}
+
 					if (useExpansion) {
 
 						/*
@@ -244,6 +259,15 @@ public class MultidirectionalSearchOptimizer implements FunctionOptimizer, Stati
 		}
 	}
 
+	private void createContraction(List<Point> base, List<Point> contraction) {
+		Point current = base.get(0);
+		contraction.clear();
+		for (int i = 1; i < base.size(); i++) {
+			// Computed exactly as in halveStep, to find the contraction points in the cache
+			contraction.add(base.get(i).add(current).mul(0.5));
+		}
+	}
+
 	private void halveStep(List<Point> base) {
 		Point current = base.get(0);
 		for (int i = 1; i < base.size(); i++) {
@@ -278,6 +302,17 @@ public class MultidirectionalSearchOptimizer implements FunctionOptimizer, Stati
 		return false;
 	}
 
+	/**
+	 * Set whether to compute the contraction step in parallel with the reflection step.
+	 * This doubles the number of points computed in parallel, which shortens the
+	 * optimization when there are enough threads to evaluate them.
+	 *
+	 * @param lookAhead whether to compute the contraction step in advance.
+	 */
+	public void setLookAhead(boolean lookAhead) {
+		this.lookAhead = lookAhead;
+	}
+
 	@Override
 	public Point getOptimumPoint() {
 		if (simplex.size() == 0) {
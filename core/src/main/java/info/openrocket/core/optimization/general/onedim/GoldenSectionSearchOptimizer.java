@@ -1,5 +1,10 @@
 package info.openrocket.core.optimization.general.onedim;
 
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,6 +40,8 @@ public class GoldenSectionSearchOptimizer implements FunctionOptimizer, Statisti
 	private int guessSuccess = 0;
 	private int guessFailure = 0;
 
+	private boolean lookAhead = false;
+
 	/**
 	 * Construct an optimizer with no function executor.
 	 */
@@ -117,6 +124,24 @@ public class GoldenSectionSearchOptimizer implements FunctionOptimizer, Statisti
 					functionExecutor.compute(guessAC);
 				}
 
+				/*
+				 * Start calculating the guesses of the step after the next one, for
+				 * both of the possible regions.
+				 */
+				List<Point> lookAheadAC = Collections.emptyList();
+				List<Point> lookAheadBD = Collections.emptyList();
+				if (lookAhead) {
+					lookAheadAC = List.of(section1(a, b), section2(guessAC, c));
+					lookAheadBD = List.of(section1(b, guessBD), section2(c, d));
+					if (guessedAC) {
+						functionExecutor.compute(lookAheadAC);
+						functionExecutor.compute(lookAheadBD);
+					} else {
+						functionExecutor.compute(lookAheadBD);
+						functionExecutor.compute(lookAheadAC);
+					}
+				}
+
 				/*
 				 * Get values at B and C.
 				 */
@@ -155,7 +180,7 @@ public class GoldenSectionSearchOptimizer implements FunctionOptimizer, Statisti
 					d = c;
 					c = b;
 					b = guessAC;
-					functionExecutor.abort(guessBD);
+					abortUnused(guessBD, lookAheadBD, List.of(a, b, c, d), lookAheadAC);
 					guessBD = null;
 					log.debug("Selecting A-C region, a=" + a.get(0) + " c=" + c.get(0));
 					if (guessedAC) {
@@ -167,7 +192,7 @@ public class GoldenSectionSearchOptimizer implements FunctionOptimizer, Statisti
 					a = b;
 					b = c;
 					c = guessBD;
-					functionExecutor.abort(guessAC);
+					abortUnused(guessAC, lookAheadAC, List.of(a, b, c, d), lookAheadBD);
 					guessAC = null;
 					log.debug("Selecting B-D region, b=" + b.get(0) + " d=" + d.get(0));
 					if (!guessedAC) {
@@ -193,17 +218,37 @@ public class GoldenSectionSearchOptimizer implements FunctionOptimizer, Statisti
 			log.info("Optimization was interrupted with InterruptedException");
 		}
 
-		if (guessAC != null) {
-			functionExecutor.abort(guessAC);
-		}
-		if (guessBD != null) {
-			functionExecutor.abort(guessBD);
-		}
+		functionExecutor.abortAll();
 
 		log.info("Finishing optimization at point " + getOptimumPoint() + " value " + getOptimumValue());
 		log.info("Optimization statistics: " + getStatistics());
 	}
 
+	/**
+	 * Abort the computation of the guesses of the region that was not selected,
+	 * except for points that are used in the selected region.
+	 */
+	private void abortUnused(Point guess, List<Point> lookAheadGuesses, List<Point> points,
+			List<Point> selectedLookAheadGuesses) {
+		Set<Point> unused = new LinkedHashSet<>();
+		unused.add(guess);
+		unused.addAll(lookAheadGuesses);
+		unused.removeAll(points);
+		unused.removeAll(selectedLookAheadGuesses);
+		functionExecutor.abort(unused);
+	}
+
+	/**
+	 * Set whether to compute the guesses of the step after the next one as well.  This
+	 * computes six points in parallel instead of two, which shortens the optimization
+	 * when there are enough threads to evaluate them.
+	 *
+	 * @param lookAhead whether to compute the guesses two steps ahead.
+	 */
+	public void setLookAhead(boolean lookAhead) {
+		this.lookAhead = lookAhead;
+	}
+
 	private Point p(double v) {
 		return new Point(v);
 	}
@@ -1,27 +1,46 @@
 package info.openrocket.core.optimization.rocketoptimization;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import info.openrocket.core.document.OpenRocketDocument;
+import info.openrocket.core.document.OpenRocketDocumentFactory;
 import info.openrocket.core.document.Simulation;
-import info.openrocket.core.optimization.general.Function;
+import info.openrocket.core.document.StorageOptions;
+import info.openrocket.core.file.openrocket.OpenRocketSaver;
+import info.openrocket.core.logging.ErrorSet;
+import info.openrocket.core.logging.WarningSet;
+import info.openrocket.core.optimization.general.FunctionValueStore;
 import info.openrocket.core.optimization.general.OptimizationException;
 import info.openrocket.core.optimization.general.Point;
+import info.openrocket.core.optimization.general.StorableFunction;
+import info.openrocket.core.rocketcomponent.RocketComponent;
 import info.openrocket.core.unit.UnitGroup;
 import info.openrocket.core.unit.Value;
+import info.openrocket.core.util.BugException;
 import info.openrocket.core.util.Pair;
 
 /**
  * A Function that optimizes a specific RocketOptimizationParameter to some goal
  * by modifying a base simulation using SimulationModifiers.
+ * <p>
+ * The parameter value is stored with each function value, so that the listeners
+ * are notified of the values restored from a {@link FunctionValueStore}.
  * 
  * @author Sampo Niskanen <sampo.niskanen@iki.fi>
  */
-public class RocketOptimizationFunction implements Function {
+public class RocketOptimizationFunction implements StorableFunction {
 	private static final Logger log = LoggerFactory.getLogger(RocketOptimizationFunction.class);
 
 	private static final double OUTSIDE_DOMAIN_SCALE = 1.0e200;
@@ -31,12 +50,14 @@ public class RocketOptimizationFunction implements Function {
 	 */
 
 	private final Simulation baseSimulation;
+	/** A copy of the base simulation and rocket owned by each evaluating thread */
+	private final ThreadLocal<Simulation> threadSimulation = new ThreadLocal<>();
 	private final OptimizableParameter parameter;
 	private final OptimizationGoal goal;
 	private final SimulationDomain domain;
 	private final SimulationModifier[] modifiers;
 
-	private final List<RocketOptimizationListener> listeners = new ArrayList<>();
+	private final List<RocketOptimizationListener> listeners = new CopyOnWriteArrayList<>();
 
 	/**
 	 * Sole constructor.
@@ -63,6 +84,22 @@ public class RocketOptimizationFunction implements Function {
 
 	@Override
 	public double evaluate(Point point) throws InterruptedException, OptimizationException {
+		return evaluate(point, new double[getStoredDataLength()]);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The data is the computed parameter value in SI units, or NaN if the point is
+	 * outside of the simulation domain.
+	 */
+	@Override
+	public int getStoredDataLength() {
+		return 1;
+	}
+
+	@Override
+	public double evaluate(Point point, double[] data) throws InterruptedException, OptimizationException {
 
 		/*
 		 * parameterValue is the computed parameter value (e.g. altitude)
@@ -72,18 +109,8 @@ public class RocketOptimizationFunction implements Function {
 
 		log.debug("Computing optimization function value at point " + point);
 
-		// Create the new simulation based on the point
-		double[] p = point.asArray();
-		if (p.length != modifiers.length) {
-			throw new IllegalArgumentException("Point has length " + p.length + " while function has " +
-					modifiers.length + " simulation modifiers");
-		}
-
-		final Simulation simulation = newSimulationInstance(baseSimulation);
-
-		for (int i = 0; i < modifiers.length; i++) {
-			modifiers[i].modify(simulation, p[i]);
-		}
+		final Simulation simulation = createSimulation(point);
+		data[0] = Double.NaN;
 
 		// Check whether the point is within the simulation domain
 		Pair<Double, Value> d = domain.getDistanceToDomain(simulation);
@@ -106,6 +133,7 @@ public class RocketOptimizationFunction implements Function {
 		// Compute the optimization value
 		parameterValue = parameter.computeValue(simulation);
 		goalValue = goal.getMinimizationParameter(parameterValue);
+		data[0] = parameterValue;
 
 		if (Double.isNaN(goalValue)) {
 			log.warn("Computed goal value was NaN, baseSimulation=" + baseSimulation + " parameter=" + parameter +
@@ -121,6 +149,105 @@ public class RocketOptimizationFunction implements Function {
 		return goalValue;
 	}
 
+	/**
+	 * Notify the listeners of a value restored from a {@link FunctionValueStore}.  The
+	 * simulation is modified and the domain is checked again, but not simulated.
+	 */
+	@Override
+	public void restore(Point point, double value, double[] data)
+			throws InterruptedException, OptimizationException {
+		if (listeners.isEmpty()) {
+			return;
+		}
+
+		final Simulation simulation = createSimulation(point);
+		Value referenceValue = domain.getDistanceToDomain(simulation).getV();
+		Value parameterValue = null;
+		if (!Double.isNaN(data[0])) {
+			parameterValue = new Value(data[0], parameter.getUnitGroup().getDefaultUnit());
+		}
+		fireEvent(simulation, point, referenceValue, parameterValue, value);
+	}
+
+	/**
+	 * Return a key identifying the values of this function, for storing them in a
+	 * {@link FunctionValueStore}.  The key is a hash of the saved form of the rocket and
+	 * the simulation, the optimized parameter, the goal, the domain and the modifiers
+	 * with their ranges.  Changing any of them, or the version of OpenRocket, changes
+	 * the key.
+	 *
+	 * @return the key as a hexadecimal string.
+	 * @throws IOException if the rocket could not be saved.
+	 */
+	public String getCacheKey() throws IOException {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new BugException("SHA-256 not available", e);
+		}
+
+		final Simulation simulation;
+		synchronized (baseSimulation) {
+			simulation = newSimulationInstance(baseSimulation);
+		}
+		OpenRocketDocument document = OpenRocketDocumentFactory.createDocumentFromRocket(simulation.getRocket());
+		document.addSimulation(simulation);
+		StorageOptions options = new StorageOptions();
+		options.setSaveSimulationData(false);
+		OutputStream out = new DigestOutputStream(OutputStream.nullOutputStream(), digest);
+		new OpenRocketSaver().save(out, document, options, new WarningSet(), new ErrorSet());
+
+		StringBuilder sb = new StringBuilder();
+		sb.append('\n').append(parameter.getClass().getName()).append(':').append(parameter.getName());
+		sb.append('\n').append(goal);
+		sb.append('\n').append(domain);
+		for (SimulationModifier modifier : modifiers) {
+			Object related = modifier.getRelatedObject();
+			sb.append('\n').append(modifier.getClass().getName()).append(':').append(modifier.getName())
+					.append(':').append(modifier).append(':')
+					.append(related instanceof RocketComponent ? ((RocketComponent) related).getID() : related)
+					.append(':').append(modifier.getMinValue()).append(':').append(modifier.getMaxValue());
+		}
+		digest.update(sb.toString().getBytes(StandardCharsets.UTF_8));
+
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
+	/**
+	 * Create a new simulation modified to the specified point.
+	 */
+	private Simulation createSimulation(Point point) throws OptimizationException {
+		double[] p = point.asArray();
+		if (p.length != modifiers.length) {
+			throw new IllegalArgumentException("Point has length " + p.length + " while function has " +
+					modifiers.length + " simulation modifiers");
+		}
+
+		final Simulation simulation = newSimulationInstance(getThreadSimulation());
+
+		for (int i = 0; i < modifiers.length; i++) {
+			modifiers[i].modify(simulation, p[i]);
+		}
+		return simulation;
+	}
+
+	/**
+	 * Returns the copy of the base simulation owned by the current thread.  The base
+	 * simulation is copied only once per thread, so that the evaluations of different
+	 * threads do not share any simulation or rocket.
+	 */
+	private Simulation getThreadSimulation() {
+		Simulation simulation = threadSimulation.get();
+		if (simulation == null) {
+			synchronized (baseSimulation) {
+				simulation = newSimulationInstance(baseSimulation);
+			}
+			threadSimulation.set(simulation);
+		}
+		return simulation;
+	}
+
 	/**
 	 * Returns a new deep copy of the simulation and rocket.
 	 * <p>
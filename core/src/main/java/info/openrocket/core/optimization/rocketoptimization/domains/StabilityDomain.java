@@ -131,4 +131,10 @@ public class StabilityDomain implements SimulationDomain {
 
 		return new Pair<>(0.0, desc);
 	}
+
+	@Override
+	public String toString() {
+		return "StabilityDomain[minimum=" + minimum + ", minAbsolute=" + minAbsolute + ", maximum=" + maximum +
+				", maxAbsolute=" + maxAbsolute + "]";
+	}
 }
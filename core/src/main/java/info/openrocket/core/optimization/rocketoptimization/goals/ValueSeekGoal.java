@@ -26,4 +26,9 @@ public class ValueSeekGoal implements OptimizationGoal {
 		return Math.abs(value - goal);
 	}
 
+	@Override
+	public String toString() {
+		return "ValueSeekGoal[goal=" + goal + "]";
+	}
+
 }
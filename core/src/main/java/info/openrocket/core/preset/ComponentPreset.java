@@ -7,6 +7,7 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.security.MessageDigest;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -287,6 +288,21 @@ public class ComponentPreset implements Comparable<ComponentPreset>, Serializabl
 			FINISH,
 			MATERIAL));
 
+	/** All keys by name, including the keys not in ORDERED_KEY_LIST, used when deserializing */
+	private final static Map<String, TypedKey<?>> KEYS_BY_NAME = new HashMap<>();
+	static {
+		for (Field field : ComponentPreset.class.getFields()) {
+			if (field.getType() == TypedKey.class && Modifier.isStatic(field.getModifiers())) {
+				try {
+					TypedKey<?> key = (TypedKey<?>) field.get(null);
+					KEYS_BY_NAME.put(key.getName(), key);
+				} catch (IllegalAccessException e) {
+					throw new BugException(e);
+				}
+			}
+		}
+	}
+
 	// package scope constructor to encourage use of factory.
 	ComponentPreset() {
 	}
@@ -528,16 +544,10 @@ public class ComponentPreset implements Comparable<ComponentPreset>, Serializabl
 				value = Material.newMaterial(Material.Type.valueOf(m.type), m.name, m.density,
 						MaterialGroup.loadFromDatabaseString(m.group), m.userDefined, true);
 			}
-			if (TYPE.getName().equals(keyName)) {
-				this.properties.put(TYPE, (ComponentPreset.Type) value);
-			} else {
-				for (@SuppressWarnings("rawtypes")
-				TypedKey k : ORDERED_KEY_LIST) {
-					if (k.getName().equals(keyName)) {
-						this.properties.put(k, value);
-						break;
-					}
-				}
+			@SuppressWarnings("rawtypes")
+			TypedKey k = KEYS_BY_NAME.get(keyName);
+			if (k != null) {
+				this.properties.put(k, value);
 			}
 		}
 
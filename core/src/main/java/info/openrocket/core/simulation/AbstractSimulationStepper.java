@@ -1,18 +1,22 @@
 package info.openrocket.core.simulation;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import info.openrocket.core.aerodynamics.AerodynamicForces;
 import info.openrocket.core.aerodynamics.FlightConditions;
 import info.openrocket.core.masscalc.MassCalculator;
 import info.openrocket.core.masscalc.RigidBody;
 import info.openrocket.core.models.atmosphere.AtmosphericConditions;
+import info.openrocket.core.rocketcomponent.FlightConfiguration;
 import info.openrocket.core.simulation.exception.SimulationException;
 import info.openrocket.core.simulation.listeners.SimulationListenerHelper;
 import info.openrocket.core.util.BugException;
 import info.openrocket.core.util.Coordinate;
 import info.openrocket.core.util.GeodeticComputationStrategy;
 import info.openrocket.core.util.MathUtil;
+import info.openrocket.core.util.ModID;
 import info.openrocket.core.util.Quaternion;
 import info.openrocket.core.util.Rotation2D;
 
@@ -20,6 +24,25 @@ public abstract class AbstractSimulationStepper implements SimulationStepper {
 
 	protected static final double MIN_TIME_STEP = 0.001;
 
+	/*
+	 * Cached mass data.  The structure mass only changes when the stage activity of the
+	 * configuration or the mass of the rocket changes, which happens on flight events such
+	 * as stage separation.  The motor mass only changes with the motor times of the active
+	 * motor clusters, and not at all before ignition or after burnout.
+	 */
+	private FlightConfiguration structureMassConfiguration = null;
+	private ModID structureMassConfigurationModID = ModID.INVALID;
+	private ModID structureMassRocketModID = ModID.INVALID;
+	private int structureMassEventCount = -1;
+	private RigidBody structureMassCache = null;
+
+	private FlightConfiguration motorMassConfiguration = null;
+	private ModID motorMassConfigurationModID = ModID.INVALID;
+	private ModID motorMassRocketModID = ModID.INVALID;
+	private final List<MotorClusterState> motorMassStates = new ArrayList<>();
+	private double[] motorMassTimes = new double[0];
+	private RigidBody motorMassCache = null;
+
 	/**
 	 * Compute the atmospheric conditions, allowing listeners to override.
 	 * 
@@ -120,7 +143,7 @@ public abstract class AbstractSimulationStepper implements SimulationStepper {
 			return structureMass;
 		}
 
-		structureMass = MassCalculator.calculateStructure(status.getConfiguration());
+		structureMass = getStructureMass(status);
 
 		// Call post-listener
 		structureMass = SimulationListenerHelper.firePostMassCalculation(status, structureMass);
@@ -141,9 +164,8 @@ public abstract class AbstractSimulationStepper implements SimulationStepper {
 			return motorMass;
 		}
 
-		motorMass = MassCalculator.calculateMotor(status);
+		motorMass = getMotorMass(status);
 
-				
 		// Call post-listener
 		motorMass = SimulationListenerHelper.firePostMassCalculation(status, motorMass);
 
@@ -154,6 +176,70 @@ public abstract class AbstractSimulationStepper implements SimulationStepper {
 		return motorMass;
 	}
 
+	/**
+	 * Return the structure mass of the current configuration, recomputing it only if the
+	 * configuration, its stage activity, the rocket mass or the flight events have changed
+	 * since the previous call.
+	 */
+	private RigidBody getStructureMass(SimulationStatus status) {
+		final FlightConfiguration config = status.getConfiguration();
+		final ModID configModID = config.getModID();
+		final ModID rocketModID = config.getRocket().getMassModID();
+		final int eventCount = status.getFlightDataBranch().getEventCount();
+
+		if (structureMassCache == null || config != structureMassConfiguration ||
+				configModID != structureMassConfigurationModID || rocketModID != structureMassRocketModID ||
+				eventCount != structureMassEventCount) {
+			structureMassCache = MassCalculator.calculateStructure(config);
+			structureMassConfiguration = config;
+			structureMassConfigurationModID = configModID;
+			structureMassRocketModID = rocketModID;
+			structureMassEventCount = eventCount;
+		}
+		return structureMassCache;
+	}
+
+	/**
+	 * Return the motor mass of the current configuration, recomputing it only if the
+	 * configuration, the rocket mass or the motor time of any active motor cluster has
+	 * changed since the previous call.  The motor times are limited to the burn time,
+	 * after which the motor mass no longer changes.
+	 */
+	private RigidBody getMotorMass(SimulationStatus status) {
+		final FlightConfiguration config = status.getConfiguration();
+		final ModID configModID = config.getModID();
+		final ModID rocketModID = config.getRocket().getMassModID();
+		final double time = status.getSimulationTime();
+		final Collection<MotorClusterState> activeMotors = status.getActiveMotors();
+
+		boolean valid = motorMassCache != null && config == motorMassConfiguration &&
+				configModID == motorMassConfigurationModID && rocketModID == motorMassRocketModID &&
+				activeMotors.size() == motorMassStates.size();
+		if (motorMassTimes.length < activeMotors.size()) {
+			motorMassTimes = new double[activeMotors.size()];
+		}
+		int i = 0;
+		for (MotorClusterState state : activeMotors) {
+			final double motorTime = Math.min(state.getMotorTime(time), state.getMotor().getBurnTime());
+			// The motor time is NaN before ignition, compare so that NaN matches NaN
+			if (valid && (state != motorMassStates.get(i) || Double.compare(motorTime, motorMassTimes[i]) != 0)) {
+				valid = false;
+			}
+			motorMassTimes[i] = motorTime;
+			i++;
+		}
+
+		if (!valid) {
+			motorMassCache = MassCalculator.calculateMotor(status);
+			motorMassConfiguration = config;
+			motorMassConfigurationModID = configModID;
+			motorMassRocketModID = rocketModID;
+			motorMassStates.clear();
+			motorMassStates.addAll(activeMotors);
+		}
+		return motorMassCache;
+	}
+
 	/**
 	 * Calculate the average thrust produced by the motors in the current configuration, allowing
 	 * listeners to override.  The average is taken between <code>status.time</code> and 
@@ -317,6 +403,7 @@ public abstract class AbstractSimulationStepper implements SimulationStepper {
 			}
 			
 			if (null != forces) {
+				status.setStallMargin(forces.getStallMargin());
 				dataBranch.setValue(FlightDataType.TYPE_DRAG_COEFF, forces.getCD());
 				dataBranch.setValue(FlightDataType.TYPE_AXIAL_DRAG_COEFF, forces.getCDaxial());
 				dataBranch.setValue(FlightDataType.TYPE_FRICTION_DRAG_COEFF, forces.getFrictionCD());
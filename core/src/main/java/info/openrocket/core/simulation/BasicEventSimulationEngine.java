@@ -36,8 +36,8 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 	private static final Translator trans = Application.getTranslator();
 	private static final Logger log = LoggerFactory.getLogger(BasicEventSimulationEngine.class);
 	
-	// TODO: MEDIUM: Allow selecting steppers
-	private final SimulationStepper flightStepper = new RK4SimulationStepper();
+	private final SimulationStepper customFlightStepper;
+	private SimulationStepper flightStepper;
 	private final SimulationStepper landingStepper = new BasicLandingStepper();
 	private final SimulationStepper tumbleStepper = new BasicTumbleStepper();
 	private final SimulationStepper groundStepper = new GroundStepper();
@@ -56,12 +56,37 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 	Deque<SimulationStatus> toSimulate = new ArrayDeque<>();
 
 	FlightData flightData;
-	
+
+	/**
+	 * Construct a simulation engine that selects the stepper for the powered and coasting
+	 * flight phases from the integration method of the simulation conditions.
+	 */
+	public BasicEventSimulationEngine() {
+		this(null);
+	}
+
+	/**
+	 * Construct a simulation engine using the specified stepper for the powered and
+	 * coasting flight phases.
+	 *
+	 * @param flightStepper	the stepper to use while in flight, or <code>null</code> to
+	 * 						select it from the simulation conditions
+	 */
+	public BasicEventSimulationEngine(SimulationStepper flightStepper) {
+		this.customFlightStepper = flightStepper;
+	}
+
 	@Override
 	public void simulate(SimulationConditions simulationConditions) throws SimulationException {
 
 		// Set up flight data
 		flightData = new FlightData();
+		
+		if (customFlightStepper != null) {
+			flightStepper = customFlightStepper;
+		} else {
+			flightStepper = simulationConditions.getIntegrationMethod().createStepper();
+		}
 			
 		try {
 			// Set up rocket configuration
@@ -266,8 +291,7 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 					final double cp = currentStatus.getFlightDataBranch().getLast(FlightDataType.TYPE_CP_LOCATION);
 					final double cg = currentStatus.getFlightDataBranch().getLast(FlightDataType.TYPE_CG_LOCATION);
 					final double aoa = currentStatus.getFlightDataBranch().getLast(FlightDataType.TYPE_AOA);
-					final double margin =
-						currentStatus.getSimulationConditions().getAerodynamicCalculator().getStallMargin();
+					final double margin = currentStatus.getStallMargin();
 
 					// large AOA -- stalling.					
 					if (margin < 0) {
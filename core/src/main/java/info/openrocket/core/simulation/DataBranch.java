@@ -1,31 +1,74 @@
 package info.openrocket.core.simulation;
 
-import info.openrocket.core.util.ArrayList;
 import info.openrocket.core.util.ModID;
 import info.openrocket.core.util.Monitorable;
 import info.openrocket.core.util.Mutable;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
 import java.lang.reflect.Array;
+import java.util.AbstractList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.RandomAccess;
 import java.util.Set;
 
 /**
  * A branch of data / collection of data points for a specific type of data.
+ * <p>
+ * The values are stored as primitive <code>double</code> columns, one per data type.  Each
+ * type is assigned a dense slot index when it is first added, and the columns are grown
+ * together as points are added.  Unused capacity is kept filled with NaN, so that adding
+ * a point does not need to touch the individual columns.
+ * <p>
+ * The values of a branch loaded from a file may be loaded only when they are first accessed,
+ * see {@link #setValueLoader(ValueLoader)}.  The types are available without loading the values.
+ *
  * @param <T> the type of data in this branch
  */
 public abstract class DataBranch<T extends DataType> implements Monitorable {
+	private static final Logger log = LoggerFactory.getLogger(DataBranch.class);
+	private static final int INITIAL_CAPACITY = 16;
+
 	protected final String name;
-	protected final Map<T, ArrayList<Double>> values = new LinkedHashMap<>();
-	protected final Map<T, Double> maxValues = new HashMap<>();
-	protected final Map<T, Double> minValues = new HashMap<>();
+
+	/** The slot index of each data type, in the order the types were added. */
+	private final Map<T, Integer> slots = new LinkedHashMap<>();
+	/** The value columns, indexed by slot. */
+	private double[][] columns = new double[0][];
+	private double[] minValues = new double[0];
+	private double[] maxValues = new double[0];
+	private int length = 0;
+	private int capacity = 0;
 
 	protected final Mutable mutable = new Mutable();
 	protected ModID modID = ModID.INVALID;
 
+	/** The loader of the values on first access, or null if the values are available */
+	private volatile ValueLoader<T> valueLoader = null;
+	/** The reason loading the values failed, or null if they were loaded */
+	private volatile IOException loadFailure = null;
+
+	/**
+	 * Loads the values of a branch when they are first accessed.
+	 *
+	 * @param <T> the type of data in the branch
+	 */
+	@FunctionalInterface
+	public interface ValueLoader<T extends DataType> {
+		/**
+		 * Load the values of the branch.
+		 *
+		 * @return	a branch with the same types containing the values.
+		 * @throws IOException	if the values cannot be loaded.
+		 */
+		DataBranch<T> load() throws IOException;
+	}
+
 	/**
 	 * Sole constructor.  Defines the name of the DataBranch and at least one variable type.
 	 *
@@ -50,13 +93,44 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 	}
 
 	public void addType(T type) {
-		if (values.containsKey(type)) {
+		if (slots.containsKey(type)) {
 			throw new IllegalArgumentException("Value type " + type + " already exists.");
 		}
 
-		values.put(type, new ArrayList<>());
-		minValues.put(type, Double.NaN);
-		maxValues.put(type, Double.NaN);
+		addSlot(type);
+	}
+
+	/**
+	 * Add a new column for the specified type, filled with NaN.
+	 *
+	 * @return	the slot index of the new column.
+	 */
+	private int addSlot(T type) {
+		int slot = slots.size();
+		slots.put(type, slot);
+
+		columns = Arrays.copyOf(columns, slot + 1);
+		double[] column = new double[capacity];
+		Arrays.fill(column, Double.NaN);
+		columns[slot] = column;
+
+		minValues = Arrays.copyOf(minValues, slot + 1);
+		maxValues = Arrays.copyOf(maxValues, slot + 1);
+		minValues[slot] = Double.NaN;
+		maxValues[slot] = Double.NaN;
+		return slot;
+	}
+
+	/**
+	 * Return the slot index of the specified type, adding a new column if the type
+	 * does not exist yet.
+	 */
+	private int getOrAddSlot(T type) {
+		Integer slot = slots.get(type);
+		if (slot != null) {
+			return slot;
+		}
+		return addSlot(type);
 	}
 
 	/**
@@ -67,26 +141,31 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 	public void addPoint() {
 		mutable.check();
 
-		for (Map.Entry<T, ArrayList<Double>> entry : values.entrySet()) {
-			sanityCheckValues(entry.getKey(), Double.NaN);
-			entry.getValue().add(Double.NaN);
+		// A branch without any types has no points
+		if (!slots.isEmpty()) {
+			if (length == capacity) {
+				grow();
+			}
+			length++;
 		}
 		modID = new ModID();
 	}
 
-	private void sanityCheckValues(T type, Double value) {
-		ArrayList<Double> list = values.get(type);
+	private void grow() {
+		int newCapacity = Math.max(INITIAL_CAPACITY, capacity + (capacity >> 1));
+		for (int i = 0; i < columns.length; i++) {
+			columns[i] = resize(columns[i], newCapacity);
+		}
+		capacity = newCapacity;
+	}
 
-		if (list == null) {
-			list = new info.openrocket.core.util.ArrayList<>();
-			int n = getLength();
-			for (int i = 0; i < n; i++) {
-				list.add(Double.NaN);
-			}
-			values.put(type, list);
-			minValues.put(type, value);
-			maxValues.put(type, value);
+	private static double[] resize(double[] column, int newCapacity) {
+		int oldCapacity = column.length;
+		double[] resized = Arrays.copyOf(column, newCapacity);
+		if (newCapacity > oldCapacity) {
+			Arrays.fill(resized, oldCapacity, newCapacity, Double.NaN);
 		}
+		return resized;
 	}
 
 	/**
@@ -100,46 +179,83 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 	public void setValue(T type, double value) {
 		mutable.check();
 
-		ArrayList<Double> list = values.computeIfAbsent(type, k -> {
-			ArrayList<Double> newList = new ArrayList<>();
-			int n = getLength();
-			for (int i = 0; i < n; i++) {
-				newList.add(Double.NaN);
-			}
-			minValues.put(k, Double.NaN);
-			maxValues.put(k, Double.NaN);
-			return newList;
-		});
+		int slot = getOrAddSlot(type);
+		if (length > 0) {
+			columns[slot][length - 1] = value;
+		}
+		updateMinMax(slot, value);
+		modID = new ModID();
+	}
+
+	/**
+	 * Set the values of a specific data type for the first <code>values.length</code> points.
+	 * The type is added to the branch if it does not exist yet.
+	 *
+	 * @param type		the variable to set.
+	 * @param values	the values to set, at most {@link #getLength()} of them.
+	 * @throws IllegalStateException	if this object has been made immutable.
+	 */
+	public void setValues(T type, double[] values) {
+		mutable.check();
+		if (values.length > length) {
+			throw new IllegalArgumentException("Too many values: " + values.length + " > " + length);
+		}
 
-		if (list.size() > 0) {
-			list.set(list.size() - 1, value);
+		int slot = getOrAddSlot(type);
+		System.arraycopy(values, 0, columns[slot], 0, values.length);
+		for (double value : values) {
+			updateMinMax(slot, value);
 		}
+		modID = new ModID();
+	}
 
-		double min = minValues.get(type);
-		double max = maxValues.get(type);
+	private void updateMinMax(int slot, double value) {
+		double min = minValues[slot];
+		double max = maxValues[slot];
 
 		if (Double.isNaN(min) || (value < min)) {
-			minValues.put(type, value);
+			minValues[slot] = value;
 		}
 		if (Double.isNaN(max) || (value > max)) {
-			maxValues.put(type, value);
+			maxValues[slot] = value;
 		}
-		modID = new ModID();
 	}
 
 
 	/**
-	 * Return an array of values for the specified variable type.
+	 * Return the values of the specified variable type.  The returned list is an
+	 * unmodifiable view of the stored values, and is not affected by points added
+	 * to the branch later on.
 	 *
 	 * @param type	the variable type.
 	 * @return		a list of the variable values, or <code>null</code> if
 	 * 				the variable type hasn't been added to this branch.
 	 */
 	public List<Double> get(T type) {
-		ArrayList<Double> list = values.get(type);
-		if (list == null)
+		loadValues();
+		Integer slot = slots.get(type);
+		if (slot == null)
+			return null;
+		double[] column = columns[slot];
+		if (mutable.isMutable()) {
+			column = Arrays.copyOf(column, length);
+		}
+		return new ColumnView(column, length);
+	}
+
+	/**
+	 * Return a copy of the values of the specified variable type.
+	 *
+	 * @param type	the variable type.
+	 * @return		the variable values, or <code>null</code> if the variable type
+	 * 				hasn't been added to this branch.
+	 */
+	public double[] getValues(T type) {
+		loadValues();
+		Integer slot = slots.get(type);
+		if (slot == null)
 			return null;
-		return list.clone();
+		return Arrays.copyOf(columns[slot], length);
 	}
 
 	/**
@@ -152,11 +268,52 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 		if (index < 0 || index >= getLength()) {
 			throw new IllegalArgumentException("Index out of bounds");
 		}
-		ArrayList<Double> list = values.get(type);
-		if (list == null) {
+		Integer slot = slots.get(type);
+		if (slot == null) {
 			return null;
 		}
-		return list.get(index);
+		return columns[slot][index];
+	}
+
+	/**
+	 * Return the slot index of the specified type, for repeated access to its values with
+	 * {@link #getBySlot(int, int)} and {@link #getLastBySlot(int)}.  The slot of a type does
+	 * not change when points or types are added to the branch.
+	 *
+	 * @param type	the variable type.
+	 * @return		the slot index, or -1 if the variable type hasn't been added to this branch.
+	 */
+	public int getSlot(T type) {
+		Integer slot = slots.get(type);
+		return (slot != null) ? slot : -1;
+	}
+
+	/**
+	 * Return the value in the specified slot at the specified index.
+	 *
+	 * @param slot	the slot index, see {@link #getSlot(DataType)}.
+	 * @param index	the data index of the value.
+	 * @return		the value at the specified index.
+	 */
+	public double getBySlot(int slot, int index) {
+		loadValues();
+		if (index < 0 || index >= length) {
+			throw new IllegalArgumentException("Index out of bounds");
+		}
+		return columns[slot][index];
+	}
+
+	/**
+	 * Return the last value in the specified slot, or NaN if the branch has no points.
+	 *
+	 * @param slot	the slot index, see {@link #getSlot(DataType)}.
+	 * @return		the last value in the slot, or NaN.
+	 */
+	public double getLastBySlot(int slot) {
+		loadValues();
+		if (length == 0)
+			return Double.NaN;
+		return columns[slot][length - 1];
 	}
 
 	/**
@@ -167,10 +324,11 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 	 * @return		the last value in this branch, or NaN.
 	 */
 	public double getLast(T type) {
-		ArrayList<Double> list = values.get(type);
-		if (list == null || list.isEmpty())
+		loadValues();
+		Integer slot = slots.get(type);
+		if (slot == null || length == 0)
 			return Double.NaN;
-		return list.get(list.size() - 1);
+		return columns[slot][length - 1];
 	}
 
 	/**
@@ -181,10 +339,11 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 	 * @return		the minimum value in this branch, or NaN.
 	 */
 	public double getMinimum(T type) {
-		Double v = minValues.get(type);
-		if (v == null)
+		loadValues();
+		Integer slot = slots.get(type);
+		if (slot == null)
 			return Double.NaN;
-		return v;
+		return minValues[slot];
 	}
 
 	/**
@@ -195,20 +354,26 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 	 * @return		the maximum value in this branch, or NaN.
 	 */
 	public double getMaximum(T type) {
-		Double v = maxValues.get(type);
-		if (v == null)
+		loadValues();
+		Integer slot = slots.get(type);
+		if (slot == null)
 			return Double.NaN;
-		return v;
+		return maxValues[slot];
 	}
 
 	/**
 	 * Return the number of data points in this branch.
 	 */
 	public int getLength() {
-		for (ArrayList<Double> doubles : values.values()) {
-			return doubles.size();
-		}
-		return 0;
+		loadValues();
+		return length;
+	}
+
+	/**
+	 * Return the number of variable types included in this branch.
+	 */
+	public int getTypeCount() {
+		return slots.size();
 	}
 
 	/**
@@ -217,13 +382,120 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 	 */
 	@SuppressWarnings("unchecked")
 	public T[] getTypes() {
-		Set<T> keySet = values.keySet();
+		Set<T> keySet = slots.keySet();
 		T[] array = (T[]) Array.newInstance(keySet.iterator().next().getClass(), keySet.size());
 		keySet.toArray(array);
 		Arrays.sort(array);
 		return array;
 	}
 
+	/**
+	 * Replace all the data types and values of this branch with copies of those of
+	 * another branch.  If the values of the other branch have not been loaded yet,
+	 * this branch loads them on first access as well.
+	 *
+	 * @param src	the branch to copy from.
+	 */
+	protected void copyValuesFrom(DataBranch<T> src) {
+		mutable.check();
+		ValueLoader<T> loader;
+		IOException failure;
+		synchronized (src) {
+			loader = src.valueLoader;
+			failure = src.loadFailure;
+		}
+		valueLoader = loader;
+		loadFailure = failure;
+		slots.clear();
+		slots.putAll(src.slots);
+		columns = new double[src.columns.length][];
+		for (int i = 0; i < columns.length; i++) {
+			columns[i] = src.columns[i].clone();
+		}
+		minValues = src.minValues.clone();
+		maxValues = src.maxValues.clone();
+		length = src.length;
+		capacity = src.capacity;
+	}
+
+	/**
+	 * Set a loader that loads the values of this branch when they are first accessed.  The
+	 * branch must contain the types of the values but no points.  If loading fails, the
+	 * branch has no points and {@link #getLoadFailure()} returns the reason.
+	 *
+	 * @param loader	the loader.
+	 */
+	public void setValueLoader(ValueLoader<T> loader) {
+		if (length > 0) {
+			throw new IllegalStateException("Branch already contains values");
+		}
+		valueLoader = loader;
+		loadFailure = null;
+	}
+
+	/**
+	 * Return whether the values of this branch are available without loading them.
+	 */
+	public boolean isValuesLoaded() {
+		return valueLoader == null;
+	}
+
+	/**
+	 * Return the reason loading the values of this branch failed.  The branch then has no
+	 * points, and must not be saved in place of the values it was loaded from.
+	 *
+	 * @return	the exception thrown by the loader, or <code>null</code> if the values have
+	 * 			not been loaded lazily or were loaded successfully.
+	 */
+	public IOException getLoadFailure() {
+		return loadFailure;
+	}
+
+	/**
+	 * Load the values of this branch, if they are loaded on first access and have not been
+	 * loaded yet.
+	 */
+	public void loadValues() {
+		if (valueLoader != null) {
+			loadValuesNow();
+		}
+	}
+
+	private synchronized void loadValuesNow() {
+		ValueLoader<T> loader = valueLoader;
+		if (loader == null) {
+			return;
+		}
+		try {
+			DataBranch<T> src = loader.load();
+			src.immute();
+			double[][] loaded = new double[columns.length][];
+			double[] loadedMin = new double[columns.length];
+			double[] loadedMax = new double[columns.length];
+			for (Map.Entry<T, Integer> entry : slots.entrySet()) {
+				int srcSlot = src.getSlot(entry.getKey());
+				if (srcSlot < 0) {
+					throw new IOException("No values of " + entry.getKey() + " in branch " + name);
+				}
+				loaded[entry.getValue()] = src.columns[srcSlot];
+				loadedMin[entry.getValue()] = src.minValues[srcSlot];
+				loadedMax[entry.getValue()] = src.maxValues[srcSlot];
+			}
+			columns = loaded;
+			minValues = loadedMin;
+			maxValues = loadedMax;
+			length = src.length;
+			capacity = src.length;
+		} catch (IOException e) {
+			log.warn("Unable to load the values of branch " + name + ": " + e, e);
+			loadFailure = e;
+		} catch (RuntimeException e) {
+			log.warn("Unable to load the values of branch " + name + ": " + e, e);
+			loadFailure = new IOException("Invalid values of branch " + name + ": " + e.getMessage(), e);
+		}
+		valueLoader = null;
+	}
+
 	/**
 	 * Return the branch name.
 	 */
@@ -234,8 +506,15 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 	/**
 	 * Make this FlightDataBranch immutable.  Any calls to the set methods that would
 	 * modify this object will after this call throw an <code>IllegalStateException</code>.
+	 * The value columns are trimmed to the number of data points.
 	 */
 	public void immute() {
+		if (mutable.isMutable() && capacity > length) {
+			for (int i = 0; i < columns.length; i++) {
+				columns[i] = resize(columns[i], length);
+			}
+			capacity = length;
+		}
 		mutable.immute();
 	}
 
@@ -249,4 +528,31 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 	public ModID getModID() {
 		return modID;
 	}
+
+
+	/**
+	 * An unmodifiable list view of the first values of a column.
+	 */
+	private static final class ColumnView extends AbstractList<Double> implements RandomAccess {
+		private final double[] column;
+		private final int size;
+
+		ColumnView(double[] column, int size) {
+			this.column = column;
+			this.size = size;
+		}
+
+		@Override
+		public Double get(int index) {
+			if (index < 0 || index >= size) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+			}
+			return column[index];
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	}
 }
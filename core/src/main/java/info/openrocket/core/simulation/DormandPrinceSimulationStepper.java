@@ -0,0 +1,309 @@
+package info.openrocket.core.simulation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.openrocket.core.simulation.exception.SimulationException;
+import info.openrocket.core.util.Coordinate;
+import info.openrocket.core.util.MathUtil;
+
+/**
+ * A flight stepper using the Dormand-Prince 5(4) embedded Runge-Kutta method.
+ * <p>
+ * Each step is integrated with a 5th order method, and the difference to the embedded
+ * 4th order solution is used as an estimate of the local truncation error.  The time step
+ * is chosen so that this estimate stays within the relative and absolute tolerances of the
+ * simulation conditions; steps whose error is too large are rejected and retried with a
+ * shorter time step.  The user-selected time step is only used as the initial step and to
+ * limit the step length while on the launch rod.
+ * <p>
+ * The aerodynamic, mass and thrust models are the same as in {@link RK4SimulationStepper}.
+ * The "first same as last" property of the method is not exploited, since flight events
+ * handled between steps may change the configuration.
+ */
+public class DormandPrinceSimulationStepper extends RK4SimulationStepper {
+
+	private static final Logger log = LoggerFactory.getLogger(DormandPrinceSimulationStepper.class);
+
+	/**
+	 * A recommended relative integration tolerance.
+	 */
+	public static final double RECOMMENDED_RELATIVE_TOLERANCE = 1e-5;
+
+	/**
+	 * A recommended absolute integration tolerance.
+	 */
+	public static final double RECOMMENDED_ABSOLUTE_TOLERANCE = 1e-3;
+
+	/**
+	 * The maximum time step as a multiple of the user-selected time step.  This keeps the
+	 * stored flight data at a usable resolution.
+	 */
+	private static final double MAX_TIME_STEP_MULTIPLIER = 20;
+
+	/**
+	 * The minimum time step as a fraction of the user-selected time step.  A step this
+	 * short is accepted whatever its error estimate.
+	 */
+	private static final double MIN_TIME_STEP_DIVISOR = 20;
+
+	// Step size control parameters
+	private static final double SAFETY = 0.9;
+	private static final double MIN_SCALE = 0.2;
+	private static final double MAX_SCALE = 5.0;
+	/**
+	 * The maximum number of times a step is retried with a shorter time step.  Each retry
+	 * shortens the step by at least the factor SAFETY, so this many retries take the longest
+	 * step down to the minimum time step, which is always accepted.  The bound only guards
+	 * against a retry that fails to shorten the step.
+	 */
+	private static final int MAX_REJECTIONS = (int) Math.ceil(
+			Math.log(MAX_TIME_STEP_MULTIPLIER * MIN_TIME_STEP_DIVISOR) / -Math.log(SAFETY));
+
+	// Dormand-Prince coefficients
+	private static final double[] NODES = { 0, 1.0 / 5, 3.0 / 10, 4.0 / 5, 8.0 / 9, 1, 1 };
+	private static final double[][] COEFFICIENTS = {
+			{},
+			{ 1.0 / 5 },
+			{ 3.0 / 40, 9.0 / 40 },
+			{ 44.0 / 45, -56.0 / 15, 32.0 / 9 },
+			{ 19372.0 / 6561, -25360.0 / 2187, 64448.0 / 6561, -212.0 / 729 },
+			{ 9017.0 / 3168, -355.0 / 33, 46732.0 / 5247, 49.0 / 176, -5103.0 / 18656 },
+			{ 35.0 / 384, 0, 500.0 / 1113, 125.0 / 192, -2187.0 / 6784, 11.0 / 84 }
+	};
+	/** 5th order weights */
+	private static final double[] WEIGHTS = { 35.0 / 384, 0, 500.0 / 1113, 125.0 / 192, -2187.0 / 6784, 11.0 / 84, 0 };
+	/** Difference between the 5th and 4th order weights */
+	private static final double[] ERROR_WEIGHTS = { 71.0 / 57600, 0, -71.0 / 16695, 71.0 / 1920, -17253.0 / 339200, 22.0 / 525, -1.0 / 40 };
+
+	private final double[][] k = new double[7][12];
+	private final double[] state = new double[13];
+	private final double[] delta = new double[12];
+	private final double[] error = new double[12];
+	private final double[] deltaRotation = new double[4];
+
+	/** The time step proposed by the error control for the next step */
+	private double nextTimeStep = Double.NaN;
+
+	private int acceptedSteps = 0;
+	private int rejectedSteps = 0;
+
+
+	@Override
+	public SimulationStatus initialize(SimulationStatus original) {
+		nextTimeStep = Double.NaN;
+		return super.initialize(original);
+	}
+
+
+	@Override
+	public void step(SimulationStatus status, double maxTimeStep) throws SimulationException {
+
+		/*
+		 * Get the current atmospheric conditions
+		 */
+		calculateFlightConditions(status, store);
+		store.atmosphericConditions = store.flightConditions.getAtmosphericConditions();
+
+		//// First position, k1 = f(t, y)
+		computeParameters(status, store, k[0]);
+		store.storeData(status);
+
+		loadState(status, state);
+
+		final SimulationConditions conditions = status.getSimulationConditions();
+		final double rtol = conditions.getRelativeTolerance();
+		final double atol = conditions.getAbsoluteTolerance();
+		final double timeStep = MathUtil.max(conditions.getTimeStep(), MIN_TIME_STEP);
+		final double minTimeStep = timeStep / MIN_TIME_STEP_DIVISOR;
+
+		boolean limited = selectTimeStep(status, maxTimeStep, timeStep, minTimeStep);
+
+		double err;
+		int rejections = 0;
+		while (true) {
+			final double h = store.timeStep;
+
+			//// Positions 2..7, k(n) = f(t + c(n)*h, y + h*sum(a(n,j)*k(j)))
+			for (int n = 1; n < 7; n++) {
+				combine(COEFFICIENTS[n], h, delta);
+
+				SimulationStatus status2 = getScratchStatus(status);
+				status2.setSimulationTime(status.getSimulationTime() + NODES[n] * h);
+				setState(status2, delta);
+
+				computeParameters(status2, store, k[n]);
+			}
+
+			//// 5th order solution and error estimate
+			combine(WEIGHTS, h, delta);
+			combine(ERROR_WEIGHTS, h, error);
+			err = errorNorm(rtol, atol);
+
+			if (err <= 1 || h <= minTimeStep) {
+				break;
+			}
+			if (rejections >= MAX_REJECTIONS) {
+				log.debug("Accepting time step " + h + " with error " + err + " after " + rejections + " rejections");
+				break;
+			}
+
+			// The retried step is strictly shorter, an upcoming event may only truncate it
+			double retry = MathUtil.max(minTimeStep, h * MathUtil.max(MIN_SCALE, SAFETY * Math.pow(err, -0.2)));
+			double shorter = shortenTimeStepForEvents(status, h, retry, minTimeStep);
+			if (shorter >= h) {
+				break;
+			}
+			rejections++;
+			rejectedSteps++;
+			store.timeStep = shorter;
+			limited = (shorter != retry);
+			log.trace("Rejected time step " + h + " (error " + err + "), retrying with " + store.timeStep);
+		}
+		acceptedSteps++;
+
+		// Propose the next time step.  If this step was limited by something other than
+		// error control, do not let it shrink the proposal.
+		double scale = (err > 0) ? MathUtil.min(MAX_SCALE, SAFETY * Math.pow(err, -0.2)) : MAX_SCALE;
+		double proposed = store.timeStep * scale;
+		if (limited && !Double.isNaN(nextTimeStep)) {
+			proposed = MathUtil.max(proposed, nextTimeStep);
+		}
+		nextTimeStep = proposed;
+
+		//// Update the state,  y(n+1) = y(n) + h*sum(b(j)*k(j))
+		setState(status, delta);
+		status.setRocketOrientationQuaternion(status.getRocketOrientationQuaternion().normalizeIfNecessary());
+
+		completeStep(status);
+	}
+
+
+	/**
+	 * Return the number of accepted steps taken by this stepper.
+	 */
+	public int getAcceptedSteps() {
+		return acceptedSteps;
+	}
+
+	/**
+	 * Return the number of steps rejected by the error control.
+	 */
+	public int getRejectedSteps() {
+		return rejectedSteps;
+	}
+
+
+	/**
+	 * Select the time step of the next step attempt and store it in <code>store.timeStep</code>.
+	 * It is the minimum of the following:
+	 *  - the time step proposed by the error control (or the user-specified time step on the first step)
+	 *  - the value of maxTimeStep
+	 *  - MAX_TIME_STEP_MULTIPLIER times the user-specified time step
+	 *  - 1/5th of the user-specified time step and 1/10th of the launch rod length if still on the launch rod
+	 *  - half of the predicted time to apogee and to ground hit once off the launch rod, so that
+	 *    apogee and ground hit are approached with progressively shorter steps
+	 *
+	 * @return	whether the step was limited by something else than the error control
+	 */
+	private boolean selectTimeStep(SimulationStatus status, double maxTimeStep, double timeStep, double minTimeStep) {
+		final SimulationConditions conditions = status.getSimulationConditions();
+
+		double h = Double.isNaN(nextTimeStep) ? timeStep : nextTimeStep;
+		double limit = MathUtil.min(maxTimeStep, MAX_TIME_STEP_MULTIPLIER * timeStep);
+
+		final double vz = k[0][V + 2];
+		final double az = k[0][A + 2];
+		if (!status.isLaunchRodCleared()) {
+			double velocity = MathUtil.safeSqrt(k[0][V] * k[0][V] + k[0][V + 1] * k[0][V + 1] + k[0][V + 2] * k[0][V + 2]);
+			limit = MathUtil.min(limit, timeStep / 5.0, conditions.getLaunchRodLength() / velocity / 10);
+		} else {
+			if (vz > 0 && az < 0) {
+				limit = MathUtil.min(limit, MathUtil.max(-vz / az / 2, minTimeStep));
+			} else if (vz < 0 && state[POS + 2] > 0) {
+				limit = MathUtil.min(limit, MathUtil.max(-state[POS + 2] / vz / 2, minTimeStep));
+			}
+		}
+
+		boolean limited = (limit < h);
+		store.timeStep = MathUtil.min(h, limit);
+		log.trace("Selected time step " + store.timeStep + (limited ? " (limited)" : ""));
+
+		double selected = store.timeStep;
+		adjustTimeStepForEvents(status, minTimeStep);
+		return limited || (store.timeStep != selected);
+	}
+
+
+	/**
+	 * Return the time step for retrying a rejected step of length <code>h</code>.  Unlike
+	 * {@link #adjustTimeStepForEvents}, the retried step is never stretched to the next scheduled
+	 * flight event, only truncated to it.  If the retried step would end less than
+	 * <code>minTimeStep</code> before the event, the time to the event is split in half instead,
+	 * or <code>h</code> is returned if that is not possible, so that the following step does not
+	 * overshoot the event.
+	 */
+	private static double shortenTimeStepForEvents(SimulationStatus status, double h, double timeStep,
+			double minTimeStep) {
+		FlightEvent nextEvent = status.getEventQueue().peek();
+		if (nextEvent != null) {
+			double gap = nextEvent.getTime() - status.getSimulationTime();
+			if (timeStep > gap) {
+				timeStep = gap;
+			} else if (timeStep + minTimeStep > gap) {
+				timeStep = (gap >= 2 * minTimeStep) ? gap / 2 : h;
+			}
+		}
+		return MathUtil.max(timeStep, minTimeStep);
+	}
+
+
+	/**
+	 * Compute the weighted sum  h * sum(w(j) * k(j))  of the derivative buffers into <code>result</code>.
+	 */
+	private void combine(double[] w, double h, double[] result) {
+		for (int i = 0; i < result.length; i++) {
+			double sum = 0;
+			for (int j = 0; j < w.length; j++) {
+				sum += w[j] * k[j][i];
+			}
+			result[i] = h * sum;
+		}
+	}
+
+	/**
+	 * Set the integrated state of the status to the stored initial state advanced by the
+	 * increments in <code>d</code>.  The velocity increments of <code>d</code> are
+	 * applied to the position, the acceleration increments to the velocity etc.
+	 */
+	private void setState(SimulationStatus status, double[] d) {
+		status.setRocketPosition(new Coordinate(
+				state[POS] + d[V], state[POS + 1] + d[V + 1], state[POS + 2] + d[V + 2]));
+		status.setRocketVelocity(new Coordinate(
+				state[VEL] + d[A], state[VEL + 1] + d[A + 1], state[VEL + 2] + d[A + 2]));
+		rotation(d[RV], d[RV + 1], d[RV + 2], deltaRotation);
+		status.setRocketOrientationQuaternion(multiplyLeft(state, ORI, deltaRotation));
+		status.setRocketRotationVelocity(new Coordinate(
+				state[ROT] + d[RA], state[ROT + 1] + d[RA + 1], state[ROT + 2] + d[RA + 2]));
+	}
+
+	/**
+	 * Compute the maximum norm of the error estimate scaled by the tolerances.  A value
+	 * of at most one means that the step is accurate enough.  The orientation error is
+	 * measured as a rotation angle in radians.
+	 */
+	private double errorNorm(double rtol, double atol) {
+		double max = 0;
+		for (int i = 0; i < 3; i++) {
+			max = MathUtil.max(max, scaledError(error[V + i], state[POS + i], delta[V + i], rtol, atol),
+					scaledError(error[A + i], state[VEL + i], delta[A + i], rtol, atol));
+			max = MathUtil.max(max, scaledError(error[RA + i], state[ROT + i], delta[RA + i], rtol, atol),
+					Math.abs(error[RV + i]) / (atol + rtol));
+		}
+		return max;
+	}
+
+	private static double scaledError(double error, double value, double delta, double rtol, double atol) {
+		return Math.abs(error) / (atol + rtol * MathUtil.max(Math.abs(value), Math.abs(value + delta)));
+	}
+}
@@ -1,7 +1,6 @@
 package info.openrocket.core.simulation;
 
 import java.util.List;
-import java.util.Map;
 
 import info.openrocket.core.rocketcomponent.AxialStage;
 import info.openrocket.core.rocketcomponent.Rocket;
@@ -74,22 +73,21 @@ public class FlightDataBranch extends DataBranch<FlightDataType> {
 	 * @param srcComponent 	the component that is the source of this branch (used for copying events)
 	 */
 	private void copyValuesFromBranch(FlightDataBranch srcBranch, RocketComponent srcComponent) {
-		this.values.clear();
-
 		// Need to have at least one type to set up values
-		values.put(FlightDataType.TYPE_TIME, new ArrayList<>());
-		minValues.put(FlightDataType.TYPE_TIME, Double.NaN);
-		maxValues.put(FlightDataType.TYPE_TIME, Double.NaN);
+		addType(FlightDataType.TYPE_TIME);
 
 		if (srcBranch == null) {
 			return;
 		}
 
 		// Copy flight data
-		for (int i = 0; i < srcBranch.getLength(); i++) {
+		int length = srcBranch.getLength();
+		for (int i = 0; i < length; i++) {
 			this.addPoint();
+		}
+		if (length > 0) {
 			for (FlightDataType type : srcBranch.getTypes()) {
-				this.setValue(type, srcBranch.getByIndex(type, i));
+				this.setValues(type, srcBranch.getValues(type));
 			}
 		}
 
@@ -200,6 +198,16 @@ public class FlightDataBranch extends DataBranch<FlightDataType> {
 		return events.clone();
 	}
 	
+	/**
+	 * Return the number of events.  Since events are only ever added, this can be used
+	 * to check whether new events have occurred without copying the event list.
+	 * 
+	 * @return	the number of events during the flight.
+	 */
+	public int getEventCount() {
+		return events.size();
+	}
+	
 	/**
 	 * Return the first event of the given type.
 	 * @param type
@@ -261,11 +269,7 @@ public class FlightDataBranch extends DataBranch<FlightDataType> {
 	public FlightDataBranch clone() {
 		FlightDataType[] types = getTypes();
 		FlightDataBranch clone = new FlightDataBranch(name, types);
-		for (Map.Entry<FlightDataType, ArrayList<Double>> entry : values.entrySet()) {
-			clone.values.put(entry.getKey(), entry.getValue().clone());
-		}
-		clone.minValues.putAll(minValues);
-		clone.maxValues.putAll(maxValues);
+		clone.copyValuesFrom(this);
 		clone.events.addAll(events);
 		clone.timeToOptimumAltitude = timeToOptimumAltitude;
 		clone.optimumAltitude = optimumAltitude;
@@ -0,0 +1,209 @@
+package info.openrocket.core.simulation;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Error-bounded simplification of flight data, used to reduce the size of stored simulation data.
+ * <p>
+ * The points of a branch are selected using the Douglas-Peucker algorithm over all data types at
+ * once: a point is dropped only if every data type can be linearly interpolated in time from the
+ * surrounding kept points within the tolerance.  The tolerance is relative to the value range of
+ * each data type, so that types with different units are simplified equally.
+ * <p>
+ * The first and last points, the points around each flight event, and the points of the minimum
+ * and maximum of each data type are always kept.  The events, the extreme values and the summary
+ * values of a simplified branch are therefore identical to those of the original branch.
+ */
+public final class FlightDataSimplifier {
+
+	private FlightDataSimplifier() {
+	}
+
+	/**
+	 * Return a simplified copy of a branch.
+	 *
+	 * @param branch	the branch to simplify.
+	 * @param tolerance	the maximum interpolation error relative to the value range of each data type,
+	 * 					zero to keep all points.
+	 * @return			the simplified branch, or the branch itself if all points are kept.
+	 */
+	public static FlightDataBranch simplify(FlightDataBranch branch, double tolerance) {
+		int[] indices = getKeptIndices(branch, tolerance);
+		if (indices.length == branch.getLength()) {
+			return branch;
+		}
+
+		FlightDataType[] types = branch.getTypes();
+		FlightDataBranch simplified = new FlightDataBranch(branch.getName(), types);
+		for (int i = 0; i < indices.length; i++) {
+			simplified.addPoint();
+		}
+		double[] values = new double[indices.length];
+		for (FlightDataType type : types) {
+			double[] original = branch.getValues(type);
+			for (int i = 0; i < indices.length; i++) {
+				values[i] = original[indices[i]];
+			}
+			simplified.setValues(type, values);
+		}
+		for (FlightEvent event : branch.getEvents()) {
+			simplified.addEvent(event);
+		}
+		simplified.setOptimumAltitude(branch.getOptimumAltitude());
+		simplified.setTimeToOptimumAltitude(branch.getTimeToOptimumAltitude());
+		simplified.immute();
+		return simplified;
+	}
+
+	/**
+	 * Return the indices of the points of a branch that are kept when simplifying it.
+	 *
+	 * @param branch	the branch to simplify.
+	 * @param tolerance	the maximum interpolation error relative to the value range of each data type,
+	 * 					zero to keep all points.
+	 * @return			the indices of the kept points in increasing order.
+	 */
+	public static int[] getKeptIndices(FlightDataBranch branch, double tolerance) {
+		if (!(tolerance >= 0)) {
+			throw new IllegalArgumentException("Invalid tolerance " + tolerance);
+		}
+		final int length = branch.getLength();
+		if (tolerance == 0 || length <= 2) {
+			int[] all = new int[length];
+			for (int i = 0; i < length; i++) {
+				all[i] = i;
+			}
+			return all;
+		}
+
+		FlightDataType[] types = branch.getTypes();
+		double[][] columns = new double[types.length][];
+		double[] inverseRanges = new double[types.length];
+		boolean[] keep = new boolean[length];
+		keep[0] = true;
+		keep[length - 1] = true;
+
+		for (int c = 0; c < types.length; c++) {
+			columns[c] = branch.getValues(types[c]);
+			int minIndex = -1;
+			int maxIndex = -1;
+			for (int i = 0; i < length; i++) {
+				double value = columns[c][i];
+				if (!Double.isFinite(value)) {
+					continue;
+				}
+				if (minIndex < 0 || value < columns[c][minIndex]) {
+					minIndex = i;
+				}
+				if (maxIndex < 0 || value > columns[c][maxIndex]) {
+					maxIndex = i;
+				}
+			}
+			if (minIndex >= 0) {
+				keep[minIndex] = true;
+				keep[maxIndex] = true;
+				double range = columns[c][maxIndex] - columns[c][minIndex];
+				inverseRanges[c] = (range > 0) ? 1 / range : 0;
+			}
+		}
+
+		// Interpolate in time, or by index if the branch has no time
+		double[] time = branch.getValues(FlightDataType.TYPE_TIME);
+		if (time == null) {
+			time = new double[length];
+			for (int i = 0; i < length; i++) {
+				time[i] = i;
+			}
+		}
+
+		// Keep the points on both sides of each event, values may change abruptly at events
+		for (FlightEvent event : branch.getEvents()) {
+			int index = 0;
+			while (index < length - 1 && time[index] < event.getTime()) {
+				index++;
+			}
+			keep[index] = true;
+			if (index > 0) {
+				keep[index - 1] = true;
+			}
+		}
+
+		// Douglas-Peucker between each pair of consecutive points that are always kept
+		Deque<int[]> segments = new ArrayDeque<>();
+		int start = 0;
+		for (int i = 1; i < length; i++) {
+			if (keep[i]) {
+				segments.push(new int[] { start, i });
+				start = i;
+			}
+		}
+		while (!segments.isEmpty()) {
+			int[] segment = segments.pop();
+			int first = segment[0];
+			int last = segment[1];
+			if (last - first < 2) {
+				continue;
+			}
+
+			int worstIndex = -1;
+			double worstError = tolerance;
+			for (int i = first + 1; i < last; i++) {
+				double error = getError(columns, inverseRanges, time, first, last, i);
+				if (error > worstError) {
+					worstError = error;
+					worstIndex = i;
+				}
+			}
+			if (worstIndex >= 0) {
+				keep[worstIndex] = true;
+				segments.push(new int[] { first, worstIndex });
+				segments.push(new int[] { worstIndex, last });
+			}
+		}
+
+		int count = 0;
+		for (boolean k : keep) {
+			if (k) {
+				count++;
+			}
+		}
+		int[] indices = new int[count];
+		count = 0;
+		for (int i = 0; i < length; i++) {
+			if (keep[i]) {
+				indices[count++] = i;
+			}
+		}
+		return indices;
+	}
+
+	/**
+	 * Return the largest relative error of interpolating point <code>index</code> between the
+	 * points <code>first</code> and <code>last</code> over all data types.  Non-finite values can
+	 * only be interpolated between identical values.
+	 */
+	private static double getError(double[][] columns, double[] inverseRanges, double[] time, int first,
+			int last, int index) {
+		double fraction;
+		if (time[last] > time[first]) {
+			fraction = (time[index] - time[first]) / (time[last] - time[first]);
+		} else {
+			fraction = (double) (index - first) / (last - first);
+		}
+
+		double maxError = 0;
+		for (int c = 0; c < columns.length; c++) {
+			double v0 = columns[c][first];
+			double v1 = columns[c][last];
+			double value = columns[c][index];
+			if (Double.isFinite(v0) && Double.isFinite(v1) && Double.isFinite(value)) {
+				double error = Math.abs(value - (v0 + fraction * (v1 - v0))) * inverseRanges[c];
+				maxError = Math.max(maxError, error);
+			} else if (Double.compare(value, v0) != 0 || Double.compare(value, v1) != 0) {
+				return Double.POSITIVE_INFINITY;
+			}
+		}
+		return maxError;
+	}
+}
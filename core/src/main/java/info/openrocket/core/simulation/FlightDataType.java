@@ -510,6 +510,8 @@ public class FlightDataType implements Comparable<FlightDataType>, Groupable<Fli
 
 	@Override
 	public boolean equals(Object o) {
+		if (this == o)
+			return true;
 		if (!(o instanceof FlightDataType))
 			return false;
 		return this.name.compareToIgnoreCase(((FlightDataType)o).name) == 0;
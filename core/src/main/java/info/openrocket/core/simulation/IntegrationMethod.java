@@ -0,0 +1,82 @@
+package info.openrocket.core.simulation;
+
+import java.util.Locale;
+
+import info.openrocket.core.l10n.Translator;
+import info.openrocket.core.startup.Application;
+
+/**
+ * The numerical integration method used for the powered and coasting flight phases.
+ */
+public enum IntegrationMethod {
+
+	/**
+	 * Fixed-order 4th order Runge-Kutta integration with heuristic time step limits.
+	 */
+	RK4 {
+		@Override
+		public SimulationStepper createStepper() {
+			return new RK4SimulationStepper();
+		}
+	},
+
+	/**
+	 * 4th order Runge-Kutta integration using preallocated buffers.  Produces results
+	 * identical to {@link #RK4}.
+	 */
+	RK4_PREALLOCATED {
+		@Override
+		public SimulationStepper createStepper() {
+			return new RK4SimulationStepper(true);
+		}
+	},
+
+	/**
+	 * Dormand-Prince 5(4) integration with embedded error control.
+	 */
+	DORMAND_PRINCE {
+		@Override
+		public SimulationStepper createStepper() {
+			return new DormandPrinceSimulationStepper();
+		}
+
+		@Override
+		public boolean isAdaptive() {
+			return true;
+		}
+	};
+
+	private static final Translator trans = Application.getTranslator();
+
+	/**
+	 * Create a new flight stepper that uses this integration method.
+	 */
+	public abstract SimulationStepper createStepper();
+
+	/**
+	 * Return whether this method selects its time step by error control, in which case
+	 * the integration tolerances of the simulation conditions apply.
+	 */
+	public boolean isAdaptive() {
+		return false;
+	}
+
+	/**
+	 * Return the name of this integration method.
+	 */
+	public String getName() {
+		return trans.get(name().toLowerCase(Locale.ENGLISH) + ".name");
+	}
+
+	/**
+	 * Return a description of this integration method.
+	 */
+	public String getDescription() {
+		return trans.get(name().toLowerCase(Locale.ENGLISH) + ".desc");
+	}
+
+	@Override
+	public String toString() {
+		return getName();
+	}
+}
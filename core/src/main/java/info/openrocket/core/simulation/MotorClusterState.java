@@ -4,6 +4,7 @@ import info.openrocket.core.motor.IgnitionEvent;
 import info.openrocket.core.motor.Motor;
 import info.openrocket.core.motor.MotorConfiguration;
 import info.openrocket.core.motor.MotorConfigurationId;
+import info.openrocket.core.motor.ThrustCurveMotor;
 import info.openrocket.core.rocketcomponent.FlightConfiguration;
 import info.openrocket.core.rocketcomponent.MotorMount;
 import info.openrocket.core.rocketcomponent.RocketComponent;
@@ -15,6 +16,8 @@ public class MotorClusterState {
 	final protected MotorConfiguration config;
 	final protected int motorCount;
 	final protected double thrustDuration;
+	// position on the thrust curve, or null if the motor has none
+	final protected ThrustCurveMotor.Cursor cursor;
 
 	// for state:
 	protected double ignitionTime = Double.NaN;
@@ -28,6 +31,7 @@ public class MotorClusterState {
 		this.motor = this.config.getMotor();
 		this.motorCount = this.config.getMotorCount();
 		this.thrustDuration = this.motor.getBurnTimeEstimate();
+		this.cursor = (this.motor instanceof ThrustCurveMotor) ? ((ThrustCurveMotor) this.motor).getCursor() : null;
 
 		this.reset();
 	}
@@ -135,6 +139,9 @@ public class MotorClusterState {
 			double motorEndTime = this.getMotorTime(endSimulationTime);
 
 			int instanceCount = this.config.getMount().getLocations().length;
+			if (cursor != null) {
+				return instanceCount * cursor.getAverageThrust(motorStartTime, motorEndTime);
+			}
 			return instanceCount * motor.getAverageThrust(motorStartTime, motorEndTime);
 		} else {
 			return 0.00;
@@ -150,6 +157,9 @@ public class MotorClusterState {
 	public double getThrust(final double simulationTime) {
 		if (this.currentState.isThrusting()) {
 			double motorTime = this.getMotorTime(simulationTime);
+			if (cursor != null) {
+				return this.motorCount * cursor.getThrust(motorTime);
+			}
 			return this.motorCount * motor.getThrust(motorTime);
 
 		} else {
@@ -183,6 +193,9 @@ public class MotorClusterState {
 		ejectionTime = Double.POSITIVE_INFINITY;
 
 		currentState = ThrustState.ARMED;
+		if (cursor != null) {
+			cursor.reset();
+		}
 	}
 
 	public boolean testForIgnition(FlightConfiguration flightConfiguration, final FlightEvent _event) {
@@ -63,9 +63,68 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 	private static final double MAX_ROLL_RATE_CHANGE = 2 * Math.PI / 180;
 	private static final double MAX_PITCH_YAW_CHANGE = 4 * Math.PI / 180;
 	
+	/*
+	 * Index offsets into the derivative buffers used by the preallocated integration path.
+	 * Each buffer holds the linear velocity, linear acceleration, rotational velocity and
+	 * rotational acceleration (all in world coordinates) of one RK4 sub-step.
+	 */
+	protected static final int V = 0;
+	protected static final int A = 3;
+	protected static final int RV = 6;
+	protected static final int RA = 9;
+	
+	/*
+	 * Index offsets into the state buffer used by the preallocated integration path:
+	 * position, velocity, orientation quaternion (w,x,y,z) and rotation velocity.
+	 */
+	protected static final int POS = 0;
+	protected static final int VEL = 3;
+	protected static final int ORI = 6;
+	protected static final int ROT = 10;
+	
 	private Random random;
 	DataStore store = new DataStore();
 	
+	private final boolean preallocated;
+	private final double[] dt = new double[8];
+	
+	// Scratch buffers of the preallocated integration path
+	private final double[][] k = new double[4][12];
+	private final double[] state = new double[13];
+	private final double[] deltaRotation = new double[4];
+	private SimulationStatus scratchStatus;
+	private SimulationStatus scratchSource;
+	
+	
+	/**
+	 * Construct a stepper using the standard integration path.
+	 */
+	public RK4SimulationStepper() {
+		this(false);
+	}
+	
+	/**
+	 * Construct a stepper.
+	 * <p>
+	 * When <code>preallocated</code> is true, the integrated state (position, velocity,
+	 * orientation and rotation velocity) and the RK4 derivatives are kept in primitive
+	 * buffers that are reused between steps, and a single intermediate simulation status
+	 * is reused for all sub-steps.  The arithmetic is performed in the same order as in
+	 * the standard path, so the resulting trajectories are identical.
+	 * 
+	 * @param preallocated	whether to use the preallocated integration path
+	 */
+	public RK4SimulationStepper(boolean preallocated) {
+		this.preallocated = preallocated;
+	}
+	
+	/**
+	 * Return whether this stepper uses the preallocated integration path.
+	 */
+	public boolean isPreallocated() {
+		return preallocated;
+	}
+	
 	@Override
 	public SimulationStatus initialize(SimulationStatus original) {
 		
@@ -81,6 +140,8 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 												  Math.cos(sim.getLaunchRodAngle()));
 
 		this.random = new Random(original.getSimulationConditions().getRandomSeed() ^ SEED_RANDOMIZATION);
+		this.scratchStatus = null;
+		this.scratchSource = null;
 		
 		return status;
 	}
@@ -93,11 +154,6 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		
 		SimulationStatus status = simulationStatus;
 
-		////////  Perform RK4 integration:  ////////
-		
-		SimulationStatus status2;
-		RK4Parameters k1, k2, k3, k4;
-
 		/*
 		 * Get the current atmospheric conditions
 		 */
@@ -107,84 +163,62 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		/*
 		 * Perform RK4 integration.  Decide the time step length after the first step.
 		 */
-
-		//// First position, k1 = f(t, y)
+		if (preallocated) {
+			integratePreallocated(status, maxTimeStep);
+		} else {
+			integrate(status, maxTimeStep);
+		}
 		
-		k1 = computeParameters(status, store);
-		store.storeData(status);
+		completeStep(status);
+	}
+	
+	
+	/**
+	 * Advance the simulation time by <code>store.timeStep</code>, update the world position
+	 * and store the data of the new state.  This is called after the integrated state of
+	 * <code>status</code> has been updated.
+	 */
+	protected void completeStep(SimulationStatus status) throws SimulationException {
+		WorldCoordinate w = status.getSimulationConditions().getLaunchSite();
+		w = status.getSimulationConditions().getGeodeticComputation().addCoordinate(w, status.getRocketPosition());
+		status.setRocketWorldPosition(w);
 		
-		/*
-		 * Select the actual time step to use.  It is the minimum of the following:
-		 *  dt[0]:  the user-specified time step (or 1/5th of it if still on the launch rod)
-		 *  dt[1]:  the value of maxTimeStep
-		 *  dt[2]:  the maximum pitch step angle limit
-		 *  dt[3]:  the maximum roll step angle limit
-		 *  dt[4]:  the maximum roll rate change limit
-		 *  dt[5]:  the maximum pitch change limit
-		 *  dt[6]:  1/10th of the launch rod length if still on the launch rod
-		 *  dt[7]:  1.50 times the previous time step
-		 * 
-		 * The limits #5 and #6 are required since near the steady-state roll rate the roll rate
-		 * may oscillate significantly even between the sub-steps of the RK4 integration.
-		 * 
-		 * The step is still at least 1/20th of the user-selected time step.
-		 */
-		double[] dt = new double[8];
-		Arrays.fill(dt, Double.MAX_VALUE);
-
-		// If the user selected a really small timestep, use MIN_TIME_STEP instead.
-		dt[0] = MathUtil.max(status.getSimulationConditions().getTimeStep(), MIN_TIME_STEP);
-		dt[1] = maxTimeStep;
-		dt[2] = status.getSimulationConditions().getMaximumAngleStep() / store.lateralPitchRate;
-		dt[3] = Math.abs(MAX_ROLL_STEP_ANGLE / store.flightConditions.getRollRate());
-		dt[4] = Math.abs(MAX_ROLL_RATE_CHANGE / store.accelerationData.getRotationalAccelerationRC().z);
-		dt[5] = Math.abs(MAX_PITCH_YAW_CHANGE /
-						 MathUtil.max(Math.abs(store.accelerationData.getRotationalAccelerationRC().x),
-									  Math.abs(store.accelerationData.getRotationalAccelerationRC().y)));
-		if (!status.isLaunchRodCleared()) {
-			dt[0] /= 5.0;
-			dt[6] = status.getSimulationConditions().getLaunchRodLength() / k1.v.length() / 10;
+		if (!(0 <= store.timeStep)) {
+			// Also catches NaN
+			throw new IllegalArgumentException("Stepping backwards in time, timestep=" + store.timeStep);
 		}
-		dt[7] = 1.5 * store.timeStep;
+		status.setSimulationTime(status.getSimulationTime() + store.timeStep);
 		
-		store.timeStep = Double.MAX_VALUE;
-		int limitingValue = -1;
-		for (int i = 0; i < dt.length; i++) {
-			if (dt[i] < store.timeStep) {
-				store.timeStep = dt[i];
-				limitingValue = i;
-			}
-		}
-
-		log.trace("Selected time step " + store.timeStep + " (limiting factor " + limitingValue + ")");
-
-		// If we have a scheduled event coming up before the end of our timestep, truncate step
-		// else if the time from the end of our timestep to the next scheduled event time is less than
-		// minTimeStep, stretch it
-		double minTimeStep = status.getSimulationConditions().getTimeStep() / 20;
-		FlightEvent nextEvent = status.getEventQueue().peek();
-		if (nextEvent != null) {
-			double nextEventTime = nextEvent.getTime();
-			if (status.getSimulationTime() + store.timeStep > nextEventTime) {
-				store.timeStep = nextEventTime - status.getSimulationTime();
-				log.trace("scheduled event at " + nextEventTime + " truncates timestep to " + store.timeStep);
-			} else if ((status.getSimulationTime() + store.timeStep < nextEventTime) &&
-					   (status.getSimulationTime() + store.timeStep + minTimeStep > nextEventTime)) {
-				store.timeStep = nextEventTime - status.getSimulationTime();
-				log.trace("Scheduled event at " + nextEventTime + " stretches timestep to " + store.timeStep);
-			}
-		}
-
-		// If we've wound up with a too-small timestep, increase it avoid numerical instability even at the
-		// cost of not being *quite* on an event
-		if (store.timeStep < minTimeStep) {
-			log.trace("Too small time step " + store.timeStep + " (limiting factor " + limitingValue + "), using " +
-					minTimeStep + " instead.");
-			store.timeStep = minTimeStep;
+		// Store data
+		// TODO: MEDIUM: Store acceleration etc of entire RK4 step, store should be cloned or something...
+		status.getFlightDataBranch().addPoint();
+		status.storeData();
+		store.storeData(status);
+		
+		// Verify that values don't run out of range
+		if (status.getRocketVelocity().length2() > 1.0e18 ||
+				status.getRocketPosition().length2() > 1.0e18 ||
+				status.getRocketRotationVelocity().length2() > 1.0e18) {
+			throw new SimulationCalculationException(trans.get("error.valuesTooLarge"), status.getFlightDataBranch());
 		}
+	}
+	
+	
+	/**
+	 * Perform the RK4 integration using immutable coordinates and a fresh intermediate
+	 * status for each sub-step.
+	 */
+	private void integrate(SimulationStatus status, double maxTimeStep) throws SimulationException {
+		
+		SimulationStatus status2;
+		RK4Parameters k1, k2, k3, k4;
 
-		checkNaN(store.timeStep);
-
+		//// First position, k1 = f(t, y)
+		
+		k1 = computeParameters(status, store);
+		store.storeData(status);
+		
+		selectTimeStep(status, maxTimeStep, k1.v.length());
 
 
 		//// Second position, k2 = f(t + h/2, y + k1*h/2)
@@ -235,29 +269,236 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		status.setRocketPosition(status.getRocketPosition().add(deltaP));
 		status.setRocketRotationVelocity(status.getRocketRotationVelocity().add(deltaR));
 		status.setRocketOrientationQuaternion(status.getRocketOrientationQuaternion().multiplyLeft(Quaternion.rotation(deltaO)).normalizeIfNecessary());
+	}
+	
+	
+	/**
+	 * Perform the RK4 integration using the preallocated state and derivative buffers.
+	 * The operations are performed in exactly the same order as in
+	 * {@link #integrate(SimulationStatus, double)}, so the results are identical.
+	 */
+	private void integratePreallocated(SimulationStatus status, double maxTimeStep) throws SimulationException {
 		
-		WorldCoordinate w = status.getSimulationConditions().getLaunchSite();
-		w = status.getSimulationConditions().getGeodeticComputation().addCoordinate(w, status.getRocketPosition());
-		status.setRocketWorldPosition(w);
+		//// First position, k1 = f(t, y)
 		
-		if (!(0 <= store.timeStep)) {
-			// Also catches NaN
-			throw new IllegalArgumentException("Stepping backwards in time, timestep=" + store.timeStep);
+		computeParameters(status, store, k[0]);
+		store.storeData(status);
+		
+		selectTimeStep(status, maxTimeStep, status.getRocketVelocity().length());
+		
+		loadState(status, state);
+		
+		//// Second, third and fourth positions, k(n+1) = f(t + c*h, y + k(n)*c*h)
+		for (int n = 1; n < 4; n++) {
+			final double h = (n < 3) ? store.timeStep / 2 : store.timeStep;
+			final double[] kp = k[n - 1];
+			
+			SimulationStatus status2 = getScratchStatus(status);
+			status2.setSimulationTime(status.getSimulationTime() + h);
+			status2.setRocketPosition(new Coordinate(
+					state[POS] + kp[V] * h, state[POS + 1] + kp[V + 1] * h, state[POS + 2] + kp[V + 2] * h));
+			status2.setRocketVelocity(new Coordinate(
+					state[VEL] + kp[A] * h, state[VEL + 1] + kp[A + 1] * h, state[VEL + 2] + kp[A + 2] * h));
+			rotation(kp[RV] * h, kp[RV + 1] * h, kp[RV + 2] * h, deltaRotation);
+			status2.setRocketOrientationQuaternion(multiplyLeft(state, ORI, deltaRotation));
+			status2.setRocketRotationVelocity(new Coordinate(
+					state[ROT] + kp[RA] * h, state[ROT + 1] + kp[RA + 1] * h, state[ROT + 2] + kp[RA + 2] * h));
+			
+			computeParameters(status2, store, k[n]);
 		}
-		status.setSimulationTime(status.getSimulationTime() + store.timeStep);
 		
-		// Store data
-		// TODO: MEDIUM: Store acceleration etc of entire RK4 step, store should be cloned or something...
-		status.getFlightDataBranch().addPoint();
-		status.storeData();
-		store.storeData(status);
+		//// Sum all together,  y(n+1) = y(n) + h*(k1 + 2*k2 + 2*k3 + k4)/6
+		final double h = store.timeStep / 6;
+		final double[] k1 = k[0], k2 = k[1], k3 = k[2], k4 = k[3];
+		
+		status.setRocketVelocity(new Coordinate(
+				state[VEL] + sum(k1, k2, k3, k4, A, h),
+				state[VEL + 1] + sum(k1, k2, k3, k4, A + 1, h),
+				state[VEL + 2] + sum(k1, k2, k3, k4, A + 2, h)));
+		status.setRocketPosition(new Coordinate(
+				state[POS] + sum(k1, k2, k3, k4, V, h),
+				state[POS + 1] + sum(k1, k2, k3, k4, V + 1, h),
+				state[POS + 2] + sum(k1, k2, k3, k4, V + 2, h)));
+		status.setRocketRotationVelocity(new Coordinate(
+				state[ROT] + sum(k1, k2, k3, k4, RA, h),
+				state[ROT + 1] + sum(k1, k2, k3, k4, RA + 1, h),
+				state[ROT + 2] + sum(k1, k2, k3, k4, RA + 2, h)));
+		rotation(sum(k1, k2, k3, k4, RV, h), sum(k1, k2, k3, k4, RV + 1, h), sum(k1, k2, k3, k4, RV + 2, h), deltaRotation);
+		status.setRocketOrientationQuaternion(multiplyLeft(state, ORI, deltaRotation).normalizeIfNecessary());
+	}
+	
+	
+	/**
+	 * Select the actual time step to use and store it in <code>store.timeStep</code>.
+	 * It is the minimum of the following:
+	 *  dt[0]:  the user-specified time step (or 1/5th of it if still on the launch rod)
+	 *  dt[1]:  the value of maxTimeStep
+	 *  dt[2]:  the maximum pitch step angle limit
+	 *  dt[3]:  the maximum roll step angle limit
+	 *  dt[4]:  the maximum roll rate change limit
+	 *  dt[5]:  the maximum pitch change limit
+	 *  dt[6]:  1/10th of the launch rod length if still on the launch rod
+	 *  dt[7]:  1.50 times the previous time step
+	 * 
+	 * The limits #5 and #6 are required since near the steady-state roll rate the roll rate
+	 * may oscillate significantly even between the sub-steps of the RK4 integration.
+	 * 
+	 * The step is still at least 1/20th of the user-selected time step.
+	 * 
+	 * @param status		the current simulation status
+	 * @param maxTimeStep	the maximum time step to take
+	 * @param velocity		the current velocity of the rocket
+	 */
+	private void selectTimeStep(SimulationStatus status, double maxTimeStep, double velocity) {
+		Arrays.fill(dt, Double.MAX_VALUE);
+
+		// If the user selected a really small timestep, use MIN_TIME_STEP instead.
+		dt[0] = MathUtil.max(status.getSimulationConditions().getTimeStep(), MIN_TIME_STEP);
+		dt[1] = maxTimeStep;
+		dt[2] = status.getSimulationConditions().getMaximumAngleStep() / store.lateralPitchRate;
+		dt[3] = Math.abs(MAX_ROLL_STEP_ANGLE / store.flightConditions.getRollRate());
+		dt[4] = Math.abs(MAX_ROLL_RATE_CHANGE / store.accelerationData.getRotationalAccelerationRC().z);
+		dt[5] = Math.abs(MAX_PITCH_YAW_CHANGE /
+						 MathUtil.max(Math.abs(store.accelerationData.getRotationalAccelerationRC().x),
+									  Math.abs(store.accelerationData.getRotationalAccelerationRC().y)));
+		if (!status.isLaunchRodCleared()) {
+			dt[0] /= 5.0;
+			dt[6] = status.getSimulationConditions().getLaunchRodLength() / velocity / 10;
+		}
+		dt[7] = 1.5 * store.timeStep;
 		
-		// Verify that values don't run out of range
-		if (status.getRocketVelocity().length2() > 1.0e18 ||
-				status.getRocketPosition().length2() > 1.0e18 ||
-				status.getRocketRotationVelocity().length2() > 1.0e18) {
-			throw new SimulationCalculationException(trans.get("error.valuesTooLarge"), status.getFlightDataBranch());
+		store.timeStep = Double.MAX_VALUE;
+		int limitingValue = -1;
+		for (int i = 0; i < dt.length; i++) {
+			if (dt[i] < store.timeStep) {
+				store.timeStep = dt[i];
+				limitingValue = i;
+			}
+		}
+
+		log.trace("Selected time step " + store.timeStep + " (limiting factor " + limitingValue + ")");
+
+		adjustTimeStepForEvents(status, status.getSimulationConditions().getTimeStep() / 20);
+	}
+	
+	
+	/**
+	 * Adjust <code>store.timeStep</code> with respect to the next scheduled flight event.
+	 * If the event would occur before the end of the step, the step is truncated to end at
+	 * the event; if it would occur less than <code>minTimeStep</code> after the end of the
+	 * step, the step is stretched to end at the event.  Finally the step is limited to be
+	 * at least <code>minTimeStep</code>.
+	 * 
+	 * @param status		the current simulation status
+	 * @param minTimeStep	the minimum time step to take
+	 */
+	protected void adjustTimeStepForEvents(SimulationStatus status, double minTimeStep) {
+		// If we have a scheduled event coming up before the end of our timestep, truncate step
+		// else if the time from the end of our timestep to the next scheduled event time is less than
+		// minTimeStep, stretch it
+		FlightEvent nextEvent = status.getEventQueue().peek();
+		if (nextEvent != null) {
+			double nextEventTime = nextEvent.getTime();
+			if (status.getSimulationTime() + store.timeStep > nextEventTime) {
+				store.timeStep = nextEventTime - status.getSimulationTime();
+				log.trace("scheduled event at " + nextEventTime + " truncates timestep to " + store.timeStep);
+			} else if ((status.getSimulationTime() + store.timeStep < nextEventTime) &&
+					   (status.getSimulationTime() + store.timeStep + minTimeStep > nextEventTime)) {
+				store.timeStep = nextEventTime - status.getSimulationTime();
+				log.trace("Scheduled event at " + nextEventTime + " stretches timestep to " + store.timeStep);
+			}
+		}
+
+		// If we've wound up with a too-small timestep, increase it avoid numerical instability even at the
+		// cost of not being *quite* on an event
+		if (store.timeStep < minTimeStep) {
+			log.trace("Too small time step " + store.timeStep + ", using " + minTimeStep + " instead.");
+			store.timeStep = minTimeStep;
+		}
+
+		checkNaN(store.timeStep);
+	}
+	
+	
+	/**
+	 * Return the intermediate status used for the sub-steps of the preallocated path,
+	 * reset to the state of <code>status</code>.  This is equivalent to <code>status.clone()</code>,
+	 * but the same object is reused as long as the stepped status does not change.
+	 */
+	protected SimulationStatus getScratchStatus(SimulationStatus status) {
+		if (scratchSource != status) {
+			scratchStatus = status.clone();
+			scratchSource = status;
+		} else {
+			scratchStatus.copyFrom(status);
+		}
+		return scratchStatus;
+	}
+	
+	
+	/**
+	 * Copy the integrated state of the status into the state buffer.
+	 */
+	protected static void loadState(SimulationStatus status, double[] y) {
+		Coordinate c = status.getRocketPosition();
+		y[POS] = c.x;
+		y[POS + 1] = c.y;
+		y[POS + 2] = c.z;
+		c = status.getRocketVelocity();
+		y[VEL] = c.x;
+		y[VEL + 1] = c.y;
+		y[VEL + 2] = c.z;
+		Quaternion q = status.getRocketOrientationQuaternion();
+		y[ORI] = q.getW();
+		y[ORI + 1] = q.getX();
+		y[ORI + 2] = q.getY();
+		y[ORI + 3] = q.getZ();
+		c = status.getRocketRotationVelocity();
+		y[ROT] = c.x;
+		y[ROT + 1] = c.y;
+		y[ROT + 2] = c.z;
+	}
+	
+	/**
+	 * Compute the RK4 weighted sum  h*(k1 + 2*k2 + 2*k3 + k4)  of one buffer element, with the
+	 * same operation order as the corresponding <code>Coordinate</code> operations.
+	 */
+	private static double sum(double[] k1, double[] k2, double[] k3, double[] k4, int i, double h) {
+		return ((k2[i] + k3[i]) * 2 + k1[i] + k4[i]) * h;
+	}
+	
+	/**
+	 * Store the rotation quaternion corresponding to the rotation vector (x,y,z) into
+	 * <code>q</code> as (w,x,y,z).  Equivalent to {@link Quaternion#rotation(Coordinate)}.
+	 */
+	protected static void rotation(double x, double y, double z, double[] q) {
+		double length = MathUtil.safeSqrt(x * x + y * y + z * z);
+		if (length < 0.000001) {
+			q[0] = 1;
+			q[1] = 0;
+			q[2] = 0;
+			q[3] = 0;
+			return;
 		}
+		double sin = Math.sin(length / 2);
+		double cos = Math.cos(length / 2);
+		q[0] = cos;
+		q[1] = sin * x / length;
+		q[2] = sin * y / length;
+		q[3] = sin * z / length;
+	}
+	
+	/**
+	 * Compute the product <code>other * this</code>, where <code>this</code> is stored in
+	 * <code>y</code> starting at <code>offset</code>.  Equivalent to {@link Quaternion#multiplyLeft(Quaternion)}.
+	 */
+	protected static Quaternion multiplyLeft(double[] y, int offset, double[] other) {
+		double w = y[offset], x = y[offset + 1], yy = y[offset + 2], z = y[offset + 3];
+		return new Quaternion(
+				other[0] * w - other[1] * x - other[2] * yy - other[3] * z,
+				other[0] * x + other[1] * w + other[2] * z - other[3] * yy,
+				other[0] * yy + other[2] * w + other[3] * x - other[1] * z,
+				other[0] * z + other[3] * w + other[1] * yy - other[2] * x);
 	}
 	
 	
@@ -268,16 +509,7 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 			throws SimulationException {
 		RK4Parameters params = new RK4Parameters();
 		
-		// Call pre-listeners
-		store.accelerationData = SimulationListenerHelper.firePreAccelerationCalculation(status);
-
-		// Calculate acceleration (if not overridden by pre-listeners)
-		if (store.accelerationData == null) {
-			store.accelerationData = calculateAcceleration(status, dataStore);
-		}
-
-		// Call post-listeners
-		store.accelerationData = SimulationListenerHelper.firePostAccelerationCalculation(status, store.accelerationData);
+		computeAcceleration(status, dataStore);
 
 		params.a = dataStore.accelerationData.getLinearAccelerationWC();
 		params.ra = dataStore.accelerationData.getRotationalAccelerationWC();
@@ -292,6 +524,51 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		return params;
 	}
 	
+	/**
+	 * Compute the RK4 parameters into a derivative buffer of the preallocated path.
+	 */
+	protected void computeParameters(SimulationStatus status, DataStore dataStore, double[] params)
+			throws SimulationException {
+		
+		computeAcceleration(status, dataStore);
+		
+		Coordinate a = dataStore.accelerationData.getLinearAccelerationWC();
+		Coordinate ra = dataStore.accelerationData.getRotationalAccelerationWC();
+		Coordinate v = status.getRocketVelocity();
+		Coordinate rv = status.getRocketRotationVelocity();
+		
+		checkNaN(a);
+		checkNaN(ra);
+		checkNaN(v);
+		checkNaN(rv);
+		
+		params[V] = v.x;
+		params[V + 1] = v.y;
+		params[V + 2] = v.z;
+		params[A] = a.x;
+		params[A + 1] = a.y;
+		params[A + 2] = a.z;
+		params[RV] = rv.x;
+		params[RV + 1] = rv.y;
+		params[RV + 2] = rv.z;
+		params[RA] = ra.x;
+		params[RA + 1] = ra.y;
+		params[RA + 2] = ra.z;
+	}
+	
+	private void computeAcceleration(SimulationStatus status, DataStore dataStore) throws SimulationException {
+		// Call pre-listeners
+		store.accelerationData = SimulationListenerHelper.firePreAccelerationCalculation(status);
+
+		// Calculate acceleration (if not overridden by pre-listeners)
+		if (store.accelerationData == null) {
+			store.accelerationData = calculateAcceleration(status, dataStore);
+		}
+
+		// Call post-listeners
+		store.accelerationData = SimulationListenerHelper.firePostAccelerationCalculation(status, store.accelerationData);
+	}
+	
 	
 
 
@@ -459,7 +736,7 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 	 * Additionally the fields thetaRotation and lateralPitchRate are defined in
 	 * the data store, and can be used after calling this method.
 	 */
-	private void calculateFlightConditions(SimulationStatus status, DataStore store)
+	protected void calculateFlightConditions(SimulationStatus status, DataStore store)
 			throws SimulationException {
 		
 		// Call pre listeners, allow complete override
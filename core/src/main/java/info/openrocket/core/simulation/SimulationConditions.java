@@ -58,6 +58,10 @@ public class SimulationConditions implements Monitorable, Cloneable {
 	private double timeStep = RK4SimulationStepper.RECOMMENDED_TIME_STEP;
 	private double maxSimulationTime = RK4SimulationStepper.RECOMMENDED_MAX_TIME;
 	private double maximumAngleStep = RK4SimulationStepper.RECOMMENDED_ANGLE_STEP;
+	
+	private IntegrationMethod integrationMethod = IntegrationMethod.RK4;
+	private double relativeTolerance = DormandPrinceSimulationStepper.RECOMMENDED_RELATIVE_TOLERANCE;
+	private double absoluteTolerance = DormandPrinceSimulationStepper.RECOMMENDED_ABSOLUTE_TOLERANCE;
 
 
 	private List<SimulationListener> simulationListeners = new ArrayList<>();
@@ -229,6 +233,39 @@ public class SimulationConditions implements Monitorable, Cloneable {
 		this.modID = new ModID();
 	}
 
+	public IntegrationMethod getIntegrationMethod() {
+		return integrationMethod;
+	}
+
+	public void setIntegrationMethod(IntegrationMethod integrationMethod) {
+		this.integrationMethod = integrationMethod;
+		this.modID = new ModID();
+	}
+
+	/**
+	 * Return the relative integration tolerance used by adaptive integration methods.
+	 */
+	public double getRelativeTolerance() {
+		return relativeTolerance;
+	}
+
+	public void setRelativeTolerance(double relativeTolerance) {
+		this.relativeTolerance = relativeTolerance;
+		this.modID = new ModID();
+	}
+
+	/**
+	 * Return the absolute integration tolerance used by adaptive integration methods.
+	 */
+	public double getAbsoluteTolerance() {
+		return absoluteTolerance;
+	}
+
+	public void setAbsoluteTolerance(double absoluteTolerance) {
+		this.absoluteTolerance = absoluteTolerance;
+		this.modID = new ModID();
+	}
+
 	public int getRandomSeed() {
 		return randomSeed;
 	}
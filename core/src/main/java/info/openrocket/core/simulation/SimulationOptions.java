@@ -14,6 +14,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import info.openrocket.core.aerodynamics.BarrowmanCalculator;
+import info.openrocket.core.aerodynamics.TabulatedAerodynamicCalculator;
 import info.openrocket.core.masscalc.MassCalculator;
 import info.openrocket.core.models.atmosphere.AtmosphericModel;
 import info.openrocket.core.models.atmosphere.ExtendedISAModel;
@@ -77,6 +78,11 @@ public class SimulationOptions implements ChangeSource, Cloneable, SimulationOpt
 	private double maxSimulationTime = preferences.getMaxSimulationTime();
 	private double maximumAngle = RK4SimulationStepper.RECOMMENDED_ANGLE_STEP;
 	
+	private IntegrationMethod integrationMethod = IntegrationMethod.RK4;
+	private double relativeTolerance = DormandPrinceSimulationStepper.RECOMMENDED_RELATIVE_TOLERANCE;
+	private double absoluteTolerance = DormandPrinceSimulationStepper.RECOMMENDED_ABSOLUTE_TOLERANCE;
+	private boolean tabulatedAerodynamics = false;
+	
 	private int randomSeed = new Random().nextInt();
 
 	private List<EventListener> listeners = new ArrayList<>();
@@ -319,6 +325,64 @@ public class SimulationOptions implements ChangeSource, Cloneable, SimulationOpt
 		fireChangeEvent();
 	}
 
+	public IntegrationMethod getIntegrationMethod() {
+		return integrationMethod;
+	}
+
+	public void setIntegrationMethod(IntegrationMethod integrationMethod) {
+		if (this.integrationMethod == integrationMethod)
+			return;
+		this.integrationMethod = integrationMethod;
+		fireChangeEvent();
+	}
+
+	/**
+	 * Return the relative integration tolerance.  This is only used by adaptive
+	 * integration methods.
+	 */
+	public double getRelativeTolerance() {
+		return relativeTolerance;
+	}
+
+	public void setRelativeTolerance(double relativeTolerance) {
+		relativeTolerance = MathUtil.clamp(relativeTolerance, 1e-8, 1e-2);
+		if (MathUtil.equals(this.relativeTolerance, relativeTolerance))
+			return;
+		this.relativeTolerance = relativeTolerance;
+		fireChangeEvent();
+	}
+
+	/**
+	 * Return the absolute integration tolerance.  This is only used by adaptive
+	 * integration methods.
+	 */
+	public double getAbsoluteTolerance() {
+		return absoluteTolerance;
+	}
+
+	public void setAbsoluteTolerance(double absoluteTolerance) {
+		absoluteTolerance = MathUtil.clamp(absoluteTolerance, 1e-8, 1);
+		if (MathUtil.equals(this.absoluteTolerance, absoluteTolerance))
+			return;
+		this.absoluteTolerance = absoluteTolerance;
+		fireChangeEvent();
+	}
+
+	/**
+	 * Return whether the aerodynamic forces are interpolated from a precalculated table
+	 * instead of being calculated at every step.
+	 */
+	public boolean isTabulatedAerodynamics() {
+		return tabulatedAerodynamics;
+	}
+
+	public void setTabulatedAerodynamics(boolean tabulatedAerodynamics) {
+		if (this.tabulatedAerodynamics == tabulatedAerodynamics)
+			return;
+		this.tabulatedAerodynamics = tabulatedAerodynamics;
+		fireChangeEvent();
+	}
+
 	public int getRandomSeed() {
 		return randomSeed;
 	}
@@ -442,6 +506,22 @@ public class SimulationOptions implements ChangeSource, Cloneable, SimulationOpt
 			isChanged = true;
 			this.geodeticComputation = src.geodeticComputation;
 		}
+		if (this.integrationMethod != src.integrationMethod) {
+			isChanged = true;
+			this.integrationMethod = src.integrationMethod;
+		}
+		if (this.relativeTolerance != src.relativeTolerance) {
+			isChanged = true;
+			this.relativeTolerance = src.relativeTolerance;
+		}
+		if (this.absoluteTolerance != src.absoluteTolerance) {
+			isChanged = true;
+			this.absoluteTolerance = src.absoluteTolerance;
+		}
+		if (this.tabulatedAerodynamics != src.tabulatedAerodynamics) {
+			isChanged = true;
+			this.tabulatedAerodynamics = src.tabulatedAerodynamics;
+		}
 
 		if (isChanged) {
 			// Only copy the randomSeed if something else has changed.
@@ -471,7 +551,11 @@ public class SimulationOptions implements ChangeSource, Cloneable, SimulationOpt
 				MathUtil.equals(this.launchTemperature, o.launchTemperature) &&
 				MathUtil.equals(this.maximumAngle, o.maximumAngle) &&
 				MathUtil.equals(this.timeStep, o.timeStep) &&
-				MathUtil.equals(this.maxSimulationTime, o.maxSimulationTime)) &&
+				MathUtil.equals(this.maxSimulationTime, o.maxSimulationTime) &&
+				MathUtil.equals(this.relativeTolerance, o.relativeTolerance) &&
+				MathUtil.equals(this.absoluteTolerance, o.absoluteTolerance)) &&
+				this.integrationMethod == o.integrationMethod &&
+				this.tabulatedAerodynamics == o.tabulatedAerodynamics &&
 				this.windModelType == o.windModelType &&
 				this.averageWindModel.equals(o.averageWindModel) &&
 				this.multiLevelPinkNoiseWindModel.equals(o.multiLevelPinkNoiseWindModel);
@@ -529,12 +613,19 @@ public class SimulationOptions implements ChangeSource, Cloneable, SimulationOpt
 		GravityModel gravityModel = new WGSGravityModel();
 		conditions.setGravityModel(gravityModel);
 
-		conditions.setAerodynamicCalculator(new BarrowmanCalculator());
+		if (isTabulatedAerodynamics()) {
+			conditions.setAerodynamicCalculator(new TabulatedAerodynamicCalculator());
+		} else {
+			conditions.setAerodynamicCalculator(new BarrowmanCalculator());
+		}
 		conditions.setMassCalculator(new MassCalculator());
 
 		conditions.setTimeStep(getTimeStep());
 		conditions.setMaxSimulationTime(getMaxSimulationTime());
 		conditions.setMaximumAngleStep(getMaximumStepAngle());
+		conditions.setIntegrationMethod(getIntegrationMethod());
+		conditions.setRelativeTolerance(getRelativeTolerance());
+		conditions.setAbsoluteTolerance(getAbsoluteTolerance());
 
 		return conditions;
 	}
@@ -559,6 +650,10 @@ public class SimulationOptions implements ChangeSource, Cloneable, SimulationOpt
 				.concat(String.format("    timeStep:  %f\n", timeStep))
 				.concat(String.format("    maxTime:  %f\n", maxSimulationTime))
 				.concat(String.format("    maximumAngle:  %f\n", maximumAngle))
+				.concat("    integrationMethod:  " + integrationMethod.name() + "\n")
+				.concat(String.format("    relativeTolerance:  %g\n", relativeTolerance))
+				.concat(String.format("    absoluteTolerance:  %g\n", absoluteTolerance))
+				.concat(String.format("    tabulatedAerodynamics:  %b\n", tabulatedAerodynamics))
 				.concat("]\n");
 	}
 
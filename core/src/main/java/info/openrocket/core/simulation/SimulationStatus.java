@@ -91,6 +91,9 @@ public class SimulationStatus implements Cloneable, Monitorable {
 	/** Set to true to indicate rocket has landed */
 	private boolean landed = false;
 
+	/** The stall margin of the latest aerodynamic calculation, NaN if not available. */
+	private double stallMargin = Double.NaN;
+
 	/** Contains a list of deployed recovery devices. */
 	private final MonitorableSet<RecoveryDevice> deployedRecoveryDevices = new MonitorableSet<>();
 
@@ -200,6 +203,7 @@ public class SimulationStatus implements Cloneable, Monitorable {
 		this.apogeeReached = orig.apogeeReached;
 		this.tumbling = orig.tumbling;
 		this.landed = orig.landed;
+		this.stallMargin = orig.stallMargin;
 		this.maxZVelocity = orig.maxZVelocity;
 		this.startWarningsTime = orig.startWarningsTime;
 		
@@ -407,6 +411,21 @@ public class SimulationStatus implements Cloneable, Monitorable {
 		return landed;
 	}
 
+	public void setStallMargin(double stallMargin) {
+		this.stallMargin = stallMargin;
+		modID = new ModID();
+	}
+
+	/**
+	 * Return the stall margin of the latest aerodynamic calculation.
+	 * 
+	 * @return the margin between the angle of attack and a stall, negative when stalling
+	 *         and NaN if not available.
+	 */
+	public double getStallMargin() {
+		return stallMargin;
+	}
+
 	public double getMaxAlt() {
 		return maxAlt;
 	}
@@ -539,6 +558,49 @@ public class SimulationStatus implements Cloneable, Monitorable {
 		}
 	}
 
+	/**
+	 * Reset this object to the state of <code>orig</code>, with the same semantics as
+	 * {@link #clone()} but without allocating a new object.  This allows steppers to reuse
+	 * a single intermediate status for all of their sub-steps.
+	 * <p>
+	 * The event queue, motor states, deployed recovery devices and extra data are shared
+	 * between a status and its clones, so this object must have been created by cloning
+	 * <code>orig</code>.
+	 *
+	 * @param orig	the status this object was cloned from
+	 */
+	void copyFrom(SimulationStatus orig) {
+		if (orig.eventQueue != this.eventQueue) {
+			throw new BugException("copyFrom called with a status that is not the clone source");
+		}
+		this.simulationConditions = orig.simulationConditions;
+		this.configuration = orig.configuration;
+		this.flightDataBranch = orig.flightDataBranch;
+		this.time = orig.time;
+		this.position = orig.position;
+		this.worldPosition = orig.worldPosition;
+		this.velocity = orig.velocity;
+		this.acceleration = orig.acceleration;
+		this.orientation = orig.orientation;
+		this.rotationVelocity = orig.rotationVelocity;
+		this.maxZVelocity = orig.maxZVelocity;
+		this.startWarningsTime = orig.startWarningsTime;
+		this.effectiveLaunchRodLength = orig.effectiveLaunchRodLength;
+		this.simulationStartWallTime = orig.simulationStartWallTime;
+		this.motorIgnited = orig.motorIgnited;
+		this.liftoff = orig.liftoff;
+		this.launchRodCleared = orig.launchRodCleared;
+		this.apogeeReached = orig.apogeeReached;
+		this.tumbling = orig.tumbling;
+		this.landed = orig.landed;
+		this.stallMargin = orig.stallMargin;
+		this.warnings = orig.warnings;
+		this.maxAlt = orig.maxAlt;
+		this.maxAltTime = orig.maxAltTime;
+		this.modID = orig.modID;
+		this.modIDadd = orig.modIDadd;
+	}
+
 	@Override
 	public ModID getModID() {
 		return modID;
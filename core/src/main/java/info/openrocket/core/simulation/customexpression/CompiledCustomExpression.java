@@ -0,0 +1,269 @@
+package info.openrocket.core.simulation.customexpression;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.congrace.exp4j.Calculable;
+import de.congrace.exp4j.CompiledExpression;
+import de.congrace.exp4j.PostfixExpression;
+import de.congrace.exp4j.Variable;
+import info.openrocket.core.logging.Markers;
+import info.openrocket.core.simulation.FlightDataBranch;
+import info.openrocket.core.simulation.FlightDataType;
+import info.openrocket.core.simulation.SimulationStatus;
+
+/**
+ * A custom expression compiled for evaluation during a single simulation.
+ * <p>
+ * The expression is built once, and only the variables it uses are bound to the columns
+ * of the flight data branch.  Expressions using only the built-in operators and functions
+ * are calculated without creating any objects, expressions using custom functions or time
+ * ranges are calculated with the reused {@link Calculable}.  The bindings are updated when
+ * the simulation continues in another branch or types are added to the branch.
+ * <p>
+ * Instances are not thread safe, each simulation must compile its own.
+ */
+final class CompiledCustomExpression {
+	private static final Logger log = LoggerFactory.getLogger(CompiledCustomExpression.class);
+
+	private final CustomExpression expression;
+	private final String variableName;
+	private final boolean compiled;
+
+	/** The symbol of the type interpolated at the calculated time, or null */
+	private final String indexSymbol;
+
+	private final Calculable calc;
+	private final CompiledExpression program;
+	private final String[] names;
+	/** The compiled sub-expression of each variable, or null for flight data variables */
+	private final CompiledCustomExpression[] subExpressions;
+	private final double[] values;
+	private final int[] slots;
+
+	private FlightDataBranch branch = null;
+	private int typeCount = -1;
+	private boolean unbound = true;
+	private int timeSlot = -1;
+	private int indexSlot = -1;
+
+
+	/**
+	 * Compile an expression.
+	 *
+	 * @param expression		the expression.
+	 * @param calc				the built expression, or <code>null</code> if it could not be built.
+	 * @param subExpressions	the index and range expressions used by the expression.
+	 * @param indexSymbol		the symbol of the type interpolated at the calculated time,
+	 * 							or <code>null</code>.
+	 */
+	CompiledCustomExpression(CustomExpression expression, Calculable calc, List<CustomExpression> subExpressions,
+			String indexSymbol) {
+		this.expression = expression;
+		this.variableName = expression.hash();
+		this.compiled = true;
+		this.indexSymbol = indexSymbol;
+		this.calc = calc;
+
+		Map<String, CompiledCustomExpression> compiledSubExpressions = new HashMap<>();
+		for (CustomExpression sub : subExpressions) {
+			compiledSubExpressions.put(sub.hash(), sub.compile());
+		}
+
+		CompiledExpression program = null;
+		if (calc instanceof PostfixExpression postfix) {
+			program = postfix.compile();
+			Set<String> used = postfix.getUsedVariableNames();
+			names = (program != null) ? program.getVariableNames() : used.toArray(new String[0]);
+		} else {
+			names = new String[0];
+		}
+
+		this.subExpressions = new CompiledCustomExpression[names.length];
+		for (int i = 0; i < names.length; i++) {
+			CompiledCustomExpression sub = compiledSubExpressions.get(names[i]);
+			this.subExpressions[i] = sub;
+			// Range expressions are arrays, only custom functions can use them
+			if (sub != null && !sub.compiled) {
+				program = null;
+			}
+		}
+		this.program = program;
+		this.values = new double[names.length];
+		this.slots = new int[names.length];
+	}
+
+	/**
+	 * Create an expression that is evaluated with {@link CustomExpression#evaluate(SimulationStatus)}.
+	 */
+	CompiledCustomExpression(CustomExpression expression) {
+		this.expression = expression;
+		this.variableName = expression.hash();
+		this.compiled = false;
+		this.indexSymbol = null;
+		this.calc = null;
+		this.program = null;
+		this.names = new String[0];
+		this.subExpressions = new CompiledCustomExpression[0];
+		this.values = new double[0];
+		this.slots = new int[0];
+	}
+
+
+	/**
+	 * Evaluate the expression using the last values of the current flight data branch.
+	 *
+	 * @return	the value, or NaN on any error.
+	 */
+	double evaluate(SimulationStatus status) {
+		if (!compiled) {
+			return expression.evaluate(status).getDoubleValue();
+		}
+		if (calc == null) {
+			return Double.NaN;
+		}
+
+		FlightDataBranch current = status.getFlightDataBranch();
+		if (current != branch || current.getTypeCount() != typeCount) {
+			bind(current);
+		}
+
+		double result;
+		if (program != null && !unbound) {
+			for (int i = 0; i < values.length; i++) {
+				CompiledCustomExpression sub = subExpressions[i];
+				values[i] = (sub != null) ? sub.evaluate(status) : branch.getLastBySlot(slots[i]);
+			}
+			result = program.calculate(values);
+		} else {
+			result = calculate(status);
+		}
+
+		if (indexSymbol != null) {
+			result = interpolate(result);
+		}
+		return result;
+	}
+
+	/**
+	 * Evaluate the expression as the variable of a sub-expression.
+	 */
+	private Variable evaluateVariable(SimulationStatus status) {
+		if (!compiled) {
+			Variable variable = expression.evaluate(status);
+			return variableName.equals(variable.getName()) ? variable : new Variable(variableName);
+		}
+		if (calc == null) {
+			return new Variable(variableName);
+		}
+		return new Variable(variableName, evaluate(status));
+	}
+
+	/**
+	 * Calculate the expression with the reused calculable.  Variables of types missing from
+	 * the branch keep their undefined values.
+	 */
+	private double calculate(SimulationStatus status) {
+		for (int i = 0; i < names.length; i++) {
+			CompiledCustomExpression sub = subExpressions[i];
+			if (sub != null) {
+				calc.setVariable(sub.evaluateVariable(status));
+			} else if (slots[i] >= 0) {
+				calc.setVariable(new Variable(names[i], branch.getLastBySlot(slots[i])));
+			} else {
+				calc.setVariable(new Variable(names[i]));
+			}
+		}
+
+		try {
+			return calc.calculate().getDoubleValue();
+		} catch (java.util.EmptyStackException e) {
+			log.info(Markers.USER_MARKER, "Unable to calculate expression " + expression.getExpressionString()
+					+ " due to empty stack exception");
+			return Double.NaN;
+		}
+	}
+
+	/**
+	 * Bind the variables to the slots of their types in a branch.  If several types have
+	 * the same symbol, the last one in the order of {@link FlightDataBranch#getTypes()} is used.
+	 */
+	private void bind(FlightDataBranch branch) {
+		Map<String, Integer> symbolSlots = new HashMap<>();
+		if (branch.getTypeCount() > 0) {
+			for (FlightDataType type : branch.getTypes()) {
+				symbolSlots.put(type.getSymbol(), branch.getSlot(type));
+			}
+		}
+
+		unbound = false;
+		for (int i = 0; i < names.length; i++) {
+			if (subExpressions[i] == null) {
+				slots[i] = symbolSlots.getOrDefault(names[i], -1);
+				unbound |= (slots[i] < 0);
+			}
+		}
+		if (indexSymbol != null) {
+			indexSlot = symbolSlots.getOrDefault(indexSymbol, -1);
+			timeSlot = branch.getSlot(FlightDataType.TYPE_TIME);
+		}
+
+		this.branch = branch;
+		this.typeCount = branch.getTypeCount();
+	}
+
+	/**
+	 * Linearly interpolate the indexed type at the specified time.  Points with equal times
+	 * use the value of the last one, values outside the time range are those of the first and
+	 * last points, as with {@link info.openrocket.core.util.LinearInterpolator}.
+	 */
+	private double interpolate(double time) {
+		int length = branch.getLength();
+		if (indexSlot < 0 || timeSlot < 0 || length == 0) {
+			return Double.NaN;
+		}
+		if (Double.isNaN(time)) {
+			return branch.getBySlot(indexSlot, length - 1);
+		}
+
+		// First point later than the time
+		int low = 0;
+		int high = length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (branch.getBySlot(timeSlot, mid) <= time) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		int after = low;
+
+		if (after == 0) {
+			return branch.getBySlot(indexSlot, lastWithEqualTime(0, length));
+		}
+		int before = after - 1;
+		double t1 = branch.getBySlot(timeSlot, before);
+		double y1 = branch.getBySlot(indexSlot, before);
+		if (t1 == time || after == length) {
+			return y1;
+		}
+
+		double t2 = branch.getBySlot(timeSlot, after);
+		double y2 = branch.getBySlot(indexSlot, lastWithEqualTime(after, length));
+		return (time - t1) / (t2 - t1) * (y2 - y1) + y1;
+	}
+
+	private int lastWithEqualTime(int index, int length) {
+		double time = branch.getBySlot(timeSlot, index);
+		while (index + 1 < length && branch.getBySlot(timeSlot, index + 1) == time) {
+			index++;
+		}
+		return index;
+	}
+}
@@ -449,6 +449,24 @@ public class CustomExpression implements Cloneable {
 		return new Variable(name, result);
 	}
 
+	/**
+	 * Compile this expression for repeated evaluation during a single simulation.  The
+	 * result gives the same values as {@link #evaluate(SimulationStatus)}, without building
+	 * the expression and setting all the variables on every evaluation.
+	 *
+	 * @return	the compiled expression, for use by one simulation only.
+	 */
+	CompiledCustomExpression compile() {
+		return compile(null);
+	}
+
+	/**
+	 * Compile this expression, optionally interpolating a data type at the calculated time.
+	 */
+	final CompiledCustomExpression compile(String indexSymbol) {
+		return new CompiledCustomExpression(this, buildExpression(builder), subExpressions, indexSymbol);
+	}
+
 	/*
 	 * Returns the new flight data type corresponding to this calculated data
 	 * If the unit matches a SI unit string then the datatype will have the
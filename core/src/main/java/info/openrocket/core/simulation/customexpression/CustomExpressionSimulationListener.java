@@ -3,6 +3,7 @@ package info.openrocket.core.simulation.customexpression;
 import java.util.List;
 
 import info.openrocket.core.simulation.FlightDataBranch;
+import info.openrocket.core.simulation.FlightDataType;
 import info.openrocket.core.simulation.SimulationStatus;
 import info.openrocket.core.simulation.exception.SimulationException;
 import info.openrocket.core.simulation.listeners.AbstractSimulationListener;
@@ -15,26 +16,65 @@ public class CustomExpressionSimulationListener extends AbstractSimulationListen
 	private static final Logger log = LoggerFactory.getLogger(CustomExpressionSimulationListener.class);
 	private final List<CustomExpression> expressions;
 
+	// The expressions compiled for the current simulation, and their data types
+	private CompiledCustomExpression[] compiled = null;
+	private FlightDataType[] types = null;
+
 	public CustomExpressionSimulationListener(List<CustomExpression> expressions) {
 		super();
 		this.expressions = expressions;
 	}
 
+	@Override
+	public void startSimulation(SimulationStatus status) throws SimulationException {
+		compile();
+	}
+
+	private void compile() {
+		compiled = null;
+		types = null;
+		if (expressions == null || expressions.size() == 0) {
+			return;
+		}
+
+		compiled = new CompiledCustomExpression[expressions.size()];
+		types = new FlightDataType[expressions.size()];
+		for (int i = 0; i < compiled.length; i++) {
+			CustomExpression expression = expressions.get(i);
+			compiled[i] = expression.compile();
+			types[i] = expression.getType();
+		}
+		log.debug("Compiled " + compiled.length + " custom expressions");
+	}
+
 	@Override
 	public void postStep(SimulationStatus status) throws SimulationException {
 		if (expressions == null || expressions.size() == 0) {
 			return;
 		}
+		if (compiled == null) {
+			compile();
+		}
 		// Calculate values for custom expressions
 		FlightDataBranch dataBranch = status.getFlightDataBranch();
-		for (CustomExpression expression : expressions) {
-			double value = expression.evaluateDouble(status);
-			// log.debug("Setting value of custom expression "+expression.toString()+" =
-			// "+value);
-			dataBranch.setValue(expression.getType(), value);
+		for (int i = 0; i < compiled.length; i++) {
+			double value = compiled[i].evaluate(status);
+			if (Double.isInfinite(value)) {
+				value = Double.NaN;
+			}
+			dataBranch.setValue(types[i], value);
 		}
 	}
 
+	@Override
+	public CustomExpressionSimulationListener clone() {
+		CustomExpressionSimulationListener clone = (CustomExpressionSimulationListener) super.clone();
+		// Each simulation compiles its own expressions
+		clone.compiled = null;
+		clone.types = null;
+		return clone;
+	}
+
 	@Override
 	public boolean isSystemListener() {
 		return true;
@@ -27,6 +27,12 @@ public class IndexExpression extends CustomExpression {
 		this.setSymbol(typeText);
 	}
 
+	@Override
+	CompiledCustomExpression compile() {
+		// The expression gives the time, the value of the type is interpolated at that time
+		return compile(getSymbol());
+	}
+
 	@Override
 	public Variable evaluate(SimulationStatus status) {
 		Calculable calc = buildExpression();
@@ -58,6 +58,12 @@ public class RangeExpression extends CustomExpression {
 		}
 	}
 
+	@Override
+	CompiledCustomExpression compile() {
+		// The range is an array, which is evaluated as before
+		return new CompiledCustomExpression(this);
+	}
+
 	@Override
 	public Variable evaluate(SimulationStatus status) {
 
@@ -0,0 +1,63 @@
+package info.openrocket.core.simulation.dispersion;
+
+import info.openrocket.core.aerodynamics.AerodynamicForces;
+import info.openrocket.core.masscalc.RigidBody;
+import info.openrocket.core.simulation.SimulationStatus;
+import info.openrocket.core.simulation.listeners.AbstractSimulationListener;
+
+/**
+ * A simulation listener that scales the thrust, drag coefficient and mass of a single
+ * dispersed flight.  Scales of exactly one leave the corresponding value untouched.
+ */
+class DispersionListener extends AbstractSimulationListener {
+
+	private final double thrustScale;
+	private final double dragScale;
+	private final double massScale;
+
+	DispersionListener(double thrustScale, double dragScale, double massScale) {
+		this.thrustScale = thrustScale;
+		this.dragScale = dragScale;
+		this.massScale = massScale;
+	}
+
+	@Override
+	public double postSimpleThrustCalculation(SimulationStatus status, double thrust) {
+		if (thrustScale == 1) {
+			return Double.NaN;
+		}
+		return thrust * thrustScale;
+	}
+
+	@Override
+	public AerodynamicForces postAerodynamicCalculation(SimulationStatus status, AerodynamicForces forces) {
+		if (dragScale == 1) {
+			return null;
+		}
+		// The forces passed to listeners are a private copy
+		forces.setCD(forces.getCD() * dragScale);
+		forces.setCDaxial(forces.getCDaxial() * dragScale);
+		return forces;
+	}
+
+	/**
+	 * Scales the mass and inertia.  This is called separately for the structure and the
+	 * motors, so the scale applies to the total mass of the rocket.
+	 */
+	@Override
+	public RigidBody postMassCalculation(SimulationStatus status, RigidBody body) {
+		if (massScale == 1) {
+			return null;
+		}
+		return new RigidBody(body.getCM().setWeight(body.getMass() * massScale),
+				body.getIxx() * massScale, body.getIyy() * massScale, body.getIzz() * massScale);
+	}
+
+	/**
+	 * The dispersion is intended, so the listener does not mark the results as affected.
+	 */
+	@Override
+	public boolean isSystemListener() {
+		return true;
+	}
+}
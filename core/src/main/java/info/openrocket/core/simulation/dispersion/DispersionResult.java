@@ -0,0 +1,76 @@
+package info.openrocket.core.simulation.dispersion;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The aggregated outcome of a Monte Carlo dispersion run.  Only the summary statistics
+ * and the failed samples are retained, so the memory use does not grow with the number
+ * of successful flights.
+ */
+public class DispersionResult {
+
+	private final RunningStatistics apogee = new RunningStatistics();
+	private final RunningStatistics maxVelocity = new RunningStatistics();
+	private final RunningStatistics landingEast = new RunningStatistics();
+	private final RunningStatistics landingNorth = new RunningStatistics();
+	private final RunningStatistics landingDistance = new RunningStatistics();
+	private final List<DispersionSample> failures = new ArrayList<>();
+	private int sampleCount = 0;
+
+	/**
+	 * Add a sample to the result.  Samples must be added in index order for the result
+	 * to be reproducible.
+	 */
+	void add(DispersionSample sample) {
+		sampleCount++;
+		if (sample.isFailed()) {
+			failures.add(sample);
+			return;
+		}
+		apogee.add(sample.apogee());
+		maxVelocity.add(sample.maxVelocity());
+		landingEast.add(sample.landingEast());
+		landingNorth.add(sample.landingNorth());
+		landingDistance.add(sample.getLandingDistance());
+	}
+
+	/**
+	 * Return the total number of samples, including failed ones.
+	 */
+	public int getSampleCount() {
+		return sampleCount;
+	}
+
+	public int getFailureCount() {
+		return failures.size();
+	}
+
+	/**
+	 * Return the samples whose simulation failed, in index order.
+	 */
+	public List<DispersionSample> getFailures() {
+		return Collections.unmodifiableList(failures);
+	}
+
+	public RunningStatistics getApogee() {
+		return apogee;
+	}
+
+	public RunningStatistics getMaxVelocity() {
+		return maxVelocity;
+	}
+
+	public RunningStatistics getLandingEast() {
+		return landingEast;
+	}
+
+	public RunningStatistics getLandingNorth() {
+		return landingNorth;
+	}
+
+	public RunningStatistics getLandingDistance() {
+		return landingDistance;
+	}
+}
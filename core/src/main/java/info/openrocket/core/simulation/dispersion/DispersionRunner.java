@@ -0,0 +1,296 @@
+package info.openrocket.core.simulation.dispersion;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.random.RandomGenerator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.models.wind.PinkNoiseWindModel;
+import info.openrocket.core.models.wind.WindModelType;
+import info.openrocket.core.simulation.BasicEventSimulationEngine;
+import info.openrocket.core.simulation.FlightData;
+import info.openrocket.core.simulation.FlightDataBranch;
+import info.openrocket.core.simulation.FlightDataType;
+import info.openrocket.core.simulation.SimulationConditions;
+import info.openrocket.core.simulation.SimulationOptions;
+import info.openrocket.core.simulation.exception.SimulationCancelledException;
+import info.openrocket.core.simulation.exception.SimulationException;
+import info.openrocket.core.simulation.extension.SimulationExtension;
+import info.openrocket.core.simulation.listeners.system.InterruptListener;
+import info.openrocket.core.util.BugException;
+import info.openrocket.core.util.ExecutorUtils;
+import info.openrocket.core.util.MathUtil;
+
+/**
+ * Runs a Monte Carlo dispersion analysis of a simulation on a pool of worker threads.
+ * <p>
+ * Each worker thread simulates on its own deep copy of the simulation and rocket, so the
+ * original simulation is never modified.  The random values of every sample are drawn from
+ * a stream that depends only on the seed and the sample index, and the samples are merged
+ * into the result in index order, so the result is identical regardless of the number of
+ * threads used.
+ * <p>
+ * The flight data of the individual samples is discarded after the summary values have
+ * been extracted.
+ */
+public class DispersionRunner {
+	private static final Logger log = LoggerFactory.getLogger(DispersionRunner.class);
+
+	/** Interval in milliseconds at which the calling thread checks for cancellation. */
+	private static final long POLL_INTERVAL = 100;
+
+	private final Simulation simulation;
+	private final DispersionSettings settings;
+
+	private int threadCount = Runtime.getRuntime().availableProcessors();
+	private long seed = 0;
+
+	private volatile boolean cancelled = false;
+	private volatile ExecutorService executor = null;
+
+	/**
+	 * Sole constructor.
+	 *
+	 * @param simulation	the nominal simulation to disperse.
+	 * @param settings		the dispersed parameters.
+	 */
+	public DispersionRunner(Simulation simulation, DispersionSettings settings) {
+		this.simulation = simulation;
+		this.settings = settings;
+	}
+
+	public int getThreadCount() {
+		return threadCount;
+	}
+
+	/**
+	 * Set the number of worker threads to use.  The default is the number of available processors.
+	 */
+	public void setThreadCount(int threadCount) {
+		if (threadCount < 1) {
+			throw new IllegalArgumentException("Thread count must be positive: " + threadCount);
+		}
+		this.threadCount = threadCount;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Set the seed from which the random values of all samples are derived.
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * Cancel a running analysis.  This may be called from any thread, and causes
+	 * {@link #run(int, Consumer)} to throw a {@link SimulationCancelledException}.
+	 */
+	public void cancel() {
+		cancelled = true;
+		ExecutorService e = executor;
+		if (e != null) {
+			e.shutdownNow();
+		}
+	}
+
+	/**
+	 * Run the specified number of dispersed simulations.
+	 *
+	 * @param count		the number of samples.
+	 * @return			the aggregated result.
+	 * @throws SimulationCancelledException	if the run was cancelled.
+	 */
+	public DispersionResult run(int count) throws SimulationCancelledException {
+		return run(count, null);
+	}
+
+	/**
+	 * Run the specified number of dispersed simulations.  Failed simulations are recorded
+	 * in the result and do not abort the run.
+	 *
+	 * @param count		the number of samples.
+	 * @param consumer	a consumer that receives each sample in index order on the calling
+	 * 					thread, or <code>null</code>.
+	 * @return			the aggregated result.
+	 * @throws SimulationCancelledException	if the run was cancelled.
+	 */
+	public DispersionResult run(int count, Consumer<DispersionSample> consumer) throws SimulationCancelledException {
+		if (count < 0) {
+			throw new IllegalArgumentException("Negative sample count: " + count);
+		}
+		cancelled = false;
+
+		// Per-sample seeds are drawn sequentially, so they do not depend on the scheduling
+		SplittableRandom seeds = new SplittableRandom(seed);
+		long[] sampleSeeds = new long[count];
+		for (int i = 0; i < count; i++) {
+			sampleSeeds[i] = seeds.nextLong();
+		}
+
+		// The copies are made on the calling thread, which owns the original simulation
+		int workers = Math.max(1, Math.min(threadCount, count));
+		BlockingQueue<Simulation> copies = new ArrayBlockingQueue<>(workers);
+		for (int i = 0; i < workers; i++) {
+			copies.add(simulation.duplicateSimulation(simulation.getRocket().copyWithOriginalID()));
+		}
+
+		DispersionResult result = new DispersionResult();
+		ExecutorService pool = createExecutor(workers);
+		executor = pool;
+		try {
+			List<Future<DispersionSample>> futures = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				final int index = i;
+				futures.add(pool.submit(() -> runSample(copies, index, sampleSeeds[index])));
+			}
+
+			for (Future<DispersionSample> future : futures) {
+				DispersionSample sample = getSample(future);
+				result.add(sample);
+				if (consumer != null) {
+					consumer.accept(sample);
+				}
+			}
+		} finally {
+			executor = null;
+			pool.shutdownNow();
+		}
+		return result;
+	}
+
+	/**
+	 * Wait for a sample to complete, checking periodically whether the run has been cancelled.
+	 */
+	private DispersionSample getSample(Future<DispersionSample> future) throws SimulationCancelledException {
+		try {
+			while (true) {
+				if (cancelled) {
+					throw new SimulationCancelledException("Dispersion analysis was cancelled");
+				}
+				try {
+					return future.get(POLL_INTERVAL, TimeUnit.MILLISECONDS);
+				} catch (TimeoutException e) {
+					// Check for cancellation and keep waiting
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SimulationCancelledException("Dispersion analysis was interrupted", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cancelled || cause instanceof SimulationCancelledException || cause instanceof InterruptedException) {
+				throw new SimulationCancelledException("Dispersion analysis was cancelled", cause);
+			}
+			throw new BugException("Dispersed simulation failed unexpectedly", cause);
+		}
+	}
+
+	private DispersionSample runSample(BlockingQueue<Simulation> copies, int index, long sampleSeed)
+			throws InterruptedException, SimulationCancelledException {
+		Simulation copy = copies.take();
+		try {
+			return simulateSample(copy, index, sampleSeed);
+		} finally {
+			copies.put(copy);
+		}
+	}
+
+	/**
+	 * Simulate a single sample using a simulation copy owned by the current thread.
+	 */
+	private DispersionSample simulateSample(Simulation copy, int index, long sampleSeed)
+			throws SimulationCancelledException {
+		SimulationOptions options = copy.getOptions();
+		SimulationConditions conditions = options.toSimulationConditions();
+		conditions.setSimulation(copy);
+
+		// Each parameter has its own stream, so adding a distribution does not change the others
+		SplittableRandom random = new SplittableRandom(sampleSeed);
+		PinkNoiseWindModel nominalWind = options.getAverageWindModel();
+		double windSpeed = sample(settings.getWindSpeed(), random.split(), nominalWind.getAverage());
+		double windDirection = sample(settings.getWindDirection(), random.split(), nominalWind.getDirection());
+		double rodAngle = sample(settings.getLaunchRodAngle(), random.split(), conditions.getLaunchRodAngle());
+		double rodDirection = sample(settings.getLaunchRodDirection(), random.split(), conditions.getLaunchRodDirection());
+		double thrustScale = Math.max(0, sample(settings.getThrustScale(), random.split(), 1));
+		double dragScale = Math.max(0, sample(settings.getDragScale(), random.split(), 1));
+		double massScale = Math.max(0, sample(settings.getMassScale(), random.split(), 1));
+		int turbulenceSeed = random.split().nextInt();
+
+		if (options.getWindModelType() == WindModelType.AVERAGE
+				|| settings.getWindSpeed() != null || settings.getWindDirection() != null) {
+			PinkNoiseWindModel wind = new PinkNoiseWindModel(turbulenceSeed);
+			wind.setAverage(windSpeed);
+			wind.setDirection(windDirection);
+			if (windSpeed > 0) {
+				wind.setTurbulenceIntensity(nominalWind.getTurbulenceIntensity());
+			}
+			conditions.setWindModel(wind);
+
+			if (options.getLaunchIntoWind() && settings.getLaunchRodDirection() == null) {
+				rodDirection = windDirection;
+			}
+		}
+		rodAngle = MathUtil.clamp(rodAngle, -SimulationOptions.MAX_LAUNCH_ROD_ANGLE, SimulationOptions.MAX_LAUNCH_ROD_ANGLE);
+		rodDirection = MathUtil.reduce2Pi(rodDirection);
+		conditions.setLaunchRodAngle(rodAngle);
+		conditions.setLaunchRodDirection(rodDirection);
+		conditions.setRandomSeed(turbulenceSeed);
+
+		double apogee = Double.NaN;
+		double maxVelocity = Double.NaN;
+		double landingEast = Double.NaN;
+		double landingNorth = Double.NaN;
+		SimulationException exception = null;
+		try {
+			for (SimulationExtension extension : copy.getSimulationExtensions()) {
+				extension.initialize(conditions);
+			}
+			conditions.getSimulationListenerList().add(new DispersionListener(thrustScale, dragScale, massScale));
+			conditions.getSimulationListenerList().add(InterruptListener.INSTANCE);
+
+			BasicEventSimulationEngine engine = new BasicEventSimulationEngine();
+			engine.simulate(conditions);
+
+			FlightData data = engine.getFlightData();
+			apogee = data.getMaxAltitude();
+			maxVelocity = data.getMaxVelocity();
+			FlightDataBranch branch = data.getBranch(0);
+			landingEast = branch.getLast(FlightDataType.TYPE_POSITION_X);
+			landingNorth = branch.getLast(FlightDataType.TYPE_POSITION_Y);
+		} catch (SimulationCancelledException e) {
+			throw e;
+		} catch (SimulationException e) {
+			log.info("Dispersed simulation " + index + " failed: " + e.getMessage());
+			exception = e;
+		}
+
+		return new DispersionSample(index, windSpeed, windDirection, rodAngle, rodDirection,
+				thrustScale, dragScale, massScale, apogee, maxVelocity, landingEast, landingNorth, exception);
+	}
+
+	private static double sample(Distribution distribution, RandomGenerator random, double nominal) {
+		if (distribution == null) {
+			return nominal;
+		}
+		return distribution.sample(random);
+	}
+
+	private static ExecutorService createExecutor(int threadCount) {
+		return ExecutorUtils.newDaemonExecutor("DispersionRunner", threadCount);
+	}
+}
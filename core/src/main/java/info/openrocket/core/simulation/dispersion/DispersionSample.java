@@ -0,0 +1,44 @@
+package info.openrocket.core.simulation.dispersion;
+
+import info.openrocket.core.simulation.exception.SimulationException;
+
+/**
+ * The sampled parameters and the outcome of a single dispersed flight.  Angles are in
+ * radians, positions are relative to the launch site (east and north).
+ *
+ * @param index					the index of the sample within the run.
+ * @param windSpeed				the average wind speed used.
+ * @param windDirection			the wind direction used.
+ * @param launchRodAngle		the launch rod angle used.
+ * @param launchRodDirection	the launch rod direction used.
+ * @param thrustScale			the thrust multiplier used.
+ * @param dragScale				the drag coefficient multiplier used.
+ * @param massScale				the mass multiplier used.
+ * @param apogee				the maximum altitude reached.
+ * @param maxVelocity			the maximum velocity reached.
+ * @param landingEast			the final position east of the launch site.
+ * @param landingNorth			the final position north of the launch site.
+ * @param exception				the exception if the simulation failed, otherwise <code>null</code>.
+ */
+public record DispersionSample(int index,
+							   double windSpeed, double windDirection,
+							   double launchRodAngle, double launchRodDirection,
+							   double thrustScale, double dragScale, double massScale,
+							   double apogee, double maxVelocity,
+							   double landingEast, double landingNorth,
+							   SimulationException exception) {
+
+	/**
+	 * Return whether the simulation of this sample failed.
+	 */
+	public boolean isFailed() {
+		return exception != null;
+	}
+
+	/**
+	 * Return the landing distance from the launch site.
+	 */
+	public double getLandingDistance() {
+		return Math.hypot(landingEast, landingNorth);
+	}
+}
@@ -0,0 +1,102 @@
+package info.openrocket.core.simulation.dispersion;
+
+/**
+ * The parameters that are dispersed in a Monte Carlo dispersion analysis.  Each parameter
+ * may be assigned a {@link Distribution}; a <code>null</code> distribution means the
+ * nominal value from the simulation options is used unchanged.
+ * <p>
+ * Angles are given in radians, wind speed in m/s.  The thrust, drag and mass scales are
+ * multipliers of the nominal values and are limited to be non-negative.
+ */
+public class DispersionSettings {
+
+	private Distribution windSpeed = null;
+	private Distribution windDirection = null;
+	private Distribution launchRodAngle = null;
+	private Distribution launchRodDirection = null;
+	private Distribution thrustScale = null;
+	private Distribution dragScale = null;
+	private Distribution massScale = null;
+
+
+	/**
+	 * Return the distribution of the average wind speed, or <code>null</code> for nominal.
+	 */
+	public Distribution getWindSpeed() {
+		return windSpeed;
+	}
+
+	public void setWindSpeed(Distribution windSpeed) {
+		this.windSpeed = windSpeed;
+	}
+
+	/**
+	 * Return the distribution of the wind direction, or <code>null</code> for nominal.
+	 */
+	public Distribution getWindDirection() {
+		return windDirection;
+	}
+
+	public void setWindDirection(Distribution windDirection) {
+		this.windDirection = windDirection;
+	}
+
+	/**
+	 * Return the distribution of the launch rod angle from vertical, or <code>null</code>
+	 * for nominal.
+	 */
+	public Distribution getLaunchRodAngle() {
+		return launchRodAngle;
+	}
+
+	public void setLaunchRodAngle(Distribution launchRodAngle) {
+		this.launchRodAngle = launchRodAngle;
+	}
+
+	/**
+	 * Return the distribution of the launch rod direction, or <code>null</code> for nominal.
+	 * If the simulation launches into the wind and no distribution is set, the launch rod
+	 * follows the dispersed wind direction.
+	 */
+	public Distribution getLaunchRodDirection() {
+		return launchRodDirection;
+	}
+
+	public void setLaunchRodDirection(Distribution launchRodDirection) {
+		this.launchRodDirection = launchRodDirection;
+	}
+
+	/**
+	 * Return the distribution of the motor thrust multiplier, or <code>null</code> for nominal.
+	 */
+	public Distribution getThrustScale() {
+		return thrustScale;
+	}
+
+	public void setThrustScale(Distribution thrustScale) {
+		this.thrustScale = thrustScale;
+	}
+
+	/**
+	 * Return the distribution of the drag coefficient multiplier, or <code>null</code> for nominal.
+	 */
+	public Distribution getDragScale() {
+		return dragScale;
+	}
+
+	public void setDragScale(Distribution dragScale) {
+		this.dragScale = dragScale;
+	}
+
+	/**
+	 * Return the distribution of the mass multiplier, or <code>null</code> for nominal.
+	 * The multiplier applies to both the structure and the motor mass.
+	 */
+	public Distribution getMassScale() {
+		return massScale;
+	}
+
+	public void setMassScale(Distribution massScale) {
+		this.massScale = massScale;
+	}
+}
@@ -0,0 +1,87 @@
+package info.openrocket.core.simulation.dispersion;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * A probability distribution of a dispersed simulation parameter.
+ */
+public interface Distribution {
+
+	/**
+	 * Draw a value from this distribution.
+	 *
+	 * @param random	the random number generator to use.
+	 * @return			the drawn value.
+	 */
+	double sample(RandomGenerator random);
+
+	/**
+	 * Return the nominal value of this distribution, the value used for an undispersed flight.
+	 */
+	double getNominal();
+
+
+	/**
+	 * Return a distribution that always yields the specified value.
+	 */
+	static Distribution constant(double value) {
+		return new Constant(value);
+	}
+
+	/**
+	 * Return a normal distribution with the specified mean and standard deviation.
+	 */
+	static Distribution normal(double mean, double standardDeviation) {
+		if (standardDeviation < 0) {
+			throw new IllegalArgumentException("Negative standard deviation " + standardDeviation);
+		}
+		return new Normal(mean, standardDeviation);
+	}
+
+	/**
+	 * Return a uniform distribution over the range [min, max).
+	 */
+	static Distribution uniform(double min, double max) {
+		if (max < min) {
+			throw new IllegalArgumentException("Empty range " + min + " ... " + max);
+		}
+		return new Uniform(min, max);
+	}
+
+
+	record Constant(double value) implements Distribution {
+		@Override
+		public double sample(RandomGenerator random) {
+			return value;
+		}
+
+		@Override
+		public double getNominal() {
+			return value;
+		}
+	}
+
+	record Normal(double mean, double standardDeviation) implements Distribution {
+		@Override
+		public double sample(RandomGenerator random) {
+			return mean + standardDeviation * random.nextGaussian();
+		}
+
+		@Override
+		public double getNominal() {
+			return mean;
+		}
+	}
+
+	record Uniform(double min, double max) implements Distribution {
+		@Override
+		public double sample(RandomGenerator random) {
+			return min + (max - min) * random.nextDouble();
+		}
+
+		@Override
+		public double getNominal() {
+			return (min + max) / 2;
+		}
+	}
+}
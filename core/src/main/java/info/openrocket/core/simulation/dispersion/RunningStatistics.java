@@ -0,0 +1,78 @@
+package info.openrocket.core.simulation.dispersion;
+
+/**
+ * Streaming statistics of a sequence of values, computed with Welford's algorithm so that
+ * the individual values need not be stored.  NaN values are ignored.
+ */
+public class RunningStatistics {
+
+	private int count = 0;
+	private double mean = 0;
+	private double m2 = 0;
+	private double min = Double.NaN;
+	private double max = Double.NaN;
+
+	/**
+	 * Add a value to the statistics.  NaN values are ignored.
+	 */
+	public void add(double value) {
+		if (Double.isNaN(value)) {
+			return;
+		}
+		count++;
+		double delta = value - mean;
+		mean += delta / count;
+		m2 += delta * (value - mean);
+
+		if (count == 1) {
+			min = value;
+			max = value;
+		} else {
+			min = Math.min(min, value);
+			max = Math.max(max, value);
+		}
+	}
+
+	/**
+	 * Return the number of values added.
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * Return the mean of the values, or NaN if no values have been added.
+	 */
+	public double getMean() {
+		return (count > 0) ? mean : Double.NaN;
+	}
+
+	/**
+	 * Return the sample variance of the values, or NaN if fewer than two values have been added.
+	 */
+	public double getVariance() {
+		return (count > 1) ? m2 / (count - 1) : Double.NaN;
+	}
+
+	/**
+	 * Return the sample standard deviation of the values, or NaN if fewer than two values
+	 * have been added.
+	 */
+	public double getStandardDeviation() {
+		return Math.sqrt(getVariance());
+	}
+
+	public double getMin() {
+		return min;
+	}
+
+	public double getMax() {
+		return max;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("RunningStatistics[n=%d, mean=%g, sd=%g, min=%g, max=%g]",
+				count, getMean(), getStandardDeviation(), min, max);
+	}
+}
@@ -1,10 +1,11 @@
 package info.openrocket.core.thrustcurve;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -14,10 +15,14 @@ import info.openrocket.core.file.iterator.DirectoryIterator;
 import info.openrocket.core.file.iterator.FileIterator;
 import info.openrocket.core.file.motor.GeneralMotorLoader;
 import info.openrocket.core.gui.util.SimpleFileFilter;
+import info.openrocket.core.motor.BinaryMotorDatabase;
 import info.openrocket.core.motor.Motor;
 import info.openrocket.core.motor.ThrustCurveMotor;
 import info.openrocket.core.util.Pair;
 
+/**
+ * Writes the motors of local motor files and the ThrustCurve website to a binary motor database.
+ */
 public class SerializeThrustcurveMotors {
 
 	private static final String[] manufacturers = {
@@ -56,7 +61,7 @@ public class SerializeThrustcurveMotors {
 		String inputDir = args[0];
 		String outputFile = args[1];
 
-		final List<Motor> allMotors = new ArrayList<>();
+		final List<ThrustCurveMotor> allMotors = new ArrayList<>();
 
 		loadFromLocalMotorFiles(allMotors, inputDir);
 
@@ -64,18 +69,13 @@ public class SerializeThrustcurveMotors {
 
 		File outFile = new File(outputFile);
 
-		FileOutputStream ofs = new FileOutputStream(outFile);
-		final ObjectOutputStream oos = new ObjectOutputStream(ofs);
-
-		oos.writeObject(allMotors);
-
-		oos.flush();
-		ofs.flush();
-		ofs.close();
+		try (OutputStream out = new BufferedOutputStream(new FileOutputStream(outFile))) {
+			BinaryMotorDatabase.write(allMotors, out);
+		}
 
 	}
 
-	public static void loadFromThrustCurve(List<Motor> allMotors) throws SAXException, IOException {
+	public static void loadFromThrustCurve(List<ThrustCurveMotor> allMotors) throws SAXException, IOException {
 
 		SearchRequest searchRequest = new SearchRequest();
 		for (String m : manufacturers) {
@@ -170,7 +170,7 @@ public class SerializeThrustcurveMotors {
 		return b;
 	}
 
-	private static void loadFromLocalMotorFiles(List<Motor> allMotors, String inputDir) throws IOException {
+	private static void loadFromLocalMotorFiles(List<ThrustCurveMotor> allMotors, String inputDir) throws IOException {
 		GeneralMotorLoader loader = new GeneralMotorLoader();
 		FileIterator iterator = DirectoryIterator.findDirectory(inputDir,
 				new SimpleFileFilter("", false, loader.getSupportedExtensions()));
@@ -0,0 +1,182 @@
+package info.openrocket.core.util;
+
+/**
+ * Formats double values as text exactly like {@link TextUtil#doubleToString(double, int, boolean)},
+ * without allocating objects for most values.
+ * <p>
+ * The digits are computed with long arithmetic from the value scaled by a power of ten.  Values
+ * whose scaled value is too large or too close to halfway between two rounded values fall back
+ * to {@link TextUtil#doubleToString(double, int, boolean)}, so the text is always identical.
+ * A formatter is immutable and may be shared between threads.
+ */
+public final class DoubleFormatter {
+
+	/** The largest scaled value for which rounding errors are well below the halfway margin */
+	private static final double MAX_SCALED = 1e12;
+	/** The minimum distance of the scaled value from halfway for rounding it directly */
+	private static final double HALFWAY_MARGIN = 1e-3;
+	/** Values within this range are formatted in fixed point notation in exponential mode */
+	private static final double FIXED_MIN = 0.001;
+	private static final double FIXED_MAX = 10000;
+
+	private static final double[] POWERS_OF_TEN = new double[23];
+	private static final long[] LONG_POWERS_OF_TEN = new long[19];
+	static {
+		POWERS_OF_TEN[0] = 1;
+		for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+			POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+		}
+		LONG_POWERS_OF_TEN[0] = 1;
+		for (int i = 1; i < LONG_POWERS_OF_TEN.length; i++) {
+			LONG_POWERS_OF_TEN[i] = LONG_POWERS_OF_TEN[i - 1] * 10;
+		}
+	}
+
+	private final int decimalPlaces;
+	private final boolean exponentialNotation;
+
+	/**
+	 * @param decimalPlaces			the number of decimal places.
+	 * @param exponentialNotation	whether values smaller than 0.001 or at least 10000 are
+	 * 								formatted in exponential notation.
+	 */
+	public DoubleFormatter(int decimalPlaces, boolean exponentialNotation) {
+		if (decimalPlaces < 0) {
+			throw new IllegalArgumentException("Invalid number of decimal places " + decimalPlaces);
+		}
+		this.decimalPlaces = decimalPlaces;
+		this.exponentialNotation = exponentialNotation;
+	}
+
+	/**
+	 * Return the text of a value.
+	 *
+	 * @param d	the value.
+	 * @return	the text, equal to that of {@link TextUtil#doubleToString(double, int, boolean)}.
+	 */
+	public String format(double d) {
+		return append(new StringBuilder(16), d).toString();
+	}
+
+	/**
+	 * Append the text of a value.
+	 *
+	 * @param sb	the builder to append to.
+	 * @param d		the value.
+	 * @return		the builder.
+	 */
+	public StringBuilder append(StringBuilder sb, double d) {
+		if (MathUtil.equals(d, 0)) {
+			return sb.append('0');
+		}
+		if (Double.isNaN(d)) {
+			return sb.append("NaN");
+		}
+		if (Double.isInfinite(d)) {
+			return sb.append((d < 0) ? "-Inf" : "Inf");
+		}
+
+		double abs = Math.abs(d);
+		boolean appended;
+		if (exponentialNotation && (abs < FIXED_MIN || abs >= FIXED_MAX)) {
+			appended = appendExponential(sb, d, abs);
+		} else {
+			appended = appendFixed(sb, d, abs);
+		}
+		if (!appended) {
+			sb.append(TextUtil.doubleToString(d, decimalPlaces, exponentialNotation));
+		}
+		return sb;
+	}
+
+	private boolean appendFixed(StringBuilder sb, double d, double abs) {
+		if (decimalPlaces >= LONG_POWERS_OF_TEN.length) {
+			return false;
+		}
+		double scaled = abs * POWERS_OF_TEN[decimalPlaces];
+		if (!isRoundable(scaled)) {
+			return false;
+		}
+
+		long rounded = Math.round(scaled);
+		long unit = LONG_POWERS_OF_TEN[decimalPlaces];
+		if (d < 0) {
+			sb.append('-');
+		}
+		sb.append(rounded / unit);
+		appendFraction(sb, rounded % unit, decimalPlaces);
+		return true;
+	}
+
+	private boolean appendExponential(StringBuilder sb, double d, double abs) {
+		if (decimalPlaces >= LONG_POWERS_OF_TEN.length - 1) {
+			return false;
+		}
+		int exponent = (int) Math.floor(Math.log10(abs));
+		// The mantissa is scaled to have decimalPlaces + 1 integer digits
+		double scaled = scale(abs, decimalPlaces - exponent);
+		if (scaled >= POWERS_OF_TEN[decimalPlaces + 1]) {
+			exponent++;
+			scaled = scale(abs, decimalPlaces - exponent);
+		} else if (scaled < POWERS_OF_TEN[decimalPlaces]) {
+			exponent--;
+			scaled = scale(abs, decimalPlaces - exponent);
+		}
+		if (!isRoundable(scaled)) {
+			return false;
+		}
+
+		long rounded = Math.round(scaled);
+		long unit = LONG_POWERS_OF_TEN[decimalPlaces];
+		if (rounded >= unit * 10) {
+			// Rounded up to the next power of ten
+			rounded /= 10;
+			exponent++;
+		}
+		if (d < 0) {
+			sb.append('-');
+		}
+		sb.append(rounded / unit);
+		appendFraction(sb, rounded % unit, decimalPlaces);
+		sb.append('e').append(exponent);
+		return true;
+	}
+
+	/**
+	 * Return the value multiplied by a power of ten, or NaN if the power is not exactly representable.
+	 */
+	private static double scale(double value, int power) {
+		if (power >= 0) {
+			return (power < POWERS_OF_TEN.length) ? value * POWERS_OF_TEN[power] : Double.NaN;
+		}
+		return (-power < POWERS_OF_TEN.length) ? value / POWERS_OF_TEN[-power] : Double.NaN;
+	}
+
+	private static boolean isRoundable(double scaled) {
+		if (!(scaled < MAX_SCALED)) {
+			return false;
+		}
+		double fraction = scaled - Math.floor(scaled);
+		return Math.abs(fraction - 0.5) > HALFWAY_MARGIN;
+	}
+
+	/**
+	 * Append the decimal digits of a fraction without trailing zeros, and the decimal point if
+	 * there are any digits.
+	 */
+	private static void appendFraction(StringBuilder sb, long fraction, int digits) {
+		if (fraction == 0) {
+			return;
+		}
+		while (fraction % 10 == 0) {
+			fraction /= 10;
+			digits--;
+		}
+		sb.append('.');
+		for (int i = digits - 1; i >= 0; i--) {
+			long power = LONG_POWERS_OF_TEN[i];
+			sb.append((char) ('0' + fraction / power));
+			fraction %= power;
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package info.openrocket.core.util;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Utilities for running computations on background worker threads.
+ */
+public final class ExecutorUtils {
+
+	/** The time idle threads of the executors are kept alive */
+	private static final long KEEP_ALIVE_SECONDS = 60;
+
+	private ExecutorUtils() {
+	}
+
+	/**
+	 * Return a thread factory creating daemon threads with the specified name, so that the
+	 * worker threads do not prevent the application from exiting.
+	 *
+	 * @param name	the name of the threads.
+	 * @return		the thread factory.
+	 */
+	public static ThreadFactory daemonThreadFactory(final String name) {
+		return new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread t = new Thread(r, name);
+				t.setDaemon(true);
+				return t;
+			}
+		};
+	}
+
+	/**
+	 * Create an executor with a fixed number of named daemon threads and an unbounded queue.
+	 * The executor must be shut down after use.
+	 *
+	 * @param name			the name of the threads.
+	 * @param threadCount	the number of threads.
+	 * @return				the executor.
+	 */
+	public static ThreadPoolExecutor newDaemonExecutor(String name, int threadCount) {
+		return new ThreadPoolExecutor(threadCount, threadCount, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), daemonThreadFactory(name));
+	}
+
+	/**
+	 * Wait for the result of a task, rethrowing the exception thrown by the task.  Exceptions of
+	 * the specified type and unchecked exceptions are rethrown as is, other exceptions are
+	 * wrapped in a {@link BugException}.
+	 *
+	 * @param future		the task.
+	 * @param exceptionType	the type of checked exception the task may throw.
+	 * @param message		the message of the exception thrown for an unexpected exception.
+	 * @return				the result of the task.
+	 * @throws E					if the task threw an exception of the specified type.
+	 * @throws InterruptedException	if the calling thread was interrupted while waiting.
+	 */
+	public static <T, E extends Exception> T getResult(Future<T> future, Class<E> exceptionType, String message)
+			throws E, InterruptedException {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (exceptionType.isInstance(cause)) {
+				throw exceptionType.cast(cause);
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new BugException(message, cause);
+		}
+	}
+
+	/**
+	 * Wait for the result of a task that throws no checked exceptions.  Unchecked exceptions are
+	 * rethrown as is, other exceptions are wrapped in a {@link BugException}.
+	 *
+	 * @param future	the task.
+	 * @param message	the message of the exception thrown for an unexpected exception.
+	 * @return			the result of the task.
+	 * @throws InterruptedException	if the calling thread was interrupted while waiting.
+	 */
+	public static <T> T getResult(Future<T> future, String message) throws InterruptedException {
+		return getResult(future, RuntimeException.class, message);
+	}
+}
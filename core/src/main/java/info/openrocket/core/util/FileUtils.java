@@ -7,6 +7,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 public abstract class FileUtils {
 	private static final char[] ILLEGAL_CHARS = new char[] { '/', '\\', ':', '*', '?', '"', '<', '>', '|' };
@@ -37,6 +39,21 @@ public abstract class FileUtils {
 
 	}
 
+	/**
+	 * Compute the SHA-256 hash of file content, e.g. to detect whether a cached
+	 * copy of a file is still up to date.
+	 *
+	 * @param content	the content of the file
+	 * @return	the hash
+	 */
+	public static byte[] hash(byte[] content) {
+		try {
+			return MessageDigest.getInstance("SHA-256").digest(content);
+		} catch (NoSuchAlgorithmException e) {
+			throw new BugException("SHA-256 not supported", e);
+		}
+	}
+
 	/**
 	 * Remove the extension from a file name.
 	 * 
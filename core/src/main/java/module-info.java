@@ -33,6 +33,7 @@ open module info.openrocket.core {
 	exports info.openrocket.core.appearance;
 	exports info.openrocket.core.appearance.defaults;
 	exports info.openrocket.core.arch;
+	exports info.openrocket.core.batch;
 	exports info.openrocket.core.communication;
 	exports info.openrocket.core.componentanalysis;
 	exports info.openrocket.core.database;
@@ -85,6 +86,7 @@ open module info.openrocket.core {
 	exports info.openrocket.core.scripting;
 	exports info.openrocket.core.simulation;
 	exports info.openrocket.core.simulation.customexpression;
+	exports info.openrocket.core.simulation.dispersion;
 	exports info.openrocket.core.simulation.exception;
 	exports info.openrocket.core.simulation.extension;
 	exports info.openrocket.core.simulation.extension.example;
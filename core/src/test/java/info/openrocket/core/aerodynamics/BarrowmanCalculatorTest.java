@@ -2,8 +2,15 @@ package info.openrocket.core.aerodynamics;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import info.openrocket.core.logging.WarningSet;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -664,4 +671,112 @@ public class BarrowmanCalculatorTest {
 		final double zeroCD = zeroForces.getCD();
 		assertEquals(epsCD, zeroCD, EPSILON, "drag at mach 0 should equal drag at mach MathUtil.EPSILON");
 	}
+
+	/**
+	 * The stall margin is returned with the forces of each call.
+	 */
+	@Test
+	public void testStallMargin() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		FlightConfiguration config = rocket.getSelectedConfiguration();
+		BarrowmanCalculator calc = new BarrowmanCalculator();
+		FlightConditions conditions = new FlightConditions(config);
+
+		conditions.setAOA(0.1);
+		AerodynamicForces low = calc.getAerodynamicForces(config, conditions, null);
+		conditions.setAOA(0.5);
+		AerodynamicForces high = calc.getAerodynamicForces(config, conditions, null);
+
+		assertEquals(BarrowmanCalculator.STALL_ANGLE - 0.1, low.getStallMargin(), EPSILON);
+		assertEquals(BarrowmanCalculator.STALL_ANGLE - 0.5, high.getStallMargin(), EPSILON);
+		assertTrue(high.getStallMargin() < 0);
+	}
+
+	/**
+	 * A single calculator used by several threads gives the same results as a calculator
+	 * used by a single thread.
+	 */
+	@Test
+	public void testSharedCalculator() throws Exception {
+		Rocket rocket = TestRockets.makeFalcon9Heavy();
+		FlightConfiguration config = rocket.getSelectedConfiguration();
+
+		List<AerodynamicForces> expected = new ArrayList<>();
+		BarrowmanCalculator single = new BarrowmanCalculator();
+		FlightConditions conditions = new FlightConditions(config);
+		for (int i = 0; i < 50; i++) {
+			setSharedConditions(conditions, i);
+			expected.add(single.getAerodynamicForces(config, conditions, null));
+		}
+
+		final BarrowmanCalculator shared = new BarrowmanCalculator();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<List<AerodynamicForces>>> futures = new ArrayList<>();
+			for (int t = 0; t < 4; t++) {
+				futures.add(executor.submit(() -> {
+					List<AerodynamicForces> actual = new ArrayList<>();
+					FlightConditions threadConditions = new FlightConditions(config);
+					for (int i = 0; i < 50; i++) {
+						setSharedConditions(threadConditions, i);
+						actual.add(shared.getAerodynamicForces(config, threadConditions, new WarningSet()));
+					}
+					return actual;
+				}));
+			}
+
+			for (Future<List<AerodynamicForces>> future : futures) {
+				List<AerodynamicForces> actual = future.get();
+				for (int i = 0; i < expected.size(); i++) {
+					assertEquals(expected.get(i), actual.get(i), "forces of step " + i + " differ");
+					assertEquals(expected.get(i).getCP().x, actual.get(i).getCP().x, 0);
+					assertEquals(expected.get(i).getCD(), actual.get(i).getCD(), 0);
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static void setSharedConditions(FlightConditions conditions, int i) {
+		conditions.setMach(0.05 + 0.04 * i);
+		conditions.setAOA(0.01 * (i % 20));
+		conditions.setTheta(0.3 * i);
+		conditions.setPitchRate(0.1 * (i % 7));
+		conditions.setRollRate(i % 5);
+	}
+
+	/**
+	 * Changing the active stages of a configuration uses the body dimensions of the
+	 * remaining stages for the damping moments.
+	 */
+	@Test
+	public void testStageChange() {
+		Rocket rocket = TestRockets.makeMultiStageEventTestRocket();
+		FlightConfiguration config = rocket.getSelectedConfiguration();
+		BarrowmanCalculator calc = new BarrowmanCalculator();
+		FlightConditions conditions = new FlightConditions(config);
+		conditions.setAOA(0.1);
+		conditions.setPitchRate(0.2);
+
+		double allStages = calc.getAerodynamicForces(config, conditions, null).getPitchDampingMoment();
+		config.setOnlyStage(0);
+		conditions = new FlightConditions(config);
+		conditions.setAOA(0.1);
+		conditions.setPitchRate(0.2);
+		double sustainer = calc.getAerodynamicForces(config, conditions, null).getPitchDampingMoment();
+
+		// A separate rocket only ever calculated with the sustainer
+		Rocket reference = TestRockets.makeMultiStageEventTestRocket();
+		FlightConfiguration referenceConfig = reference.getSelectedConfiguration();
+		referenceConfig.setOnlyStage(0);
+		FlightConditions referenceConditions = new FlightConditions(referenceConfig);
+		referenceConditions.setAOA(0.1);
+		referenceConditions.setPitchRate(0.2);
+		double expected = new BarrowmanCalculator().getAerodynamicForces(referenceConfig, referenceConditions, null)
+				.getPitchDampingMoment();
+
+		assertNotEquals(allStages, sustainer, EPSILON);
+		assertEquals(expected, sustainer, 0);
+	}
 }
@@ -0,0 +1,168 @@
+package info.openrocket.core.aerodynamics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.logging.WarningSet;
+import info.openrocket.core.rocketcomponent.FinSet;
+import info.openrocket.core.rocketcomponent.FlightConfiguration;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.rocketcomponent.RocketComponent;
+import info.openrocket.core.simulation.FlightData;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.TestRockets;
+
+public class TabulatedAerodynamicCalculatorTest extends BaseTestCase {
+
+	/**
+	 * At the grid nodes the tabulated forces must equal the Barrowman forces, including the
+	 * rate dependent terms that are not tabulated.
+	 */
+	@Test
+	public void testGridNodes() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		FlightConfiguration config = rocket.getFlightConfiguration(TestRockets.TEST_FCID_0);
+		TabulatedAerodynamicCalculator tabulated = new TabulatedAerodynamicCalculator();
+		BarrowmanCalculator exact = new BarrowmanCalculator();
+
+		FlightConditions conditions = new FlightConditions(config);
+		conditions.setRollRate(5);
+		conditions.setPitchRate(0.5);
+		conditions.setYawRate(-0.3);
+		for (int mach : new int[] { 4, 20, 40, 70 }) {
+			for (int aoa : new int[] { 0, 1, 4, 10 }) {
+				conditions.setMach(mach * AerodynamicTable.MACH_STEP);
+				conditions.setAOA(aoa * AerodynamicTable.AOA_STEP);
+
+				AerodynamicForces expected = exact.getAerodynamicForces(config, conditions, new WarningSet());
+				AerodynamicForces actual = tabulated.getAerodynamicForces(config, conditions, new WarningSet());
+				assertForces(expected, actual, 1e-9);
+				assertEquals(expected.getStallMargin(), actual.getStallMargin(), 0);
+			}
+		}
+	}
+
+	/**
+	 * Between the grid nodes the interpolation error must be small.
+	 */
+	@Test
+	public void testInterpolation() throws InterruptedException {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		FlightConfiguration config = rocket.getFlightConfiguration(TestRockets.TEST_FCID_0);
+		FlightConditions conditions = new FlightConditions(config);
+
+		AerodynamicTable table = AerodynamicTable.build(config, conditions);
+		assertEquals(1, table.getThetaCount());
+		// CN reaches about 10 and Cm about 100 at large angles of attack
+		assertTrue(table.getMaxCNError() < 0.05, "CN error " + table.getMaxCNError());
+		assertTrue(table.getMaxCmError() < 0.5, "Cm error " + table.getMaxCmError());
+
+		TabulatedAerodynamicCalculator tabulated = new TabulatedAerodynamicCalculator();
+		BarrowmanCalculator exact = new BarrowmanCalculator();
+		conditions.setMach(0.4321);
+		conditions.setAOA(0.0567);
+		conditions.setTheta(0.7);
+		AerodynamicForces expected = exact.getAerodynamicForces(config, conditions, null);
+		AerodynamicForces actual = tabulated.getAerodynamicForces(config, conditions, null);
+		assertForces(expected, actual, 1e-3);
+	}
+
+	/**
+	 * A rocket with two fins has forces depending on the lateral wind direction.
+	 */
+	@Test
+	public void testTwoFins() throws InterruptedException {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		for (RocketComponent c : rocket) {
+			if (c instanceof FinSet) {
+				((FinSet) c).setFinCount(2);
+			}
+		}
+		FlightConfiguration config = rocket.getFlightConfiguration(TestRockets.TEST_FCID_0);
+		FlightConditions conditions = new FlightConditions(config);
+
+		AerodynamicTable table = AerodynamicTable.build(config, conditions);
+		assertEquals(AerodynamicTable.THETA_COUNT, table.getThetaCount());
+
+		TabulatedAerodynamicCalculator tabulated = new TabulatedAerodynamicCalculator();
+		BarrowmanCalculator exact = new BarrowmanCalculator();
+		conditions.setMach(0.3);
+		conditions.setAOA(2 * AerodynamicTable.AOA_STEP);
+		for (int theta = -12; theta <= 24; theta += 5) {
+			conditions.setTheta(theta * 2 * Math.PI / AerodynamicTable.THETA_COUNT);
+			AerodynamicForces expected = exact.getAerodynamicForces(config, conditions, null);
+			AerodynamicForces actual = tabulated.getAerodynamicForces(config, conditions, null);
+			assertForces(expected, actual, 1e-9);
+		}
+	}
+
+	/**
+	 * Mach numbers above the table are calculated with the Barrowman method.
+	 */
+	@Test
+	public void testOutsideTable() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		FlightConfiguration config = rocket.getFlightConfiguration(TestRockets.TEST_FCID_0);
+		FlightConditions conditions = new FlightConditions(config);
+		conditions.setMach(AerodynamicTable.MAX_MACH + 0.4321);
+		conditions.setAOA(0.0567);
+
+		WarningSet expectedWarnings = new WarningSet();
+		WarningSet actualWarnings = new WarningSet();
+		AerodynamicForces expected = new BarrowmanCalculator().getAerodynamicForces(config, conditions,
+				expectedWarnings);
+		AerodynamicForces actual = new TabulatedAerodynamicCalculator().getAerodynamicForces(config, conditions,
+				actualWarnings);
+		assertForces(expected, actual, 0);
+		assertEquals(expectedWarnings.size(), actualWarnings.size());
+	}
+
+	/**
+	 * A simulation using the table must give nearly the same flight as the Barrowman method.
+	 */
+	@Test
+	public void testSimulation() throws Exception {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		double exactApogee = simulate(rocket, false).getMaxAltitude();
+		double tabulatedApogee = simulate(rocket, true).getMaxAltitude();
+		assertEquals(exactApogee, tabulatedApogee, exactApogee * 0.005);
+	}
+
+	private static FlightData simulate(Rocket rocket, boolean tabulatedAerodynamics) throws Exception {
+		Simulation sim = new Simulation(rocket);
+		sim.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+		sim.getOptions().setISAAtmosphere(true);
+		sim.getOptions().setTimeStep(0.05);
+		sim.getOptions().setTabulatedAerodynamics(tabulatedAerodynamics);
+		sim.simulate();
+		return sim.getSimulatedData();
+	}
+
+	/**
+	 * Assert that the forces are equal within a tolerance relative to the expected values,
+	 * but at least the tolerance itself.
+	 */
+	private static void assertForces(AerodynamicForces expected, AerodynamicForces actual, double tolerance) {
+		assertClose(expected.getCN(), actual.getCN(), tolerance, "CN");
+		assertClose(expected.getCNa(), actual.getCNa(), tolerance, "CNa");
+		assertClose(expected.getCm(), actual.getCm(), tolerance, "Cm");
+		assertClose(expected.getCside(), actual.getCside(), tolerance, "Cside");
+		assertClose(expected.getCyaw(), actual.getCyaw(), tolerance, "Cyaw");
+		assertClose(expected.getCroll(), actual.getCroll(), tolerance, "Croll");
+		assertClose(expected.getCrollDamp(), actual.getCrollDamp(), tolerance, "CrollDamp");
+		assertClose(expected.getCrollForce(), actual.getCrollForce(), tolerance, "CrollForce");
+		assertClose(expected.getCD(), actual.getCD(), tolerance, "CD");
+		assertClose(expected.getCDaxial(), actual.getCDaxial(), tolerance, "CDaxial");
+		assertClose(expected.getFrictionCD(), actual.getFrictionCD(), tolerance, "frictionCD");
+		assertClose(expected.getPitchDampingMoment(), actual.getPitchDampingMoment(), tolerance, "pitch damping");
+		assertClose(expected.getYawDampingMoment(), actual.getYawDampingMoment(), tolerance, "yaw damping");
+		assertClose(expected.getCP().x, actual.getCP().x, tolerance, "CP");
+	}
+
+	private static void assertClose(double expected, double actual, double tolerance, String message) {
+		assertEquals(expected, actual, tolerance * Math.max(1, Math.abs(expected)), message);
+	}
+}
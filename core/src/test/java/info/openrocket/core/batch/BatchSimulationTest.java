@@ -0,0 +1,191 @@
+package info.openrocket.core.batch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Module;
+import com.google.inject.Provider;
+import com.google.inject.util.Modules;
+
+import info.openrocket.core.ServicesForTesting;
+import info.openrocket.core.database.ComponentPresetDao;
+import info.openrocket.core.database.ComponentPresetDatabase;
+import info.openrocket.core.database.motor.MotorDatabase;
+import info.openrocket.core.database.motor.ThrustCurveMotorSetDatabase;
+import info.openrocket.core.document.OpenRocketDocument;
+import info.openrocket.core.document.OpenRocketDocumentFactory;
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.file.GeneralRocketSaver;
+import info.openrocket.core.l10n.DebugTranslator;
+import info.openrocket.core.l10n.Translator;
+import info.openrocket.core.motor.MotorConfiguration;
+import info.openrocket.core.motor.ThrustCurveMotor;
+import info.openrocket.core.plugin.PluginModule;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.simulation.RK4SimulationStepper;
+import info.openrocket.core.startup.Application;
+import info.openrocket.core.util.TestRockets;
+
+import jakarta.json.Json;
+import jakarta.json.JsonArray;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonReader;
+
+public class BatchSimulationTest {
+
+	private static final ThrustCurveMotorSetDatabase motors = new ThrustCurveMotorSetDatabase();
+
+	@TempDir
+	Path tempDir;
+
+	@BeforeAll
+	public static void setup() {
+		Module applicationModule = new ServicesForTesting();
+		Module dbOverrides = new AbstractModule() {
+			@Override
+			protected void configure() {
+				bind(ComponentPresetDao.class).toInstance(new ComponentPresetDatabase());
+				bind(MotorDatabase.class).toProvider(new Provider<MotorDatabase>() {
+					@Override
+					public MotorDatabase get() {
+						return motors;
+					}
+				});
+				bind(Translator.class).toInstance(new DebugTranslator(null));
+			}
+		};
+		Application.setInjector(Guice.createInjector(Modules.override(applicationModule).with(dbOverrides),
+				new PluginModule()));
+	}
+
+	@Test
+	public void testRunAndSummaries() throws Exception {
+		File design = saveDesign("design.ork");
+		File json = tempDir.resolve("summary.json").toFile();
+		File csv = tempDir.resolve("summary.csv").toFile();
+		File data = tempDir.resolve("data").toFile();
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		int exit = BatchSimulation.execute(new String[] { "--threads", "2", "--json", json.getPath(),
+				"--csv", csv.getPath(), "--data", data.getPath(), design.getPath() }, print(out), print(out));
+		assertEquals(BatchSimulation.EXIT_OK, exit, out.toString(StandardCharsets.UTF_8));
+
+		JsonObject summary = readJSON(json);
+		assertEquals(2, summary.getInt("simulations"));
+		assertEquals(0, summary.getInt("errors"));
+		JsonArray results = summary.getJsonArray("results");
+		assertEquals("First", results.getJsonObject(0).getString("simulation"));
+		assertEquals("Second", results.getJsonObject(1).getString("simulation"));
+		for (int i = 0; i < 2; i++) {
+			JsonObject result = results.getJsonObject(i);
+			assertEquals("OK", result.getString("status"));
+			assertTrue(result.getJsonNumber(SummaryValue.MAX_ALTITUDE.getKey()).doubleValue() > 10);
+		}
+
+		List<String> lines = Files.readAllLines(csv.toPath(), StandardCharsets.UTF_8);
+		assertEquals(4, lines.size());
+		assertTrue(lines.get(0).startsWith("#"));
+		assertTrue(lines.get(1).startsWith("Source,Simulation,Status,maxAltitude (m),"));
+		assertTrue(lines.get(2).startsWith("design.ork,First,OK,"));
+		assertTrue(lines.get(3).startsWith("design.ork,Second,OK,"));
+
+		assertEquals(2, data.listFiles().length);
+	}
+
+	@Test
+	public void testSelectedSimulation() throws Exception {
+		File design = saveDesign("design.ork");
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		int exit = BatchSimulation.execute(new String[] { "-s", "Second", "--csv", "-", design.getPath() },
+				print(out), print(new ByteArrayOutputStream()));
+		assertEquals(BatchSimulation.EXIT_OK, exit);
+
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\\R");
+		assertEquals(3, lines.length);
+		assertTrue(lines[2].startsWith("design.ork,Second,OK,"));
+	}
+
+	@Test
+	public void testErrorsGiveNonZeroExit() throws Exception {
+		File design = saveDesign("design.ork");
+		File missing = tempDir.resolve("missing.ork").toFile();
+		File json = tempDir.resolve("summary.json").toFile();
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		int exit = BatchSimulation.execute(new String[] { "--json", json.getPath(), design.getPath(), missing.getPath() },
+				print(out), print(out));
+		assertEquals(BatchSimulation.EXIT_SIMULATION_ERROR, exit);
+
+		JsonObject summary = readJSON(json);
+		assertEquals(3, summary.getInt("simulations"));
+		assertEquals(1, summary.getInt("errors"));
+		JsonObject failed = summary.getJsonArray("results").getJsonObject(2);
+		assertEquals("missing.ork", failed.getString("source"));
+		assertEquals("FAILED", failed.getString("status"));
+		assertTrue(failed.isNull(SummaryValue.MAX_ALTITUDE.getKey()));
+	}
+
+	@Test
+	public void testUsageErrors() {
+		ByteArrayOutputStream err = new ByteArrayOutputStream();
+		assertEquals(BatchSimulation.EXIT_USAGE, BatchSimulation.execute(new String[] { "--bogus" }, print(err), print(err)));
+		assertEquals(BatchSimulation.EXIT_USAGE, BatchSimulation.execute(new String[0], print(err), print(err)));
+		assertEquals(BatchSimulation.EXIT_USAGE,
+				BatchSimulation.execute(new String[] { "-t", "x", "a.ork" }, print(err), print(err)));
+	}
+
+	/**
+	 * Save a design with two simulations, registering its motors in the test motor database.
+	 */
+	private File saveDesign(String name) throws Exception {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		for (MotorConfiguration config : rocket.getFlightConfiguration(TestRockets.TEST_FCID_0).getActiveMotors()) {
+			motors.addMotor((ThrustCurveMotor) config.getMotor());
+		}
+
+		OpenRocketDocument document = OpenRocketDocumentFactory.createDocumentFromRocket(rocket);
+		for (String simulationName : new String[] { "First", "Second" }) {
+			Simulation simulation = new Simulation(document, rocket);
+			simulation.setName(simulationName);
+			simulation.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+			simulation.getOptions().setISAAtmosphere(true);
+			simulation.getOptions().setTimeStep(RK4SimulationStepper.RECOMMENDED_TIME_STEP);
+			simulation.getOptions().setLaunchRodLength(1);
+			simulation.getOptions().getAverageWindModel().setAverage(0);
+			simulation.getOptions().getAverageWindModel().setStandardDeviation(0);
+			document.addSimulation(simulation);
+		}
+
+		File file = tempDir.resolve(name).toFile();
+		new GeneralRocketSaver().save(file, document);
+		return file;
+	}
+
+	private static JsonObject readJSON(File file) throws IOException {
+		try (InputStream in = new FileInputStream(file); JsonReader reader = Json.createReader(in)) {
+			return reader.readObject();
+		}
+	}
+
+	private static PrintStream print(ByteArrayOutputStream stream) {
+		return new PrintStream(stream, true, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,189 @@
+package info.openrocket.core.componentanalysis;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.aerodynamics.AerodynamicForces;
+import info.openrocket.core.aerodynamics.BarrowmanCalculator;
+import info.openrocket.core.aerodynamics.FlightConditions;
+import info.openrocket.core.logging.WarningSet;
+import info.openrocket.core.rocketcomponent.FinSet;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.rocketcomponent.RocketComponent;
+import info.openrocket.core.rocketcomponent.TrapezoidFinSet;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.TestRockets;
+
+public class CAParameterSweepTest extends BaseTestCase {
+
+	/**
+	 * A parallel sweep must give the same values in the same order as computing the points one by one.
+	 */
+	@Test
+	public void testParallelSweep() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		CAParameters parameters = new CAParameters(rocket, 0);
+		parameters.setAOA(Math.PI / 60);
+
+		CAParameterSweep sweep = new CAParameterSweep(parameters, new BarrowmanCalculator(), rocket);
+		sweep.setThreadCount(1);
+		CADataBranch expected = sweep.sweep(CADomainDataType.MACH, 0.05, 2.0, 0.05, parameters.getMach());
+		sweep.setThreadCount(4);
+		final AtomicInteger progress = new AtomicInteger();
+		CADataBranch actual = sweep.sweep(CADomainDataType.MACH, 0.05, 2.0, 0.05, parameters.getMach(),
+				(computed, total) -> progress.accumulateAndGet(computed, Math::max));
+
+		assertEquals(expected.getLength(), actual.getLength());
+		assertEquals(actual.getLength(), progress.get());
+		assertEquals(expected.get(CADomainDataType.MACH), actual.get(CADomainDataType.MACH));
+		for (CADataType type : CADataType.ALL_TYPES) {
+			for (RocketComponent component : rocket) {
+				assertEquals(expected.get(type, component), actual.get(type, component),
+						type.getSymbol() + " of " + component.getName());
+			}
+		}
+
+		// The values are those of the rocket itself
+		assertEquals(0.5, actual.get(CADomainDataType.MACH).get(9), 0);
+		BarrowmanCalculator calculator = new BarrowmanCalculator();
+		FlightConditions conditions = new FlightConditions(rocket.getSelectedConfiguration());
+		conditions.setAOA(Math.PI / 60);
+		conditions.setTheta(parameters.getTheta());
+		conditions.setMach(0.5);
+		AerodynamicForces forces = calculator.getForceAnalysis(rocket.getSelectedConfiguration(), conditions,
+				new WarningSet()).get(rocket);
+		assertEquals(forces.getCDTotal(), actual.get(CADataType.TOTAL_CD, rocket).get(9), 0);
+		assertEquals(forces.getCP().x, actual.get(CADataType.CP_X, rocket).get(9), 0);
+	}
+
+	@Test
+	public void testCancel() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		CAParameters parameters = new CAParameters(rocket, 0);
+		final CAParameterSweep sweep = new CAParameterSweep(parameters, new BarrowmanCalculator(), rocket);
+		sweep.setThreadCount(2);
+
+		assertThrows(CancellationException.class, () -> sweep.sweep(CADomainDataType.AOA, 0, Math.PI, Math.PI / 1800,
+				parameters.getAOA(), (computed, total) -> {
+					if (computed == 10) {
+						sweep.cancel();
+					}
+				}));
+
+		// The sweep can be run again after cancelling
+		List<Double> values = sweep.sweep(CADomainDataType.AOA, 0, Math.PI / 2, Math.PI / 30, parameters.getAOA())
+				.get(CADomainDataType.AOA);
+		assertEquals(16, values.size());
+		assertFalse(values.contains(null));
+	}
+
+	/**
+	 * The values of a grid must be those of the rocket at the parameter values of each grid point.
+	 */
+	@Test
+	public void testGrid() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		CAParameters parameters = new CAParameters(rocket, 0);
+		CAParameterSweep sweep = new CAParameterSweep(parameters, new BarrowmanCalculator(), rocket);
+		sweep.setThreadCount(3);
+
+		CADomainDataType[] axes = { CADomainDataType.MACH, CADomainDataType.AOA, CADomainDataType.ROLL_RATE };
+		double[][] values = { CAParameterSweep.getSweepValues(0.1, 0.9, 0.2), { 0, Math.PI / 60, Math.PI / 30 },
+				{ 0, 10 } };
+		CAGrid grid = sweep.sweepGrid(axes, values, null, null);
+
+		assertEquals(3, grid.getDimensions());
+		assertEquals(5 * 3 * 2, grid.getSize());
+		assertArrayEquals(new double[] { 0.1, 0.3, 0.5, 0.7, 0.9 }, grid.getAxisValues(0));
+		int index = grid.getIndex(2, 1, 1);
+		assertEquals(2 * 6 + 1 * 2 + 1, index);
+		assertEquals(0.5, grid.getAxisValue(index, 0), 0);
+		assertEquals(Math.PI / 60, grid.getAxisValue(index, 1), 0);
+		assertEquals(10, grid.getAxisValue(index, 2), 0);
+
+		BarrowmanCalculator calculator = new BarrowmanCalculator();
+		FlightConditions conditions = new FlightConditions(rocket.getSelectedConfiguration());
+		conditions.setTheta(parameters.getTheta());
+		conditions.setMach(0.5);
+		conditions.setAOA(Math.PI / 60);
+		conditions.setRollRate(10);
+		Map<RocketComponent, AerodynamicForces> forces = calculator.getForceAnalysis(rocket.getSelectedConfiguration(),
+				conditions, new WarningSet());
+		assertEquals(forces.get(rocket).getCDTotal(), grid.get(CADataType.TOTAL_CD, rocket, index), 0);
+		assertEquals(forces.get(rocket).getCP().x, grid.get(CADataType.CP_X, rocket, index), 0);
+		FinSet fins = (FinSet) rocket.getChild(0).getChild(1).getChild(0);
+		assertEquals(forces.get(fins).getCrollDamp(),
+				grid.get(CADataType.ROLL_DAMPING_COEFFICIENT, fins, index), 0);
+		assertNotEquals(0, grid.get(CADataType.ROLL_DAMPING_COEFFICIENT, fins, index));
+		assertEquals(0, grid.get(CADataType.ROLL_DAMPING_COEFFICIENT, fins, grid.getIndex(2, 1, 0)), 0);
+
+		// Components without values of a type have no values
+		assertTrue(Double.isNaN(grid.get(CADataType.ROLL_DAMPING_COEFFICIENT, rocket.getChild(0).getChild(0), 0)));
+		assertEquals(List.of(rocket, fins), grid.getComponents(CADataType.ROLL_DAMPING_COEFFICIENT));
+
+		assertThrows(IllegalArgumentException.class, () -> sweep.sweepGrid(
+				new CADomainDataType[] { CADomainDataType.MACH, CADomainDataType.MACH }, new double[][] { { 0.1 },
+						{ 0.2 } }, null, null));
+	}
+
+	/**
+	 * A grid must reuse the values of the previous grid, unless the aerodynamics of the rocket have changed.
+	 */
+	@Test
+	public void testGridReuse() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		CAParameters parameters = new CAParameters(rocket, 0);
+		CAParameterSweep sweep = new CAParameterSweep(parameters, new BarrowmanCalculator(), rocket);
+		sweep.setThreadCount(2);
+
+		CADomainDataType[] axes = { CADomainDataType.MACH, CADomainDataType.AOA };
+		double[][] values = { { 0.1, 0.3, 0.5 }, { 0, Math.PI / 60 } };
+		final AtomicInteger computed = new AtomicInteger();
+		CAParameterSweep.ProgressListener listener = (count, total) -> computed.incrementAndGet();
+		CAGrid grid = sweep.sweepGrid(axes, values, null, listener);
+		assertEquals(6, computed.getAndSet(0));
+
+		// Mass changes do not change the aerodynamics
+		rocket.getChild(0).getChild(1).setMassOverridden(true);
+		rocket.getChild(0).getChild(1).setOverrideMass(0.1);
+		CAGrid reused = sweep.sweepGrid(axes, values, grid, listener);
+		assertEquals(0, computed.get());
+		assertArrayEquals(grid.getValues(CADataType.TOTAL_CD, rocket), reused.getValues(CADataType.TOTAL_CD, rocket));
+
+		// Only the new points of an extended axis are computed
+		double[][] extended = { { 0.1, 0.3, 0.5, 0.7 }, { 0, Math.PI / 60 } };
+		CAGrid larger = sweep.sweepGrid(axes, extended, reused, listener);
+		assertEquals(2, computed.getAndSet(0));
+		CAGrid full = sweep.sweepGrid(axes, extended, null, null);
+		for (CADataType type : CADataType.ALL_TYPES) {
+			for (RocketComponent component : full.getComponents(type)) {
+				assertArrayEquals(full.getValues(type, component), larger.getValues(type, component),
+						type.getSymbol() + " of " + component.getName());
+			}
+		}
+
+		// Another value of a fixed parameter recomputes the grid
+		parameters.setRollRate(5);
+		CAParameterSweep rolling = new CAParameterSweep(parameters, new BarrowmanCalculator(), rocket);
+		rolling.sweepGrid(axes, values, grid, listener);
+		assertEquals(6, computed.getAndSet(0));
+
+		// Aerodynamic changes recompute the grid
+		TrapezoidFinSet fins = (TrapezoidFinSet) rocket.getChild(0).getChild(1).getChild(0);
+		fins.setHeight(fins.getHeight() * 1.5);
+		CAGrid changed = sweep.sweepGrid(axes, values, grid, listener);
+		assertEquals(6, computed.get());
+		assertNotEquals(grid.get(CADataType.CNa, fins, 1), changed.get(CADataType.CNa, fins, 1));
+	}
+}
@@ -0,0 +1,114 @@
+package info.openrocket.core.database;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import info.openrocket.core.preset.ComponentPreset;
+import info.openrocket.core.util.BaseTestCase;
+
+public class ComponentPresetDatabaseTest extends BaseTestCase {
+
+	@TempDir
+	Path tempDir;
+
+	/**
+	 * Loading from the cache must give the same presets as parsing the files.
+	 */
+	@Test
+	public void testCachedLoading() {
+		File cache = tempDir.resolve("presets.cache").toFile();
+
+		ComponentPresetDatabaseLoader first = load(cache);
+		assertEquals(0, first.getCacheHits());
+		assertTrue(first.getCacheMisses() > 0);
+		assertTrue(cache.isFile());
+
+		ComponentPresetDatabaseLoader second = load(cache);
+		assertEquals(first.getCacheMisses(), second.getCacheHits());
+		assertEquals(0, second.getCacheMisses());
+
+		List<ComponentPreset> expected = first.getDatabase().listAll();
+		List<ComponentPreset> actual = second.getDatabase().listAll();
+		assertFalse(expected.isEmpty());
+		assertEquals(expected, actual);
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).preferenceKey(), actual.get(i).preferenceKey());
+		}
+	}
+
+	/**
+	 * The indexed queries must give the same presets in the same order as checking all presets.
+	 */
+	@Test
+	public void testQueries() {
+		ComponentPresetDatabase database = load(tempDir.resolve("presets.cache").toFile()).getDatabase();
+		List<ComponentPreset> all = database.listAll();
+
+		for (ComponentPreset.Type type : ComponentPreset.Type.values()) {
+			List<ComponentPreset> expected = new ArrayList<>();
+			for (ComponentPreset preset : all) {
+				if (preset.getType() == type) {
+					expected.add(preset);
+				}
+			}
+			assertEquals(expected, database.listForType(type), type.name());
+		}
+
+		List<ComponentPreset> expected = new ArrayList<>();
+		for (ComponentPreset preset : all) {
+			if (preset.getType() == ComponentPreset.Type.BODY_TUBE || preset.getType() == ComponentPreset.Type.TUBE_COUPLER) {
+				expected.add(preset);
+			}
+		}
+		assertEquals(expected, database.listForTypes(ComponentPreset.Type.BODY_TUBE, ComponentPreset.Type.TUBE_COUPLER));
+
+		for (int i = 0; i < all.size(); i += 11) {
+			ComponentPreset preset = all.get(i);
+			String manufacturer = preset.getManufacturer().getSimpleName();
+			expected = new ArrayList<>();
+			for (ComponentPreset p : all) {
+				if (p.getManufacturer().matches(manufacturer) && p.getPartNo().equals(preset.getPartNo())) {
+					expected.add(p);
+				}
+			}
+			assertEquals(expected, database.find(manufacturer, preset.getPartNo()));
+		}
+		assertTrue(database.find("unknown manufacturer", "unknown part").isEmpty());
+	}
+
+	/**
+	 * Adding presets again must not change the database.
+	 */
+	@Test
+	public void testAddAll() {
+		ComponentPresetDatabase database = load(tempDir.resolve("presets.cache").toFile()).getDatabase();
+		List<ComponentPreset> all = new ArrayList<>(database.listAll());
+		List<ComponentPreset> bodyTubes = database.listForType(ComponentPreset.Type.BODY_TUBE);
+
+		assertFalse(database.addAll(all));
+		assertEquals(all, database.listAll());
+
+		ComponentPresetDatabase copy = new ComponentPresetDatabase();
+		assertTrue(copy.addAll(all.subList(0, all.size() / 2)));
+		assertFalse(copy.add(all.get(0)));
+		assertTrue(copy.addAll(all));
+		assertEquals(all.size(), copy.size());
+		assertEquals(bodyTubes, copy.listForType(ComponentPreset.Type.BODY_TUBE));
+	}
+
+	private static ComponentPresetDatabaseLoader load(File cache) {
+		ComponentPresetDatabaseLoader loader = new ComponentPresetDatabaseLoader(cache);
+		loader.startLoading();
+		loader.blockUntilLoaded();
+		return loader;
+	}
+}
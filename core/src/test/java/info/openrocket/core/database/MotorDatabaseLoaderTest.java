@@ -0,0 +1,84 @@
+package info.openrocket.core.database;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import info.openrocket.core.database.motor.ThrustCurveMotorSet;
+import info.openrocket.core.motor.ThrustCurveMotor;
+import info.openrocket.core.util.BaseTestCase;
+
+public class MotorDatabaseLoaderTest extends BaseTestCase {
+
+	private static final String[] MOTOR_FILES = { "file/motor/test1.eng", "file/motor/test2.rse",
+			"file/motor/test3.rse", "Estes_A8.rse" };
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	public void testCachedLoading() throws IOException {
+		Path motorDir = Files.createDirectory(tempDir.resolve("motors"));
+		for (String name : MOTOR_FILES) {
+			try (InputStream is = getClass().getClassLoader().getResourceAsStream(name)) {
+				Files.copy(is, motorDir.resolve(new File(name).getName()));
+			}
+		}
+		File cache = tempDir.resolve("motors.cache").toFile();
+
+		// All files are parsed on the first load
+		MotorDatabaseLoader first = load(motorDir.toFile(), cache);
+		assertEquals(0, first.getCacheHits());
+		assertEquals(MOTOR_FILES.length, first.getCacheMisses());
+		assertTrue(cache.isFile());
+
+		// and read from the cache on the second load
+		MotorDatabaseLoader second = load(motorDir.toFile(), cache);
+		assertEquals(MOTOR_FILES.length, second.getCacheHits());
+		assertEquals(0, second.getCacheMisses());
+		assertEquals(getDigests(first), getDigests(second));
+
+		// A changed file is parsed again
+		Path changed = motorDir.resolve("test1.eng");
+		Files.writeString(changed, Files.readString(changed) + "\n");
+		MotorDatabaseLoader third = load(motorDir.toFile(), cache);
+		assertEquals(MOTOR_FILES.length - 1, third.getCacheHits());
+		assertEquals(1, third.getCacheMisses());
+		assertEquals(getDigests(first), getDigests(third));
+	}
+
+	/**
+	 * Load only the motors of a directory.
+	 */
+	private static MotorDatabaseLoader load(File motorDir, File cache) {
+		MotorDatabaseLoader loader = new MotorDatabaseLoader(cache) {
+			@Override
+			protected void loadDatabase() {
+				loadUserDefinedMotors(List.of(motorDir));
+			}
+		};
+		loader.startLoading();
+		loader.blockUntilLoaded();
+		return loader;
+	}
+
+	private static List<String> getDigests(MotorDatabaseLoader loader) {
+		List<String> digests = new ArrayList<>();
+		for (ThrustCurveMotorSet set : loader.getDatabase().getMotorSets()) {
+			for (ThrustCurveMotor motor : set.getMotors()) {
+				digests.add(motor.getDigest());
+			}
+		}
+		return digests;
+	}
+}
@@ -0,0 +1,133 @@
+package info.openrocket.core.database.motor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.database.MotorDatabaseLoader;
+import info.openrocket.core.motor.Motor;
+import info.openrocket.core.motor.ThrustCurveMotor;
+import info.openrocket.core.util.BaseTestCase;
+
+public class ThrustCurveMotorSetDatabaseTest extends BaseTestCase {
+
+	private static ThrustCurveMotorSetDatabase database;
+	private static List<ThrustCurveMotor> motors;
+
+	@BeforeAll
+	public static void loadDatabase() {
+		MotorDatabaseLoader loader = new MotorDatabaseLoader();
+		loader.startLoading();
+		loader.blockUntilLoaded();
+		database = loader.getDatabase();
+
+		motors = new ArrayList<>();
+		for (ThrustCurveMotorSet set : database.getMotorSets()) {
+			motors.addAll(set.getMotors());
+		}
+		assertFalse(motors.isEmpty());
+	}
+
+	/**
+	 * Adding the motors again must give the same sets as matching each motor with all sets.
+	 */
+	@Test
+	public void testAddMotor() {
+		ThrustCurveMotorSetDatabase indexed = new ThrustCurveMotorSetDatabase();
+		List<ThrustCurveMotorSet> expected = new ArrayList<>();
+		for (ThrustCurveMotor motor : motors) {
+			indexed.addMotor(motor);
+
+			ThrustCurveMotorSet match = null;
+			for (int i = expected.size() - 1; i >= 0 && match == null; i--) {
+				if (expected.get(i).matches(motor)) {
+					match = expected.get(i);
+				}
+			}
+			if (match == null) {
+				match = new ThrustCurveMotorSet();
+				expected.add(match);
+			}
+			match.addMotor(motor);
+		}
+
+		List<ThrustCurveMotorSet> actual = indexed.getMotorSets();
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).getMotors(), actual.get(i).getMotors());
+			assertEquals(expected.get(i).getType(), actual.get(i).getType());
+		}
+	}
+
+	/**
+	 * The indexed search must find the same motors in the same order as checking all motors.
+	 */
+	@Test
+	public void testFindMotors() {
+		for (int i = 0; i < motors.size(); i += 7) {
+			ThrustCurveMotor m = motors.get(i);
+			String manufacturer = m.getManufacturer().getSimpleName();
+			double diameter = m.getDiameter();
+			double length = m.getLength();
+
+			assertFindMotors(m.getDigest(), m.getMotorType(), manufacturer, m.getDesignation(), diameter, length);
+			assertFindMotors(m.getDigest(), Motor.Type.HYBRID, null, null, Double.NaN, Double.NaN);
+			assertFindMotors(null, m.getMotorType(), manufacturer, m.getDesignation(), diameter, length);
+			assertFindMotors(null, null, manufacturer, m.getCommonName(), diameter + 0.0049, Double.NaN);
+			assertFindMotors("unknown", null, null, m.getCommonName().toLowerCase(), Double.NaN, length - 0.0049);
+			assertFindMotors(null, null, manufacturer.toLowerCase(), null, diameter, Double.NaN);
+			assertFindMotors(null, m.getMotorType(), null, "X" + m.getCommonName(), Double.NaN, Double.NaN);
+		}
+		assertFindMotors(null, null, "unknown manufacturer", null, Double.NaN, Double.NaN);
+		assertFindMotors(null, null, null, null, Double.NaN, Double.NaN);
+	}
+
+	private static void assertFindMotors(String digest, Motor.Type type, String manufacturer, String designation,
+			double diameter, double length) {
+		List<ThrustCurveMotor> expected = findAllMotors(digest, type, manufacturer, designation, diameter, length);
+		List<ThrustCurveMotor> actual = database.findMotors(digest, type, manufacturer, designation, diameter, length);
+		assertEquals(expected, actual, "digest=" + digest + " type=" + type + " manufacturer=" + manufacturer
+				+ " designation=" + designation + " diameter=" + diameter + " length=" + length);
+	}
+
+	/**
+	 * Find the motors by checking all motors of the database.
+	 */
+	private static List<ThrustCurveMotor> findAllMotors(String digest, Motor.Type type, String manufacturer,
+			String designation, double diameter, double length) {
+		List<ThrustCurveMotor> fullMatches = new ArrayList<>();
+		List<ThrustCurveMotor> digestMatches = new ArrayList<>();
+		List<ThrustCurveMotor> descriptionMatches = new ArrayList<>();
+
+		for (ThrustCurveMotorSet set : database.getMotorSets()) {
+			for (ThrustCurveMotor m : set.getMotors()) {
+				boolean matchDigest = digest != null && digest.equals(m.getDigest());
+				boolean matchDescription = (type == null || type == set.getType())
+						&& (manufacturer == null || m.getManufacturer().matches(manufacturer))
+						&& (designation == null
+								|| m.getDesignation().toUpperCase().contains(designation.toUpperCase())
+								|| designation.toUpperCase().contains(m.getCommonName().toUpperCase()))
+						&& (Double.isNaN(diameter) || Math.abs(diameter - m.getDiameter()) <= 0.005)
+						&& (Double.isNaN(length) || Math.abs(length - m.getLength()) <= 0.005);
+
+				if (matchDigest)
+					digestMatches.add(m);
+				if (matchDescription)
+					descriptionMatches.add(m);
+				if (matchDigest && matchDescription)
+					fullMatches.add(m);
+			}
+		}
+
+		if (!fullMatches.isEmpty())
+			return fullMatches;
+		if (!digestMatches.isEmpty())
+			return digestMatches;
+		return descriptionMatches;
+	}
+}
@@ -0,0 +1,130 @@
+package info.openrocket.core.file;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.simulation.FlightDataBranch;
+import info.openrocket.core.simulation.FlightDataType;
+import info.openrocket.core.simulation.FlightEvent;
+import info.openrocket.core.unit.Unit;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.TestRockets;
+
+public class FlightDataCSVExporterTest extends BaseTestCase {
+
+	@TempDir
+	Path tempDir;
+
+	/**
+	 * Each branch exported into a separate file gives the same text as exporting it alone, for
+	 * any number of threads.
+	 */
+	@Test
+	public void testSeparateFiles() throws Exception {
+		List<FlightDataCSVExporter.Source> sources = createSources();
+
+		for (int threads : new int[] { 1, 4 }) {
+			List<File> files = new ArrayList<>();
+			for (int i = 0; i < sources.size(); i++) {
+				files.add(tempDir.resolve(threads + "-" + i + ".csv").toFile());
+			}
+			FlightDataCSVExporter exporter = new FlightDataCSVExporter(",", 6, false);
+			exporter.setEventComments(true);
+			exporter.setThreadCount(threads);
+			exporter.export(sources, files);
+
+			for (int i = 0; i < sources.size(); i++) {
+				FlightDataBranch branch = sources.get(i).branch();
+				FlightDataType[] types = branch.getTypes();
+				Unit[] units = new Unit[types.length];
+				for (int j = 0; j < types.length; j++) {
+					units[j] = types[j].getUnitGroup().getSIUnit();
+				}
+				ByteArrayOutputStream expected = new ByteArrayOutputStream();
+				CSVExport.exportCSV(expected, null, branch, types, units, ",", 6, false, "#", false, true, true);
+				assertArrayEquals(expected.toByteArray(), Files.readAllBytes(files.get(i).toPath()),
+						"file " + i + " with " + threads + " threads");
+			}
+		}
+	}
+
+	/**
+	 * Branches exported into a single file are written in order, with the source in the first
+	 * column, independent of the number of threads.
+	 */
+	@Test
+	public void testSingleFile() throws Exception {
+		List<FlightDataCSVExporter.Source> sources = createSources();
+		FlightDataType[] fields = { FlightDataType.TYPE_TIME, FlightDataType.TYPE_ALTITUDE };
+		Unit[] units = { FlightDataType.TYPE_TIME.getUnitGroup().getSIUnit(),
+				FlightDataType.TYPE_ALTITUDE.getUnitGroup().getUnit("ft") };
+
+		String text = null;
+		for (int threads : new int[] { 1, 4 }) {
+			FlightDataCSVExporter exporter = new FlightDataCSVExporter(";", 3, true);
+			exporter.setFields(fields, units);
+			exporter.setThreadCount(threads);
+			ByteArrayOutputStream stream = new ByteArrayOutputStream();
+			exporter.export(Channels.newChannel(stream), sources);
+			String result = stream.toString(StandardCharsets.UTF_8);
+			if (text == null) {
+				text = result;
+			} else {
+				assertEquals(text, result, threads + " threads");
+			}
+		}
+
+		String[] lines = text.split(System.lineSeparator());
+		assertEquals("# Source;" + fields[0].getName() + " (s);" + fields[1].getName() + " (ft)", lines[0]);
+		int line = 1;
+		for (FlightDataCSVExporter.Source source : sources) {
+			FlightDataBranch branch = source.branch();
+			String prefix = source.name().contains(";") ? "\"" + source.name() + "\";" : source.name() + ";";
+			for (int i = 0; i < branch.getLength(); i++) {
+				assertTrue(lines[line].startsWith(prefix), lines[line]);
+				line++;
+			}
+		}
+		assertEquals(lines.length, line);
+	}
+
+	private static List<FlightDataCSVExporter.Source> createSources() throws Exception {
+		List<FlightDataCSVExporter.Source> sources = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			Rocket rocket = TestRockets.makeEstesAlphaIII();
+			Simulation simulation = new Simulation(rocket);
+			simulation.getOptions().setISAAtmosphere(true);
+			simulation.getOptions().setTimeStep(0.05);
+			simulation.getOptions().setLaunchRodAngle(Math.toRadians(2 * i));
+			simulation.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+			simulation.simulate();
+			sources.add(new FlightDataCSVExporter.Source("Simulation " + i,
+					simulation.getSimulatedData().getBranch(0)));
+		}
+
+		// A branch without time, and a source name that needs quoting
+		FlightDataBranch branch = new FlightDataBranch("No time", FlightDataType.TYPE_ALTITUDE);
+		for (int i = 0; i < 5; i++) {
+			branch.addPoint();
+			branch.setValue(FlightDataType.TYPE_ALTITUDE, i * 0.1);
+		}
+		branch.addEvent(new FlightEvent(FlightEvent.Type.APOGEE, 1.5));
+		sources.add(new FlightDataCSVExporter.Source("Test; no time", branch));
+		return sources;
+	}
+}
@@ -0,0 +1,141 @@
+package info.openrocket.core.file.openrocket;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.simulation.FlightDataBranch;
+import info.openrocket.core.simulation.FlightDataType;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.TextUtil;
+
+public class FlightDataEntryTest extends BaseTestCase {
+
+	private static final FlightDataType[] TYPES = { FlightDataType.TYPE_TIME, FlightDataType.TYPE_ALTITUDE,
+			FlightDataType.TYPE_MACH_NUMBER, FlightDataType.TYPE_STABILITY };
+
+	/**
+	 * The values must be read back exactly as they would be from the text data points.
+	 */
+	@Test
+	public void testRoundTrip() throws IOException {
+		final int length = 1000;
+		FlightDataBranch branch = new FlightDataBranch("Test", TYPES);
+		for (int i = 0; i < length; i++) {
+			branch.addPoint();
+			branch.setValue(FlightDataType.TYPE_TIME, i * 0.01);
+			branch.setValue(FlightDataType.TYPE_ALTITUDE, 100 * Math.sin(i / 100.0));
+			branch.setValue(FlightDataType.TYPE_MACH_NUMBER, (i % 7 == 0) ? Double.NaN : 0.3);
+			branch.setValue(FlightDataType.TYPE_STABILITY, switch (i % 6) {
+				case 0 -> Double.POSITIVE_INFINITY;
+				case 1 -> -0.0;
+				case 2 -> Double.MIN_VALUE;
+				case 3 -> -Double.MAX_VALUE;
+				case 4 -> 1.0005 * i;
+				default -> 2.5e-5 * i;
+			});
+		}
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		FlightDataEntry.write(out, branch, TYPES);
+		// Much smaller than the raw doubles
+		assertTrue(out.size() < length * TYPES.length * 8 / 4, "Size " + out.size());
+
+		FlightDataBranch read = new FlightDataBranch("Test", TYPES);
+		FlightDataEntry.read(new ByteArrayInputStream(out.toByteArray()), read, TYPES);
+		assertEquals(length, read.getLength());
+		for (FlightDataType type : TYPES) {
+			assertValuesEqual(branch.getValues(type), read.getValues(type));
+		}
+		assertEquals(branch.getMaximum(FlightDataType.TYPE_ALTITUDE), read.getMaximum(FlightDataType.TYPE_ALTITUDE),
+				0.001);
+	}
+
+	/**
+	 * Values of all magnitudes, including those halfway between stored values, must be rounded like
+	 * the text data points.
+	 */
+	@Test
+	public void testRounding() throws IOException {
+		final int length = 20000;
+		Random random = new Random(42);
+		FlightDataBranch branch = new FlightDataBranch("Test", FlightDataType.TYPE_TIME);
+		for (int i = 0; i < length; i++) {
+			branch.addPoint();
+			double value;
+			if (i % 2 == 0) {
+				value = random.nextGaussian() * Math.pow(10, random.nextInt(40) - 20);
+			} else {
+				// Halfway between stored values
+				value = (random.nextInt(200000) - 100000 + 0.5) * Math.pow(10, random.nextInt(16) - 10);
+			}
+			branch.setValue(FlightDataType.TYPE_TIME, value);
+		}
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		FlightDataEntry.write(out, branch, new FlightDataType[] { FlightDataType.TYPE_TIME });
+		FlightDataBranch read = new FlightDataBranch("Test", FlightDataType.TYPE_TIME);
+		FlightDataEntry.read(new ByteArrayInputStream(out.toByteArray()), read,
+				new FlightDataType[] { FlightDataType.TYPE_TIME });
+		assertValuesEqual(branch.getValues(FlightDataType.TYPE_TIME), read.getValues(FlightDataType.TYPE_TIME));
+	}
+
+	@Test
+	public void testEmptyBranch() throws IOException {
+		FlightDataBranch branch = new FlightDataBranch("Empty", TYPES);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		FlightDataEntry.write(out, branch, TYPES);
+
+		FlightDataBranch read = new FlightDataBranch("Empty", TYPES);
+		FlightDataEntry.read(new ByteArrayInputStream(out.toByteArray()), read, TYPES);
+		assertEquals(0, read.getLength());
+		assertArrayEquals(new double[0], read.getValues(FlightDataType.TYPE_TIME));
+	}
+
+	@Test
+	public void testCorruptEntry() throws IOException {
+		FlightDataBranch branch = new FlightDataBranch("Test", TYPES);
+		for (int i = 0; i < 10; i++) {
+			branch.addPoint();
+			for (FlightDataType type : TYPES) {
+				branch.setValue(type, Math.random());
+			}
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		FlightDataEntry.write(out, branch, TYPES);
+		byte[] bytes = out.toByteArray();
+
+		// Truncated entry
+		assertThrows(IOException.class, () -> FlightDataEntry.read(
+				new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 5)),
+				new FlightDataBranch("Test", TYPES), TYPES));
+		// Other column count
+		FlightDataType[] fewer = Arrays.copyOf(TYPES, 2);
+		assertThrows(IOException.class, () -> FlightDataEntry.read(new ByteArrayInputStream(bytes),
+				new FlightDataBranch("Test", fewer), fewer));
+	}
+
+	private static void assertValuesEqual(double[] original, double[] actual) {
+		assertEquals(original.length, actual.length);
+		for (int i = 0; i < original.length; i++) {
+			// The value of the text data point
+			double expected = switch (TextUtil.doubleToString(original[i])) {
+				case "NaN" -> Double.NaN;
+				case "Inf" -> Double.POSITIVE_INFINITY;
+				case "-Inf" -> Double.NEGATIVE_INFINITY;
+				default -> Double.parseDouble(TextUtil.doubleToString(original[i]));
+			};
+			assertEquals(Double.doubleToLongBits(expected), Double.doubleToLongBits(actual[i]),
+					"Value " + original[i] + " at " + i + " read as " + actual[i]);
+		}
+	}
+}
@@ -1,19 +1,36 @@
 package info.openrocket.core.file.openrocket;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileFilter;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
 
 import info.openrocket.core.ServicesForTesting;
 import info.openrocket.core.database.ComponentPresetDao;
@@ -25,6 +42,7 @@ import info.openrocket.core.document.OpenRocketDocumentFactory;
 import info.openrocket.core.document.Simulation;
 import info.openrocket.core.document.StorageOptions;
 import info.openrocket.core.file.GeneralRocketLoader;
+import info.openrocket.core.file.GeneralRocketSaver;
 import info.openrocket.core.file.RocketLoadException;
 import info.openrocket.core.file.motor.GeneralMotorLoader;
 import info.openrocket.core.l10n.DebugTranslator;
@@ -38,6 +56,9 @@ import info.openrocket.core.plugin.PluginModule;
 import info.openrocket.core.rocketcomponent.BodyTube;
 import info.openrocket.core.rocketcomponent.FlightConfiguration;
 import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.simulation.FlightData;
+import info.openrocket.core.simulation.FlightDataBranch;
+import info.openrocket.core.simulation.FlightDataType;
 import info.openrocket.core.simulation.extension.impl.ScriptingExtension;
 import info.openrocket.core.simulation.extension.impl.ScriptingUtil;
 import info.openrocket.core.startup.Application;
@@ -336,6 +357,61 @@ public class OpenRocketSaverTest {
 		OpenRocketDocument rocketDoc = TestRockets.makeTestRocket_v110_withSimulationExtension(SIMULATION_EXTENSION_SCRIPT);
 		assertEquals(110, getCalculatedFileVersion(rocketDoc));
 	}
+
+	////////////////////////////////
+	// Tests for File Version 1.11 //
+	////////////////////////////////
+
+	@Test
+	public void testFileVersion111_withBinaryFlightData() {
+		OpenRocketDocument rocketDoc = makeSimulatedDocument();
+		StorageOptions options = new StorageOptions();
+		options.setSaveSimulationData(true);
+		assertEquals(110, saver.testAccessor_calculateNecessaryFileVersion(rocketDoc, options));
+
+		OpenRocketSaver binarySaver = new OpenRocketSaver();
+		binarySaver.setBinaryFlightData(true);
+		assertEquals(111, binarySaver.testAccessor_calculateNecessaryFileVersion(rocketDoc, options));
+
+		// Without stored flight data the older version suffices
+		options.setSaveSimulationData(false);
+		assertEquals(110, binarySaver.testAccessor_calculateNecessaryFileVersion(rocketDoc, options));
+	}
+
+	/**
+	 * Flight data saved in binary entries of the zip container must be loaded back exactly like
+	 * text data points, both from a file and from a stream.
+	 */
+	@Test
+	public void testBinaryFlightDataRoundTrip() throws Exception {
+		OpenRocketDocument rocketDoc = makeSimulatedDocument();
+		StorageOptions options = new StorageOptions();
+		options.setSaveSimulationData(true);
+		File file = new File(TMP_DIR, this.getClass().getName() + "_binary.ork");
+		new GeneralRocketSaver().save(file, rocketDoc, options);
+
+		// The document references the entries instead of containing the data points
+		try (ZipFile zip = new ZipFile(file)) {
+			assertEquals("rocket.ork", zip.entries().nextElement().getName());
+			String xml = new String(zip.getInputStream(zip.getEntry("rocket.ork")).readAllBytes(),
+					StandardCharsets.UTF_8);
+			assertTrue(xml.contains("<openrocket version=\"1.11\""));
+			assertTrue(xml.contains("dataentry=\"flightdata/0.bin\""));
+			assertFalse(xml.contains("<datapoint>"));
+			assertNotNull(zip.getEntry("flightdata/0.bin"));
+		}
+
+		FlightData expected = loadRocket(saveRocket(rocketDoc, options).getPath()).getSimulations().get(0)
+				.getSimulatedData();
+		assertTrue(expected.getBranch(0).getLength() > 100);
+		assertFlightDataEquals(expected, loadRocket(file.getPath()).getSimulations().get(0).getSimulatedData());
+		try (InputStream in = new FileInputStream(file)) {
+			GeneralRocketLoader loader = new GeneralRocketLoader(file);
+			OpenRocketDocument loaded = loader.load(in, "binary");
+			assertEquals(Simulation.Status.LOADED, loaded.getSimulations().get(0).getStatus());
+			assertFlightDataEquals(expected, loaded.getSimulations().get(0).getSimulatedData());
+		}
+	}
 	
 
 	////////////////////////////////
@@ -343,6 +419,284 @@ public class OpenRocketSaverTest {
 	 * Utility Functions
 	 */
 	
+	/**
+	 * Lazily loaded flight data must only be loaded on first access, while the summary values
+	 * and the simulation status are available immediately.
+	 */
+	@Test
+	public void testLazySimulationData() throws Exception {
+		OpenRocketDocument rocketDoc = makeSimulatedDocument();
+		StorageOptions options = new StorageOptions();
+		options.setSaveSimulationData(true);
+		File file = new File(TMP_DIR, this.getClass().getName() + "_lazy.ork");
+		new GeneralRocketSaver().save(file, rocketDoc, options);
+		FlightData expected = loadRocket(file.getPath()).getSimulations().get(0).getSimulatedData();
+
+		GeneralRocketLoader loader = new GeneralRocketLoader(file);
+		loader.setLazySimulationData(true);
+		Simulation simulation = loader.load().getSimulations().get(0);
+		assertEquals(Simulation.Status.LOADED, simulation.getStatus());
+		FlightData data = simulation.getSimulatedData();
+		assertEquals(expected.getBranchCount(), data.getBranchCount());
+		FlightDataBranch branch = data.getBranch(0);
+		assertFalse(branch.isValuesLoaded());
+		// The summary values are those saved in the file
+		FlightData saved = rocketDoc.getSimulations().get(0).getSimulatedData();
+		assertEquals(saved.getMaxAltitude(), data.getMaxAltitude(), 0.001);
+		assertEquals(saved.getTimeToApogee(), data.getTimeToApogee(), 0.001);
+		assertEquals(expected.getBranch(0).getEvents().size(), branch.getEvents().size());
+		assertFalse(branch.isValuesLoaded());
+
+		// A copy loads the values as well
+		FlightDataBranch copy = branch.clone();
+		assertFalse(copy.isValuesLoaded());
+		assertFlightDataEquals(expected, data);
+		assertTrue(branch.isValuesLoaded());
+		assertArrayEquals(expected.getBranch(0).getValues(FlightDataType.TYPE_ALTITUDE),
+				copy.getValues(FlightDataType.TYPE_ALTITUDE));
+
+		// Loading from a stream
+		try (InputStream in = new FileInputStream(file)) {
+			GeneralRocketLoader streamLoader = new GeneralRocketLoader(file);
+			streamLoader.setLazySimulationData(true);
+			FlightData streamData = streamLoader.load(in, "lazy").getSimulations().get(0).getSimulatedData();
+			assertFalse(streamData.getBranch(0).isValuesLoaded());
+			assertFlightDataEquals(expected, streamData);
+		}
+
+		// Data is read from a file that was touched but not modified
+		loader = new GeneralRocketLoader(file);
+		loader.setLazySimulationData(true);
+		simulation = loader.load().getSimulations().get(0);
+		assertTrue(file.setLastModified(file.lastModified() - 10000));
+		assertFlightDataEquals(expected, simulation.getSimulatedData());
+		assertNull(simulation.getDataLoadFailure());
+	}
+
+	/**
+	 * A lazily loaded branch whose entry has been modified must not be loaded, the failure must
+	 * be reported, and the document must not be saved without the stored data.
+	 */
+	@Test
+	public void testLazySimulationDataModified() throws Exception {
+		OpenRocketDocument rocketDoc = makeSimulatedDocument();
+		StorageOptions options = new StorageOptions();
+		options.setSaveSimulationData(true);
+		File file = new File(TMP_DIR, this.getClass().getName() + "_lazymodified.ork");
+		new GeneralRocketSaver().save(file, rocketDoc, options);
+
+		GeneralRocketLoader loader = new GeneralRocketLoader(file);
+		loader.setLazySimulationData(true);
+		OpenRocketDocument loaded = loader.load();
+		Simulation simulation = loaded.getSimulations().get(0);
+		assertEquals(Simulation.Status.LOADED, simulation.getStatus());
+
+		// Replace the file with one without simulation data
+		StorageOptions noData = new StorageOptions();
+		noData.setSaveSimulationData(false);
+		new GeneralRocketSaver().save(file, rocketDoc, noData);
+		byte[] contents = Files.readAllBytes(file.toPath());
+
+		FlightDataBranch branch = simulation.getSimulatedData().getBranch(0);
+		assertEquals(0, branch.getLength());
+		assertTrue(branch.isValuesLoaded());
+		assertNotNull(branch.getLoadFailure());
+		assertSame(branch.getLoadFailure(), simulation.getDataLoadFailure());
+		assertEquals(Simulation.Status.OUTDATED, simulation.getStatus());
+		assertEquals(simulation.getSimulatedData().getWarningSet().size() + 1,
+				simulation.getSimulatedWarnings().size());
+
+		// Saving the empty branch is refused and keeps the existing file
+		assertThrows(IOException.class, () -> new GeneralRocketSaver().save(file, loaded, options));
+		assertArrayEquals(contents, Files.readAllBytes(file.toPath()));
+		File other = new File(TMP_DIR, this.getClass().getName() + "_lazyother.ork");
+		assertThrows(IOException.class, () -> new GeneralRocketSaver().save(other, loaded, options));
+		assertFalse(other.exists());
+		File[] temporary = TMP_DIR.listFiles((dir, name) -> name.startsWith("ORSave"));
+		assertEquals(0, temporary == null ? 0 : temporary.length);
+
+		// Saving without simulation data is possible
+		new GeneralRocketSaver().save(other, loaded, noData);
+		assertTrue(other.exists());
+	}
+
+	/**
+	 * Simplified simulation data must keep the events and extreme values, and the file size
+	 * estimate must account for the simplification.
+	 */
+	@Test
+	public void testSimplifiedSimulationData() {
+		OpenRocketDocument rocketDoc = makeSimulatedDocument();
+		FlightDataBranch original = rocketDoc.getSimulations().get(0).getSimulatedData().getBranch(0);
+		StorageOptions options = new StorageOptions();
+		options.setSaveSimulationData(true);
+		long fullSize = saver.estimateFileSize(rocketDoc, options);
+		options.setSimulationDataTolerance(0.001);
+		long simplifiedSize = saver.estimateFileSize(rocketDoc, options);
+		assertTrue(simplifiedSize < fullSize, simplifiedSize + " >= " + fullSize);
+
+		File file = saveRocket(rocketDoc, options);
+		FlightDataBranch branch = loadRocket(file.getPath()).getSimulations().get(0).getSimulatedData().getBranch(0);
+		assertTrue(branch.getLength() < original.getLength());
+		assertEquals(original.getEvents().size(), branch.getEvents().size());
+		assertEquals(original.getMaximum(FlightDataType.TYPE_ALTITUDE), branch.getMaximum(FlightDataType.TYPE_ALTITUDE),
+				0.001);
+		assertEquals(original.getLast(FlightDataType.TYPE_TIME), branch.getLast(FlightDataType.TYPE_TIME), 0.001);
+	}
+
+	/**
+	 * The flight data entries of several simulations encoded in parallel must be identical to
+	 * those encoded on a single thread, and stored in document order.
+	 */
+	@Test
+	public void testParallelFlightDataEntries() throws Exception {
+		OpenRocketDocument rocketDoc = makeSimulatedDocument();
+		for (int i = 1; i < 4; i++) {
+			Simulation sim = new Simulation(rocketDoc.getRocket());
+			sim.getOptions().setISAAtmosphere(true);
+			sim.getOptions().setTimeStep(0.05);
+			sim.getOptions().setLaunchRodAngle(Math.toRadians(5 * i));
+			sim.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+			sim.simulate();
+			rocketDoc.addSimulation(sim);
+		}
+		StorageOptions options = new StorageOptions();
+		options.setSaveSimulationData(true);
+		options.setSimulationDataTolerance(0.0001);
+
+		Map<String, byte[]> expected = readZipEntries(saveZip(rocketDoc, options, 1));
+		byte[] parallel = saveZip(rocketDoc, options, 4);
+		Map<String, byte[]> actual = readZipEntries(parallel);
+		assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(actual.keySet()));
+		for (String name : expected.keySet()) {
+			assertArrayEquals(expected.get(name), actual.get(name), name);
+		}
+		List<String> names = new ArrayList<>(actual.keySet());
+		int branches = 0;
+		for (Simulation sim : rocketDoc.getSimulations()) {
+			for (int i = 0; i < sim.getSimulatedData().getBranchCount(); i++) {
+				assertEquals(OpenRocketSaver.FLIGHT_DATA_DIRECTORY + branches + ".bin", names.get(branches + 1));
+				branches++;
+			}
+		}
+		assertEquals(branches + 1, names.size());
+
+		GeneralRocketLoader loader = new GeneralRocketLoader(new File("parallel.ork"));
+		OpenRocketDocument loaded = loader.load(new ByteArrayInputStream(parallel), "parallel");
+		assertEquals(4, loaded.getSimulationCount());
+		for (int i = 0; i < 4; i++) {
+			FlightDataBranch original = rocketDoc.getSimulations().get(i).getSimulatedData().getBranch(0);
+			FlightDataBranch branch = loaded.getSimulations().get(i).getSimulatedData().getBranch(0);
+			assertTrue(branch.getLength() > 0 && branch.getLength() < original.getLength());
+			assertEquals(original.getLast(FlightDataType.TYPE_TIME), branch.getLast(FlightDataType.TYPE_TIME), 0.001);
+		}
+	}
+
+	/**
+	 * The threads encoding the flight data entries must be stopped when saving fails before
+	 * the entries are written.
+	 */
+	@Test
+	public void testFailedSaveStopsEncoding() throws Exception {
+		OpenRocketDocument rocketDoc = makeSimulatedDocument();
+		StorageOptions options = new StorageOptions();
+		options.setSaveSimulationData(true);
+
+		GeneralRocketSaver generalSaver = new GeneralRocketSaver();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		generalSaver.saveAllPartsZipFile(bytes, rocketDoc, options, Set.of());
+		byte[] zip = bytes.toByteArray();
+
+		// Fail while closing the document entry, before the flight data entries are written
+		String name = OpenRocketSaver.FLIGHT_DATA_DIRECTORY + "0.bin";
+		int limit = new String(zip, StandardCharsets.ISO_8859_1).indexOf(name) - 31;
+		assertTrue(limit > 0);
+		OutputStream failing = new OutputStream() {
+			private int count = 0;
+
+			@Override
+			public void write(int b) throws IOException {
+				write(new byte[] { (byte) b }, 0, 1);
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				if (count + len > limit) {
+					throw new IOException("Disk full");
+				}
+				count += len;
+			}
+		};
+		assertThrows(IOException.class, () -> generalSaver.saveAllPartsZipFile(failing, rocketDoc, options, Set.of()));
+
+		for (int i = 0; i < 50 && hasSaverThreads(); i++) {
+			Thread.sleep(100);
+		}
+		assertFalse(hasSaverThreads());
+	}
+
+	private static boolean hasSaverThreads() {
+		return Thread.getAllStackTraces().keySet().stream()
+				.anyMatch(t -> t.isAlive() && t.getName().equals("OpenRocketSaver"));
+	}
+
+	private static byte[] saveZip(OpenRocketDocument rocketDoc, StorageOptions options, int threadCount)
+			throws IOException {
+		OpenRocketSaver binarySaver = new OpenRocketSaver();
+		binarySaver.setBinaryFlightData(true);
+		binarySaver.setThreadCount(threadCount);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ZipOutputStream zos = new ZipOutputStream(bytes)) {
+			zos.putNextEntry(new ZipEntry("rocket.ork"));
+			binarySaver.save(zos, rocketDoc, options, new WarningSet(), new ErrorSet());
+			zos.closeEntry();
+			binarySaver.saveFlightDataEntries(zos);
+		}
+		return bytes.toByteArray();
+	}
+
+	private static Map<String, byte[]> readZipEntries(byte[] zip) throws IOException {
+		Map<String, byte[]> entries = new LinkedHashMap<>();
+		try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+			ZipEntry entry;
+			while ((entry = in.getNextEntry()) != null) {
+				entries.put(entry.getName(), in.readAllBytes());
+			}
+		}
+		return entries;
+	}
+
+	private static OpenRocketDocument makeSimulatedDocument() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		OpenRocketDocument rocketDoc = OpenRocketDocumentFactory.createDocumentFromRocket(rocket);
+		Simulation sim = new Simulation(rocket);
+		sim.getOptions().setISAAtmosphere(true);
+		sim.getOptions().setTimeStep(0.05);
+		sim.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+		try {
+			sim.simulate();
+		} catch (Exception e) {
+			fail(e.toString());
+		}
+		rocketDoc.addSimulation(sim);
+		return rocketDoc;
+	}
+
+	private static void assertFlightDataEquals(FlightData expected, FlightData actual) {
+		assertNotNull(actual);
+		assertEquals(expected.getBranchCount(), actual.getBranchCount());
+		for (int i = 0; i < expected.getBranchCount(); i++) {
+			FlightDataBranch expectedBranch = expected.getBranch(i);
+			FlightDataBranch actualBranch = actual.getBranch(i);
+			assertEquals(expectedBranch.getName(), actualBranch.getName());
+			assertEquals(expectedBranch.getLength(), actualBranch.getLength());
+			assertEquals(expectedBranch.getEvents().size(), actualBranch.getEvents().size());
+			for (FlightDataType type : expectedBranch.getTypes()) {
+				assertArrayEquals(expectedBranch.getValues(type), actualBranch.getValues(type), type.getName());
+			}
+		}
+	}
+
 	private int getCalculatedFileVersion(OpenRocketDocument rocketDoc) {
 		int fileVersion = this.saver.testAccessor_calculateNecessaryFileVersion(rocketDoc, null);
 		return fileVersion;
@@ -0,0 +1,108 @@
+package info.openrocket.core.motor;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.util.Coordinate;
+
+public class BinaryMotorDatabaseTest {
+
+	private static final ThrustCurveMotor motorX6 = new ThrustCurveMotor.Builder()
+			.setManufacturer(Manufacturer.getManufacturer("AeroTech"))
+			.setDesignation("X6")
+			.setDescription("Description of X6")
+			.setMotorType(Motor.Type.RELOAD)
+			.setStandardDelays(new double[] { 0, 2, Motor.PLUGGED_DELAY })
+			.setDiameter(0.05)
+			.setLength(0.1)
+			.setTimePoints(new double[] { 0, 1, 3, 4 })
+			.setThrustPoints(new double[] { 0, 2, 3, 0 })
+			.setCGPoints(new Coordinate[] {
+					new Coordinate(0.02, 0, 0, 0.05),
+					new Coordinate(0.02, 0, 0, 0.05),
+					new Coordinate(0.02, 0, 0, 0.05),
+					new Coordinate(0.03, 0, 0, 0.03) })
+			.setCaseInfo(null)
+			.setPropellantInfo("Blue Thunder")
+			.setDigest("digestX6")
+			.setAvailability(false)
+			.build();
+
+	private static final ThrustCurveMotor motorY2 = new ThrustCurveMotor.Builder()
+			.setManufacturer(Manufacturer.getManufacturer("Unlisted manufacturer"))
+			.setCode("Y2")
+			.setMotorType(Motor.Type.SINGLE)
+			.setDiameter(0.018)
+			.setLength(0.07)
+			.setInitialMass(0.02)
+			.setTimePoints(new double[] { 0, 0.5, 1.25 })
+			.setThrustPoints(new double[] { 1, 3, 0.5 })
+			.setCGPoints(new Coordinate[] {
+					new Coordinate(0.035, 0, 0, 0.02),
+					new Coordinate(0.0351, 0.001, -0.001, 0.017),
+					new Coordinate(0.036, 0, 0, 0.015) })
+			.setDigest("digestY2")
+			.build();
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		BinaryMotorDatabase.write(List.of(motorX6, motorY2), out);
+		List<ThrustCurveMotor> motors = BinaryMotorDatabase.read(new ByteArrayInputStream(out.toByteArray()));
+		assertEquals(2, motors.size());
+
+		assertNull(motors.get(0).getCaseInfo());
+		for (int i = 0; i < motors.size(); i++) {
+			ThrustCurveMotor expected = (i == 0) ? motorX6 : motorY2;
+			ThrustCurveMotor actual = motors.get(i);
+
+			// The metadata is available without reading the thrust curve
+			assertSame(expected.getManufacturer(), actual.getManufacturer());
+			assertEquals(expected.getCode(), actual.getCode());
+			assertEquals(expected.getCommonName(), actual.getCommonName());
+			assertEquals(expected.getDesignation(), actual.getDesignation());
+			assertEquals(expected.getDescription(), actual.getDescription());
+			assertEquals(expected.getMotorType(), actual.getMotorType());
+			assertEquals(expected.getCaseInfo(), actual.getCaseInfo());
+			assertEquals(expected.getPropellantInfo(), actual.getPropellantInfo());
+			assertEquals(expected.getDigest(), actual.getDigest());
+			assertEquals(expected.isAvailable(), actual.isAvailable());
+			assertEquals(expected.getDiameter(), actual.getDiameter(), 0);
+			assertEquals(expected.getLength(), actual.getLength(), 0);
+			assertEquals(expected.getInitialMass(), actual.getInitialMass(), 0);
+			assertArrayEquals(expected.getStandardDelays(), actual.getStandardDelays(), 0);
+			assertEquals(expected.getMaxThrustEstimate(), actual.getMaxThrustEstimate(), 0);
+			assertEquals(expected.getBurnTimeEstimate(), actual.getBurnTimeEstimate(), 0);
+			assertEquals(expected.getAverageThrustEstimate(), actual.getAverageThrustEstimate(), 0);
+			assertEquals(expected.getTotalImpulseEstimate(), actual.getTotalImpulseEstimate(), 0);
+			assertEquals(expected.getUnitRotationalInertia(), actual.getUnitRotationalInertia(), 0);
+			assertEquals(expected.getSampleSize(), actual.getSampleSize());
+
+			assertEquals(expected.getThrust(0.7), actual.getThrust(0.7), 0);
+			assertEquals(expected.getAverageThrust(0.2, 1.1), actual.getAverageThrust(0.2, 1.1), 0);
+			assertArrayEquals(expected.getTimePoints(), actual.getTimePoints(), 0);
+			assertArrayEquals(expected.getThrustPoints(), actual.getThrustPoints(), 0);
+			assertArrayEquals(expected.getCGPoints(), actual.getCGPoints());
+			assertEquals(expected.getLaunchMass(), actual.getLaunchMass(), 0);
+		}
+	}
+
+	@Test
+	public void testInvalidDatabase() {
+		assertThrows(IOException.class,
+				() -> BinaryMotorDatabase.read(new ByteArrayInputStream(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 })));
+
+		byte[] truncated = new byte[] { 0x4F, 0x52, 0x4D, 0x44, 0, 0, 0, 1, 0, 0 };
+		assertThrows(IOException.class, () -> BinaryMotorDatabase.read(new ByteArrayInputStream(truncated)));
+	}
+}
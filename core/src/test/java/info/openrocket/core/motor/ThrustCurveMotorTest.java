@@ -200,4 +200,66 @@ public class ThrustCurveMotorTest {
 		assertEquals(ThrustCurveMotor.Builder.simplifyDesignation("Micro Maxx II"), "MicroMaxxII");
 	}
 
+	@Test
+	public void testAverageThrust() {
+		final ThrustCurveMotor mtr = motorEstesA8_3;
+
+		// the average of a linear segment
+		assertEquals(1.0, motorX6.getAverageThrust(0, 1), 0.000001);
+		assertEquals(2.25, motorX6.getAverageThrust(1, 2), 0.000001);
+		// the thrust is zero after the end of the curve
+		assertEquals(7.5 / 8, motorX6.getAverageThrust(0, 8), 0.000001);
+		assertEquals(0.0, motorX6.getAverageThrust(4.5, 5), 0.0);
+		assertEquals(mtr.getTotalImpulseEstimate(), mtr.getAverageThrust(0, 1) * 1, 0.000001);
+
+		final double[] times = { 0, 0.01, 0.041, 0.05, 0.206, 0.3, 0.5, 0.73, 0.8 };
+		for (double startTime : times) {
+			for (double endTime : times) {
+				if (endTime > startTime) {
+					assertEquals(integrateThrust(mtr, startTime, endTime) / (endTime - startTime),
+							mtr.getAverageThrust(startTime, endTime), 0.000001,
+							"Average thrust from " + startTime + " to " + endTime);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testCursor() {
+		final ThrustCurveMotor mtr = motorEstesA8_3;
+		final ThrustCurveMotor.Cursor cursor = mtr.getCursor();
+
+		// increasing times, with small and large steps
+		for (double motorTime = 0; motorTime < 1; motorTime += 0.0037) {
+			assertEquals(mtr.getThrust(motorTime), cursor.getThrust(motorTime), 0.0);
+			assertEquals(mtr.getAverageThrust(motorTime, motorTime + 0.01),
+					cursor.getAverageThrust(motorTime, motorTime + 0.01), 0.0);
+		}
+		for (double motorTime = 0; motorTime < 1; motorTime += 0.15) {
+			assertEquals(mtr.getThrust(motorTime), cursor.getThrust(motorTime), 0.0);
+		}
+
+		// decreasing and invalid times
+		for (double motorTime : new double[] { 0.73, 0.206, 0.3, 0.041, 0, 2, -1 }) {
+			assertEquals(mtr.getThrust(motorTime), cursor.getThrust(motorTime), 0.0);
+		}
+		assertTrue(Double.isNaN(cursor.getThrust(Double.NaN)));
+	}
+
+	/**
+	 * Integrate the thrust numerically with small steps.
+	 */
+	private static double integrateThrust(ThrustCurveMotor mtr, double startTime, double endTime) {
+		final int steps = 100000;
+		final double dt = (endTime - startTime) / steps;
+		double impulse = 0;
+		for (int i = 0; i < steps; i++) {
+			final double t = startTime + (i + 0.5) * dt;
+			if (t < mtr.getBurnTime()) {
+				impulse += mtr.getThrust(t) * dt;
+			}
+		}
+		return impulse;
+	}
+
 }
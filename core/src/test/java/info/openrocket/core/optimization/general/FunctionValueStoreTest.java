@@ -0,0 +1,173 @@
+package info.openrocket.core.optimization.general;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class FunctionValueStoreTest {
+
+	private static final long SIZE = 1024 * 1024;
+
+	@TempDir
+	Path tempDir;
+
+	/**
+	 * Values stored by one optimization must be used by the next one instead of evaluating the function.
+	 */
+	@Test
+	public void testReuse() throws Exception {
+		File dir = tempDir.toFile();
+		final AtomicInteger evaluations = new AtomicInteger();
+		Function function = new Function() {
+			@Override
+			public double evaluate(Point p) {
+				evaluations.incrementAndGet();
+				return p.get(0) + 2 * p.get(1);
+			}
+		};
+		List<Point> points = List.of(new Point(0.1, 0.2), new Point(0.3, 0.4), new Point(0.5, 0.6));
+
+		try (FunctionValueStore store = new FunctionValueStore(dir, "abc", 2, SIZE)) {
+			assertEquals(0, store.size());
+			assertEquals(3, compute(function, store, points));
+			assertEquals(3, store.size());
+		}
+		assertEquals(3, evaluations.get());
+
+		try (FunctionValueStore store = new FunctionValueStore(dir, "abc", 2, SIZE)) {
+			assertEquals(3, store.size());
+			assertEquals(0.3 + 2 * 0.4, store.get(new Point(0.3, 0.4)), 0);
+			assertEquals(3, compute(function, store, points));
+		}
+		assertEquals(3, evaluations.get());
+
+		// Another function does not use the values
+		try (FunctionValueStore store = new FunctionValueStore(dir, "def", 2, SIZE)) {
+			assertEquals(0, store.size());
+			assertNull(store.get(new Point(0.3, 0.4)));
+		}
+	}
+
+	/**
+	 * A value partially written during a crash must be ignored, and the values after it must be readable.
+	 */
+	@Test
+	public void testTruncatedFile() throws IOException {
+		File dir = tempDir.toFile();
+		try (FunctionValueStore store = new FunctionValueStore(dir, "abc", 1, SIZE)) {
+			store.put(new Point(0.1), 1);
+			store.put(new Point(0.2), 2);
+		}
+		try (FileOutputStream out = new FileOutputStream(new File(dir, "abc.values"), true)) {
+			out.write(new byte[] { 1, 2, 3 });
+		}
+
+		try (FunctionValueStore store = new FunctionValueStore(dir, "abc", 1, SIZE)) {
+			assertEquals(2, store.size());
+			store.put(new Point(0.3), 3);
+		}
+		try (FunctionValueStore store = new FunctionValueStore(dir, "abc", 1, SIZE)) {
+			assertEquals(3, store.size());
+			assertEquals(3, store.get(new Point(0.3)), 0);
+		}
+
+		// A store of another dimensionality is discarded
+		try (FunctionValueStore store = new FunctionValueStore(dir, "abc", 2, SIZE)) {
+			assertEquals(0, store.size());
+		}
+	}
+
+	/**
+	 * The oldest values and the least recently used stores must be evicted to stay within the size cap.
+	 */
+	@Test
+	public void testSizeCap() {
+		File dir = tempDir.toFile();
+		final long size = 16 * 100;
+		try (FunctionValueStore store = new FunctionValueStore(dir, "first", 3, size)) {
+			for (int i = 0; i < 60; i++) {
+				store.put(new Point(i / 100.0, 0, 0), i);
+			}
+			assertTrue(store.size() <= 25);
+		}
+		new File(dir, "first.values").setLastModified(System.currentTimeMillis() - 60000);
+
+		try (FunctionValueStore store = new FunctionValueStore(dir, "second", 1, size)) {
+			for (int i = 0; i < 150; i++) {
+				store.put(new Point(i / 1000.0), i);
+			}
+			assertTrue(store.size() <= 50);
+			assertNull(store.get(new Point(0.0)));
+			assertEquals(149, store.get(new Point(0.149)), 0);
+		}
+		assertTrue(new File(dir, "second.values").length() <= size / 2 + 100);
+
+		try (FunctionValueStore store = new FunctionValueStore(dir, "third", 1, size)) {
+			for (int i = 0; i < 50; i++) {
+				store.put(new Point(i / 100.0), i);
+			}
+		}
+
+		try (FunctionValueStore store = new FunctionValueStore(dir, "fourth", 1, size)) {
+			store.put(new Point(0.5), 1);
+		}
+		assertFalse(new File(dir, "first.values").exists());
+		assertTrue(new File(dir, "third.values").exists());
+		long total = 0;
+		for (File f : dir.listFiles()) {
+			total += f.length();
+		}
+		assertTrue(total <= size + 100);
+	}
+
+	@Test
+	public void testClear() {
+		File dir = tempDir.toFile();
+		try (FunctionValueStore store = new FunctionValueStore(dir, "first", 1, SIZE)) {
+			store.put(new Point(0.5), 1);
+		}
+		try (FunctionValueStore store = new FunctionValueStore(dir, "second", 1, SIZE)) {
+			store.put(new Point(0.5), 2);
+		}
+
+		assertEquals(2, FunctionValueStore.clear(dir));
+		assertEquals(0, dir.listFiles().length);
+		try (FunctionValueStore store = new FunctionValueStore(dir, "first", 1, SIZE)) {
+			assertEquals(0, store.size());
+		}
+		assertEquals(0, FunctionValueStore.clear(new File(dir, "missing")));
+	}
+
+	/**
+	 * Compute the points using a cache with the value store and return the number of computed values.
+	 */
+	private static int compute(Function function, FunctionValueStore store, List<Point> points)
+			throws InterruptedException, OptimizationException {
+		ParallelExecutorCache cache = new ParallelExecutorCache(1);
+		try {
+			cache.setFunction(function);
+			cache.setValueStore(store);
+			cache.compute(points);
+			cache.waitFor(points);
+			int count = 0;
+			for (Point p : points) {
+				assertEquals(p.get(0) + 2 * p.get(1), cache.getValue(p), 1e-10);
+				count++;
+			}
+			return count;
+		} finally {
+			cache.getExecutor().shutdownNow();
+		}
+	}
+}
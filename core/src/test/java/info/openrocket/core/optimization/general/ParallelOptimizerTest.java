@@ -0,0 +1,208 @@
+package info.openrocket.core.optimization.general;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.optimization.general.multidim.DifferentialEvolutionOptimizer;
+import info.openrocket.core.optimization.general.multidim.MultidirectionalSearchOptimizer;
+import info.openrocket.core.optimization.general.onedim.GoldenSectionSearchOptimizer;
+
+public class ParallelOptimizerTest {
+
+	/**
+	 * Looking ahead must give the same optimization steps, while evaluating on several threads.
+	 */
+	@Test
+	public void testGoldenSectionLookAhead() throws OptimizationException {
+		Point optimum = new Point(0.3141);
+		List<Point> expected = optimize(optimum, ConcurrentHashMap.newKeySet(), new GoldenSectionSearchOptimizer(), 1);
+		Set<String> threads = ConcurrentHashMap.newKeySet();
+		GoldenSectionSearchOptimizer optimizer = new GoldenSectionSearchOptimizer();
+		optimizer.setLookAhead(true);
+		List<Point> actual = optimize(optimum, threads, optimizer, 6);
+
+		assertEquals(expected, actual);
+		assertEquals(optimum.get(0), optimizer.getOptimumPoint().get(0), 0.001);
+		assertTrue(threads.size() > 1);
+	}
+
+	@Test
+	public void testMultidirectionalSearchLookAhead() throws OptimizationException {
+		Point optimum = new Point(0.3141, 0.7, 0.55);
+		List<Point> expected = optimize(optimum, ConcurrentHashMap.newKeySet(), new MultidirectionalSearchOptimizer(), 1);
+		Set<String> threads = ConcurrentHashMap.newKeySet();
+		MultidirectionalSearchOptimizer optimizer = new MultidirectionalSearchOptimizer();
+		optimizer.setLookAhead(true);
+		List<Point> actual = optimize(optimum, threads, optimizer, 12);
+
+		assertEquals(expected, actual);
+		assertEquals(0, optimizer.getOptimumPoint().sub(optimum).length(), 0.01);
+		assertTrue(threads.size() > 1);
+	}
+
+	/**
+	 * Differential evolution must find the optimum within the domain, computing each generation in parallel.
+	 */
+	@Test
+	public void testDifferentialEvolution() throws OptimizationException {
+		final Point optimum = new Point(0.3141, 0.7, 0.55);
+		final Set<String> threads = ConcurrentHashMap.newKeySet();
+		final List<Point> evaluated = Collections.synchronizedList(new ArrayList<>());
+		Function function = new Function() {
+			@Override
+			public double evaluate(Point p) throws InterruptedException {
+				threads.add(Thread.currentThread().getName() + Thread.currentThread().getId());
+				evaluated.add(p);
+				Thread.sleep(1);
+				// The domain excludes the optimum, like the penalty of a simulation domain
+				if (p.get(1) > 0.6) {
+					return (p.get(1) - 0.6 + 1) * 1e6;
+				}
+				return p.sub(optimum).length2();
+			}
+		};
+
+		DifferentialEvolutionOptimizer optimizer = new DifferentialEvolutionOptimizer();
+		optimizer.setRandom(new Random(42));
+		optimizer.setPopulationSize(16);
+		final List<Double> steps = new ArrayList<>();
+		optimize(function, 3, optimizer, 8, new OptimizationController() {
+			@Override
+			public boolean stepTaken(Point oldPoint, double oldValue, Point newPoint, double newValue,
+					double stepSize) {
+				assertTrue(newValue <= oldValue);
+				steps.add(stepSize);
+				return stepSize >= 0.001;
+			}
+		});
+
+		assertEquals(0, optimizer.getOptimumPoint().sub(new Point(0.3141, 0.6, 0.55)).length(), 0.01);
+		assertEquals(0.01, optimizer.getOptimumValue(), 0.001);
+		// Points already in the cache are not evaluated again
+		assertTrue(evaluated.size() <= 16 * (steps.size() + 1));
+		assertTrue(evaluated.size() > 8 * (steps.size() + 1));
+		for (Point p : evaluated) {
+			for (int i = 0; i < p.dim(); i++) {
+				assertTrue(p.get(i) >= 0 && p.get(i) <= 1, "Point outside of range: " + p);
+			}
+		}
+		assertTrue(threads.size() > 1);
+	}
+
+	/**
+	 * Differential evolution must stop when the controller tells it to.
+	 */
+	@Test
+	public void testDifferentialEvolutionStop() throws OptimizationException {
+		final Point optimum = new Point(0.3141, 0.7);
+		Function function = new Function() {
+			@Override
+			public double evaluate(Point p) {
+				return p.sub(optimum).length2();
+			}
+		};
+
+		DifferentialEvolutionOptimizer optimizer = new DifferentialEvolutionOptimizer();
+		optimizer.setRandom(new Random(42));
+		final List<Point> steps = new ArrayList<>();
+		optimize(function, 2, optimizer, 2, new OptimizationController() {
+			@Override
+			public boolean stepTaken(Point oldPoint, double oldValue, Point newPoint, double newValue,
+					double stepSize) {
+				steps.add(newPoint);
+				return steps.size() < 3;
+			}
+		});
+
+		assertEquals(3, steps.size());
+		assertEquals(steps.get(2), optimizer.getOptimumPoint());
+	}
+
+	/**
+	 * The random points of the initial population must be spread evenly, one in each stratum
+	 * of the range of every dimension.
+	 */
+	@Test
+	public void testDifferentialEvolutionInitialPopulation() throws OptimizationException {
+		final Point optimum = new Point(0.3141, 0.7, 0.55);
+		final List<Point> evaluated = Collections.synchronizedList(new ArrayList<>());
+		Function function = new Function() {
+			@Override
+			public double evaluate(Point p) {
+				evaluated.add(p);
+				return p.sub(optimum).length2();
+			}
+		};
+
+		DifferentialEvolutionOptimizer optimizer = new DifferentialEvolutionOptimizer();
+		optimizer.setRandom(new Random(42));
+		optimizer.setPopulationSize(13);
+		optimize(function, 3, optimizer, 1, new OptimizationController() {
+			@Override
+			public boolean stepTaken(Point oldPoint, double oldValue, Point newPoint, double newValue,
+					double stepSize) {
+				return false;
+			}
+		});
+
+		// The first point is the initial point, followed by the random points
+		assertEquals(new Point(3, 0.5), evaluated.get(0));
+		for (int i = 0; i < 3; i++) {
+			Set<Integer> strata = new HashSet<>();
+			for (Point p : evaluated.subList(1, 13)) {
+				strata.add((int) (p.get(i) * 12));
+			}
+			assertEquals(12, strata.size());
+		}
+	}
+
+	/**
+	 * Optimize a quadratic function with a slow evaluation and return the points of the steps.
+	 */
+	private static List<Point> optimize(final Point optimum, final Set<String> threads, FunctionOptimizer optimizer,
+			int threadCount) throws OptimizationException {
+		Function function = new Function() {
+			@Override
+			public double evaluate(Point p) throws InterruptedException {
+				threads.add(Thread.currentThread().getName() + Thread.currentThread().getId());
+				Thread.sleep(2);
+				return p.sub(optimum).length2();
+			}
+		};
+
+		final List<Point> steps = new ArrayList<>();
+		OptimizationController control = new OptimizationController() {
+			@Override
+			public boolean stepTaken(Point oldPoint, double oldValue, Point newPoint, double newValue,
+					double stepSize) {
+				steps.add(newPoint);
+				return stepSize >= 0.001;
+			}
+		};
+
+		optimize(function, optimum.dim(), optimizer, threadCount, control);
+		return steps;
+	}
+
+	private static void optimize(Function function, int dim, FunctionOptimizer optimizer, int threadCount,
+			OptimizationController control) throws OptimizationException {
+		ParallelExecutorCache cache = new ParallelExecutorCache(threadCount);
+		try {
+			cache.setFunction(function);
+			optimizer.setFunctionCache(cache);
+			optimizer.optimize(new Point(dim, 0.5), control);
+		} finally {
+			cache.getExecutor().shutdownNow();
+		}
+	}
+}
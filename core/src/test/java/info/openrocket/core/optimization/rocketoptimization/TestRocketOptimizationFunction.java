@@ -2,25 +2,44 @@ package info.openrocket.core.optimization.rocketoptimization;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 
 import info.openrocket.core.document.Simulation;
+import info.openrocket.core.optimization.general.FunctionValueStore;
 import info.openrocket.core.optimization.general.OptimizationException;
+import info.openrocket.core.optimization.general.ParallelExecutorCache;
 import info.openrocket.core.optimization.general.Point;
+import info.openrocket.core.optimization.rocketoptimization.domains.IdentitySimulationDomain;
+import info.openrocket.core.optimization.rocketoptimization.goals.MaximizationGoal;
+import info.openrocket.core.optimization.rocketoptimization.goals.ValueSeekGoal;
+import info.openrocket.core.optimization.rocketoptimization.modifiers.GenericComponentModifier;
+import info.openrocket.core.optimization.rocketoptimization.parameters.MaximumAltitudeParameter;
+import info.openrocket.core.rocketcomponent.BodyTube;
 import info.openrocket.core.rocketcomponent.Rocket;
 import info.openrocket.core.unit.Unit;
 import info.openrocket.core.unit.UnitGroup;
 import info.openrocket.core.unit.Value;
 import info.openrocket.core.util.Pair;
 import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.TestRockets;
 import org.mockito.ArgumentMatcher;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -41,6 +60,9 @@ public class TestRocketOptimizationFunction extends BaseTestCase {
 	@Mock
 	RocketOptimizationListener listener;
 
+	@TempDir
+	Path tempDir;
+
 	@Test
 	public void testNormalEvaluation() throws InterruptedException, OptimizationException {
 		final Rocket rocket = new Rocket();
@@ -217,6 +239,70 @@ public class TestRocketOptimizationFunction extends BaseTestCase {
 		verify(domain).getDistanceToDomain(simulation);
 	}
 
+	/**
+	 * An optimization resumed from a value store must notify the listeners of the stored values
+	 * with the stored parameter values, without simulating again.
+	 */
+	@Test
+	public void testResumeFromStore() throws InterruptedException, OptimizationException {
+		final Rocket rocket = new Rocket();
+		final Simulation simulation = new Simulation(rocket);
+
+		final Point inside = new Point(0.4, 0.7);
+		final Point outside = new Point(0.9, 0.1);
+		final Value dref = new Value(-0.43, Unit.NOUNIT);
+		final Value outsideDref = new Value(0.5, Unit.NOUNIT);
+		final double outsideGoal = 1.5e200;
+		final double pvalue = 9.81;
+		final Value pvalueValue = new Value(9.81, Unit.NOUNIT);
+		final double gvalue = 8.81;
+
+		// The cache evaluates the points in order on a single thread, first computed and then restored
+		final List<Pair<Double, Value>> distances = List.of(new Pair<>(-0.43, dref),
+				new Pair<>(0.5, outsideDref), new Pair<>(-0.43, dref), new Pair<>(0.5, outsideDref));
+		final AtomicInteger distanceCount = new AtomicInteger();
+		when(domain.getDistanceToDomain(simulation))
+				.thenAnswer(invocation -> distances.get(distanceCount.getAndIncrement()));
+		when(parameter.computeValue(simulation)).thenReturn(pvalue);
+		when(parameter.getUnitGroup()).thenReturn(UnitGroup.UNITS_NONE);
+		when(goal.getMinimizationParameter(pvalue)).thenReturn(gvalue);
+		when(modifier1.getUnitGroup()).thenReturn(UnitGroup.UNITS_LENGTH);
+		when(modifier2.getUnitGroup()).thenReturn(UnitGroup.UNITS_LENGTH);
+
+		RocketOptimizationFunction function = new RocketOptimizationFunction(simulation,
+				parameter, goal, domain, modifier1, modifier2) {
+			@Override
+			Simulation newSimulationInstance(Simulation sim) {
+				return sim;
+			}
+		};
+		function.addRocketOptimizationListener(listener);
+
+		File dir = tempDir.toFile();
+		List<Point> points = List.of(inside, outside);
+		for (int run = 0; run < 2; run++) {
+			try (FunctionValueStore store = new FunctionValueStore(dir, "resume", 2,
+					function.getStoredDataLength(), 1024 * 1024)) {
+				assertEquals(2 * run, store.size());
+				ParallelExecutorCache cache = new ParallelExecutorCache(1);
+				try {
+					cache.setFunction(function);
+					cache.setValueStore(store);
+					cache.compute(points);
+					cache.waitFor(points);
+					assertEquals(gvalue, cache.getValue(inside), 0);
+					assertEquals(outsideGoal, cache.getValue(outside), 0);
+				} finally {
+					cache.getExecutor().shutdownNow();
+				}
+			}
+		}
+
+		verify(parameter, times(1)).computeValue(simulation);
+		verify(listener, times(2)).evaluated(eq(inside), any(), eq(dref), eq(pvalueValue), eq(gvalue));
+		verify(listener, times(2)).evaluated(eq(outside), any(), eq(outsideDref), isNull(), eq(outsideGoal));
+	}
+
 	@Test
 	public void testNewSimulationNames() {
 		final Rocket rocket = new Rocket();
@@ -234,4 +320,36 @@ public class TestRocketOptimizationFunction extends BaseTestCase {
 		assertEquals(sim.getRocket().getName(), "Foobar");
 	}
 
+	@Test
+	public void testCacheKey() throws IOException {
+		final Rocket rocket = TestRockets.makeEstesAlphaIII();
+		final Simulation simulation = new Simulation(rocket);
+		final SimulationModifier modifier = new GenericComponentModifier("Length", "Body tube length",
+				rocket.getChild(0).getChild(1), UnitGroup.UNITS_LENGTH, 1.0, BodyTube.class,
+				rocket.getChild(0).getChild(1).getID(), "Length");
+		modifier.setMinValue(0.1);
+		modifier.setMaxValue(0.3);
+
+		String key = new RocketOptimizationFunction(simulation, new MaximumAltitudeParameter(),
+				new MaximizationGoal(), new IdentitySimulationDomain(), modifier).getCacheKey();
+		assertTrue(key.matches("[0-9a-f]{64}"));
+		assertEquals(key, new RocketOptimizationFunction(simulation, new MaximumAltitudeParameter(),
+				new MaximizationGoal(), new IdentitySimulationDomain(), modifier).getCacheKey());
+
+		// The goal, the modifier range, the rocket and the simulation options affect the values
+		assertNotEquals(key, new RocketOptimizationFunction(simulation, new MaximumAltitudeParameter(),
+				new ValueSeekGoal(100), new IdentitySimulationDomain(), modifier).getCacheKey());
+		modifier.setMaxValue(0.4);
+		String rangeKey = new RocketOptimizationFunction(simulation, new MaximumAltitudeParameter(),
+				new MaximizationGoal(), new IdentitySimulationDomain(), modifier).getCacheKey();
+		assertNotEquals(key, rangeKey);
+		rocket.getChild(0).getChild(0).setName("Nose");
+		String rocketKey = new RocketOptimizationFunction(simulation, new MaximumAltitudeParameter(),
+				new MaximizationGoal(), new IdentitySimulationDomain(), modifier).getCacheKey();
+		assertNotEquals(rangeKey, rocketKey);
+		simulation.getOptions().setLaunchRodLength(2);
+		assertNotEquals(rocketKey, new RocketOptimizationFunction(simulation, new MaximumAltitudeParameter(),
+				new MaximizationGoal(), new IdentitySimulationDomain(), modifier).getCacheKey());
+	}
+
 }
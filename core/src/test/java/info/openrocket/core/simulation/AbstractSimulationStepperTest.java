@@ -0,0 +1,96 @@
+package info.openrocket.core.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.masscalc.MassCalculator;
+import info.openrocket.core.masscalc.RigidBody;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.simulation.exception.SimulationException;
+import info.openrocket.core.simulation.listeners.AbstractSimulationListener;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.TestRockets;
+
+/**
+ * Tests that the cached structure and motor mass of the simulation steppers always match
+ * a fresh mass calculation, including across ignition, burnout and stage separation.
+ */
+public class AbstractSimulationStepperTest extends BaseTestCase {
+
+	@Test
+	public void testCachedMassSingleStage() throws SimulationException {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		Simulation sim = new Simulation(rocket);
+		sim.getOptions().setISAAtmosphere(true);
+		sim.getOptions().setTimeStep(0.05);
+		sim.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+
+		MassCheckListener listener = simulate(sim);
+		assertTrue(listener.count.get() > 0);
+		assertEquals(0, listener.mismatches.get());
+	}
+
+	@Test
+	public void testCachedMassMultiStage() throws SimulationException {
+		Rocket rocket = TestRockets.makeMultiStageEventTestRocket();
+		rocket.getSelectedConfiguration().setAllStages();
+		Simulation sim = new Simulation(rocket);
+		sim.getOptions().setISAAtmosphere(true);
+		sim.getOptions().setTimeStep(0.05);
+		sim.setFlightConfigurationId(rocket.getSelectedConfiguration().getFlightConfigurationID());
+
+		MassCheckListener listener = simulate(sim);
+		assertTrue(listener.data.getBranchCount() > 1);
+		assertTrue(listener.count.get() > 0);
+		assertEquals(0, listener.mismatches.get());
+	}
+
+	private static MassCheckListener simulate(Simulation sim) throws SimulationException {
+		MassCheckListener listener = new MassCheckListener();
+		SimulationConditions conditions = sim.getOptions().toSimulationConditions();
+		conditions.setSimulation(sim);
+		conditions.getSimulationListenerList().add(listener);
+		BasicEventSimulationEngine engine = new BasicEventSimulationEngine(new RK4SimulationStepper());
+		engine.simulate(conditions);
+		listener.data = engine.getFlightData();
+		return listener;
+	}
+
+	/**
+	 * Compares every mass passed to the post-listener with the freshly calculated
+	 * structure and motor mass.  The counters are shared with the clones made by the
+	 * simulation engine.
+	 */
+	private static class MassCheckListener extends AbstractSimulationListener {
+		private FlightData data;
+		private final AtomicInteger count = new AtomicInteger();
+		private final AtomicInteger mismatches = new AtomicInteger();
+
+		@Override
+		public RigidBody postMassCalculation(SimulationStatus status, RigidBody mass) {
+			RigidBody structure = MassCalculator.calculateStructure(status.getConfiguration());
+			RigidBody motor = MassCalculator.calculateMotor(status);
+			if (!isSame(mass, structure) && !isSame(mass, motor)) {
+				mismatches.incrementAndGet();
+			}
+			count.incrementAndGet();
+			return null;
+		}
+
+		private static boolean isSame(RigidBody a, RigidBody b) {
+			return a.getMass() == b.getMass() && a.getCM().equals(b.getCM()) &&
+					a.getLongitudinalInertia() == b.getLongitudinalInertia() &&
+					a.getRotationalInertia() == b.getRotationalInertia();
+		}
+
+		@Override
+		public boolean isSystemListener() {
+			return true;
+		}
+	}
+}
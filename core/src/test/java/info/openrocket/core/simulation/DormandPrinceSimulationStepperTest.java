@@ -0,0 +1,154 @@
+package info.openrocket.core.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.simulation.exception.SimulationException;
+import info.openrocket.core.simulation.listeners.AbstractSimulationListener;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.TestRockets;
+
+/**
+ * Tests that the adaptive Dormand-Prince stepper stays close to a tightly converged
+ * solution while taking fewer steps than the RK4 stepper at its default time step.
+ */
+public class DormandPrinceSimulationStepperTest extends BaseTestCase {
+
+	@Test
+	public void testAccuracyAndStepCount() throws SimulationException {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		Simulation sim = new Simulation(rocket);
+		sim.getOptions().setISAAtmosphere(true);
+		sim.getOptions().setTimeStep(RK4SimulationStepper.RECOMMENDED_TIME_STEP);
+		sim.getOptions().getAverageWindModel().setAverage(0);
+		sim.getOptions().getAverageWindModel().setStandardDeviation(0);
+		sim.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+
+		RK4SimulationStepper rk4 = new RK4SimulationStepper();
+		FlightData standard = simulate(sim, rk4);
+
+		DormandPrinceSimulationStepper dp = new DormandPrinceSimulationStepper();
+		FlightData adaptive = simulate(sim, dp);
+
+		sim.getOptions().setRelativeTolerance(1e-7);
+		sim.getOptions().setAbsoluteTolerance(1e-5);
+		FlightData reference = simulate(sim, new DormandPrinceSimulationStepper());
+
+		// Default tolerances stay close to the converged solution
+		double apogee = reference.getMaxAltitude();
+		assertEquals(apogee, adaptive.getMaxAltitude(), 0.0005 * apogee);
+		assertEquals(reference.getMaxVelocity(), adaptive.getMaxVelocity(), 0.0005 * reference.getMaxVelocity());
+		assertEquals(reference.getTimeToApogee(), adaptive.getTimeToApogee(), 0.01);
+
+		// ... and agree with RK4 at its default time step
+		assertEquals(standard.getMaxAltitude(), adaptive.getMaxAltitude(), 0.002 * apogee);
+
+		assertTrue(dp.getAcceptedSteps() > 0);
+		assertTrue(countFlightSteps(adaptive) < countFlightSteps(standard),
+				"adaptive steps " + countFlightSteps(adaptive) + " standard steps " + countFlightSteps(standard));
+	}
+
+	@Test
+	public void testSelectedFromOptions() throws SimulationException {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		Simulation sim = new Simulation(rocket);
+		sim.getOptions().setISAAtmosphere(true);
+		sim.getOptions().getAverageWindModel().setAverage(0);
+		sim.getOptions().getAverageWindModel().setStandardDeviation(0);
+		sim.getOptions().setTimeStep(RK4SimulationStepper.RECOMMENDED_TIME_STEP);
+		sim.getOptions().setIntegrationMethod(IntegrationMethod.DORMAND_PRINCE);
+		sim.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+
+		SimulationConditions conditions = sim.getOptions().toSimulationConditions();
+		assertEquals(IntegrationMethod.DORMAND_PRINCE, conditions.getIntegrationMethod());
+		conditions.setSimulation(sim);
+
+		BasicEventSimulationEngine engine = new BasicEventSimulationEngine();
+		engine.simulate(conditions);
+		assertTrue(engine.getFlightData().getMaxAltitude() > 0);
+	}
+
+	/**
+	 * A rejected step that ends at an event less than two minimum time steps away is not
+	 * retried endlessly, and a longer rejected step is retried with a shorter step that is
+	 * not stretched to the event.
+	 */
+	@Test
+	public void testRejectedStepBeforeEvent() throws SimulationException {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		Simulation sim = new Simulation(rocket);
+		sim.getOptions().setISAAtmosphere(true);
+		sim.getOptions().setTimeStep(0.05);
+		sim.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+
+		// Capture the status during the powered flight
+		SimulationStatus[] captured = new SimulationStatus[1];
+		SimulationConditions conditions = sim.getOptions().toSimulationConditions();
+		conditions.setSimulation(sim);
+		conditions.getSimulationListenerList().add(new AbstractSimulationListener() {
+			@Override
+			public void postStep(SimulationStatus status) {
+				if (captured[0] == null && status.getSimulationTime() > 0.5) {
+					captured[0] = new SimulationStatus(status);
+				}
+			}
+		});
+		new BasicEventSimulationEngine(new RK4SimulationStepper()).simulate(conditions);
+
+		final double minTimeStep = 0.05 / 20;
+
+		// The step is truncated to the event, a shorter retry would overshoot it on the next step
+		DormandPrinceSimulationStepper dp = new DormandPrinceSimulationStepper();
+		SimulationStatus status = stepBeforeEvent(dp, captured[0], 1.1 * minTimeStep);
+		assertEquals(captured[0].getSimulationTime() + 1.1 * minTimeStep, status.getSimulationTime(), 1e-12);
+
+		// The step is truncated to the event and retried with the minimum time step
+		dp = new DormandPrinceSimulationStepper();
+		status = stepBeforeEvent(dp, captured[0], 3 * minTimeStep);
+		assertEquals(1, dp.getRejectedSteps());
+		assertEquals(captured[0].getSimulationTime() + minTimeStep, status.getSimulationTime(), 1e-12);
+	}
+
+	private static SimulationStatus stepBeforeEvent(DormandPrinceSimulationStepper dp, SimulationStatus original,
+			double eventDelay) throws SimulationException {
+		SimulationStatus status = dp.initialize(original);
+		status.setFlightDataBranch(new FlightDataBranch("test", FlightDataType.TYPE_TIME));
+		status.getEventQueue().clear();
+		// Tolerances that reject any step
+		status.getSimulationConditions().setRelativeTolerance(1e-15);
+		status.getSimulationConditions().setAbsoluteTolerance(1e-15);
+		status.addEvent(new FlightEvent(FlightEvent.Type.ALTITUDE, status.getSimulationTime() + eventDelay));
+		assertTimeoutPreemptively(Duration.ofSeconds(30), () -> dp.step(status, Double.MAX_VALUE));
+		return status;
+	}
+
+	/**
+	 * Count the data points up to apogee, which are all taken by the flight stepper.
+	 */
+	private static int countFlightSteps(FlightData data) {
+		FlightDataBranch branch = data.getBranch(0);
+		double apogee = data.getTimeToApogee();
+		int count = 0;
+		for (double t : branch.get(FlightDataType.TYPE_TIME)) {
+			if (t <= apogee) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private static FlightData simulate(Simulation sim, SimulationStepper stepper) throws SimulationException {
+		SimulationConditions conditions = sim.getOptions().toSimulationConditions();
+		conditions.setSimulation(sim);
+		BasicEventSimulationEngine engine = new BasicEventSimulationEngine(stepper);
+		engine.simulate(conditions);
+		return engine.getFlightData();
+	}
+}
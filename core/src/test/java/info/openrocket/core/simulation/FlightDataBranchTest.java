@@ -0,0 +1,130 @@
+package info.openrocket.core.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.util.BaseTestCase;
+
+/**
+ * Tests the column storage of FlightDataBranch.
+ */
+public class FlightDataBranchTest extends BaseTestCase {
+
+	@Test
+	public void testAddPointsAndValues() {
+		FlightDataBranch branch = new FlightDataBranch("test", FlightDataType.TYPE_TIME, FlightDataType.TYPE_ALTITUDE);
+		assertEquals(0, branch.getLength());
+
+		int n = 1000;
+		for (int i = 0; i < n; i++) {
+			branch.addPoint();
+			branch.setValue(FlightDataType.TYPE_TIME, i * 0.1);
+			if (i % 2 == 0) {
+				branch.setValue(FlightDataType.TYPE_ALTITUDE, i);
+			}
+		}
+
+		assertEquals(n, branch.getLength());
+		List<Double> time = branch.get(FlightDataType.TYPE_TIME);
+		List<Double> altitude = branch.get(FlightDataType.TYPE_ALTITUDE);
+		assertEquals(n, time.size());
+		assertEquals(n, altitude.size());
+		for (int i = 0; i < n; i++) {
+			assertEquals(i * 0.1, time.get(i), 0);
+			if (i % 2 == 0) {
+				assertEquals(i, altitude.get(i), 0);
+			} else {
+				assertTrue(Double.isNaN(altitude.get(i)));
+			}
+		}
+
+		assertEquals(0, branch.getMinimum(FlightDataType.TYPE_ALTITUDE), 0);
+		assertEquals(n - 2, branch.getMaximum(FlightDataType.TYPE_ALTITUDE), 0);
+		assertEquals((n - 1) * 0.1, branch.getLast(FlightDataType.TYPE_TIME), 0);
+		assertEquals(4.0, branch.getByIndex(FlightDataType.TYPE_ALTITUDE, 4), 0);
+
+		assertNull(branch.get(FlightDataType.TYPE_MACH_NUMBER));
+		assertTrue(Double.isNaN(branch.getLast(FlightDataType.TYPE_MACH_NUMBER)));
+	}
+
+	@Test
+	public void testNewTypeIsFilledWithNaN() {
+		FlightDataBranch branch = new FlightDataBranch("test", FlightDataType.TYPE_TIME);
+		for (int i = 0; i < 20; i++) {
+			branch.addPoint();
+			branch.setValue(FlightDataType.TYPE_TIME, i);
+		}
+		branch.setValue(FlightDataType.TYPE_MACH_NUMBER, 0.5);
+
+		List<Double> mach = branch.get(FlightDataType.TYPE_MACH_NUMBER);
+		assertEquals(20, mach.size());
+		for (int i = 0; i < 19; i++) {
+			assertTrue(Double.isNaN(mach.get(i)));
+		}
+		assertEquals(0.5, mach.get(19), 0);
+	}
+
+	@Test
+	public void testViewIsUnaffectedByLaterPoints() {
+		FlightDataBranch branch = new FlightDataBranch("test", FlightDataType.TYPE_TIME);
+		branch.addPoint();
+		branch.setValue(FlightDataType.TYPE_TIME, 1);
+
+		List<Double> time = branch.get(FlightDataType.TYPE_TIME);
+		branch.setValue(FlightDataType.TYPE_TIME, 2);
+		branch.addPoint();
+
+		assertEquals(1, time.size());
+		assertEquals(1, time.get(0), 0);
+		assertThrows(UnsupportedOperationException.class, () -> time.add(3.0));
+	}
+
+	@Test
+	public void testImmuteAndClone() {
+		FlightDataBranch branch = new FlightDataBranch("test", FlightDataType.TYPE_TIME);
+		for (int i = 0; i < 17; i++) {
+			branch.addPoint();
+			branch.setValue(FlightDataType.TYPE_TIME, i);
+		}
+
+		FlightDataBranch clone = branch.clone();
+		clone.addPoint();
+		clone.setValue(FlightDataType.TYPE_TIME, 100);
+		assertEquals(17, branch.getLength());
+		assertEquals(18, clone.getLength());
+		assertEquals(16, branch.getMaximum(FlightDataType.TYPE_TIME), 0);
+
+		branch.immute();
+		assertThrows(IllegalStateException.class, branch::addPoint);
+		assertEquals(17, branch.getLength());
+		double[] expected = new double[17];
+		for (int i = 0; i < 17; i++) {
+			expected[i] = i;
+		}
+		assertArrayEquals(expected, branch.getValues(FlightDataType.TYPE_TIME), 0);
+		assertEquals(17, branch.get(FlightDataType.TYPE_TIME).size());
+	}
+
+	@Test
+	public void testBranchFromParent() {
+		FlightDataBranch parent = new FlightDataBranch("parent", FlightDataType.TYPE_TIME, FlightDataType.TYPE_ALTITUDE);
+		for (int i = 0; i < 5; i++) {
+			parent.addPoint();
+			parent.setValue(FlightDataType.TYPE_TIME, i);
+			parent.setValue(FlightDataType.TYPE_ALTITUDE, 10 - i);
+		}
+
+		FlightDataBranch child = new FlightDataBranch("child", null, parent);
+		assertEquals(5, child.getLength());
+		assertEquals(parent.get(FlightDataType.TYPE_ALTITUDE), child.get(FlightDataType.TYPE_ALTITUDE));
+		assertEquals(6, child.getMinimum(FlightDataType.TYPE_ALTITUDE), 0);
+		assertEquals(10, child.getMaximum(FlightDataType.TYPE_ALTITUDE), 0);
+	}
+}
@@ -0,0 +1,125 @@
+package info.openrocket.core.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.TestRockets;
+
+public class FlightDataSimplifierTest extends BaseTestCase {
+
+	/**
+	 * All original points must be within the tolerance of the simplified data, and the
+	 * points at the extrema and events must be kept.
+	 */
+	@Test
+	public void testErrorBound() {
+		FlightDataBranch branch = new FlightDataBranch("test", FlightDataType.TYPE_TIME,
+				FlightDataType.TYPE_ALTITUDE, FlightDataType.TYPE_VELOCITY_Z, FlightDataType.TYPE_MACH_NUMBER);
+		for (int i = 0; i <= 1000; i++) {
+			double t = i * 0.01;
+			branch.addPoint();
+			branch.setValue(FlightDataType.TYPE_TIME, t);
+			branch.setValue(FlightDataType.TYPE_ALTITUDE, 100 * t - 4.9 * t * t);
+			// Abrupt change at the event
+			branch.setValue(FlightDataType.TYPE_VELOCITY_Z, (t < 3) ? 50 * t : -5);
+			if (i >= 500) {
+				branch.setValue(FlightDataType.TYPE_MACH_NUMBER, Math.sin(t));
+			}
+		}
+		branch.addEvent(new FlightEvent(FlightEvent.Type.BURNOUT, 3.0));
+		branch.setOptimumAltitude(510);
+
+		final double tolerance = 0.001;
+		FlightDataBranch simplified = FlightDataSimplifier.simplify(branch, tolerance);
+		assertTrue(simplified.getLength() < branch.getLength() / 3, "length " + simplified.getLength());
+		assertEquals(branch.getEvents(), simplified.getEvents());
+		assertEquals(510, simplified.getOptimumAltitude(), 0);
+		assertEquals(branch.getLast(FlightDataType.TYPE_TIME), simplified.getLast(FlightDataType.TYPE_TIME), 0);
+
+		int[] indices = FlightDataSimplifier.getKeptIndices(branch, tolerance);
+		assertEquals(simplified.getLength(), indices.length);
+		assertTrue(Arrays.binarySearch(indices, 299) >= 0);
+		assertTrue(Arrays.binarySearch(indices, 300) >= 0);
+		// The first value of Mach number after NaNs
+		assertTrue(Arrays.binarySearch(indices, 499) >= 0);
+		assertTrue(Arrays.binarySearch(indices, 500) >= 0);
+
+		double[] time = simplified.getValues(FlightDataType.TYPE_TIME);
+		for (FlightDataType type : branch.getTypes()) {
+			assertEquals(branch.getMinimum(type), simplified.getMinimum(type), 0, type.getName());
+			assertEquals(branch.getMaximum(type), simplified.getMaximum(type), 0, type.getName());
+
+			double range = branch.getMaximum(type) - branch.getMinimum(type);
+			double[] original = branch.getValues(type);
+			double[] values = simplified.getValues(type);
+			int k = 0;
+			for (int i = 0; i < original.length; i++) {
+				double t = branch.getValues(FlightDataType.TYPE_TIME)[i];
+				while (k < time.length - 2 && time[k + 1] <= t) {
+					k++;
+				}
+				double fraction = (t - time[k]) / (time[k + 1] - time[k]);
+				if (fraction == 0) {
+					assertEquals(original[i], values[k], 0, type.getName() + " at " + t);
+				} else {
+					double interpolated = values[k] + fraction * (values[k + 1] - values[k]);
+					assertEquals(original[i], interpolated, tolerance * range, type.getName() + " at " + t);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testZeroTolerance() {
+		FlightDataBranch branch = new FlightDataBranch("test", FlightDataType.TYPE_TIME, FlightDataType.TYPE_ALTITUDE);
+		for (int i = 0; i < 10; i++) {
+			branch.addPoint();
+			branch.setValue(FlightDataType.TYPE_TIME, i);
+			branch.setValue(FlightDataType.TYPE_ALTITUDE, 2 * i);
+		}
+		assertSame(branch, FlightDataSimplifier.simplify(branch, 0));
+		assertEquals(10, FlightDataSimplifier.getKeptIndices(branch, 0).length);
+
+		// A straight line is reduced to its end points
+		assertArrayEquals(new int[] { 0, 9 }, FlightDataSimplifier.getKeptIndices(branch, 0.01));
+		assertThrows(IllegalArgumentException.class, () -> FlightDataSimplifier.getKeptIndices(branch, -1));
+	}
+
+	/**
+	 * Simplifying a simulated flight keeps the events and extreme values of every data type.
+	 */
+	@Test
+	public void testSimulatedFlight() throws Exception {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		Simulation simulation = new Simulation(rocket);
+		simulation.getOptions().setISAAtmosphere(true);
+		simulation.getOptions().setTimeStep(0.05);
+		simulation.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+		simulation.simulate();
+
+		FlightDataBranch branch = simulation.getSimulatedData().getBranch(0);
+		FlightDataBranch simplified = FlightDataSimplifier.simplify(branch, 0.001);
+		assertTrue(simplified.getLength() < branch.getLength() / 2,
+				simplified.getLength() + " of " + branch.getLength());
+		assertEquals(branch.getEvents(), simplified.getEvents());
+		for (FlightDataType type : branch.getTypes()) {
+			// The extrema of the stored values, the simulation may overwrite values of a step
+			double[] values = branch.getValues(type);
+			double[] simplifiedValues = simplified.getValues(type);
+			assertEquals(Arrays.stream(values).min().getAsDouble(), Arrays.stream(simplifiedValues).min().getAsDouble(),
+					0, type.getName());
+			assertEquals(Arrays.stream(values).max().getAsDouble(), Arrays.stream(simplifiedValues).max().getAsDouble(),
+					0, type.getName());
+		}
+	}
+}
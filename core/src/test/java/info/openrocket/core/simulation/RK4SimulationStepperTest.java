@@ -0,0 +1,78 @@
+package info.openrocket.core.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.simulation.exception.SimulationException;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.TestRockets;
+
+/**
+ * Tests that the preallocated integration path of the RK4 stepper produces exactly
+ * the same trajectories as the standard path.
+ */
+public class RK4SimulationStepperTest extends BaseTestCase {
+
+	@Test
+	public void testPreallocatedSingleStage() throws SimulationException {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		Simulation sim = new Simulation(rocket);
+		sim.getOptions().setISAAtmosphere(true);
+		sim.getOptions().setTimeStep(0.05);
+		sim.getOptions().getAverageWindModel().setAverage(2.0);
+		sim.getOptions().getAverageWindModel().setStandardDeviation(0.5);
+		sim.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+
+		compareSteppers(sim);
+	}
+
+	@Test
+	public void testPreallocatedMultiStage() throws SimulationException {
+		Rocket rocket = TestRockets.makeMultiStageEventTestRocket();
+		rocket.getSelectedConfiguration().setAllStages();
+		Simulation sim = new Simulation(rocket);
+		sim.getOptions().setISAAtmosphere(true);
+		sim.getOptions().setTimeStep(0.05);
+		sim.getOptions().getAverageWindModel().setAverage(0.1);
+		sim.setFlightConfigurationId(rocket.getSelectedConfiguration().getFlightConfigurationID());
+
+		compareSteppers(sim);
+	}
+
+	private static void compareSteppers(Simulation sim) throws SimulationException {
+		FlightData standard = simulate(sim, new RK4SimulationStepper(false));
+		FlightData preallocated = simulate(sim, new RK4SimulationStepper(true));
+
+		assertEquals(standard.getBranchCount(), preallocated.getBranchCount());
+		for (int b = 0; b < standard.getBranchCount(); b++) {
+			FlightDataBranch expected = standard.getBranch(b);
+			FlightDataBranch actual = preallocated.getBranch(b);
+			assertEquals(expected.getLength(), actual.getLength(), "Branch " + b + " length");
+
+			for (FlightDataType type : expected.getTypes()) {
+				if (type == FlightDataType.TYPE_COMPUTATION_TIME) {
+					continue;
+				}
+				List<Double> e = expected.get(type);
+				List<Double> a = actual.get(type);
+				for (int i = 0; i < e.size(); i++) {
+					assertEquals(Double.doubleToLongBits(e.get(i)), Double.doubleToLongBits(a.get(i)),
+							"Branch " + b + " type " + type + " index " + i);
+				}
+			}
+		}
+	}
+
+	private static FlightData simulate(Simulation sim, RK4SimulationStepper stepper) throws SimulationException {
+		SimulationConditions conditions = sim.getOptions().toSimulationConditions();
+		conditions.setSimulation(sim);
+		BasicEventSimulationEngine engine = new BasicEventSimulationEngine(stepper);
+		engine.simulate(conditions);
+		return engine.getFlightData();
+	}
+}
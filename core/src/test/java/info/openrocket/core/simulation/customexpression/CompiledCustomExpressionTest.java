@@ -0,0 +1,147 @@
+package info.openrocket.core.simulation.customexpression;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import de.congrace.exp4j.CompiledExpression;
+import de.congrace.exp4j.ExpressionBuilder;
+import de.congrace.exp4j.PostfixExpression;
+import de.congrace.exp4j.Variable;
+import info.openrocket.core.document.OpenRocketDocument;
+import info.openrocket.core.document.OpenRocketDocumentFactory;
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.rocketcomponent.FlightConfigurationId;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.simulation.FlightDataBranch;
+import info.openrocket.core.simulation.FlightDataType;
+import info.openrocket.core.simulation.SimulationStatus;
+import info.openrocket.core.simulation.exception.SimulationException;
+import info.openrocket.core.simulation.listeners.AbstractSimulationListener;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.TestRockets;
+
+public class CompiledCustomExpressionTest extends BaseTestCase {
+
+	/**
+	 * The compiled program must give exactly the same results as the postfix expression.
+	 */
+	@Test
+	public void testCompiledProgram() throws Exception {
+		String[] expressions = { "3", "x", "2*x^2 - y/3 % 2", "-x + y*-2", "sin(x) * -cos(y) + log10(abs(x))",
+				"sqrt(x*x + y*y) / (1 + exp(-y))", "floor(x) - ceil(y) + round(x*y)" };
+		double[][] points = { { 0, 0 }, { 1.5, -2.25 }, { -3.7, 0.1 }, { Double.NaN, 4 } };
+
+		for (String expression : expressions) {
+			PostfixExpression postfix = (PostfixExpression) new ExpressionBuilder(expression)
+					.withVariable(new Variable("x")).withVariable(new Variable("y")).build();
+			CompiledExpression compiled = postfix.compile();
+			assertNotNull(compiled, expression);
+			List<String> names = List.of(compiled.getVariableNames());
+			assertEquals(postfix.getUsedVariableNames(), new LinkedHashSet<>(names));
+
+			for (double[] point : points) {
+				postfix.setVariable(new Variable("x", point[0]));
+				postfix.setVariable(new Variable("y", point[1]));
+				double[] values = new double[names.size()];
+				for (int i = 0; i < values.length; i++) {
+					values[i] = point[names.get(i).equals("x") ? 0 : 1];
+				}
+				assertEquals(postfix.calculate().getDoubleValue(), compiled.calculate(values), 0, expression);
+			}
+		}
+	}
+
+	/**
+	 * Expressions with custom functions are not compiled.
+	 */
+	@Test
+	public void testCustomFunction() throws Exception {
+		PostfixExpression postfix = (PostfixExpression) new ExpressionBuilder("2 * mean(x)")
+				.withVariable(new Variable("x"))
+				.withCustomFunctions(Functions.getInstance().getAllFunction())
+				.build();
+		assertNull(postfix.compile());
+	}
+
+	@Test
+	public void testSingleStage() throws SimulationException {
+		testSimulation(TestRockets.makeEstesAlphaIII(), TestRockets.TEST_FCID_0);
+	}
+
+	@Test
+	public void testMultiStage() throws SimulationException {
+		Rocket rocket = TestRockets.makeMultiStageEventTestRocket();
+		rocket.getSelectedConfiguration().setAllStages();
+		Simulation sim = testSimulation(rocket, rocket.getSelectedConfiguration().getFlightConfigurationID());
+		assertTrue(sim.getSimulatedData().getBranchCount() > 1);
+	}
+
+	/**
+	 * The compiled expressions must give exactly the same values as the evaluated expressions
+	 * on every step of a simulation.
+	 */
+	private static Simulation testSimulation(Rocket rocket, FlightConfigurationId id) throws SimulationException {
+		OpenRocketDocument doc = OpenRocketDocumentFactory.createDocumentFromRocket(rocket);
+		CustomExpression energy = new CustomExpression(doc, "Kinetic energy", "Ek", "J", ".5*m*Vt^2");
+		doc.addCustomExpression(energy);
+		doc.addCustomExpression(new CustomExpression(doc, "Delayed altitude", "hd", "m", "h[t-0.1]"));
+		doc.addCustomExpression(new CustomExpression(doc, "Average mass", "mavg", "kg", "mean(m[0:t])"));
+		doc.addCustomExpression(new CustomExpression(doc, "Mixed", "mix", "", "-h % 7 + sqrt(abs(Vz)) / (1 + Ek)"));
+		List<CustomExpression> expressions = doc.getCustomExpressions();
+		assertEquals(4, expressions.size());
+
+		Simulation sim = new Simulation(doc, rocket);
+		sim.getOptions().setISAAtmosphere(true);
+		sim.getOptions().setTimeStep(0.05);
+		sim.setFlightConfigurationId(id);
+
+		CompareListener compare = new CompareListener(expressions);
+		sim.simulate(new CustomExpressionSimulationListener(expressions), compare);
+
+		assertTrue(compare.steps.get() > 0);
+		assertFalse(Double.isNaN(sim.getSimulatedData().getBranch(0).getMaximum(energy.getType())));
+		return sim;
+	}
+
+	private static class CompareListener extends AbstractSimulationListener {
+		private final List<CustomExpression> expressions;
+		private CompiledCustomExpression[] compiled;
+		private final AtomicInteger steps = new AtomicInteger();
+
+		CompareListener(List<CustomExpression> expressions) {
+			this.expressions = expressions;
+		}
+
+		@Override
+		public void startSimulation(SimulationStatus status) {
+			compiled = new CompiledCustomExpression[expressions.size()];
+			for (int i = 0; i < compiled.length; i++) {
+				compiled[i] = expressions.get(i).compile();
+			}
+		}
+
+		@Override
+		public void postStep(SimulationStatus status) {
+			FlightDataBranch branch = status.getFlightDataBranch();
+			for (int i = 0; i < compiled.length; i++) {
+				CustomExpression expression = expressions.get(i);
+				double expected = expression.evaluateDouble(status);
+				double actual = compiled[i].evaluate(status);
+				if (Double.isInfinite(actual)) {
+					actual = Double.NaN;
+				}
+				assertEquals(expected, actual, 0, expression + " at t=" + branch.getLast(FlightDataType.TYPE_TIME));
+			}
+			steps.incrementAndGet();
+		}
+	}
+}
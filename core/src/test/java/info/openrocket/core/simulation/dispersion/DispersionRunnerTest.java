@@ -0,0 +1,111 @@
+package info.openrocket.core.simulation.dispersion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.simulation.BasicEventSimulationEngine;
+import info.openrocket.core.simulation.RK4SimulationStepper;
+import info.openrocket.core.simulation.SimulationConditions;
+import info.openrocket.core.simulation.exception.SimulationException;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.TestRockets;
+
+public class DispersionRunnerTest extends BaseTestCase {
+
+	@Test
+	public void testReproducibleAcrossThreadCounts() throws SimulationException {
+		Simulation sim = createSimulation();
+		DispersionSettings settings = new DispersionSettings();
+		settings.setWindSpeed(Distribution.uniform(0, 3));
+		settings.setWindDirection(Distribution.uniform(0, 2 * Math.PI));
+		settings.setThrustScale(Distribution.normal(1, 0.05));
+		settings.setMassScale(Distribution.normal(1, 0.02));
+
+		List<DispersionSample> single = new ArrayList<>();
+		DispersionRunner runner = new DispersionRunner(sim, settings);
+		runner.setSeed(42);
+		runner.setThreadCount(1);
+		DispersionResult singleResult = runner.run(8, single::add);
+
+		List<DispersionSample> parallel = new ArrayList<>();
+		runner.setThreadCount(4);
+		DispersionResult parallelResult = runner.run(8, parallel::add);
+
+		assertEquals(8, singleResult.getSampleCount());
+		assertEquals(0, singleResult.getFailureCount());
+		assertEquals(single, parallel);
+		for (int i = 0; i < single.size(); i++) {
+			assertEquals(i, parallel.get(i).index());
+		}
+		assertEquals(singleResult.getApogee().getMean(), parallelResult.getApogee().getMean(), 0);
+		assertEquals(singleResult.getLandingDistance().getStandardDeviation(),
+				parallelResult.getLandingDistance().getStandardDeviation(), 0);
+		assertTrue(singleResult.getApogee().getStandardDeviation() > 0);
+	}
+
+	@Test
+	public void testNominalMatchesSingleSimulation() throws SimulationException {
+		Simulation sim = createSimulation();
+		SimulationConditions conditions = sim.getOptions().toSimulationConditions();
+		conditions.setSimulation(sim);
+		BasicEventSimulationEngine engine = new BasicEventSimulationEngine();
+		engine.simulate(conditions);
+		double apogee = engine.getFlightData().getMaxAltitude();
+
+		DispersionRunner runner = new DispersionRunner(sim, new DispersionSettings());
+		runner.setThreadCount(2);
+		DispersionResult result = runner.run(3);
+
+		// Each sample has its own seed for the small random perturbations of the stepper
+		assertEquals(3, result.getApogee().getCount());
+		assertEquals(apogee, result.getApogee().getMean(), 1e-4 * apogee);
+		assertEquals(0, result.getApogee().getStandardDeviation(), 1e-4 * apogee);
+	}
+
+	@Test
+	public void testThrustScaleAffectsApogee() throws SimulationException {
+		Simulation sim = createSimulation();
+
+		DispersionSettings weak = new DispersionSettings();
+		weak.setThrustScale(Distribution.constant(0.8));
+		DispersionSettings strong = new DispersionSettings();
+		strong.setThrustScale(Distribution.constant(1.2));
+
+		double weakApogee = new DispersionRunner(sim, weak).run(1).getApogee().getMean();
+		double strongApogee = new DispersionRunner(sim, strong).run(1).getApogee().getMean();
+		assertTrue(strongApogee > weakApogee * 1.1, "weak " + weakApogee + " strong " + strongApogee);
+	}
+
+	@Test
+	public void testRunningStatistics() {
+		RunningStatistics stats = new RunningStatistics();
+		assertTrue(Double.isNaN(stats.getMean()));
+		for (double v : new double[] { 2, 4, 4, 4, 5, 5, 7, 9, Double.NaN }) {
+			stats.add(v);
+		}
+		assertEquals(8, stats.getCount());
+		assertEquals(5, stats.getMean(), 1e-12);
+		assertEquals(32.0 / 7, stats.getVariance(), 1e-12);
+		assertEquals(2, stats.getMin(), 0);
+		assertEquals(9, stats.getMax(), 0);
+	}
+
+	private static Simulation createSimulation() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		Simulation sim = new Simulation(rocket);
+		sim.getOptions().setISAAtmosphere(true);
+		sim.getOptions().setTimeStep(RK4SimulationStepper.RECOMMENDED_TIME_STEP);
+		sim.getOptions().setLaunchRodLength(1);
+		sim.getOptions().getAverageWindModel().setAverage(0);
+		sim.getOptions().getAverageWindModel().setStandardDeviation(0);
+		sim.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+		return sim;
+	}
+}
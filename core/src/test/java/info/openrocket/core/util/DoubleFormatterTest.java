@@ -0,0 +1,61 @@
+package info.openrocket.core.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class DoubleFormatterTest {
+
+	private static final double[] SPECIAL_VALUES = {
+			0, -0.0, 1e-12, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+			Double.MIN_VALUE, Double.MAX_VALUE, 0.5, 1.5, 2.5, -0.5, 0.125, 0.0005, 0.001, 0.00099999,
+			9999.9999, 10000, 9999.5, 123456789.5, 1e12, 1e15, 1e20, 0.15, 0.25, 0.35, 1.005, 2.675,
+			Math.PI, -Math.E, 1 / 3.0, 2 / 3.0
+	};
+
+	@Test
+	public void testSpecialValues() {
+		for (int dp = 0; dp <= 10; dp++) {
+			for (boolean exp : new boolean[] { false, true }) {
+				DoubleFormatter formatter = new DoubleFormatter(dp, exp);
+				for (double d : SPECIAL_VALUES) {
+					assertEquals(TextUtil.doubleToString(d, dp, exp), formatter.format(d),
+							"value " + d + " dp " + dp + " exp " + exp);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testRandomValues() {
+		Random rnd = new Random(0);
+		for (int dp = 0; dp <= 8; dp++) {
+			for (boolean exp : new boolean[] { false, true }) {
+				DoubleFormatter formatter = new DoubleFormatter(dp, exp);
+				for (int i = 0; i < 10000; i++) {
+					double d = (rnd.nextDouble() - 0.5) * Math.pow(10, rnd.nextInt(20) - 8);
+					if (i % 4 == 0) {
+						// Values close to halfway between rounded values
+						d = (Math.floor(d * Math.pow(10, dp)) + 0.5) / Math.pow(10, dp);
+					}
+					assertEquals(TextUtil.doubleToString(d, dp, exp), formatter.format(d),
+							"value " + d + " dp " + dp + " exp " + exp);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testAppend() {
+		DoubleFormatter formatter = new DoubleFormatter(3, false);
+		StringBuilder sb = new StringBuilder("x=");
+		formatter.append(sb, 1.23456).append(',');
+		formatter.append(sb, -2);
+		assertEquals("x=1.235,-2", sb.toString());
+
+		assertThrows(IllegalArgumentException.class, () -> new DoubleFormatter(-1, false));
+	}
+}
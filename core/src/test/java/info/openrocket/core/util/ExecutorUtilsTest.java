@@ -0,0 +1,45 @@
+package info.openrocket.core.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import org.junit.jupiter.api.Test;
+
+public class ExecutorUtilsTest {
+
+	@Test
+	public void testDaemonExecutor() throws Exception {
+		ExecutorService executor = ExecutorUtils.newDaemonExecutor("ExecutorUtilsTest", 2);
+		try {
+			Thread thread = executor.submit(Thread::currentThread).get();
+			assertEquals("ExecutorUtilsTest", thread.getName());
+			assertTrue(thread.isDaemon());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testGetResult() throws Exception {
+		assertEquals("value", ExecutorUtils.getResult(CompletableFuture.completedFuture("value"), "failed"));
+
+		IOException io = new IOException("io");
+		assertSame(io, assertThrows(IOException.class,
+				() -> ExecutorUtils.getResult(CompletableFuture.failedFuture(io), IOException.class, "failed")));
+
+		IllegalStateException runtime = new IllegalStateException("runtime");
+		assertSame(runtime, assertThrows(IllegalStateException.class,
+				() -> ExecutorUtils.getResult(CompletableFuture.failedFuture(runtime), "failed")));
+
+		BugException bug = assertThrows(BugException.class,
+				() -> ExecutorUtils.getResult(CompletableFuture.failedFuture(io), "failed"));
+		assertTrue(bug.getMessage().endsWith("failed"));
+		assertSame(io, bug.getCause());
+	}
+}
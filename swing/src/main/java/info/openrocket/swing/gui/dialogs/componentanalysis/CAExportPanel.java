@@ -2,6 +2,7 @@ package info.openrocket.swing.gui.dialogs.componentanalysis;
 
 import info.openrocket.core.componentanalysis.CADataBranch;
 import info.openrocket.core.componentanalysis.CADataType;
+import info.openrocket.core.componentanalysis.CAGrid;
 import info.openrocket.core.rocketcomponent.RocketComponent;
 import info.openrocket.core.startup.Application;
 import info.openrocket.core.unit.Unit;
@@ -141,7 +142,20 @@ public class CAExportPanel extends CSVExportPanel<CADataType> {
 
 	@Override
 	public boolean doExport() {
-		CADataBranch branch = this.parent.runParameterSweep();
+		// With grid axes selected, the values are computed over the grid instead of the X axis only
+		CADataBranch branch = null;
+		CAGrid grid = null;
+		if (this.parent.isGridSelected()) {
+			grid = this.parent.runGridSweep();
+			if (grid == null) {
+				return false;
+			}
+		} else {
+			branch = this.parent.runParameterSweep();
+			if (branch == null) {
+				return false;
+			}
+		}
 
 		// Check for data types with no selected components
 		List<CADataType> typesWithNoComponents = new ArrayList<>();
@@ -231,10 +245,16 @@ public class CAExportPanel extends CSVExportPanel<CADataType> {
 		}
 
 
-		SaveCSVWorker.exportCAData(file, parent.getParameters(), branch, parent.getSelectedParameter(),
-				fieldTypes.toArray(new CADataType[0]), components, fieldUnits.toArray(new Unit[0]), fieldSep,
-				decimalPlaces, isExponentialNotation, commentChar, analysisComments,
-				fieldDescriptions, SwingUtilities.getWindowAncestor(this));
+		if (grid != null) {
+			SaveCSVWorker.exportCAGrid(file, parent.getParameters(), grid, fieldTypes.toArray(new CADataType[0]),
+					components, fieldUnits.toArray(new Unit[0]), fieldSep, decimalPlaces, isExponentialNotation,
+					commentChar, analysisComments, fieldDescriptions, SwingUtilities.getWindowAncestor(this));
+		} else {
+			SaveCSVWorker.exportCAData(file, parent.getParameters(), branch, parent.getSelectedParameter(),
+					fieldTypes.toArray(new CADataType[0]), components, fieldUnits.toArray(new Unit[0]), fieldSep,
+					decimalPlaces, isExponentialNotation, commentChar, analysisComments,
+					fieldDescriptions, SwingUtilities.getWindowAncestor(this));
+		}
 
 		return true;
 	}
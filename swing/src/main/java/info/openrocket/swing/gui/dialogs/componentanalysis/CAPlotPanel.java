@@ -87,6 +87,9 @@ public class CAPlotPanel extends PlotPanel<CADataType, CADataBranch, CADataTypeG
 	@Override
 	public JDialog doPlot(Window parentWindow) {
 		CADataBranch branch = this.parent.runParameterSweep();
+		if (branch == null) {
+			return null;
+		}
 		CAPlotConfiguration config = this.getConfiguration();
 		return CAPlotDialog.create(parent.getParentWindow(), trans.get("CAPlotPanel.lbl.PlotTitle"), config,
 				Collections.singletonList(branch));
@@ -4,6 +4,7 @@ import info.openrocket.core.aerodynamics.AerodynamicCalculator;
 import info.openrocket.core.componentanalysis.CADataBranch;
 import info.openrocket.core.componentanalysis.CADataType;
 import info.openrocket.core.componentanalysis.CADomainDataType;
+import info.openrocket.core.componentanalysis.CAGrid;
 import info.openrocket.core.componentanalysis.CAParameterSweep;
 import info.openrocket.core.componentanalysis.CAParameters;
 import info.openrocket.core.document.OpenRocketDocument;
@@ -11,21 +12,27 @@ import info.openrocket.core.l10n.Translator;
 import info.openrocket.core.rocketcomponent.Rocket;
 import info.openrocket.core.rocketcomponent.RocketComponent;
 import info.openrocket.core.startup.Application;
+import info.openrocket.core.util.BugException;
 import info.openrocket.swing.gui.adaptors.DoubleModel;
 import info.openrocket.swing.gui.components.EditableSpinner;
 import info.openrocket.swing.gui.components.UnitSelector;
+import info.openrocket.swing.gui.dialogs.SwingWorkerDialog;
 import info.openrocket.swing.gui.plot.PlotPanel;
+import info.openrocket.swing.gui.util.SwingPreferences;
 import net.miginfocom.swing.MigLayout;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
 import javax.swing.JComboBox;
 import javax.swing.JDialog;
 import javax.swing.JLabel;
+import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JTabbedPane;
+import javax.swing.SwingWorker;
 import javax.swing.border.TitledBorder;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
@@ -36,6 +43,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
 
 public class ComponentAnalysisPlotExportPanel extends JPanel implements PlotPanel.PlotConfigurationListener<CAPlotConfiguration> {
 	private static final Translator trans = Application.getTranslator();
@@ -59,6 +67,8 @@ public class ComponentAnalysisPlotExportPanel extends JPanel implements PlotPane
 
 	private final CAParameters parameters;
 	private final CAParameterSweep parameterSweep;
+	private final List<GridAxis> gridAxes = new ArrayList<>();
+	private CAGrid previousGrid = null;
 
 	private final CADataType[] types;
 	private final Map<CADataType, List<RocketComponent>> componentCache;
@@ -80,6 +90,7 @@ public class ComponentAnalysisPlotExportPanel extends JPanel implements PlotPane
 
 		// ======== Top panel ========
 		addTopPanel();
+		addGridPanel();
 
 		// ======== Tabbed pane ========
 		this.tabbedPane = new JTabbedPane();
@@ -202,6 +213,14 @@ public class ComponentAnalysisPlotExportPanel extends JPanel implements PlotPane
 		this.add(topPanel, "growx, wrap");
 	}
 
+	private void addGridPanel() {
+		JPanel gridPanel = new JPanel(new MigLayout("fill"));
+		gridPanel.setBorder(BorderFactory.createTitledBorder(trans.get("CAPlotExportDialog.GridConfiguration")));
+		gridAxes.add(new GridAxis(gridPanel, CADomainDataType.AOA));
+		gridAxes.add(new GridAxis(gridPanel, CADomainDataType.ROLL_RATE));
+		this.add(gridPanel, "growx, wrap");
+	}
+
 	private void createOkButton() {
 		// OK button
 		this.okButton = new JButton(trans.get("SimulationConfigDialog.btn.plot"));
@@ -294,20 +313,104 @@ public class ComponentAnalysisPlotExportPanel extends JPanel implements PlotPane
 	}
 
 	/**
-	 * Run the parameter sweep and return the data branch.
-	 * @return the data branch containing the results of the parameter sweep
+	 * Run the parameter sweep and return the data branch.  The sweep is computed in the background,
+	 * showing a progress dialog with a cancel button if it takes long.
+	 * @return the data branch containing the results of the parameter sweep, or null if the user cancelled
 	 */
 	public CADataBranch runParameterSweep() {
-		double min = minModel.getValue();
-		double max = maxModel.getValue();
-		double delta = deltaModel.getValue();
+		final double min = minModel.getValue();
+		final double max = maxModel.getValue();
+		final double delta = deltaModel.getValue();
+		final CADomainDataType domainType = getSelectedParameter();
+		final double initialValue = getParameterValue(domainType);
 
-		CADomainDataType domainType = getSelectedParameter();
-		CADataBranch dataBranch = parameterSweep.sweep(domainType, min, max, delta, getParameterValue(domainType));
-		log.info("Parameter sweep completed. Data stored in dataBranch.");
+		CADataBranch dataBranch = runSweep(new SwingWorker<>() {
+			@Override
+			protected CADataBranch doInBackground() {
+				return parameterSweep.sweep(domainType, min, max, delta, initialValue,
+						(computed, total) -> setProgress(computed * 100 / total));
+			}
+		});
+		if (dataBranch != null) {
+			log.info("Parameter sweep completed. Data stored in dataBranch.");
+		}
 		return dataBranch;
 	}
 
+	/**
+	 * @return whether additional grid axes are selected for the export
+	 */
+	public boolean isGridSelected() {
+		for (GridAxis axis : gridAxes) {
+			if (axis.isSelected()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Compute the analysis over the grid of the X axis and the selected grid axes.  The values of
+	 * the previous grid are reused if the aerodynamics of the rocket have not changed.
+	 * @return the grid, or null if the user cancelled or the axes are invalid
+	 */
+	public CAGrid runGridSweep() {
+		final List<CADomainDataType> axes = new ArrayList<>();
+		final List<double[]> axisValues = new ArrayList<>();
+		axes.add(getSelectedParameter());
+		axisValues.add(CAParameterSweep.getSweepValues(minModel.getValue(), maxModel.getValue(),
+				deltaModel.getValue()));
+		for (GridAxis axis : gridAxes) {
+			if (!axis.isSelected()) {
+				continue;
+			}
+			if (axes.contains(axis.getType())) {
+				JOptionPane.showMessageDialog(parent, trans.get("CAPlotExportDialog.dlg.GridAxis.duplicate"),
+						trans.get("CAPlotExportDialog.dlg.sweep.title"), JOptionPane.ERROR_MESSAGE);
+				return null;
+			}
+			axes.add(axis.getType());
+			axisValues.add(axis.getValues());
+		}
+
+		final CAGrid previous = previousGrid;
+		CAGrid grid = runSweep(new SwingWorker<>() {
+			@Override
+			protected CAGrid doInBackground() {
+				return parameterSweep.sweepGrid(axes.toArray(new CADomainDataType[0]),
+						axisValues.toArray(new double[0][]), previous,
+						(computed, total) -> setProgress(computed * 100 / total));
+			}
+		});
+		if (grid != null) {
+			log.info("Grid sweep completed with " + grid.getSize() + " points");
+			previousGrid = grid;
+		}
+		return grid;
+	}
+
+	/**
+	 * Run a sweep in the background, showing a progress dialog with a cancel button if it takes long.
+	 * @return the result of the sweep, or null if the user cancelled
+	 */
+	private <T> T runSweep(SwingWorker<T, Void> worker) {
+		parameterSweep.setThreadCount(SwingPreferences.getMaxThreadCount());
+		if (!SwingWorkerDialog.runWorker(parent, trans.get("CAPlotExportDialog.dlg.sweep.title"),
+				trans.get("CAPlotExportDialog.dlg.sweep.lbl"), worker)) {
+			log.info("Parameter sweep cancelled");
+			parameterSweep.cancel();
+			return null;
+		}
+
+		try {
+			return worker.get();
+		} catch (ExecutionException e) {
+			throw new BugException("Parameter sweep failed", e.getCause());
+		} catch (InterruptedException e) {
+			throw new BugException("EDT was interrupted", e);
+		}
+	}
+
 	public Window getParentWindow() {
 		return parent;
 	}
@@ -337,4 +440,94 @@ public class ComponentAnalysisPlotExportPanel extends JPanel implements PlotPane
 		CADomainDataType type = (CADomainDataType) newConfiguration.getDomainAxisType();
 		this.parameterSelector.setSelectedItem(type);
 	}
+
+	/**
+	 * An additional axis of the exported grid, with its own parameter and range.
+	 */
+	private static class GridAxis {
+		private final JCheckBox selected;
+		private final JComboBox<CADomainDataType> selector;
+		private final EditableSpinner minSpinner;
+		private final EditableSpinner maxSpinner;
+		private final EditableSpinner deltaSpinner;
+		private final UnitSelector minUnitSelector;
+		private final UnitSelector maxUnitSelector;
+		private final UnitSelector deltaUnitSelector;
+
+		private DoubleModel minModel;
+		private DoubleModel maxModel;
+		private DoubleModel deltaModel;
+
+		GridAxis(JPanel panel, CADomainDataType type) {
+			this.selected = new JCheckBox(trans.get("CAPlotExportDialog.lbl.GridAxis"));
+			this.selected.setToolTipText(trans.get("CAPlotExportDialog.lbl.GridAxis.ttip"));
+			panel.add(selected);
+			this.selector = new JComboBox<>(CADomainDataType.ALL_DOMAIN_TYPES);
+			this.selector.setSelectedItem(type);
+			panel.add(selector, "growx");
+
+			createModels(type);
+			panel.add(new JLabel(trans.get("CAPlotExportDialog.lbl.MinValue")), "gapleft para");
+			this.minSpinner = new EditableSpinner(minModel.getSpinnerModel());
+			panel.add(minSpinner, "growx");
+			this.minUnitSelector = new UnitSelector(minModel);
+			panel.add(minUnitSelector);
+			panel.add(new JLabel(trans.get("CAPlotExportDialog.lbl.MaxValue")), "gapleft para");
+			this.maxSpinner = new EditableSpinner(maxModel.getSpinnerModel());
+			panel.add(maxSpinner, "growx");
+			this.maxUnitSelector = new UnitSelector(maxModel);
+			panel.add(maxUnitSelector);
+			panel.add(new JLabel(trans.get("CAPlotExportDialog.lbl.Delta")), "gapleft para");
+			this.deltaSpinner = new EditableSpinner(deltaModel.getSpinnerModel());
+			panel.add(deltaSpinner, "growx");
+			this.deltaUnitSelector = new UnitSelector(deltaModel);
+			panel.add(deltaUnitSelector, "wrap");
+
+			selector.addActionListener(e -> {
+				createModels(getType());
+				minSpinner.setModel(minModel.getSpinnerModel());
+				maxSpinner.setModel(maxModel.getSpinnerModel());
+				deltaSpinner.setModel(deltaModel.getSpinnerModel());
+				minUnitSelector.setModel(minModel);
+				maxUnitSelector.setModel(maxModel);
+				deltaUnitSelector.setModel(deltaModel);
+			});
+			selected.addItemListener(e -> updateEnabled());
+			updateEnabled();
+		}
+
+		/**
+		 * The models are not bound to the parameter type, so the range of the X axis is not changed.
+		 */
+		private void createModels(CADomainDataType type) {
+			this.minModel = new DoubleModel(type.getMin(), type.getUnitGroup(), type.getMin(), type.getMax());
+			this.maxModel = new DoubleModel(type.getMax(), type.getUnitGroup(), type.getMin(), type.getMax());
+			this.deltaModel = new DoubleModel(type.getDelta(), type.getUnitGroup(), type.getMinDelta());
+			this.minModel.setMaxModel(maxModel);
+			this.maxModel.setMinModel(minModel);
+		}
+
+		private void updateEnabled() {
+			boolean enabled = selected.isSelected();
+			selector.setEnabled(enabled);
+			minSpinner.setEnabled(enabled);
+			maxSpinner.setEnabled(enabled);
+			deltaSpinner.setEnabled(enabled);
+			minUnitSelector.setEnabled(enabled);
+			maxUnitSelector.setEnabled(enabled);
+			deltaUnitSelector.setEnabled(enabled);
+		}
+
+		boolean isSelected() {
+			return selected.isSelected();
+		}
+
+		CADomainDataType getType() {
+			return (CADomainDataType) selector.getSelectedItem();
+		}
+
+		double[] getValues() {
+			return CAParameterSweep.getSweepValues(minModel.getValue(), maxModel.getValue(), deltaModel.getValue());
+		}
+	}
 }
@@ -148,6 +148,7 @@ public class GeneralOptimizationDialog extends JDialog {
 	private final JSpinner optimizationGoalSpinner;
 	private final UnitSelector optimizationGoalUnitSelector;
 	private final DoubleModel optimizationSeekValue;
+	private final JCheckBox globalSearchSelected;
 	
 	private final DoubleModel minimumStability;
 	private final DoubleModel maximumStability;
@@ -162,6 +163,7 @@ public class GeneralOptimizationDialog extends JDialog {
 	private final JLabel stepCountLabel;
 	private final JLabel evaluationCountLabel;
 	private final JLabel stepSizeLabel;
+	private final JLabel algorithmLabel;
 	
 	private final RocketFigure figure;
 	private final JToggleButton startButton;
@@ -422,6 +424,33 @@ public class GeneralOptimizationDialog extends JDialog {
 		disableComponents.add(optimizationGoalUnitSelector);
 		sub.add(optimizationGoalUnitSelector, "width 20lp, wrap unrel");
 		
+		// // Global search
+		globalSearchSelected = new JCheckBox(trans.get("lbl.globalSearch"));
+		globalSearchSelected.setToolTipText(trans.get("lbl.globalSearch.ttip"));
+		globalSearchSelected.addActionListener(clearHistoryActionListener);
+		disableComponents.add(globalSearchSelected);
+		sub.add(globalSearchSelected, "spanx, wrap unrel");
+		
+		// // Store function values for later optimizations
+		final SwingPreferences preferences = (SwingPreferences) Application.getPreferences();
+		final JCheckBox storeValuesSelected = new JCheckBox(trans.get("lbl.storeValues"));
+		storeValuesSelected.setToolTipText(trans.get("lbl.storeValues.ttip"));
+		storeValuesSelected.setSelected(preferences.isStoreOptimizationValues());
+		storeValuesSelected.addActionListener(e -> preferences.setStoreOptimizationValues(storeValuesSelected.isSelected()));
+		disableComponents.add(storeValuesSelected);
+		sub.add(storeValuesSelected, "spanx, split 2, growx");
+		
+		final JButton clearValuesButton = new JButton(trans.get("btn.clearStoredValues"));
+		clearValuesButton.setToolTipText(trans.get("btn.clearStoredValues.ttip"));
+		clearValuesButton.addActionListener(e -> {
+			log.info(Markers.USER_MARKER, "Clearing stored optimization function values");
+			OptimizationWorker.clearValueStore();
+			JOptionPane.showMessageDialog(GeneralOptimizationDialog.this, trans.get("info.storedValuesCleared"),
+					trans.get("btn.clearStoredValues"), JOptionPane.INFORMATION_MESSAGE);
+		});
+		disableComponents.add(clearValuesButton);
+		sub.add(clearValuesButton, "wrap unrel");
+		
 		panel.add(sub, "grow");
 		
 		// // Required stability sub-panel
@@ -534,7 +563,16 @@ public class GeneralOptimizationDialog extends JDialog {
 		
 		stepSizeLabel = new JLabel();
 		stepSizeLabel.setToolTipText(tip);
-		sub.add(stepSizeLabel, "wrap para");
+		sub.add(stepSizeLabel, "wrap rel");
+		
+		label = new JLabel(trans.get("status.algorithm"));
+		tip = trans.get("status.algorithm.ttip");
+		label.setToolTipText(tip);
+		sub.add(label, "gapright unrel");
+		
+		algorithmLabel = new JLabel();
+		algorithmLabel.setToolTipText(tip);
+		sub.add(algorithmLabel, "wrap para");
 		
 		// // Start/Stop button
 		
@@ -726,7 +764,8 @@ public class GeneralOptimizationDialog extends JDialog {
 		}
 		
 		// Create and start the background worker
-		worker = new OptimizationWorker(simulation, parameter, goal, domain, modifiers) {
+		worker = new OptimizationWorker(globalSearchSelected.isSelected(), simulation, parameter, goal, domain,
+				modifiers) {
 			@Override
 			protected void done(OptimizationException exception) {
 				log.info("Optimization finished, exception=" + exception, exception);
@@ -810,6 +849,7 @@ public class GeneralOptimizationDialog extends JDialog {
 		worker.start();
 		
 		clearHistory();
+		algorithmLabel.setText(worker.getAlgorithmName());
 		
 		updateComponents();
 	}
@@ -843,6 +883,7 @@ public class GeneralOptimizationDialog extends JDialog {
 	 */
 	private void clearHistory() {
 		evaluationHistory.clear();
+		algorithmLabel.setText("");
 		optimizationPath.clear();
 		bestValue = Double.NaN;
 		bestValueUnit = optimizationGoalUnitSelector.getSelectedUnit();
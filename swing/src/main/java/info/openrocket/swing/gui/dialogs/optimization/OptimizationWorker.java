@@ -1,7 +1,10 @@
 package info.openrocket.swing.gui.dialogs.optimization;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 import java.util.concurrent.LinkedBlockingQueue;
 
 import javax.swing.SwingUtilities;
@@ -9,13 +12,16 @@ import javax.swing.SwingUtilities;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import info.openrocket.core.arch.SystemInfo;
 import info.openrocket.core.document.Simulation;
+import info.openrocket.core.l10n.Translator;
 import info.openrocket.core.optimization.general.FunctionOptimizer;
+import info.openrocket.core.optimization.general.FunctionValueStore;
 import info.openrocket.core.optimization.general.OptimizationController;
 import info.openrocket.core.optimization.general.OptimizationException;
 import info.openrocket.core.optimization.general.ParallelExecutorCache;
-import info.openrocket.core.optimization.general.ParallelFunctionCache;
 import info.openrocket.core.optimization.general.Point;
+import info.openrocket.core.optimization.general.multidim.DifferentialEvolutionOptimizer;
 import info.openrocket.core.optimization.general.multidim.MultidirectionalSearchOptimizer;
 import info.openrocket.core.optimization.general.onedim.GoldenSectionSearchOptimizer;
 import info.openrocket.core.optimization.rocketoptimization.OptimizableParameter;
@@ -24,8 +30,10 @@ import info.openrocket.core.optimization.rocketoptimization.RocketOptimizationFu
 import info.openrocket.core.optimization.rocketoptimization.RocketOptimizationListener;
 import info.openrocket.core.optimization.rocketoptimization.SimulationDomain;
 import info.openrocket.core.optimization.rocketoptimization.SimulationModifier;
+import info.openrocket.core.startup.Application;
 import info.openrocket.core.unit.Value;
 import info.openrocket.core.util.BugException;
+import info.openrocket.swing.gui.util.SwingPreferences;
 
 /**
  * A background worker that runs the optimization in the background.  It supports providing
@@ -48,19 +56,27 @@ public abstract class OptimizationWorker extends Thread implements OptimizationC
 	 */
 
 	private static final Logger log = LoggerFactory.getLogger(OptimizationWorker.class);
+	private static final Translator trans = Application.getTranslator();
 	
 	/** Notify listeners every this many milliseconds */
 	private static final long PURGE_TIMEOUT = 500;
 	/** End optimization when step size is below this threshold */
 	private static final double STEP_SIZE_LIMIT = 0.005;
+	/** The directory of the stored function values, in the user application directory */
+	private static final String VALUE_STORE_DIRECTORY = "OptimizationCache";
+	/** The maximum size of the stored function values in bytes */
+	private static final long VALUE_STORE_SIZE = 64L * 1024 * 1024;
+	/** The random seed of differential evolution, so that the results are reproducible */
+	private static final long EVOLUTION_SEED = 0x4f524f50;
 	
 	private final FunctionOptimizer optimizer;
+	private final String algorithmName;
 	private final RocketOptimizationFunction function;
 	
 	private final Simulation simulation;
 	private final SimulationModifier[] modifiers;
 	
-	private final ParallelFunctionCache cache;
+	private final ParallelExecutorCache cache;
 
 	private final LinkedBlockingQueue<FunctionEvaluationData> evaluationQueue = new LinkedBlockingQueue<>();
 	private final LinkedBlockingQueue<OptimizationStepData> stepQueue = new LinkedBlockingQueue<>();
@@ -70,15 +86,36 @@ public abstract class OptimizationWorker extends Thread implements OptimizationC
 	
 	
 	/**
-	 * Sole constructor
+	 * Constructor evaluating the simulations on as many threads as configured for simulations
+	 * @param globalSearch		whether to use differential evolution instead of multidirectional search
 	 * @param simulation	the simulation
 	 * @param parameter			the optimization parameter
 	 * @param goal				the optimization goal
 	 * @param domain			the optimization domain
 	 * @param modifiers			the simulation modifiers
 	 */
-	public OptimizationWorker(Simulation simulation, OptimizableParameter parameter,
+	public OptimizationWorker(boolean globalSearch, Simulation simulation, OptimizableParameter parameter,
 			OptimizationGoal goal, SimulationDomain domain, SimulationModifier... modifiers) {
+		this(SwingPreferences.getMaxThreadCount(), globalSearch, simulation, parameter, goal, domain, modifiers);
+	}
+	
+	/**
+	 * Constructor.  A single modifier is optimized with golden section search, several
+	 * modifiers with multidirectional search or, if global search is selected, with
+	 * differential evolution.  The algorithm and its results do not depend on the number
+	 * of threads.
+	 * 
+	 * @param threadCount		the number of threads evaluating simulations in parallel
+	 * @param globalSearch		whether to use differential evolution instead of multidirectional search
+	 * @param simulation	the simulation
+	 * @param parameter			the optimization parameter
+	 * @param goal				the optimization goal
+	 * @param domain			the optimization domain
+	 * @param modifiers			the simulation modifiers
+	 */
+	public OptimizationWorker(int threadCount, boolean globalSearch, Simulation simulation,
+			OptimizableParameter parameter, OptimizationGoal goal, SimulationDomain domain,
+			SimulationModifier... modifiers) {
 		
 		this.simulation = simulation;
 		this.modifiers = modifiers.clone();
@@ -86,21 +123,47 @@ public abstract class OptimizationWorker extends Thread implements OptimizationC
 		function = new RocketOptimizationFunction(simulation, parameter, goal, domain, modifiers);
 		function.addRocketOptimizationListener(this);
 		
-		cache = new ParallelExecutorCache(1);
+		// Each thread evaluates the function on its own copy of the simulation
+		cache = new ParallelExecutorCache(Math.max(1, threadCount));
 		cache.setFunction(function);
 		
 		if (modifiers.length == 1) {
-			optimizer = new GoldenSectionSearchOptimizer(cache);
+			GoldenSectionSearchOptimizer golden = new GoldenSectionSearchOptimizer(cache);
+			// Two steps ahead are six points in parallel
+			golden.setLookAhead(threadCount >= 6);
+			optimizer = golden;
+			algorithmName = trans.get("GeneralOptimizationDialog.algorithm.goldenSection");
+		} else if (globalSearch) {
+			// The whole population is evaluated at once.  The default population size and a
+			// fixed seed keep the results independent of the machine.
+			DifferentialEvolutionOptimizer evolution = new DifferentialEvolutionOptimizer(cache);
+			evolution.setRandom(new Random(EVOLUTION_SEED));
+			optimizer = evolution;
+			algorithmName = trans.get("GeneralOptimizationDialog.algorithm.evolution");
 		} else {
-			optimizer = new MultidirectionalSearchOptimizer(cache);
+			MultidirectionalSearchOptimizer search = new MultidirectionalSearchOptimizer(cache);
+			// The reflection and contraction steps are each two points per modifier
+			search.setLookAhead(threadCount >= 4 * modifiers.length);
+			optimizer = search;
+			algorithmName = trans.get("GeneralOptimizationDialog.algorithm.multidirectional");
 		}
+		log.info("Optimizing " + modifiers.length + " parameters using " + optimizer.getClass().getSimpleName());
+	}
+	
+	/**
+	 * Return the localized name of the optimization algorithm used.
+	 */
+	public String getAlgorithmName() {
+		return algorithmName;
 	}
 	
 	
 	@Override
 	public void run() {
+		FunctionValueStore valueStore = openValueStore();
 		try {
 			
+			cache.setValueStore(valueStore);
 			double[] current = new double[modifiers.length];
 			for (int i = 0; i < modifiers.length; i++) {
 				current[i] = modifiers[i].getCurrentScaledValue(simulation);
@@ -112,6 +175,11 @@ public abstract class OptimizationWorker extends Thread implements OptimizationC
 		} catch (OptimizationException e) {
 			this.optimizationException = e;
 		} finally {
+			cache.abortAll();
+			cache.getExecutor().shutdownNow();
+			if (valueStore != null) {
+				valueStore.close();
+			}
 			SwingUtilities.invokeLater(() -> {
 				lastPurge = System.currentTimeMillis() + 24L * 3600L * 1000L;
 				processQueue();
@@ -120,6 +188,43 @@ public abstract class OptimizationWorker extends Thread implements OptimizationC
 		}
 	}
 	
+	/**
+	 * Open the store of the function values computed by earlier optimizations of the same
+	 * simulation, parameter and modifiers.
+	 * 
+	 * @return	the value store, or <code>null</code> if storing values is disabled in the
+	 * 			preferences or the store could not be opened
+	 */
+	private FunctionValueStore openValueStore() {
+		if (!((SwingPreferences) Application.getPreferences()).isStoreOptimizationValues()) {
+			log.info("Storing optimization function values is disabled");
+			return null;
+		}
+		try {
+			File directory = getValueStoreDirectory();
+			FunctionValueStore store = new FunctionValueStore(directory, function.getCacheKey(), modifiers.length,
+					function.getStoredDataLength(), VALUE_STORE_SIZE);
+			log.info("Reusing " + store.size() + " function values of earlier optimizations");
+			return store;
+		} catch (IOException | RuntimeException e) {
+			log.warn("Unable to open the optimization value store, values are not stored", e);
+			return null;
+		}
+	}
+	
+	/**
+	 * Delete the function values stored by all earlier optimizations.
+	 * 
+	 * @return	the number of optimizations whose values were deleted
+	 */
+	public static int clearValueStore() {
+		return FunctionValueStore.clear(getValueStoreDirectory());
+	}
+	
+	private static File getValueStoreDirectory() {
+		return new File(SystemInfo.getUserApplicationDirectory(), VALUE_STORE_DIRECTORY);
+	}
+	
 	/**
 	 * This method is called after the optimization has ended, either normally, when interrupted
 	 * or by throwing an exception.  This method is called on the EDT, like the done() method of SwingWorker.
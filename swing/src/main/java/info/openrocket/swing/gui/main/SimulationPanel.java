@@ -818,7 +818,8 @@ public class SimulationPanel extends JPanel {
 			return tip.toString();
 		}
 
-		WarningSet warnings = data.getWarningSet();
+		// Includes a failure to load the data from the file
+		WarningSet warnings = sim.getSimulatedWarnings();
 		if (warnings.isEmpty()) {
 			tip.append("<br>").append(ColorConversion.formatHTMLColor(dimTextColor, trans.get("simpanel.ttip.noWarnings")));
 			return tip.toString();
@@ -2,6 +2,9 @@ package info.openrocket.swing.gui.main;
 
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
 
 import javax.swing.BorderFactory;
 import javax.swing.ButtonGroup;
@@ -11,9 +14,19 @@ import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JRadioButton;
 import javax.swing.JSpinner;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
 
+import info.openrocket.core.file.GeneralRocketSaver;
+import info.openrocket.core.unit.UnitGroup;
+import info.openrocket.swing.gui.SpinnerEditor;
+import info.openrocket.swing.gui.adaptors.DoubleModel;
+import info.openrocket.swing.gui.components.UnitSelector;
 import net.miginfocom.swing.MigLayout;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import info.openrocket.core.document.OpenRocketDocument;
 import info.openrocket.core.document.Simulation;
 import info.openrocket.core.document.StorageOptions;
@@ -24,8 +37,10 @@ import info.openrocket.core.startup.Application;
 
 @SuppressWarnings("serial")
 public class StorageOptionChooser extends JPanel {
+	private static final Logger log = LoggerFactory.getLogger(StorageOptionChooser.class);
 	
 	public static final double DEFAULT_SAVE_TIME_SKIP = 0.20;
+	public static final double DEFAULT_SIMULATION_DATA_TOLERANCE = 0.001;
 
 	private final OpenRocketDocument document;
 	
@@ -33,10 +48,21 @@ public class StorageOptionChooser extends JPanel {
 	private JRadioButton someButton;
 	private JRadioButton noneButton;
 	
-	private JSpinner timeSpinner;
+	private final DoubleModel toleranceModel =
+			new DoubleModel(DEFAULT_SIMULATION_DATA_TOLERANCE, UnitGroup.UNITS_RELATIVE, 0.00001, 0.1);
 
 	private JLabel infoLabel;
 	
+	/** Delay before estimating the file size after the options change, in milliseconds */
+	private static final int ESTIMATE_DELAY = 300;
+	/** Starts the file size estimate once the options stop changing */
+	private final Timer estimateTimer;
+	/** The estimate being computed, or null */
+	private SwingWorker<Long, Void> estimateWorker = null;
+	/** The estimated file sizes by simulation data tolerance, with -1 for no simulation data */
+	private final Map<Double, Long> estimates = new HashMap<>();
+	/** The file size without simulation data, a lower bound for the other options */
+	private long minimumSize = -1;
 	
 	private boolean artificialEvent = false;
 	private static final Translator trans = Application.getTranslator();
@@ -46,6 +72,8 @@ public class StorageOptionChooser extends JPanel {
 		
 		this.document = doc;
 		
+		estimateTimer = new Timer(ESTIMATE_DELAY, e -> startEstimate());
+		estimateTimer.setRepeats(false);
 
 		ActionListener actionUpdater = new ActionListener() {
 			@Override
@@ -70,7 +98,37 @@ public class StorageOptionChooser extends JPanel {
 		buttonGroup.add(allButton);
 		allButton.addActionListener(actionUpdater);
 		this.add(allButton, "spanx, wrap rel");
-				
+
+		//// Simplified simulated data
+		someButton = new JRadioButton(trans.get("StorageOptChooser.rdbut.Simplifiedsimdata"));
+		//// <html>Store the simulated data within the tolerance, keeping the events and extreme values.<br>
+		//// This results in much smaller files.
+		tip = trans.get("StorageOptChooser.lbl.longB1") + trans.get("StorageOptChooser.lbl.longB2");
+		someButton.setToolTipText(tip);
+		buttonGroup.add(someButton);
+		someButton.addActionListener(actionUpdater);
+		this.add(someButton, "spanx, wrap rel");
+
+		//// Tolerance:
+		JLabel label = new JLabel(trans.get("StorageOptChooser.lbl.Tolerance"));
+		//// Maximum deviation of the stored data, relative to the value range of each data type.
+		tip = trans.get("StorageOptChooser.ttip.Tolerance");
+		label.setToolTipText(tip);
+		this.add(label, "gapleft para");
+		JSpinner toleranceSpinner = new JSpinner(toleranceModel.getSpinnerModel());
+		toleranceSpinner.setEditor(new SpinnerEditor(toleranceSpinner));
+		toleranceSpinner.setToolTipText(tip);
+		this.add(toleranceSpinner, "w 65lp!");
+		UnitSelector unit = new UnitSelector(toleranceModel);
+		unit.setToolTipText(tip);
+		this.add(unit, "wrap rel");
+		toleranceModel.addChangeListener(e -> {
+			if (!artificialEvent) {
+				someButton.setSelected(true);
+			}
+			updateInfoLabel();
+		});
+
 		//// Only summary data
 		noneButton = new JRadioButton(trans.get("StorageOptChooser.rdbut.Onlysummarydata"));
 		//// <html>Store only the values shown in the summary table.<br>
@@ -99,7 +157,12 @@ public class StorageOptionChooser extends JPanel {
 	public void loadOptions(StorageOptions opts) {
 		
 		// Data storage radio button
-		if (opts.getSaveSimulationData()) {
+		if (opts.getSaveSimulationData() && opts.getSimulationDataTolerance() > 0) {
+			someButton.setSelected(true);
+			artificialEvent = true;
+			toleranceModel.setValue(opts.getSimulationDataTolerance());
+			artificialEvent = false;
+		} else if (opts.getSaveSimulationData()) {
 			allButton.setSelected(true);
 		} else {
 			noneButton.setSelected(true);
@@ -110,18 +173,96 @@ public class StorageOptionChooser extends JPanel {
 	
 	
 	public void storeOptions(StorageOptions opts) {
-		opts.setSaveSimulationData(allButton.isSelected());
+		opts.setSaveSimulationData(allButton.isSelected() || someButton.isSelected());
+		opts.setSimulationDataTolerance(someButton.isSelected() ? toleranceModel.getValue() : 0);
 		opts.setExplicitlySet(true);
 	}
 
+	/**
+	 * Update the file size estimate.  Estimating the size with simulation data needs to load
+	 * and simplify the data, so it is computed in the background once the options stop
+	 * changing.  Until then the size without simulation data is shown as a lower bound.
+	 */
 	private void updateInfoLabel() {
+		String text;
 		if (allButton.isSelected()) {
-			infoLabel.setText(trans.get("StorageOptChooser.lbl.info1"));
+			text = trans.get("StorageOptChooser.lbl.info1");
 		} else if (noneButton.isSelected()) {
-			infoLabel.setText(trans.get("StorageOptChooser.lbl.info3"));
+			text = trans.get("StorageOptChooser.lbl.info3");
+		} else {
+			text = trans.get("StorageOptChooser.lbl.info2");
+		}
+
+		if (minimumSize < 0) {
+			// Without simulation data the flight data is not accessed
+			StorageOptions opts = document.getDefaultStorageOptions().clone();
+			opts.setSaveSimulationData(false);
+			minimumSize = new GeneralRocketSaver().estimateFileSize(document, opts);
+			estimates.put(-1.0, minimumSize);
+		}
+
+		Long size = estimates.get(getEstimateKey());
+		if (size != null) {
+			estimateTimer.stop();
+			infoLabel.setText(String.format(trans.get("StorageOptChooser.lbl.estimate"), text, toKilobytes(size)));
 		} else {
-			infoLabel.setText(trans.get("StorageOptChooser.lbl.info2"));
+			estimateTimer.restart();
+			infoLabel.setText(String.format(trans.get("StorageOptChooser.lbl.estimating"), text,
+					toKilobytes(minimumSize)));
+		}
+	}
+
+	/**
+	 * Estimate the file size with the current options in the background.
+	 */
+	private void startEstimate() {
+		final double key = getEstimateKey();
+		if (estimates.containsKey(key)) {
+			return;
 		}
+		if (estimateWorker != null) {
+			// The result is not used, the estimate itself cannot be interrupted
+			estimateWorker.cancel(false);
+		}
+
+		final StorageOptions opts = document.getDefaultStorageOptions().clone();
+		storeOptions(opts);
+		estimateWorker = new SwingWorker<>() {
+			@Override
+			protected Long doInBackground() {
+				return new GeneralRocketSaver().estimateFileSize(document, opts);
+			}
+
+			@Override
+			protected void done() {
+				if (isCancelled()) {
+					return;
+				}
+				estimateWorker = null;
+				try {
+					estimates.put(key, get());
+				} catch (InterruptedException | ExecutionException e) {
+					log.warn("Unable to estimate the file size", e);
+					return;
+				}
+				updateInfoLabel();
+			}
+		};
+		estimateWorker.execute();
+	}
+
+	/**
+	 * Return the key of the current options in the estimates.
+	 */
+	private double getEstimateKey() {
+		if (noneButton.isSelected()) {
+			return -1;
+		}
+		return someButton.isSelected() ? toleranceModel.getValue() : 0;
+	}
+
+	private static long toKilobytes(long size) {
+		return Math.max(1, Math.round(size / 1024.0));
 	}
 	
 	/**
@@ -157,7 +298,8 @@ public class StorageOptionChooser extends JPanel {
 					FlightDataBranch branch = data.getBranch(i);
 					if (branch == null)
 						continue;
-					if (branch.getLength() > 0) {
+					// Don't load lazily loaded values, they were stored in the file
+					if (!branch.isValuesLoaded() || branch.getLength() > 0) {
 						hasData = true;
 						break simulationLoop;
 					}
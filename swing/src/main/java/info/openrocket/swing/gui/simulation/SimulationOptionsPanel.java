@@ -4,12 +4,19 @@ import java.awt.Color;
 import java.awt.Dialog.ModalityType;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleSupplier;
 
+import javax.swing.AbstractSpinnerModel;
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
 import javax.swing.JComboBox;
 import javax.swing.JComponent;
 import javax.swing.JDialog;
@@ -26,6 +33,8 @@ import javax.swing.SwingUtilities;
 import info.openrocket.core.document.OpenRocketDocument;
 import info.openrocket.core.document.Simulation;
 import info.openrocket.core.l10n.Translator;
+import info.openrocket.core.simulation.DormandPrinceSimulationStepper;
+import info.openrocket.core.simulation.IntegrationMethod;
 import info.openrocket.core.simulation.RK4SimulationStepper;
 import info.openrocket.core.simulation.SimulationOptions;
 import info.openrocket.core.simulation.extension.SimulationExtension;
@@ -37,6 +46,7 @@ import info.openrocket.core.util.GeodeticComputationStrategy;
 
 import net.miginfocom.swing.MigLayout;
 import info.openrocket.swing.gui.SpinnerEditor;
+import info.openrocket.swing.gui.adaptors.BooleanModel;
 import info.openrocket.swing.gui.adaptors.DoubleModel;
 import info.openrocket.swing.gui.adaptors.EnumModel;
 import info.openrocket.swing.gui.components.BasicSlider;
@@ -108,6 +118,12 @@ class SimulationOptionsPanel extends JPanel {
 		label = new JLabel(trans.get("simedtdlg.lbl.ExtBarrowman"));
 		label.setToolTipText(tip);
 		subsub.add(label, "growx, span 3, wrap");
+
+		// // Tabulated aerodynamics
+		JCheckBox tabulatedCheck = new JCheckBox(new BooleanModel(conditions, "TabulatedAerodynamics"));
+		tabulatedCheck.setText(trans.get("simedtdlg.checkbox.TabulatedAero"));
+		tabulatedCheck.setToolTipText(trans.get("simedtdlg.checkbox.ttip.TabulatedAero"));
+		subsub.add(tabulatedCheck, "skip, growx, span 3, wrap");
 		
 		// Simulation method
 		tip = trans.get("simedtdlg.lbl.ttip.Simmethod1")
@@ -116,9 +132,18 @@ class SimulationOptionsPanel extends JPanel {
 		label.setToolTipText(tip);
 		subsub.add(label, "gapright para");
 		
-		label = new JLabel("6-DOF Runge-Kutta 4");
-		label.setToolTipText(tip);
-		subsub.add(label, "growx, span 3, wrap");
+		EnumModel<IntegrationMethod> methodModel = new EnumModel<>(conditions, "IntegrationMethod");
+		final JComboBox<IntegrationMethod> methodCombo = new JComboBox<>(methodModel);
+		ActionListener methodTTipListener = new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				IntegrationMethod method = (IntegrationMethod) methodCombo.getSelectedItem();
+				methodCombo.setToolTipText(method.getDescription());
+			}
+		};
+		methodCombo.addActionListener(methodTTipListener);
+		methodTTipListener.actionPerformed(null);
+		subsub.add(methodCombo, "growx, span 3, wrap");
 		
 		// // Geodetic calculation method:
 		label = new JLabel(trans.get("simedtdlg.lbl.GeodeticMethod"));
@@ -185,6 +210,49 @@ class SimulationOptionsPanel extends JPanel {
 		unit.setToolTipText(tip);
 		subsub.add(unit, "wrap");
 
+		// // Relative and absolute integration tolerances, only used by adaptive methods
+		final JComponent[] toleranceComponents = new JComponent[4];
+
+		// // Relative tolerance:
+		label = new JLabel(trans.get("simedtdlg.lbl.RelTolerance"));
+		tip = trans.get("simedtdlg.lbl.ttip.RelTolerance");
+		label.setToolTipText(tip);
+		subsub.add(label, "gapright para");
+		toleranceComponents[0] = label;
+
+		spin = new JSpinner(new ToleranceSpinnerModel(conditions,
+				conditions::getRelativeTolerance, conditions::setRelativeTolerance));
+		spin.setEditor(new SpinnerEditor(spin));
+		spin.setToolTipText(tip);
+		subsub.add(spin, "wrap");
+		toleranceComponents[1] = spin;
+
+		// // Absolute tolerance:
+		label = new JLabel(trans.get("simedtdlg.lbl.AbsTolerance"));
+		tip = trans.get("simedtdlg.lbl.ttip.AbsTolerance");
+		label.setToolTipText(tip);
+		subsub.add(label, "gapright para");
+		toleranceComponents[2] = label;
+
+		spin = new JSpinner(new ToleranceSpinnerModel(conditions,
+				conditions::getAbsoluteTolerance, conditions::setAbsoluteTolerance));
+		spin.setEditor(new SpinnerEditor(spin));
+		spin.setToolTipText(tip);
+		subsub.add(spin, "wrap");
+		toleranceComponents[3] = spin;
+
+		ActionListener toleranceEnableListener = new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				IntegrationMethod method = (IntegrationMethod) methodCombo.getSelectedItem();
+				for (JComponent component : toleranceComponents) {
+					component.setEnabled(method.isAdaptive());
+				}
+			}
+		};
+		methodCombo.addActionListener(toleranceEnableListener);
+		toleranceEnableListener.actionPerformed(null);
+
 		
 		sub.add(subsub, "spanx, wrap para");
 		
@@ -208,6 +276,9 @@ class SimulationOptionsPanel extends JPanel {
 				conditions.setGeodeticComputation(preferences.getEnum(
 						ApplicationPreferences.GEODETIC_COMPUTATION,
 						GeodeticComputationStrategy.SPHERICAL));
+				conditions.setIntegrationMethod(IntegrationMethod.RK4);
+				conditions.setRelativeTolerance(DormandPrinceSimulationStepper.RECOMMENDED_RELATIVE_TOLERANCE);
+				conditions.setAbsoluteTolerance(DormandPrinceSimulationStepper.RECOMMENDED_ABSOLUTE_TOLERANCE);
 			}
 		});
 		
@@ -245,6 +316,57 @@ class SimulationOptionsPanel extends JPanel {
 		
 	}
 
+	/**
+	 * Spinner model for an integration tolerance.  Tolerances are chosen by their order
+	 * of magnitude, so the spinner steps from one power of ten to the next.
+	 */
+	private static class ToleranceSpinnerModel extends AbstractSpinnerModel {
+		private static final DecimalFormat FORMAT = new DecimalFormat("0.##E0", DecimalFormatSymbols.getInstance(Locale.ROOT));
+
+		private final DoubleSupplier getter;
+		private final DoubleConsumer setter;
+
+		ToleranceSpinnerModel(SimulationOptions conditions, DoubleSupplier getter, DoubleConsumer setter) {
+			this.getter = getter;
+			this.setter = setter;
+			conditions.addChangeListener(e -> fireStateChanged());
+		}
+
+		@Override
+		public Object getValue() {
+			return FORMAT.format(getter.getAsDouble());
+		}
+
+		@Override
+		public void setValue(Object value) {
+			double tolerance;
+			try {
+				tolerance = (value instanceof Number) ? ((Number) value).doubleValue()
+						: Double.parseDouble(value.toString().trim());
+			} catch (NumberFormatException e) {
+				// Restore the text of the current value
+				fireStateChanged();
+				return;
+			}
+			if (tolerance > 0) {
+				setter.accept(tolerance);
+			}
+			fireStateChanged();
+		}
+
+		@Override
+		public Object getNextValue() {
+			double exponent = Math.floor(Math.log10(getter.getAsDouble()) + 1e-9);
+			return Math.pow(10, exponent + 1);
+		}
+
+		@Override
+		public Object getPreviousValue() {
+			double exponent = Math.ceil(Math.log10(getter.getAsDouble()) - 1e-9);
+			return Math.pow(10, exponent - 1);
+		}
+	}
+
 	private static void initColors() {
 		updateColors();
 		UITheme.Theme.addUIThemeChangeListener(SimulationOptionsPanel::updateColors);
@@ -15,6 +15,7 @@ import javax.swing.SwingWorker;
 import info.openrocket.core.componentanalysis.CADataBranch;
 import info.openrocket.core.componentanalysis.CADataType;
 import info.openrocket.core.componentanalysis.CADomainDataType;
+import info.openrocket.core.componentanalysis.CAGrid;
 import info.openrocket.core.componentanalysis.CAParameters;
 import info.openrocket.core.rocketcomponent.RocketComponent;
 import info.openrocket.swing.gui.dialogs.SwingWorkerDialog;
@@ -50,6 +51,7 @@ public class SaveCSVWorker extends SwingWorker<Void, Void> {
 	// CA-specific fields
 	private CAParameters caParameters;
 	private CADataBranch caDataBranch;
+	private CAGrid caGrid;
 	private CADomainDataType caDomainDataType;
 	private CADataType[] caDataFields;
 	private Map<CADataType, List<RocketComponent>> caComponents;
@@ -101,10 +103,25 @@ public class SaveCSVWorker extends SwingWorker<Void, Void> {
 		this.isCAData = true;
 	}
 
+	// Constructor for CA grid data
+	public SaveCSVWorker(File file, CAParameters parameters, CAGrid grid, CADataType[] fields,
+						 Map<CADataType, List<RocketComponent>> components, Unit[] units,
+						 String fieldSeparator, int decimalPlaces, boolean isExponentialNotation,
+						 String commentStarter, boolean analysisComments, boolean fieldDescriptions) {
+		this(file, parameters, (CADataBranch) null, null, fields, components, units, fieldSeparator, decimalPlaces,
+				isExponentialNotation, commentStarter, analysisComments, fieldDescriptions);
+		this.caGrid = grid;
+	}
+
 	@Override
 	protected Void doInBackground() throws Exception {
-		int estimate = BYTES_PER_FIELD_PER_POINT * (isCAData ? caDataFields.length : flightDataFields.length) *
-				(isCAData ? caDataBranch.getLength() : flightDataBranch.getLength());
+		int length;
+		if (caGrid != null) {
+			length = caGrid.getSize();
+		} else {
+			length = isCAData ? caDataBranch.getLength() : flightDataBranch.getLength();
+		}
+		int estimate = BYTES_PER_FIELD_PER_POINT * (isCAData ? caDataFields.length : flightDataFields.length) * length;
 		estimate = Math.max(estimate, 1000);
 
 		try (ProgressOutputStream os = new ProgressOutputStream(
@@ -115,7 +132,10 @@ public class SaveCSVWorker extends SwingWorker<Void, Void> {
 				SaveCSVWorker.this.setProgress(progress);
 			}
 		}) {
-			if (isCAData) {
+			if (caGrid != null) {
+				CSVExport.exportCSV(os, caParameters, caGrid, caDataFields, caComponents, caUnits, fieldSeparator,
+						decimalPlaces, isExponentialNotation, analysisComments, fieldDescriptions, commentStarter);
+			} else if (isCAData) {
 				CSVExport.exportCSV(os, caParameters, caDataBranch, caDomainDataType, caDataFields, caComponents, caUnits,
 						fieldSeparator, decimalPlaces, isExponentialNotation, analysisComments, fieldDescriptions, commentStarter);
 			} else {
@@ -189,7 +209,25 @@ public class SaveCSVWorker extends SwingWorker<Void, Void> {
 									   Window parent) {
 		SaveCSVWorker worker = new SaveCSVWorker(file, parameters, branch, domainDataType, fields, components, units,
 				fieldSeparator, decimalPlaces, isExponentialNotation, commentStarter, analysisComments, fieldDescriptions);
+		return runCAWorker(file, worker, parent);
+	}
+
+	/**
+	 * Exports a component analysis grid to a CSV file using a progress dialog if necessary.
+	 *
+	 * @return	<code>true</code> if the save was successful, <code>false</code> otherwise.
+	 */
+	public static boolean exportCAGrid(File file, CAParameters parameters, CAGrid grid, CADataType[] fields,
+									   Map<CADataType, List<RocketComponent>> components, Unit[] units,
+									   String fieldSeparator, int decimalPlaces, boolean isExponentialNotation,
+									   String commentStarter, boolean analysisComments, boolean fieldDescriptions,
+									   Window parent) {
+		SaveCSVWorker worker = new SaveCSVWorker(file, parameters, grid, fields, components, units,
+				fieldSeparator, decimalPlaces, isExponentialNotation, commentStarter, analysisComments, fieldDescriptions);
+		return runCAWorker(file, worker, parent);
+	}
 
+	private static boolean runCAWorker(File file, SaveCSVWorker worker, Window parent) {
 		if (!SwingWorkerDialog.runWorker(parent, "Exporting component analysis data",
 				"Writing " + file.getName() + "...", worker)) {
 			// User cancelled the save
@@ -217,4 +255,4 @@ public class SaveCSVWorker extends SwingWorker<Void, Void> {
 
 		return true;
 	}
-}
\ No newline at end of file
+}
@@ -472,6 +472,16 @@ public class SwingPreferences extends ApplicationPreferences {
 		return Runtime.getRuntime().availableProcessors();
 	}
 	
+	////  Stored optimization function values
+	
+	public boolean isStoreOptimizationValues() {
+		return PREFNODE.getBoolean("storeOptimizationValues", true);
+	}
+	
+	public void setStoreOptimizationValues(boolean b) {
+		PREFNODE.putBoolean("storeOptimizationValues", b);
+	}
+	
 	
 	
 	public Point getWindowPosition(Class<?> c) {